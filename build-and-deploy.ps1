@@ -19,10 +19,11 @@ Write-Host "Version: $VERSION"
 Write-Host "Build Directory: $BUILD_DIR"
 Write-Host ""
 
-# Build the application
+# Build the application with the AOT-generated bean definitions; the Docker image records its own
+# class data sharing archive, so the local training run is skipped
 Write-Host "Building application..."
 try {
-    & ./mvnw clean package -DskipTests
+    & ./mvnw clean package -Pstartup -DskipTests -Dexec.skip
     if ($LASTEXITCODE -ne 0) {
         Write-Error "Maven build failed with exit code $LASTEXITCODE"
         exit 1
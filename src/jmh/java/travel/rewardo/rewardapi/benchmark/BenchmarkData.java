@@ -0,0 +1,129 @@
+package travel.rewardo.rewardapi.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardBusiness;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardCalendar;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardComfortPlusPremiumEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.api.PointsDay;
+import travel.rewardo.rewardapi.scraper.vs.model.api.Seats;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardPremiumEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic fixtures shared by the benchmarks, shaped like real upstream responses.
+ */
+public final class BenchmarkData {
+
+    public static final long SEED = 42L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @return an object mapper configured like the application's
+     */
+    public static ObjectMapper objectMapper() {
+        return new ObjectMapper().findAndRegisterModules();
+    }
+
+    /**
+     * @return a synthetic airport code, "AAA", "AAB" and so on
+     */
+    public static String airportCode(int index) {
+        char[] code = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            code[i] = (char) ('A' + index % 26);
+            index /= 26;
+        }
+        return new String(code);
+    }
+
+    /**
+     * @return the days of one month as the upstream returns them
+     */
+    public static List<PointsDay> pointsDays(YearMonth month, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<PointsDay> days = new ArrayList<>();
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            int economy = 10_000 + 500 * random.nextInt(40);
+            days.add(PointsDay.builder()
+                    .dateFound(month.atDay(day))
+                    .minPrice(100.0 + random.nextInt(400))
+                    .currency("GBP")
+                    .minAwardPointsTotal(economy)
+                    .seats(Seats.builder()
+                            .awardEconomy(AwardEconomy.builder()
+                                    .cabinPointsValue(economy).isSaverAward(random.nextBoolean())
+                                    .cabinClassSeatCount(random.nextInt(10)).cabinClassSeatCountString("9+").build())
+                            .awardComfortPlusPremiumEconomy(AwardComfortPlusPremiumEconomy.builder()
+                                    .cabinPointsValue(economy * 2).isSaverAward(false)
+                                    .cabinClassSeatCount(random.nextInt(10)).cabinClassSeatCountString("9+").build())
+                            .awardBusiness(AwardBusiness.builder()
+                                    .cabinPointsValue(economy * 5).isSaverAward(false)
+                                    .cabinClassSeatCount(random.nextInt(10)).cabinClassSeatCountString("9+").build())
+                            .build())
+                    .build());
+        }
+        return days;
+    }
+
+    /**
+     * @return the JSON body of the second upstream response for one route-month
+     */
+    public static String responseBody(YearMonth month, long seed) throws JsonProcessingException {
+        AwardCalendar calendar = AwardCalendar.builder()
+                .dateFound(month.atDay(1))
+                .minPrice(199.72)
+                .currency("GBP")
+                .minAwardPointsTotal(10_500)
+                .monthFound(month.getMonth().toString())
+                .yearFound(String.valueOf(month.getYear()))
+                .totalAwardsSeatsForMonth(200)
+                .pointsDays(pointsDays(month, seed))
+                .build();
+        return new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .writeValueAsString(List.of(calendar));
+    }
+
+    /**
+     * @return one reward flight per day from {@code from}, as the scraper stores them
+     */
+    public static List<RewardFlightLatest> rewardFlights(String origin, String destination, LocalDate from, int days, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<RewardFlightLatest> flights = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            int economy = 10_000 + 500 * random.nextInt(40);
+            flights.add(RewardFlightLatest.builder()
+                    .origin(origin)
+                    .destination(destination)
+                    .departure(from.plusDays(i))
+                    .carrierCode("VS")
+                    .scrapedAt(LocalDateTime.of(2025, 6, 1, 12, 0))
+                    .awardEconomy(travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy.builder()
+                            .cabinPointsValue(economy).isSaverAward(random.nextBoolean())
+                            .cabinClassSeatCount(random.nextInt(10)).cabinClassSeatCountString("9+").build())
+                    .awardPremiumEconomy(AwardPremiumEconomy.builder()
+                            .cabinPointsValue(economy * 2).isSaverAward(false)
+                            .cabinClassSeatCount(random.nextInt(10)).cabinClassSeatCountString("9+").build())
+                    .awardBusiness(travel.rewardo.rewardapi.scraper.vs.model.data.AwardBusiness.builder()
+                            .cabinPointsValue(economy * 5).isSaverAward(false)
+                            .cabinClassSeatCount(random.nextInt(10)).cabinClassSeatCountString("9+").build())
+                    .build());
+        }
+        return flights;
+    }
+}
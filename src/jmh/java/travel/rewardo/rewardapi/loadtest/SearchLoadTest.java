@@ -0,0 +1,299 @@
+package travel.rewardo.rewardapi.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import travel.rewardo.rewardapi.RewardoApiApplication;
+import travel.rewardo.rewardapi.benchmark.BenchmarkData;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.simulator.UpstreamSimulator;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives concurrent search traffic against the application started with platform threads and then
+ * with virtual threads, and prints throughput and latency percentiles for each. Searches go to the
+ * database, as they do until the availability matrix is loaded, which is the blocking path that
+ * virtual threads are meant for. While virtual threads run, {@code jdk.VirtualThreadPinned} events are
+ * streamed and the frames that pinned a carrier thread are printed.
+ * <p>
+ * To tell what limited throughput, every run also samples the process CPU load and the threads
+ * waiting for a Hikari connection, and reports them next to the core count, the Hikari pool size and
+ * {@code server.tomcat.threads.max}. Clients only queue for Tomcat threads in platform mode and only
+ * when there are more of them than {@code threads.max}, which is why the default concurrency is twice
+ * that. A run on a single core is CPU-bound in either mode and says nothing about thread scheduling.
+ * Queries against the in-memory H2 database are CPU work that never parks a virtual thread, so with
+ * one carrier thread per core virtual mode cannot show connection waits the way platform mode does.
+ * <p>
+ * Run with the benchmark profile:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@load-test -Dloadtest.args="concurrency=400 seconds=15"
+ * </pre>
+ * Options, as {@code name=value}: {@code modes} (default "platform,virtual"), {@code concurrency} (default
+ * twice {@code server.tomcat.threads.max}),
+ * {@code warmup-seconds}, {@code seconds}, and the {@code routes} and {@code days} of seeded data.
+ */
+public final class SearchLoadTest {
+
+    private static final String ORIGIN = "AAA";
+    private static final String BASE_PATH = "/api/v1/airline/vs/reward-flights/origin/";
+
+    private SearchLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "platform,virtual").split(","));
+        Integer concurrency = options.containsKey("concurrency") ? Integer.valueOf(options.get("concurrency")) : null;
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup-seconds", "5"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "15"));
+        int routes = Integer.parseInt(options.getOrDefault("routes", "50"));
+        int days = Integer.parseInt(options.getOrDefault("days", "365"));
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : modes) {
+            results.add(run(mode, concurrency, warmupSeconds, seconds, routes, days));
+        }
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%nJava %s, %d cores, %d routes x %d days, %ds measured%n",
+                Runtime.version(), cores, routes, days, seconds);
+        System.out.printf("%-10s %8s %12s %12s %10s %12s %10s %10s %10s %8s %8s %12s%n", "mode", "clients", "threads.max", "hikari.pool",
+                "requests/s", "p50 ms", "p99 ms", "max ms", "errors", "cpu %", "db wait", "db wait max");
+        results.forEach(result -> System.out.println(result.row()));
+        if (cores == 1) {
+            System.out.println("Single core: both modes are CPU-bound, compare them on more cores.");
+        }
+        results.stream().filter(result -> result.clients() <= result.tomcatThreads()).findAny().ifPresent(result ->
+                System.out.printf("%d clients do not exceed threads.max of %d, so no request queued for a Tomcat thread.%n",
+                        result.clients(), result.tomcatThreads()));
+    }
+
+    private static Result run(String mode, Integer requestedConcurrency, int warmupSeconds, int seconds, int routes, int days) throws Exception {
+        boolean virtual = mode.equals("virtual");
+        try (UpstreamSimulator simulator = new UpstreamSimulator(UpstreamSimulator.Settings.builder()
+                .origins(1)
+                .destinationsPerOrigin(routes)
+                .build());
+             ConfigurableApplicationContext context = new SpringApplicationBuilder(RewardoApiApplication.class)
+                     .run(
+                             "--server.port=0",
+                             "--spring.threads.virtual.enabled=" + virtual,
+                             "--spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";DB_CLOSE_DELAY=-1",
+                             "--spring.jpa.show-sql=false",
+                             "--spring.h2.console.enabled=false",
+                             "--availability.matrix.enabled=false",
+                             "--routes.api-url=" + simulator.routesUrl(),
+                             "--scraper.vs.api-url=" + simulator.apiUrl(),
+                             "--logging.level.root=WARN")) {
+            LocalDate from = LocalDate.now();
+            RewardFlightLatestRepository repository = context.getBean(RewardFlightLatestRepository.class);
+            for (int route = 1; route <= routes; route++) {
+                repository.saveAll(BenchmarkData.rewardFlights(ORIGIN, BenchmarkData.airportCode(route), from, days, BenchmarkData.SEED + route));
+            }
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + BASE_PATH;
+            int tomcatThreads = context.getEnvironment().getProperty("server.tomcat.threads.max", Integer.class, 200);
+            int concurrency = requestedConcurrency != null ? requestedConcurrency : 2 * tomcatThreads;
+            HikariDataSource dataSource = context.getBean(HikariDataSource.class);
+
+            Map<String, AtomicLong> pinnedFrames = new ConcurrentHashMap<>();
+            try (RecordingStream pinning = new RecordingStream()) {
+                if (virtual) {
+                    pinning.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+                    pinning.onEvent("jdk.VirtualThreadPinned", event -> pinnedFrames
+                            .computeIfAbsent(topApplicationFrame(event.getStackTrace().getFrames()), k -> new AtomicLong())
+                            .incrementAndGet());
+                    pinning.startAsync();
+                }
+                drive(baseUrl, from, days, routes, concurrency, warmupSeconds);
+                long[] latencies;
+                try (LoadSampler sampler = new LoadSampler(dataSource.getHikariPoolMXBean())) {
+                    latencies = drive(baseUrl, from, days, routes, concurrency, seconds);
+                    if (!pinnedFrames.isEmpty()) {
+                        System.out.printf("Pinned carrier threads (%s):%n", mode);
+                        pinnedFrames.forEach((frame, count) -> System.out.printf("  %6d  %s%n", count.get(), frame));
+                    }
+                    return new Result(String.format("%-10s %8d %12d %12d %s %8.0f %8.1f %12d", mode, concurrency, tomcatThreads,
+                            dataSource.getMaximumPoolSize(), summary(latencies, seconds), sampler.meanCpuPercent(),
+                            sampler.meanAwaitingConnection(), sampler.maxAwaitingConnection()), concurrency, tomcatThreads);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends requests from {@code concurrency} clients for {@code seconds}.
+     *
+     * @return the latency of every request in nanoseconds, negated for failures
+     */
+    private static long[] drive(String baseUrl, LocalDate from, int days, int routes, int concurrency, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<long[]>> clients = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                long seed = i;
+                clients.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path(random, from, days, routes)))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        long latency;
+                        try {
+                            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                            latency = System.nanoTime() - start;
+                            if (response.statusCode() != 200) {
+                                latency = -latency;
+                            }
+                        } catch (Exception e) {
+                            latency = -(System.nanoTime() - start);
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = latency;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        List<long[]> all = new ArrayList<>(concurrency);
+        for (Future<long[]> future : clients) {
+            all.add(future.get());
+        }
+        return all.stream().flatMapToLong(Arrays::stream).toArray();
+    }
+
+    /**
+     * @return a range, cheapest-day or calendar search of a random route and window
+     */
+    private static String path(SplittableRandom random, LocalDate from, int days, int routes) {
+        String destination = BenchmarkData.airportCode(1 + random.nextInt(routes));
+        LocalDate start = from.plusDays(random.nextInt(Math.max(1, days - 30)));
+        LocalDate end = start.plusDays(29);
+        return switch (random.nextInt(3)) {
+            case 0 -> ORIGIN + "/destination/" + destination + "/from/" + start + "/to/" + end + "?page-number=0&page-size=50";
+            case 1 -> ORIGIN + "/destination/" + destination + "/cabin/ECONOMY/cheapest?page-size=10";
+            default -> ORIGIN + "/destination/" + destination + "/from/" + start + "/to/" + end + "/calendar";
+        };
+    }
+
+    private static String summary(long[] latencies, int seconds) {
+        long errors = Arrays.stream(latencies).filter(latency -> latency < 0).count();
+        long[] sorted = Arrays.stream(latencies).map(Math::abs).sorted().toArray();
+        if (sorted.length == 0) {
+            return String.format("%10s %12s %10s %10s %10s", "-", "-", "-", "-", "-");
+        }
+        return String.format("%10.0f %12.1f %10.1f %10.1f %10d",
+                (double) sorted.length / seconds,
+                percentile(sorted, 0.50) / 1e6,
+                percentile(sorted, 0.99) / 1e6,
+                sorted[sorted.length - 1] / 1e6,
+                errors);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private static String topApplicationFrame(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frames.get(0).getMethod().getType().getName() + "." + frames.get(0).getMethod().getName();
+    }
+
+    /**
+     * One row of the report, with what is needed to judge whether clients could queue for Tomcat threads.
+     */
+    private record Result(String row, int clients, int tomcatThreads) {
+    }
+
+    /**
+     * Samples the process CPU load and the threads waiting for a database connection every 100 ms.
+     */
+    private static final class LoadSampler implements AutoCloseable {
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        private final com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        private final HikariPoolMXBean pool;
+        private double cpuLoad;
+        private long awaiting;
+        private int maxAwaiting;
+        private int samples;
+
+        private LoadSampler(HikariPoolMXBean pool) {
+            this.pool = pool;
+            os.getProcessCpuLoad();
+            executor.scheduleAtFixedRate(this::sample, 100, 100, TimeUnit.MILLISECONDS);
+        }
+
+        private synchronized void sample() {
+            double load = os.getProcessCpuLoad();
+            int waiting = pool != null ? pool.getThreadsAwaitingConnection() : 0;
+            cpuLoad += Math.max(load, 0.0);
+            awaiting += waiting;
+            maxAwaiting = Math.max(maxAwaiting, waiting);
+            samples++;
+        }
+
+        synchronized double meanCpuPercent() {
+            return samples > 0 ? 100.0 * cpuLoad / samples : 0.0;
+        }
+
+        synchronized double meanAwaitingConnection() {
+            return samples > 0 ? (double) awaiting / samples : 0.0;
+        }
+
+        synchronized int maxAwaitingConnection() {
+            return maxAwaiting;
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,162 @@
+package travel.rewardo.rewardapi.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the time from launching the packaged application to its first successful search, once
+ * per startup mode and a number of runs each:
+ * <ul>
+ *   <li>{@code fat-jar}: {@code java -jar} on the Spring Boot jar, as the Docker image used to</li>
+ *   <li>{@code extracted}: the same jar extracted to {@code target/startup}</li>
+ *   <li>{@code aot}: plus the AOT-generated bean definitions</li>
+ *   <li>{@code aot-cds}: plus the class data sharing archive of the training run</li>
+ *   <li>{@code aot-cds-lazy}: plus lazy initialization of the beans nothing needs at startup</li>
+ * </ul>
+ * The first argument is the build directory holding the output of {@code mvn -Pstartup package}.
+ * Options, as {@code name=value}: {@code runs} (default 5) and {@code modes}. Every run uses the JVM
+ * running the benchmark, which must be the one that recorded the archive. Upstream URLs point at a
+ * closed port so no run waits on the network.
+ */
+public final class StartupBenchmark {
+
+    private static final String SEARCH_PATH = "/api/v1/airline/vs/reward-flights/origin/LHR/destination/JFK/from/2025-10-01/to/2025-10-31?page-number=0&page-size=10";
+    private static final String UNREACHABLE = "http://127.0.0.1:9/";
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path target = Path.of(args[0]);
+        Map<String, String> options = options(Arrays.copyOfRange(args, 1, args.length));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "fat-jar,extracted,aot,aot-cds,aot-cds-lazy").split(","));
+
+        Path fatJar = fatJar(target);
+        Path extractedJar = target.resolve("startup").resolve(fatJar.getFileName());
+        Path archive = target.resolve("startup").resolve("application.jsa");
+        Path logs = Files.createDirectories(target.resolve("startup-benchmark"));
+
+        List<String> results = new ArrayList<>();
+        for (String mode : modes) {
+            List<String> command = command(mode, fatJar, extractedJar, archive);
+            long[] millis = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                millis[run] = timeToFirstRequest(command, logs.resolve(mode + "-" + run + ".log").toFile());
+                System.out.printf("%-14s run %d: %d ms%n", mode, run + 1, millis[run]);
+            }
+            Arrays.sort(millis);
+            results.add(String.format("%-14s %10d %10d %10d", mode, millis[runs / 2], millis[0], millis[runs - 1]));
+        }
+        System.out.printf("%nJava %s, %d cores, %d runs per mode, time to first search%n",
+                Runtime.version(), Runtime.getRuntime().availableProcessors(), runs);
+        System.out.printf("%-14s %10s %10s %10s%n", "mode", "median ms", "min ms", "max ms");
+        results.forEach(System.out::println);
+    }
+
+    private static List<String> command(String mode, Path fatJar, Path extractedJar, Path archive) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        if (mode.startsWith("aot-cds")) {
+            requireFile(archive);
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        if (mode.startsWith("aot")) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add((mode.equals("fat-jar") ? fatJar : requireFile(extractedJar)).toString());
+        if (mode.endsWith("-lazy")) {
+            command.add("--spring.main.lazy-initialization=true");
+        }
+        command.add("--routes.api-url=" + UNREACHABLE);
+        command.add("--scraper.vs.api-url=" + UNREACHABLE);
+        command.add("--logging.level.root=WARN");
+        return command;
+    }
+
+    /**
+     * @return the milliseconds from launching the command until a search answered 200
+     */
+    private static long timeToFirstRequest(List<String> command, File log) throws Exception {
+        int port = freePort();
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest search = HttpRequest.newBuilder(URI.create("http://localhost:" + port + SEARCH_PATH))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(withPort).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    if (client.send(search, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No successful search within " + TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static Path fatJar(Path target) throws IOException {
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + target + ", run mvn -Pstartup package first"));
+        }
+    }
+
+    private static Path requireFile(Path file) {
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalStateException(file + " is missing, run mvn -Pstartup package first");
+        }
+        return file;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
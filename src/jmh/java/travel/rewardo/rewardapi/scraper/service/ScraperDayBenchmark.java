@@ -0,0 +1,94 @@
+package travel.rewardo.rewardapi.scraper.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import travel.rewardo.rewardapi.benchmark.BenchmarkData;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.carrier.AwardFingerprints;
+import travel.rewardo.rewardapi.scraper.vs.model.api.PointsDay;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.service.VirginAtlanticCarrier;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-day work of the scraper once a response is bound: building the entity and comparing it with
+ * the stored one, the fingerprint check that short-circuits both, and the conversion to the stream
+ * model published for every change. Scores are per day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScraperDayBenchmark {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 10);
+    private static final int DAYS = 31;
+    private static final String ORIGIN = "LHR";
+    private static final String DESTINATION = "JFK";
+
+    private VirginAtlanticCarrier carrier;
+    private RewardSeatScraperService scraper;
+    private List<PointsDay> pointsDays;
+    private RewardFlightLatest[] existing;
+    private AtomicLongArray fingerprints;
+    private long routeKey;
+
+    @Setup
+    public void setUp() {
+        carrier = new VirginAtlanticCarrier(null, null, null, null, null, null, null);
+        scraper = new RewardSeatScraperService(List.of(carrier), null, null, null, null, null);
+        pointsDays = BenchmarkData.pointsDays(MONTH, BenchmarkData.SEED);
+        routeKey = RouteKey.of(ORIGIN, DESTINATION);
+        // Half of the stored days differ from the response
+        List<PointsDay> stored = BenchmarkData.pointsDays(MONTH, BenchmarkData.SEED + 1);
+        existing = new RewardFlightLatest[DAYS];
+        fingerprints = new AtomicLongArray(AwardFingerprints.DAY_CAPACITY);
+        for (int i = 0; i < DAYS; i++) {
+            PointsDay day = i % 2 == 0 ? pointsDays.get(i) : stored.get(i);
+            existing[i] = carrier.toFlight(day, ORIGIN, DESTINATION);
+            AwardFingerprints.record(fingerprints, day.getDateFound().toEpochDay(), VirginAtlanticCarrier.fingerprintOf(day));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAYS)
+    public void createAndDetectChanges(Blackhole blackhole) {
+        for (int i = 0; i < DAYS; i++) {
+            RewardFlightLatest newEntry = carrier.toFlight(pointsDays.get(i), ORIGIN, DESTINATION);
+            blackhole.consume(scraper.detectChanges(existing[i], newEntry));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAYS)
+    public void fingerprintMatch(Blackhole blackhole) {
+        for (int i = 0; i < DAYS; i++) {
+            PointsDay day = pointsDays.get(i);
+            blackhole.consume(AwardFingerprints.matches(fingerprints, day.getDateFound().toEpochDay(), VirginAtlanticCarrier.fingerprintOf(day)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAYS)
+    public void convertToStreamModel(Blackhole blackhole) {
+        for (int i = 0; i < DAYS; i++) {
+            blackhole.consume(scraper.convertToStreamModel(existing[i], routeKey));
+        }
+    }
+}
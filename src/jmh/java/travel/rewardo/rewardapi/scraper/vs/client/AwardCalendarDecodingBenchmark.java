@@ -0,0 +1,54 @@
+package travel.rewardo.rewardapi.scraper.vs.client;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import travel.rewardo.rewardapi.benchmark.BenchmarkData;
+import travel.rewardo.rewardapi.scraper.carrier.ResponseHashes;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardCalendar;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one route-month response into the API model, against the response hash that
+ * lets an unchanged response skip it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AwardCalendarDecodingBenchmark {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 10);
+
+    private VirginAtlanticApiClient apiClient;
+    private String responseBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        apiClient = new VirginAtlanticApiClient(null, BenchmarkData.objectMapper(), null);
+        responseBody = BenchmarkData.responseBody(MONTH, BenchmarkData.SEED);
+    }
+
+    @Benchmark
+    public List<AwardCalendar> parseRewardSeatInfo() throws IOException {
+        return apiClient.parseRewardSeatInfo(responseBody);
+    }
+
+    @Benchmark
+    public long responseHash() {
+        return ResponseHashes.of(MONTH.getYear(), MONTH.getMonthValue(), responseBody);
+    }
+}
@@ -0,0 +1,135 @@
+package travel.rewardo.rewardapi.search.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import travel.rewardo.rewardapi.availability.service.AvailabilityMatrix;
+import travel.rewardo.rewardapi.benchmark.BenchmarkData;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightAvailability;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.search.model.CabinCalendar;
+import travel.rewardo.rewardapi.search.model.RewardCalendar;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Range and cheapest-day lookups of a route, against an H2 database seeded with {@code routes}
+ * routes of {@code days} days each and against the in-memory {@link AvailabilityMatrix}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityLookupBenchmark {
+
+    private static final String ORIGIN = "LHR";
+    private static final String DESTINATION = "AAA";
+    private static final Set<CabinType> CABINS = EnumSet.of(CabinType.ECONOMY, CabinType.PREMIUM_ECONOMY, CabinType.BUSINESS);
+
+    @SpringBootApplication(scanBasePackages = "none")
+    @EntityScan("travel.rewardo.rewardapi.scraper.vs.model.data")
+    @EnableJpaRepositories("travel.rewardo.rewardapi.scraper.vs.repository")
+    static class JpaConfig {
+    }
+
+    @Param({"50"})
+    private int routes;
+
+    @Param({"365"})
+    private int days;
+
+    private ConfigurableApplicationContext context;
+    private RewardFlightLatestRepository repository;
+    private AvailabilityMatrix matrix;
+    private RewardCalendarService matrixCalendarService;
+    private RewardCalendarService databaseCalendarService;
+    private long routeKey;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpaConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                        "logging.level.root=WARN")
+                .run();
+        repository = context.getBean(RewardFlightLatestRepository.class);
+
+        from = LocalDate.now();
+        to = from.plusDays(days - 1);
+        matrix = new AvailabilityMatrix();
+        for (int route = 0; route < routes; route++) {
+            String destination = BenchmarkData.airportCode(route);
+            List<RewardFlightLatest> flights = BenchmarkData.rewardFlights(ORIGIN, destination, from, days, BenchmarkData.SEED + route);
+            repository.saveAll(flights);
+            flights.forEach(matrix::putIfAbsent);
+        }
+        matrix.markReady();
+        routeKey = RouteKey.of(ORIGIN, DESTINATION);
+        matrixCalendarService = new RewardCalendarService(repository, matrix);
+        databaseCalendarService = new RewardCalendarService(repository, new AvailabilityMatrix());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<RewardFlightAvailability> rangeQuery() {
+        return repository.findAvailability(ORIGIN, DESTINATION, "VS", from, to);
+    }
+
+    @Benchmark
+    public Optional<Page<RewardFlightLatest>> cheapestQuery() {
+        return repository.findAllOrderedByLowestCabinPointsAndOriginAndDestination(ORIGIN, DESTINATION, "ECONOMY", PageRequest.of(0, 10));
+    }
+
+    @Benchmark
+    public CabinCalendar matrixRead() {
+        return matrix.read(routeKey, from, to, CabinType.ECONOMY);
+    }
+
+    @Benchmark
+    public RewardCalendar calendarFromDatabase() {
+        return databaseCalendarService.calendar(ORIGIN, DESTINATION, from, to, CABINS);
+    }
+
+    @Benchmark
+    public RewardCalendar calendarFromMatrix() {
+        return matrixCalendarService.calendar(ORIGIN, DESTINATION, from, to, CABINS);
+    }
+}
@@ -0,0 +1,99 @@
+package travel.rewardo.rewardapi.stream.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.util.Pair;
+import travel.rewardo.rewardapi.benchmark.BenchmarkData;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.stream.model.Award;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing one price change event to an SSE connection, the way Spring MVC frames a
+ * {@code ServerSentEvent} emitted by {@link StreamingController}: the event line, then the data
+ * line with the pair serialised by Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SseSerializationBenchmark {
+
+    private static final byte[] EVENT_LINE = "event:price-change\ndata:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EVENT_END = "\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter pairWriter;
+    private Pair<travel.rewardo.rewardapi.stream.model.RewardFlightLatest, travel.rewardo.rewardapi.stream.model.RewardFlightLatest> event;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkData.objectMapper();
+        pairWriter = objectMapper.writerFor(Pair.class);
+        List<RewardFlightLatest> flights = BenchmarkData.rewardFlights("LHR", "JFK", LocalDate.of(2025, 10, 1), 2, BenchmarkData.SEED);
+        event = Pair.of(toStreamModel(flights.get(0)), toStreamModel(flights.get(1)));
+    }
+
+    @Benchmark
+    public byte[] serializeData() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] serializeDataWithCachedWriter() throws JsonProcessingException {
+        return pairWriter.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] frameEvent() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        out.write(EVENT_LINE);
+        objectMapper.writeValue(out, event);
+        out.write(EVENT_END);
+        return out.toByteArray();
+    }
+
+    private static travel.rewardo.rewardapi.stream.model.RewardFlightLatest toStreamModel(RewardFlightLatest flight) {
+        return travel.rewardo.rewardapi.stream.model.RewardFlightLatest.builder()
+                .id("6f1c1f5e-3c1a-4d5b-9a63-0c6f4e3b2a10")
+                .routeKey(RouteKey.of(flight.getOrigin(), flight.getDestination()))
+                .origin(flight.getOrigin())
+                .destination(flight.getDestination())
+                .departure(flight.getDeparture())
+                .carrierCode(flight.getCarrierCode())
+                .scrapedAt(flight.getScrapedAt())
+                .awardEconomy(Award.builder()
+                        .cabinPointsValue(flight.getAwardEconomy().getCabinPointsValue())
+                        .isSaverAward(flight.getAwardEconomy().getIsSaverAward())
+                        .cabinClassSeatCount(flight.getAwardEconomy().getCabinClassSeatCount())
+                        .cabinClassSeatCountString(flight.getAwardEconomy().getCabinClassSeatCountString())
+                        .build())
+                .awardBusiness(Award.builder()
+                        .cabinPointsValue(flight.getAwardBusiness().getCabinPointsValue())
+                        .isSaverAward(flight.getAwardBusiness().getIsSaverAward())
+                        .cabinClassSeatCount(flight.getAwardBusiness().getCabinClassSeatCount())
+                        .cabinClassSeatCountString(flight.getAwardBusiness().getCabinClassSeatCountString())
+                        .build())
+                .build();
+    }
+}
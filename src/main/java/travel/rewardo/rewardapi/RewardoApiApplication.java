@@ -2,11 +2,12 @@ package travel.rewardo.rewardapi;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
-@EnableCaching
+// R2DBC serves only the optional reactive reads, see ReactiveReadConfig; its auto-configured
+// connection factory would replace the JDBC datasource that JPA needs
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 @EnableScheduling
 public class RewardoApiApplication {
 
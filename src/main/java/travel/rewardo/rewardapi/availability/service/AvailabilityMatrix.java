@@ -0,0 +1,447 @@
+package travel.rewardo.rewardapi.availability.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+import travel.rewardo.rewardapi.search.model.CabinCalendar;
+
+import java.nio.LongBuffer;
+import java.time.LocalDate;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory store of the current award availability: route x departure day x cabin.
+ * <p>
+ * Every (day, cabin) is one fixed-width {@code long} slot in a primitive array per route,
+ * so the whole state is a few megabytes with no per-day objects. Routes are addressed by their
+ * packed {@link RouteKey} through a primitive open-addressing index. Days are kept in a ring of
+ * {@link #DAY_CAPACITY} slots indexed by epoch day; each slot also stores its epoch day so
+ * that a stale entry from a previous lap of the ring is never mistaken for current data.
+ * <p>
+ * Reads are lock-free: they take an optimistic {@link StampedLock} stamp (a seqlock), copy the
+ * slots they need and only fall back to a read lock if a writer raced with them.
+ */
+@Component
+@Slf4j
+public class AvailabilityMatrix {
+
+    /**
+     * Number of departure days held per route. Must be a power of two.
+     */
+    public static final int DAY_CAPACITY = 512;
+    /**
+     * Number of slots held per route, every cabin of every day.
+     */
+    public static final int SLOTS_PER_ROUTE = DAY_CAPACITY * CabinType.values().length;
+    /**
+     * How many days before today the matrix is still guaranteed to hold; the rest of the ring is ahead of today.
+     */
+    public static final int DAYS_BEHIND = 128;
+
+    private static final int CABINS = CabinType.values().length;
+    private static final int DAY_MASK = DAY_CAPACITY - 1;
+
+    // Slot layout, from the least significant bit
+    private static final int POINTS_BITS = 30;
+    private static final int SEATS_BITS = 12;
+    private static final int SEATS_SHIFT = POINTS_BITS;
+    private static final int SAVER_SHIFT = SEATS_SHIFT + SEATS_BITS;
+    private static final int PRESENT_SHIFT = SAVER_SHIFT + 1;
+    private static final int DAY_SHIFT = PRESENT_SHIFT + 1;
+    private static final long POINTS_MASK = (1L << POINTS_BITS) - 1;
+    private static final long SEATS_MASK = (1L << SEATS_BITS) - 1;
+    private static final long DAY_FIELD_MASK = (1L << (Long.SIZE - DAY_SHIFT)) - 1;
+    private static final long NO_DAY = -1L;
+
+    private final ReentrantLock registrationLock = new ReentrantLock();
+    /**
+     * Copy-on-write, replaced as a whole when a route is registered so readers never see it half-built.
+     */
+    private volatile RouteIndex routeIndex = new RouteIndex(16);
+    private volatile boolean ready;
+
+    /**
+     * Encodes one cabin of one day into a slot.
+     *
+     * @param epochDay the departure day
+     * @param points the points price, or null when the cabin has no award
+     * @param seats the seat count, or null when unknown
+     * @param saver whether the award is a saver award
+     * @return the encoded slot, 0 when there is no award
+     */
+    public static long encode(long epochDay, Integer points, Integer seats, Boolean saver) {
+        if (points == null) {
+            return 0L;
+        }
+        long clampedPoints = Math.min(Math.max(points, 0), POINTS_MASK);
+        long clampedSeats = seats == null ? 0 : Math.min(Math.max(seats, 0), SEATS_MASK);
+        return clampedPoints
+                | clampedSeats << SEATS_SHIFT
+                | (Boolean.TRUE.equals(saver) ? 1L : 0L) << SAVER_SHIFT
+                | 1L << PRESENT_SHIFT
+                | (epochDay & DAY_FIELD_MASK) << DAY_SHIFT;
+    }
+
+    public static boolean isPresent(long slot) {
+        return (slot >>> PRESENT_SHIFT & 1L) != 0;
+    }
+
+    public static int points(long slot) {
+        return (int) (slot & POINTS_MASK);
+    }
+
+    public static int seats(long slot) {
+        return (int) (slot >>> SEATS_SHIFT & SEATS_MASK);
+    }
+
+    public static boolean saver(long slot) {
+        return (slot >>> SAVER_SHIFT & 1L) != 0;
+    }
+
+    private static boolean isForDay(long slot, long epochDay) {
+        return isPresent(slot) && (slot >>> DAY_SHIFT) == (epochDay & DAY_FIELD_MASK);
+    }
+
+    /**
+     * Stores the current availability of a reward flight, replacing whatever was held for that day.
+     *
+     * @param flight the reward flight as saved by the scraper
+     */
+    public void put(RewardFlightLatest flight) {
+        writeDay(flight, true);
+    }
+
+    /**
+     * Stores the availability of a reward flight only if nothing is held for that day yet.
+     * Used when hydrating from the database so that fresher values written by the scraper win.
+     *
+     * @param flight the reward flight as loaded from the database
+     */
+    public void putIfAbsent(RewardFlightLatest flight) {
+        writeDay(flight, false);
+    }
+
+    private void writeDay(RewardFlightLatest flight, boolean overwrite) {
+        long epochDay = flight.getDeparture().toEpochDay();
+        long[] cabins = new long[CABINS];
+        if (flight.getAwardEconomy() != null) {
+            cabins[CabinType.ECONOMY.ordinal()] = encode(epochDay, flight.getAwardEconomy().getCabinPointsValue(),
+                    flight.getAwardEconomy().getCabinClassSeatCount(), flight.getAwardEconomy().getIsSaverAward());
+        }
+        if (flight.getAwardPremiumEconomy() != null) {
+            cabins[CabinType.PREMIUM_ECONOMY.ordinal()] = encode(epochDay, flight.getAwardPremiumEconomy().getCabinPointsValue(),
+                    flight.getAwardPremiumEconomy().getCabinClassSeatCount(), flight.getAwardPremiumEconomy().getIsSaverAward());
+        }
+        if (flight.getAwardBusiness() != null) {
+            cabins[CabinType.BUSINESS.ordinal()] = encode(epochDay, flight.getAwardBusiness().getCabinPointsValue(),
+                    flight.getAwardBusiness().getCabinClassSeatCount(), flight.getAwardBusiness().getIsSaverAward());
+        }
+        if (flight.getAwardFirst() != null) {
+            cabins[CabinType.FIRST.ordinal()] = encode(epochDay, flight.getAwardFirst().getCabinPointsValue(),
+                    flight.getAwardFirst().getCabinClassSeatCount(), flight.getAwardFirst().getIsSaverAward());
+        }
+        long routeKey = RouteKey.of(flight.getOrigin(), flight.getDestination());
+        if (routeKey != RouteKey.NONE) {
+            slab(routeKey).write(epochDay, cabins, overwrite);
+        }
+    }
+
+    /**
+     * Reads one cabin of a route for a date range into parallel arrays.
+     * Only the returned arrays are allocated.
+     *
+     * @param routeKey the packed route key, see {@link RouteKey}
+     * @param from the first departure date (inclusive), day offset 0
+     * @param to the last departure date (inclusive)
+     * @param cabin the cabin to read
+     * @return the cabin calendar; empty when the route is unknown
+     */
+    public CabinCalendar read(long routeKey, LocalDate from, LocalDate to, CabinType cabin) {
+        RouteSlab slab = routeIndex.get(routeKey);
+        if (slab == null) {
+            return emptyCalendar();
+        }
+        return slab.read(from.toEpochDay(), to.toEpochDay(), cabin.ordinal());
+    }
+
+    /**
+     * @return true when the range lies entirely inside the days the ring is guaranteed to hold
+     */
+    public boolean covers(LocalDate from, LocalDate to) {
+        long today = LocalDate.now().toEpochDay();
+        return from.toEpochDay() >= today - DAYS_BEHIND && to.toEpochDay() < today - DAYS_BEHIND + DAY_CAPACITY;
+    }
+
+    /**
+     * @return true once the matrix has been fully hydrated and can serve reads
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+        log.info("Availability matrix ready with {} routes", routeIndex.size);
+    }
+
+    /**
+     * @return the number of routes held
+     */
+    public int routeCount() {
+        return routeIndex.size;
+    }
+
+    /**
+     * @return the packed keys of every route held, in no particular order
+     */
+    public long[] routeKeys() {
+        RouteIndex index = routeIndex;
+        long[] routeKeys = new long[index.size];
+        int n = 0;
+        for (long key : index.keys) {
+            if (key != RouteKey.NONE) {
+                routeKeys[n++] = key;
+            }
+        }
+        return routeKeys;
+    }
+
+    /**
+     * Copies the raw slots of a route, e.g. to write them to a snapshot.
+     *
+     * @param routeKey the packed route key
+     * @param into an array of {@link #SLOTS_PER_ROUTE} slots
+     * @return false when the route is not held
+     */
+    public boolean copySlots(long routeKey, long[] into) {
+        RouteSlab slab = routeIndex.get(routeKey);
+        if (slab == null) {
+            return false;
+        }
+        slab.copyAll(into);
+        return true;
+    }
+
+    /**
+     * Restores the raw slots of a route, as copied by {@link #copySlots}, wherever the ring holds
+     * nothing or an older day, so values written since startup win. Slots carry their day, so slots
+     * of days that have since left the window are simply never read.
+     *
+     * @param routeKey the packed route key
+     * @param slots {@link #SLOTS_PER_ROUTE} slots, e.g. a view of a memory-mapped snapshot
+     */
+    public void restoreSlots(long routeKey, LongBuffer slots) {
+        if (routeKey != RouteKey.NONE) {
+            slab(routeKey).restore(slots);
+        }
+    }
+
+    private RouteSlab slab(long routeKey) {
+        RouteSlab slab = routeIndex.get(routeKey);
+        if (slab != null) {
+            return slab;
+        }
+        registrationLock.lock();
+        try {
+            slab = routeIndex.get(routeKey);
+            if (slab == null) {
+                slab = new RouteSlab();
+                routeIndex = routeIndex.with(routeKey, slab);
+            }
+            return slab;
+        } finally {
+            registrationLock.unlock();
+        }
+    }
+
+    private static CabinCalendar emptyCalendar() {
+        return CabinCalendar.builder()
+                .dayOffsets(new int[0])
+                .points(new int[0])
+                .seats(new int[0])
+                .saver(new boolean[0])
+                .build();
+    }
+
+    /**
+     * Immutable open-addressing hash table from packed route key to slab, with linear probing.
+     * Lookups hash a primitive and allocate nothing.
+     */
+    private static final class RouteIndex {
+        private final long[] keys;
+        private final RouteSlab[] values;
+        private final int mask;
+        private final int size;
+
+        RouteIndex(int capacity) {
+            this(new long[capacity], new RouteSlab[capacity], 0);
+        }
+
+        private RouteIndex(long[] keys, RouteSlab[] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.mask = keys.length - 1;
+            this.size = size;
+        }
+
+        RouteSlab get(long routeKey) {
+            if (routeKey == RouteKey.NONE) {
+                return null;
+            }
+            for (int i = hash(routeKey) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == routeKey) {
+                    return values[i];
+                }
+                if (keys[i] == RouteKey.NONE) {
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * @return a copy of this index with the route added, grown to keep the load factor under one half
+         */
+        RouteIndex with(long routeKey, RouteSlab slab) {
+            int capacity = (size + 1) * 2 > keys.length ? keys.length * 2 : keys.length;
+            RouteIndex copy = new RouteIndex(new long[capacity], new RouteSlab[capacity], size + 1);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != RouteKey.NONE) {
+                    copy.insert(keys[i], values[i]);
+                }
+            }
+            copy.insert(routeKey, slab);
+            return copy;
+        }
+
+        private void insert(long routeKey, RouteSlab slab) {
+            int i = hash(routeKey) & mask;
+            while (keys[i] != RouteKey.NONE) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = routeKey;
+            values[i] = slab;
+        }
+
+        private static int hash(long routeKey) {
+            long h = routeKey * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * The slots of a single route, guarded by a seqlock.
+     */
+    private static final class RouteSlab {
+        private final long[] slots = new long[DAY_CAPACITY * CABINS];
+        private final StampedLock lock = new StampedLock();
+
+        void write(long epochDay, long[] cabins, boolean overwrite) {
+            int base = (int) (epochDay & DAY_MASK) * CABINS;
+            long stamp = lock.writeLock();
+            try {
+                // Any cabin may be the one holding the day, a business-only day has no economy slot
+                if (!overwrite && heldDay(base) == (epochDay & DAY_FIELD_MASK)) {
+                    return;
+                }
+                System.arraycopy(cabins, 0, slots, base, CABINS);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void copyAll(long[] into) {
+            long stamp = lock.readLock();
+            try {
+                System.arraycopy(slots, 0, into, 0, slots.length);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void restore(LongBuffer source) {
+            long stamp = lock.writeLock();
+            try {
+                for (int base = 0; base < slots.length; base += CABINS) {
+                    long restoredDay = NO_DAY;
+                    for (int cabin = 0; cabin < CABINS; cabin++) {
+                        long slot = source.get(base + cabin);
+                        if (isPresent(slot)) {
+                            restoredDay = slot >>> DAY_SHIFT;
+                            break;
+                        }
+                    }
+                    if (restoredDay > heldDay(base)) {
+                        source.get(base, slots, base, CABINS);
+                    }
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * @return the day held in the ring position starting at {@code base}, or {@link #NO_DAY}
+         */
+        private long heldDay(int base) {
+            for (int cabin = 0; cabin < CABINS; cabin++) {
+                if (isPresent(slots[base + cabin])) {
+                    return slots[base + cabin] >>> DAY_SHIFT;
+                }
+            }
+            return NO_DAY;
+        }
+
+        CabinCalendar read(long fromDay, long toDay, int cabin) {
+            int days = (int) Math.min(Math.max(toDay - fromDay + 1, 0), DAY_CAPACITY);
+            long[] copy = new long[days];
+
+            long stamp = lock.tryOptimisticRead();
+            copy(fromDay, cabin, copy);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    copy(fromDay, cabin, copy);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+
+            int size = 0;
+            for (int day = 0; day < days; day++) {
+                if (isForDay(copy[day], fromDay + day)) {
+                    size++;
+                }
+            }
+            int[] dayOffsets = new int[size];
+            int[] points = new int[size];
+            int[] seats = new int[size];
+            boolean[] saver = new boolean[size];
+            int n = 0;
+            for (int day = 0; day < days; day++) {
+                long slot = copy[day];
+                if (isForDay(slot, fromDay + day)) {
+                    dayOffsets[n] = day;
+                    points[n] = points(slot);
+                    seats[n] = seats(slot);
+                    saver[n] = saver(slot);
+                    n++;
+                }
+            }
+            return CabinCalendar.builder()
+                    .dayOffsets(dayOffsets)
+                    .points(points)
+                    .seats(seats)
+                    .saver(saver)
+                    .build();
+        }
+
+        private void copy(long fromDay, int cabin, long[] into) {
+            for (int day = 0; day < into.length; day++) {
+                into[day] = slots[(int) ((fromDay + day) & DAY_MASK) * CABINS + cabin];
+            }
+        }
+    }
+}
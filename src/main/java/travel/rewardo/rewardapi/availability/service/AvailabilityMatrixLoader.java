@@ -0,0 +1,120 @@
+package travel.rewardo.rewardapi.availability.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.snapshot.WarmStartSnapshotService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+/**
+ * Hydrates the {@link AvailabilityMatrix} from the database once the application is up.
+ * Runs on its own thread so startup is not delayed; until it finishes, reads keep going to the database.
+ * <p>
+ * When the matrix was restored from a warm-start snapshot it is already serving, and only the rows
+ * scraped since the snapshot are loaded, overwriting what it restored. Rows the scraper saves during a
+ * pass may be read at their previous version, so passes repeat over the rows scraped since the last
+ * one started, until one finds nothing or three have run.
+ */
+@Component
+@ConditionalOnProperty(name = "availability.matrix.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityMatrixLoader {
+
+    /**
+     * Rows are saved some time after their scrape time is taken, so each pass reaches back this far.
+     */
+    private static final Duration RECONCILE_OVERLAP = Duration.ofMinutes(10);
+    private static final int MAX_RECONCILE_PASSES = 3;
+
+    private final AvailabilityMatrix availabilityMatrix;
+    private final RewardFlightLatestRepository rewardFlightLatestRepository;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final WarmStartSnapshotService warmStartSnapshotService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void hydrate() {
+        OptionalLong restoredFrom = warmStartSnapshotService.matrixRestoredFrom();
+        if (restoredFrom.isPresent()) {
+            Thread.ofPlatform().name("availability-matrix-loader").daemon().start(() -> reconcile(restoredFrom.getAsLong()));
+        } else {
+            Thread.ofPlatform().name("availability-matrix-loader").daemon().start(this::load);
+        }
+    }
+
+    private void load() {
+        long started = System.currentTimeMillis();
+        try {
+            long loaded = loadScrapedSince(LocalDateTime.of(1970, 1, 1, 0, 0), false);
+            availabilityMatrix.markReady();
+            log.info("Loaded {} reward flights into the availability matrix in {} ms", loaded, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Failed to hydrate the availability matrix, reads will keep using the database", e);
+        }
+    }
+
+    private void reconcile(long snapshotTakenAt) {
+        long started = System.currentTimeMillis();
+        long since = snapshotTakenAt;
+        long reconciled = 0;
+        try {
+            for (int pass = 0; pass < MAX_RECONCILE_PASSES; pass++) {
+                long passStarted = System.currentTimeMillis();
+                long loaded = loadScrapedSince(LocalDateTime.ofInstant(Instant.ofEpochMilli(since).minus(RECONCILE_OVERLAP), ZoneId.systemDefault()), true);
+                reconciled += loaded;
+                if (loaded == 0) {
+                    break;
+                }
+                since = passStarted;
+            }
+            log.info("Reconciled the restored availability matrix with {} reward flights in {} ms", reconciled, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Failed to reconcile the restored availability matrix, it keeps the snapshot and scraper values", e);
+        }
+    }
+
+    /**
+     * @param overwrite whether rows replace the days already held
+     * @return the number of rows put into the matrix
+     */
+    private long loadScrapedSince(LocalDateTime since, boolean overwrite) {
+        // Rows that departed before the window the matrix holds are of no use to it
+        LocalDate earliest = LocalDate.now().minusDays(AvailabilityMatrix.DAYS_BEHIND);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        Long loaded = transaction.execute(status -> {
+            long count = 0;
+            try (Stream<RewardFlightLatest> rows = rewardFlightLatestRepository.streamScrapedSince(since)) {
+                for (RewardFlightLatest row : (Iterable<RewardFlightLatest>) rows::iterator) {
+                    if (row.getDeparture() != null && !row.getDeparture().isBefore(earliest)) {
+                        if (overwrite) {
+                            availabilityMatrix.put(row);
+                        } else {
+                            availabilityMatrix.putIfAbsent(row);
+                        }
+                        count++;
+                    }
+                    entityManager.detach(row);
+                }
+            }
+            return count;
+        });
+        return loaded != null ? loaded : 0;
+    }
+}
@@ -1,11 +1,14 @@
 package travel.rewardo.rewardapi.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpMetricsEventListener;
 import okhttp3.OkHttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
@@ -14,13 +17,21 @@ public class ApiClientConfig {
     @Value("${api.client.use-proxy:false}")
     private boolean useProxy;
 
+    /**
+     * Every call is timed as {@code upstream.requests}. Redirects are not followed, so each call is
+     * one step of an exchange; the {@code uri} tag carries the step named by the {@code String} tag
+     * of the request, e.g. "initial" and "redirect" for the two requests of the reward seat checker.
+     */
     @Bean
-    public OkHttpClient okHttpClient() {
+    public OkHttpClient okHttpClient(MeterRegistry meterRegistry) {
         OkHttpClient.Builder builder = new OkHttpClient.Builder()
                 .connectTimeout(30, TimeUnit.SECONDS)
                 .readTimeout(30, TimeUnit.SECONDS)
                 .writeTimeout(30, TimeUnit.SECONDS)
-                .followRedirects(false);
+                .followRedirects(false)
+                .eventListener(OkHttpMetricsEventListener.builder(meterRegistry, "upstream.requests")
+                        .uriMapper(request -> Objects.requireNonNullElse(request.tag(String.class), "none"))
+                        .build());
         
         if (useProxy) {
             builder.proxy(new java.net.Proxy(java.net.Proxy.Type.HTTP, new java.net.InetSocketAddress("surfshark-vpn", 8888)));
@@ -0,0 +1,78 @@
+package travel.rewardo.rewardapi.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.ValidationDepth;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * R2DBC access for the reactive read endpoints, enabled with {@code search.reactive.enabled}.
+ * <p>
+ * The connection factory is deliberately not a bean: Spring Boot backs off from the JDBC
+ * datasource as soon as one exists, and JPA stays the write path. R2DBC auto-configuration is
+ * excluded for the same reason, see {@link travel.rewardo.rewardapi.RewardoApiApplication}.
+ * <p>
+ * Drivers open a new connection for every subscription, so the factory is wrapped in a bounded
+ * {@link ConnectionPool} that validates connections on the server before handing them out.
+ */
+@Configuration
+@ConditionalOnProperty(name = "search.reactive.enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    @Value("${search.reactive.url:r2dbc:h2:mem:///testdb;DB_CLOSE_DELAY=-1}")
+    private String url = "r2dbc:h2:mem:///testdb;DB_CLOSE_DELAY=-1";
+
+    @Value("${search.reactive.username:sa}")
+    private String username = "sa";
+
+    @Value("${search.reactive.password:password}")
+    private String password = "password";
+
+    @Value("${search.reactive.pool.initial-size:2}")
+    private int initialSize = 2;
+
+    @Value("${search.reactive.pool.max-size:10}")
+    private int maxSize = 10;
+
+    @Value("${search.reactive.pool.max-idle-time-ms:1800000}")
+    private long maxIdleTimeMs = 1_800_000;
+
+    @Value("${search.reactive.pool.max-acquire-time-ms:5000}")
+    private long maxAcquireTimeMs = 5_000;
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("reactive-read")
+                .initialSize(Math.min(initialSize, maxSize))
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxAcquireTime(Duration.ofMillis(maxAcquireTimeMs))
+                .validationDepth(ValidationDepth.REMOTE)
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
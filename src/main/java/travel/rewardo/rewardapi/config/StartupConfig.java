@@ -0,0 +1,22 @@
+package travel.rewardo.rewardapi.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import travel.rewardo.rewardapi.search.controller.RewardFlightController;
+import travel.rewardo.rewardapi.stream.controller.StreamingController;
+
+@Configuration
+public class StartupConfig {
+
+    /**
+     * With {@code spring.main.lazy-initialization} the search and streaming controllers, and what
+     * they depend on, are still created at startup, so the first search does not pay for them and a
+     * broken dependency still fails the start. Beans with {@code @Scheduled} methods, the scraper and
+     * the routes refresh, are kept eager by Spring Boot itself.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter searchPathExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(RewardFlightController.class, StreamingController.class);
+    }
+}
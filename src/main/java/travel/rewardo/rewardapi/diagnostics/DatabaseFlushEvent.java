@@ -0,0 +1,26 @@
+package travel.rewardo.rewardapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Writing the flight of one day, and its history when it changed.
+ */
+@Name("rewardo.scraper.DatabaseFlush")
+@Label("Database Flush")
+@Category({"Rewardo", "Scraper"})
+@Description("Save of the flight of one day, and of its historic record when it changed")
+public class DatabaseFlushEvent extends Event {
+
+    @Label("Route")
+    public String route;
+
+    @Label("Departure")
+    public String departure;
+
+    @Label("Rows")
+    public int rows;
+}
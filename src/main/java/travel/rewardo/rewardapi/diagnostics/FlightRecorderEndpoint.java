@@ -0,0 +1,162 @@
+package travel.rewardo.rewardapi.diagnostics;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts, dumps and stops a JDK Flight Recorder recording of the running process, without restarting
+ * it with an agent or options. The operations of the {@code org.springframework.boot:type=Endpoint,name=Jfr}
+ * MBean are:
+ * <ul>
+ *   <li>{@code start} starts a recording, optionally with {@code settings} ("default" or "profile")
+ *   and {@code maxAgeSeconds}</li>
+ *   <li>{@code status} describes the recording</li>
+ *   <li>{@code dump} writes what it holds so far to a new file on the server, to open in JDK Mission
+ *   Control, and returns its path</li>
+ *   <li>{@code stop} stops and discards it, deleting its dumps</li>
+ * </ul>
+ * It is a JMX-only endpoint, never mapped to HTTP: the application has no authentication, and a
+ * recording both costs overhead and describes the process in detail. The events that record the
+ * environment, system properties and JVM arguments, where credentials are passed, are disabled.
+ * The recording includes the events of this package, which tie the latency of scrapes, writes and
+ * SSE deliveries to specific routes. With {@code diagnostics.jfr.start-on-startup} it runs from startup,
+ * keeping the last {@code diagnostics.jfr.max-age-seconds} on disk, so a spike can be dumped after the fact.
+ */
+@Component
+@JmxEndpoint(id = "jfr")
+@Slf4j
+public class FlightRecorderEndpoint {
+
+    private static final String RECORDING_NAME = "rewardo";
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation");
+
+    @Value("${diagnostics.jfr.start-on-startup:false}")
+    private boolean startOnStartup;
+
+    @Value("${diagnostics.jfr.settings:default}")
+    private String defaultSettings = "default";
+
+    @Value("${diagnostics.jfr.max-age-seconds:3600}")
+    private long defaultMaxAgeSeconds = 3600;
+
+    private Recording recording;
+    private final List<Path> dumpFiles = new ArrayList<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnStartup() {
+        if (startOnStartup) {
+            start(null, null);
+        }
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        boolean running = recording != null && recording.getState() == RecordingState.RUNNING;
+        status.put("running", running);
+        if (recording != null) {
+            status.put("name", recording.getName());
+            status.put("state", recording.getState().name());
+            status.put("startTime", recording.getStartTime());
+            status.put("maxAgeSeconds", recording.getMaxAge() != null ? recording.getMaxAge().toSeconds() : null);
+            status.put("sizeBytes", recording.getSize());
+        }
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable String settings, @Nullable Long maxAgeSeconds) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        closeRecording();
+        String configurationName = settings != null ? settings : defaultSettings;
+        try {
+            recording = new Recording(Configuration.getConfiguration(configurationName));
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Unknown JFR settings: " + configurationName, "Unknown JFR settings");
+        }
+        SENSITIVE_EVENTS.forEach(recording::disable);
+        recording.setName(RECORDING_NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofSeconds(maxAgeSeconds != null ? maxAgeSeconds : defaultMaxAgeSeconds));
+        recording.start();
+        log.info("Started JFR recording with {} settings", configurationName);
+        return status();
+    }
+
+    /**
+     * Dumps the recording to a new file, so a dump never overwrites one that is still being copied.
+     *
+     * @return the path and size of the dump, or null without a running recording
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> dump() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return null;
+        }
+        try {
+            Path dumpFile = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+            dumpFiles.add(dumpFile);
+            recording.dump(dumpFile);
+            Map<String, Object> dump = new LinkedHashMap<>();
+            dump.put("path", dumpFile.toAbsolutePath().toString());
+            dump.put("sizeBytes", Files.size(dumpFile));
+            return dump;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not dump the JFR recording", e);
+        }
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        closeRecording();
+        return status();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        closeRecording();
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+            log.info("Stopped JFR recording");
+        }
+        for (Path dumpFile : dumpFiles) {
+            try {
+                Files.deleteIfExists(dumpFile);
+            } catch (IOException e) {
+                log.warn("Could not delete JFR dump {}", dumpFile, e);
+            }
+        }
+        dumpFiles.clear();
+    }
+}
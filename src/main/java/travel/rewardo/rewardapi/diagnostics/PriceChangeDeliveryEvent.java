@@ -0,0 +1,30 @@
+package travel.rewardo.rewardapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Handing one price change to one SSE subscriber.
+ */
+@Name("rewardo.stream.Delivery")
+@Label("Price Change Delivery")
+@Category({"Rewardo", "Stream"})
+@Description("Delivery of one price change to one SSE subscriber")
+public class PriceChangeDeliveryEvent extends Event {
+
+    @Label("Route")
+    public String route;
+
+    @Label("Subscriber")
+    @Description("Identifies the subscription within this process")
+    public long subscriber;
+
+    @Label("Age")
+    @Description("Time since the change was scraped")
+    @Timespan(Timespan.MILLISECONDS)
+    public long ageMillis;
+}
@@ -0,0 +1,26 @@
+package travel.rewardo.rewardapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Publishing one price change to the stream shared by every subscriber.
+ */
+@Name("rewardo.stream.Emit")
+@Label("Price Change Emit")
+@Category({"Rewardo", "Stream"})
+@Description("Publication of one price change to the shared sink")
+public class PriceChangeEmitEvent extends Event {
+
+    @Label("Route")
+    public String route;
+
+    @Label("Departure")
+    public String departure;
+
+    @Label("Result")
+    public String result;
+}
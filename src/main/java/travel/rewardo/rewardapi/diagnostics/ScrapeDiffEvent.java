@@ -0,0 +1,35 @@
+package travel.rewardo.rewardapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Comparing the days of one route-month with the stored ones and writing what changed.
+ */
+@Name("rewardo.scraper.Diff")
+@Label("Route-Month Diff")
+@Category({"Rewardo", "Scraper"})
+@Description("Comparison of the days of one route-month with the stored ones, writes included")
+public class ScrapeDiffEvent extends Event {
+
+    @Label("Route")
+    public String route;
+
+    @Label("Month")
+    public String month;
+
+    @Label("Processed Days")
+    public int processedDays;
+
+    @Label("Changed Days")
+    public int changedDays;
+
+    @Label("Price Changes")
+    public int priceChanges;
+
+    @Label("Seat Changes")
+    public int seatChanges;
+}
@@ -0,0 +1,31 @@
+package travel.rewardo.rewardapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Fetching one route-month from the upstream, retries and backoff included.
+ */
+@Name("rewardo.scraper.Fetch")
+@Label("Route-Month Fetch")
+@Category({"Rewardo", "Scraper"})
+@Description("Upstream exchange of one route-month, retries and backoff included")
+public class ScrapeFetchEvent extends Event {
+
+    @Label("Route")
+    public String route;
+
+    @Label("Month")
+    public String month;
+
+    @Label("Response Size")
+    @DataAmount
+    public long responseBytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
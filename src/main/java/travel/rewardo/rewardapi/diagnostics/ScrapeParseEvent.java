@@ -0,0 +1,31 @@
+package travel.rewardo.rewardapi.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Binding one route-month response to the API model.
+ */
+@Name("rewardo.scraper.Parse")
+@Label("Response Parse")
+@Category({"Rewardo", "Scraper"})
+@Description("JSON binding of one route-month response")
+public class ScrapeParseEvent extends Event {
+
+    @Label("Route")
+    public String route;
+
+    @Label("Month")
+    public String month;
+
+    @Label("Response Size")
+    @DataAmount
+    public long responseBytes;
+
+    @Label("Days")
+    public int days;
+}
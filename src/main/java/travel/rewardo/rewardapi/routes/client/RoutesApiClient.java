@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import travel.rewardo.rewardapi.routes.model.Route;
 
@@ -25,10 +26,14 @@ import java.util.Objects;
 public class RoutesApiClient {
 
     private static final String ROUTES_API_URL = "https://api.rewardo.travel/routes-api/v1/api/airlines/vs/routes";
+    private static final int HTTP_NOT_MODIFIED = 304;
     
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
 
+    @Value("${routes.api-url:" + ROUTES_API_URL + "}")
+    private String routesApiUrl = ROUTES_API_URL;
+
     /**
      * Fetches the list of routes from the API.
      *
@@ -36,32 +41,54 @@ public class RoutesApiClient {
      * @throws IOException if an error occurs during the HTTP request or response parsing
      */
     public List<Route> fetchRoutes() throws IOException {
-        log.info("Fetching routes from {}", ROUTES_API_URL);
-        
-        Request request = new Request.Builder()
-                .url(ROUTES_API_URL)
+        return fetchRoutesIfChanged(null, null).getRoutes();
+    }
+
+    /**
+     * Fetches the list of routes from the API unless it is unchanged since the validators of an
+     * earlier response, in which case the API answers 304 without a body.
+     *
+     * @param etag the {@code ETag} of the routes held, or null
+     * @param lastModified the {@code Last-Modified} of the routes held, or null
+     * @return the routes and their validators; not modified if the API answered 304, no routes if the request failed
+     * @throws IOException if an error occurs during the HTTP request or response parsing
+     */
+    public RoutesFetch fetchRoutesIfChanged(String etag, String lastModified) throws IOException {
+        log.debug("Fetching routes from {}", routesApiUrl);
+
+        Request.Builder builder = new Request.Builder()
+                .url(routesApiUrl)
                 .get()
                 .header("Accept", "application/json")
-                .build();
+                .tag(String.class, "routes");
+        if (etag != null) {
+            builder.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            builder.header("If-Modified-Since", lastModified);
+        }
 
-        try (Response response = httpClient.newCall(request).execute()) {
+        try (Response response = httpClient.newCall(builder.build()).execute()) {
+            if (response.code() == HTTP_NOT_MODIFIED) {
+                return RoutesFetch.notModified(etag, lastModified);
+            }
             if (!response.isSuccessful()) {
                 log.error("Failed to fetch routes. Response code: {}", response.code());
                 throw new IOException("Unexpected response code: " + response.code());
             }
 
             String responseBody = Objects.requireNonNull(response.body()).string();
-            log.debug("Received routes response: {}", responseBody);
-            
+            log.debug("Received routes response of {} characters", responseBody.length());
+
             Route[] routes = objectMapper.readValue(responseBody, Route[].class);
-            return Arrays.asList(routes);
+            return RoutesFetch.modified(Arrays.asList(routes), response.header("ETag"), response.header("Last-Modified"));
         } catch (InterruptedIOException e) {
             log.warn("Request interrupted, likely due to application shutdown", e);
             Thread.currentThread().interrupt(); // Preserve interrupt status
-            return Collections.emptyList();
+            return RoutesFetch.modified(Collections.emptyList(), null, null);
         } catch (Exception e) {
             log.error("Error fetching routes", e);
-            return Collections.emptyList();
+            return RoutesFetch.modified(Collections.emptyList(), null, null);
         }
     }
 }
\ No newline at end of file
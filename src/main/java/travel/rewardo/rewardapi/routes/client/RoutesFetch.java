@@ -0,0 +1,27 @@
+package travel.rewardo.rewardapi.routes.client;
+
+import lombok.Value;
+import travel.rewardo.rewardapi.routes.model.Route;
+
+import java.util.List;
+
+/**
+ * The outcome of a conditional routes request: either unchanged since the validators sent, or the
+ * routes with the validators to send next time.
+ */
+@Value
+public class RoutesFetch {
+
+    boolean notModified;
+    List<Route> routes;
+    String etag;
+    String lastModified;
+
+    public static RoutesFetch notModified(String etag, String lastModified) {
+        return new RoutesFetch(true, List.of(), etag, lastModified);
+    }
+
+    public static RoutesFetch modified(List<Route> routes, String etag, String lastModified) {
+        return new RoutesFetch(false, routes, etag, lastModified);
+    }
+}
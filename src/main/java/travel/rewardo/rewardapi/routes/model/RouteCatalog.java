@@ -0,0 +1,162 @@
+package travel.rewardo.rewardapi.routes.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the served routes, indexed for the lookups of the scraper and the
+ * search endpoints: destinations by origin, origins by destination, airports by country and the
+ * sorted {@link RouteKey} of every route pair.
+ * <p>
+ * A refresh builds a new catalog and swaps it in whole, so readers never see a half-updated one and
+ * need no locking. Airport codes are matched case-insensitively, countries too.
+ */
+public final class RouteCatalog {
+
+    public static final RouteCatalog EMPTY = of(List.of());
+
+    private final List<Route> routes;
+    private final long[] routePairs;
+    private final Map<String, List<Airport>> destinationsByOrigin;
+    private final Map<String, List<Airport>> originsByDestination;
+    private final Map<String, List<Airport>> airportsByCountry;
+    private final Map<String, Airport> airports;
+
+    private RouteCatalog(List<Route> routes, long[] routePairs, Map<String, List<Airport>> destinationsByOrigin,
+                         Map<String, List<Airport>> originsByDestination, Map<String, List<Airport>> airportsByCountry,
+                         Map<String, Airport> airports) {
+        this.routes = routes;
+        this.routePairs = routePairs;
+        this.destinationsByOrigin = destinationsByOrigin;
+        this.originsByDestination = originsByDestination;
+        this.airportsByCountry = airportsByCountry;
+        this.airports = airports;
+    }
+
+    /**
+     * Builds a catalog. Airports without a code and duplicate destinations of an origin are skipped.
+     *
+     * @param routes the routes as returned by the routes API
+     * @return the catalog
+     */
+    public static RouteCatalog of(List<Route> routes) {
+        Map<String, List<Airport>> destinationsByOrigin = new LinkedHashMap<>();
+        Map<String, List<Airport>> originsByDestination = new HashMap<>();
+        Map<String, List<Airport>> airportsByCountry = new HashMap<>();
+        Map<String, Airport> airports = new HashMap<>();
+        List<Long> pairs = new ArrayList<>();
+        for (Route route : routes) {
+            Airport origin = route.getOrigin();
+            String originCode = code(origin);
+            if (originCode == null) {
+                continue;
+            }
+            index(origin, originCode, airports, airportsByCountry);
+            List<Airport> destinations = destinationsByOrigin.computeIfAbsent(originCode, k -> new ArrayList<>());
+            for (Airport destination : route.getDestinations() != null ? route.getDestinations() : List.<Airport>of()) {
+                String destinationCode = code(destination);
+                if (destinationCode == null || destinations.stream().anyMatch(d -> destinationCode.equals(code(d)))) {
+                    continue;
+                }
+                index(destination, destinationCode, airports, airportsByCountry);
+                destinations.add(destination);
+                originsByDestination.computeIfAbsent(destinationCode, k -> new ArrayList<>()).add(origin);
+                long pair = RouteKey.of(originCode, destinationCode);
+                if (pair != RouteKey.NONE) {
+                    pairs.add(pair);
+                }
+            }
+        }
+        return new RouteCatalog(List.copyOf(routes),
+                pairs.stream().mapToLong(Long::longValue).sorted().distinct().toArray(),
+                freeze(destinationsByOrigin), freeze(originsByDestination), freeze(airportsByCountry),
+                Collections.unmodifiableMap(airports));
+    }
+
+    /**
+     * @return the routes, in the order of the routes API
+     */
+    public List<Route> routes() {
+        return routes;
+    }
+
+    public boolean isEmpty() {
+        return routes.isEmpty();
+    }
+
+    /**
+     * @return the number of route pairs served
+     */
+    public int routePairCount() {
+        return routePairs.length;
+    }
+
+    /**
+     * @return a copy of the route pairs served, as sorted {@link RouteKey} values
+     */
+    public long[] routePairs() {
+        return routePairs.clone();
+    }
+
+    /**
+     * @return whether the route pair is served
+     */
+    public boolean serves(String origin, String destination) {
+        long pair = RouteKey.of(normalise(origin), normalise(destination));
+        return pair != RouteKey.NONE && Arrays.binarySearch(routePairs, pair) >= 0;
+    }
+
+    /**
+     * @return the destinations served from an origin, empty for an unknown one
+     */
+    public List<Airport> destinations(String origin) {
+        return destinationsByOrigin.getOrDefault(normalise(origin), List.of());
+    }
+
+    /**
+     * @return the origins serving a destination, empty for an unknown one
+     */
+    public List<Airport> origins(String destination) {
+        return originsByDestination.getOrDefault(normalise(destination), List.of());
+    }
+
+    /**
+     * @return the airports, origins and destinations alike, in a country
+     */
+    public List<Airport> airportsIn(String country) {
+        return country != null ? airportsByCountry.getOrDefault(country.toLowerCase(Locale.ROOT), List.of()) : List.of();
+    }
+
+    /**
+     * @return the airport with the code, or null if no route serves it
+     */
+    public Airport airport(String code) {
+        return airports.get(normalise(code));
+    }
+
+    private static void index(Airport airport, String code, Map<String, Airport> airports, Map<String, List<Airport>> airportsByCountry) {
+        if (airports.putIfAbsent(code, airport) == null && airport.getCountry() != null) {
+            airportsByCountry.computeIfAbsent(airport.getCountry().toLowerCase(Locale.ROOT), k -> new ArrayList<>()).add(airport);
+        }
+    }
+
+    private static String code(Airport airport) {
+        return airport != null ? normalise(airport.getAirportCode()) : null;
+    }
+
+    private static String normalise(String code) {
+        return code != null ? code.toUpperCase(Locale.ROOT) : null;
+    }
+
+    private static Map<String, List<Airport>> freeze(Map<String, List<Airport>> index) {
+        Map<String, List<Airport>> frozen = new LinkedHashMap<>();
+        index.forEach((key, airports) -> frozen.put(key, List.copyOf(airports)));
+        return Collections.unmodifiableMap(frozen);
+    }
+}
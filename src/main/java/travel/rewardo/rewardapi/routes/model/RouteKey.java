@@ -0,0 +1,127 @@
+package travel.rewardo.rewardapi.routes.model;
+
+/**
+ * Compact, allocation-free identifiers for airports and route pairs.
+ * <p>
+ * A three-character IATA code is packed into the low 18 bits of an {@code int}, six bits per
+ * character ('A'-'Z' map to 1-26, '0'-'9' to 27-36). A route pair is packed into a {@code long}
+ * with the origin in the high and the destination in the low 32 bits. Packed values hash and
+ * compare as primitives, so hot paths can avoid building and comparing strings; strings are
+ * only materialised again at the API edge.
+ * <p>
+ * Malformed codes pack to {@link #NONE}, which never matches a real airport or route.
+ */
+public final class RouteKey {
+
+    /**
+     * Packed value of a missing or malformed airport code or route.
+     */
+    public static final int NONE = 0;
+
+    private static final int BITS_PER_CHAR = 6;
+    private static final int CHAR_MASK = (1 << BITS_PER_CHAR) - 1;
+    private static final int IATA_LENGTH = 3;
+    private static final long AIRPORT_MASK = 0xFFFF_FFFFL;
+
+    private RouteKey() {
+    }
+
+    /**
+     * Packs a three-character IATA code.
+     *
+     * @param code the airport code, e.g. "LHR"
+     * @return the packed code, or {@link #NONE} if the code is not three upper-case letters or digits
+     */
+    public static int packIata(String code) {
+        if (code == null || code.length() != IATA_LENGTH) {
+            return NONE;
+        }
+        int packed = 0;
+        for (int i = 0; i < IATA_LENGTH; i++) {
+            int value = charValue(code.charAt(i));
+            if (value == 0) {
+                return NONE;
+            }
+            packed = packed << BITS_PER_CHAR | value;
+        }
+        return packed;
+    }
+
+    /**
+     * Turns a packed code back into its three-character string.
+     *
+     * @param packed the packed code
+     * @return the airport code, or null for {@link #NONE}
+     */
+    public static String unpackIata(int packed) {
+        if (packed == NONE) {
+            return null;
+        }
+        char[] chars = new char[IATA_LENGTH];
+        for (int i = IATA_LENGTH - 1; i >= 0; i--) {
+            int value = packed & CHAR_MASK;
+            chars[i] = value <= 26 ? (char) ('A' + value - 1) : (char) ('0' + value - 27);
+            packed >>>= BITS_PER_CHAR;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Packs a route pair from two packed airport codes.
+     *
+     * @return the route key, or {@link #NONE} if either code is {@link #NONE}
+     */
+    public static long of(int origin, int destination) {
+        if (origin == NONE || destination == NONE) {
+            return NONE;
+        }
+        return (long) origin << Integer.SIZE | destination & AIRPORT_MASK;
+    }
+
+    /**
+     * Packs a route pair from two airport codes.
+     *
+     * @return the route key, or {@link #NONE} if either code is malformed
+     */
+    public static long of(String origin, String destination) {
+        return of(packIata(origin), packIata(destination));
+    }
+
+    /**
+     * @return the packed origin of a route key
+     */
+    public static int origin(long routeKey) {
+        return (int) (routeKey >>> Integer.SIZE);
+    }
+
+    /**
+     * @return the packed destination of a route key
+     */
+    public static int destination(long routeKey) {
+        return (int) (routeKey & AIRPORT_MASK);
+    }
+
+    /**
+     * @return the route key of the opposite direction
+     */
+    public static long reverse(long routeKey) {
+        return of(destination(routeKey), origin(routeKey));
+    }
+
+    /**
+     * @return the route as "ORIGIN-DESTINATION", for logs and API responses
+     */
+    public static String toString(long routeKey) {
+        return unpackIata(origin(routeKey)) + "-" + unpackIata(destination(routeKey));
+    }
+
+    private static int charValue(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 27;
+        }
+        return 0;
+    }
+}
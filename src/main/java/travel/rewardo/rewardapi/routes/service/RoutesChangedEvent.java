@@ -0,0 +1,30 @@
+package travel.rewardo.rewardapi.routes.service;
+
+import lombok.Value;
+import travel.rewardo.rewardapi.routes.model.RouteCatalog;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+
+/**
+ * Published by {@link RoutesService} when a refresh swaps in a catalog whose routes differ from
+ * those held before.
+ * The route pairs are {@link RouteKey} values, sorted; both are empty when only airport details,
+ * such as a city name, changed.
+ */
+@Value
+public class RoutesChangedEvent {
+
+    /**
+     * The catalog now held.
+     */
+    RouteCatalog catalog;
+
+    /**
+     * Route pairs served now that were not before.
+     */
+    long[] addedPairs;
+
+    /**
+     * Route pairs served before that are not any more.
+     */
+    long[] removedPairs;
+}
@@ -2,19 +2,23 @@ package travel.rewardo.rewardapi.routes.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import travel.rewardo.rewardapi.routes.client.RoutesApiClient;
+import travel.rewardo.rewardapi.routes.client.RoutesFetch;
 import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.model.RouteCatalog;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Service for retrieving and caching airline routes.
+ * Service for retrieving airline routes. They are held as one {@link RouteCatalog}, swapped whole
+ * on every refresh that changes them, which the scraper and the search endpoints read directly.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,75 +26,114 @@ import java.util.concurrent.atomic.AtomicReference;
 public class RoutesService {
 
     private final RoutesApiClient routesApiClient;
-    private final AtomicReference<List<Route>> cachedRoutes = new AtomicReference<>(Collections.emptyList());
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<RouteCatalog> catalog = new AtomicReference<>(RouteCatalog.EMPTY);
+
+    // Validators of the last routes response, sent back so an unchanged list is not downloaded again
+    private volatile String etag;
+    private volatile String lastModified;
 
     /**
-     * Retrieves the list of routes, using cached data if available.
+     * Retrieves the list of routes, fetching them if none are held yet.
      *
      * @return List of Route objects
      */
-    @Cacheable("routes")
     public List<Route> getRoutes() {
-        List<Route> routes = cachedRoutes.get();
+        List<Route> routes = catalog.get().routes();
         if (routes.isEmpty()) {
             routes = refreshRoutes();
         }
         return routes;
     }
 
+    /**
+     * @return the current catalog, without fetching routes when there are none yet; empty until
+     * the first refresh or snapshot restore
+     */
+    public RouteCatalog catalog() {
+        return catalog.get();
+    }
+
+    /**
+     * Serves routes restored from a snapshot until the first refresh replaces them.
+     * Ignored once routes have been fetched.
+     *
+     * @param routes the restored routes
+     */
+    public void restore(List<Route> routes) {
+        if (!routes.isEmpty()) {
+            RouteCatalog restored = RouteCatalog.of(routes);
+            catalog.updateAndGet(current -> current.isEmpty() ? restored : current);
+        }
+    }
+
     /**
      * Refreshes the cached routes data by fetching from the API.
      * This method is called automatically on a schedule and can also be called manually.
+     * The request is conditional on the validators of the last response, so an unchanged route
+     * list costs one 304 round trip. A changed one is published as a {@link RoutesChangedEvent}
+     * with the route pairs added and removed.
      *
      * @return List of Route objects
      */
     @Scheduled(fixedDelayString = "${routes.cache.refresh-rate:3600000}", initialDelay = 5000)
     public List<Route> refreshRoutes() {
         try {
-            List<Route> routes = routesApiClient.fetchRoutes();
-            if (!routes.isEmpty()) {
-                cachedRoutes.set(routes);
-                log.info("Routes cache refreshed with {} routes", routes.size());
-                
-                // Log summary of routes data
-                int totalDestinations = routes.stream()
-                        .mapToInt(route -> route.getDestinations().size())
-                        .sum();
-                
-                log.info("Route summary: {} origin airports with {} total destinations", 
-                        routes.size(), totalDestinations);
-                
-                // Log details for each origin
-                routes.forEach(route -> {
-                    log.info("Origin: {} ({}, {}) has {} destinations", 
-                            route.getOrigin().getAirportCode(),
-                            route.getOrigin().getCity(),
-                            route.getOrigin().getCountry(),
-                            route.getDestinations().size());
-                    
-                    // Log destination details (limited to avoid excessive logging)
-                    if (route.getDestinations().size() <= 10) {
-                        route.getDestinations().forEach(dest -> 
-                            log.debug("  → Destination: {} ({}, {})", 
-                                    dest.getAirportCode(), 
-                                    dest.getCity(), 
-                                    dest.getCountry())
-                        );
-                    } else {
-                        log.debug("  → First 10 of {} destinations:", route.getDestinations().size());
-                        route.getDestinations().stream().limit(10).forEach(dest -> 
-                            log.debug("    → {} ({}, {})", 
-                                    dest.getAirportCode(), 
-                                    dest.getCity(), 
-                                    dest.getCountry())
-                        );
-                    }
-                });
+            RoutesFetch fetch = routesApiClient.fetchRoutesIfChanged(etag, lastModified);
+            if (fetch.isNotModified()) {
+                log.debug("Routes unchanged since the last refresh");
+                return catalog.get().routes();
             }
-            return routes;
+            List<Route> routes = fetch.getRoutes();
+            if (routes.isEmpty()) {
+                return catalog.get().routes();
+            }
+            etag = fetch.getEtag();
+            lastModified = fetch.getLastModified();
+            if (routes.equals(catalog.get().routes())) {
+                log.debug("Routes unchanged since the last refresh");
+                return catalog.get().routes();
+            }
+            RouteCatalog next = RouteCatalog.of(routes);
+            RouteCatalog previous = catalog.getAndSet(next);
+
+            long[] pairs = next.routePairs();
+            long[] previousPairs = previous.routePairs();
+            long[] added = difference(pairs, previousPairs);
+            long[] removed = difference(previousPairs, pairs);
+            log.info("Routes refreshed: {} origin airports with {} route pairs, {} added, {} removed",
+                    routes.size(), pairs.length, added.length, removed.length);
+            if (log.isDebugEnabled()) {
+                for (long pair : added) {
+                    log.debug("  + {}", RouteKey.toString(pair));
+                }
+                for (long pair : removed) {
+                    log.debug("  - {}", RouteKey.toString(pair));
+                }
+            }
+            eventPublisher.publishEvent(new RoutesChangedEvent(next, added, removed));
+            return next.routes();
         } catch (IOException e) {
             log.error("Failed to refresh routes cache", e);
-            return cachedRoutes.get();
+            return catalog.get().routes();
+        }
+    }
+
+    /**
+     * @return the pairs of the first sorted array that are not in the second
+     */
+    static long[] difference(long[] pairs, long[] others) {
+        long[] result = new long[pairs.length];
+        int count = 0;
+        int j = 0;
+        for (long pair : pairs) {
+            while (j < others.length && others[j] < pair) {
+                j++;
+            }
+            if (j == others.length || others[j] != pair) {
+                result[count++] = pair;
+            }
         }
+        return Arrays.copyOf(result, count);
     }
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package travel.rewardo.rewardapi.scraper.carrier;
+
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Remembers a fingerprint of the last known award availability of every route-day, so the scraper
+ * can recognise an unchanged day straight from the API model without touching the database or
+ * building any entities.
+ * <p>
+ * A fingerprint is a 64-bit hash of the departure day and of the points and seats of each cabin,
+ * the same fields the scraper compares to decide whether a day has changed. Per route the
+ * fingerprints are kept in a ring of {@link #DAY_CAPACITY} slots indexed by epoch day; as the day
+ * is part of the hash, a stale slot from a previous lap of the ring simply never matches.
+ * <p>
+ * The cache starts empty, so the first sighting of every day after startup still goes through the
+ * database comparison.
+ * <p>
+ * Routes are told apart by their route key alone, so every carrier owns its own instance, see
+ * {@link CarrierProvider#fingerprints()}.
+ */
+public class AwardFingerprints {
+
+    /**
+     * Number of departure days remembered per route. Must be a power of two.
+     */
+    public static final int DAY_CAPACITY = 512;
+
+    private static final int DAY_MASK = DAY_CAPACITY - 1;
+    private static final long MISSING = -1L;
+
+    private final ConcurrentHashMap<Long, AtomicLongArray> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Starts the fingerprint of a day. Carriers then fold in every cabin they serve, in a fixed
+     * order, with {@link #cabin}, see {@link CarrierResponseMapper#fingerprint}.
+     *
+     * @param departure the departure day, null if the response has none
+     * @return the fingerprint of the day alone
+     */
+    public static long day(LocalDate departure) {
+        return mix(departure != null ? departure.toEpochDay() : MISSING);
+    }
+
+    /**
+     * Folds the points and seats of one cabin into a fingerprint. A missing cabin is folded in with
+     * null points and seats, so it still differs from a cabin moving to another position.
+     */
+    public static long cabin(long hash, Integer points, Integer seats) {
+        hash = mix(hash ^ (points != null ? points : MISSING));
+        return mix(hash ^ (seats != null ? seats : MISSING));
+    }
+
+    /**
+     * Finishes the fingerprint of a day whose response carries no seats at all.
+     */
+    public static long noSeats(long hash) {
+        return mix(hash ^ MISSING);
+    }
+
+    /**
+     * Returns the fingerprint ring of a route. Callers look it up once per route and then use
+     * {@link #matches} and {@link #record} for every day, which allocate nothing.
+     *
+     * @param routeKey the packed route key, see {@link RouteKey}
+     * @return the ring of the route
+     */
+    public AtomicLongArray forRoute(long routeKey) {
+        return routes.computeIfAbsent(routeKey, key -> new AtomicLongArray(DAY_CAPACITY));
+    }
+
+    /**
+     * @return true if the day was last recorded with the same fingerprint
+     */
+    public static boolean matches(AtomicLongArray ring, long epochDay, long fingerprint) {
+        return ring.get((int) (epochDay & DAY_MASK)) == fingerprint;
+    }
+
+    /**
+     * Records the fingerprint the day is now known to have.
+     */
+    public static void record(AtomicLongArray ring, long epochDay, long fingerprint) {
+        ring.set((int) (epochDay & DAY_MASK), fingerprint);
+    }
+
+    /**
+     * Forgets what was recorded for a day, so it is compared against the database again next time.
+     */
+    public static void forget(AtomicLongArray ring, long epochDay) {
+        ring.set((int) (epochDay & DAY_MASK), 0L);
+    }
+
+    /**
+     * The finalisation step of MurmurHash3, which spreads every input bit over the whole value.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,28 @@
+package travel.rewardo.rewardapi.scraper.carrier;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * How hard the scheduler may drive one carrier. Each carrier is scraped by its own workers with its
+ * own pacing, so a slow or failing carrier only holds up itself.
+ */
+@Value
+@Builder
+public class CarrierBudget {
+
+    /**
+     * Route pairs scraped at the same time, each by its own worker.
+     */
+    int concurrency;
+
+    /**
+     * Pause of a worker after every route-month, which with {@link #concurrency} bounds the request rate.
+     */
+    long requestDelayMs;
+
+    /**
+     * Pause of a worker after every route pair.
+     */
+    long routePairDelayMs;
+}
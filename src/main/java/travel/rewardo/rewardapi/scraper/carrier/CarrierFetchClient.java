@@ -0,0 +1,26 @@
+package travel.rewardo.rewardapi.scraper.carrier;
+
+import travel.rewardo.rewardapi.upstream.UpstreamException;
+import travel.rewardo.rewardapi.upstream.UpstreamGuards;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Fetches the raw award availability of one route-month from a carrier.
+ * <p>
+ * Calls must go through the {@link UpstreamGuards#forHost guard} of the carrier's host, which gives
+ * every carrier its own circuit breaker and adaptive concurrency limit.
+ */
+@FunctionalInterface
+public interface CarrierFetchClient {
+
+    /**
+     * @param task the route-month
+     * @param today the current date
+     * @return the response body, unparsed, so an unchanged one can be recognised before it is bound
+     * @throws UpstreamException if the call failed; retryable ones are tried again by the scheduler
+     * @throws IOException if the thread is interrupted while waiting for a permit
+     */
+    String fetch(ScrapeTask task, LocalDate today) throws IOException;
+}
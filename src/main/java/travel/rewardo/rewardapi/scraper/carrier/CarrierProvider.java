@@ -0,0 +1,63 @@
+package travel.rewardo.rewardapi.scraper.carrier;
+
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A reward programme scraped by the shared
+ * {@link travel.rewardo.rewardapi.scraper.service.RewardSeatScraperService} scheduler. Adding a
+ * carrier means adding a bean of this type: the scheduler finds every provider, runs one cycle per
+ * carrier at every tick and stores, diffs and streams the days of each under its carrier code.
+ * <p>
+ * Carriers share nothing at runtime. Each runs on its own workers within its {@link #budget()},
+ * its fetch client guards its own host, and an open circuit ends only its own cycle.
+ *
+ * @param <D> the carrier's API model of one departure day
+ */
+public interface CarrierProvider<D> {
+
+    /**
+     * @return the code stored with the carrier's flights, e.g. "VS"
+     */
+    String carrierCode();
+
+    CarrierRouteSource routeSource();
+
+    CarrierFetchClient fetchClient();
+
+    CarrierResponseMapper<D> responseMapper();
+
+    CarrierBudget budget();
+
+    /**
+     * Plans a cycle over the routes of the {@link #routeSource()}.
+     *
+     * @param routes the routes currently served, never empty
+     * @param today the current date
+     * @param now the current time in epoch milliseconds
+     * @return the work of the cycle
+     */
+    ScrapeCycle startCycle(List<Route> routes, LocalDate today, long now);
+
+    /**
+     * @return the fingerprints of the days last seen of this carrier's routes, not shared with any other carrier
+     */
+    AwardFingerprints fingerprints();
+
+    /**
+     * @return the hashes of the responses last processed for this carrier's route-months, not shared with any other carrier
+     */
+    ResponseHashes responseHashes();
+
+    /**
+     * Called after a new or changed day of the carrier is saved, for what is kept of it outside the database.
+     *
+     * @param flight the saved day
+     * @param routeKey the packed route key of the flight
+     */
+    default void flightSaved(RewardFlightLatest flight, long routeKey) {
+    }
+}
@@ -0,0 +1,41 @@
+package travel.rewardo.rewardapi.scraper.carrier;
+
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Maps a carrier's responses onto {@link RewardFlightLatest}, one departure day at a time.
+ * <p>
+ * The days stay in the carrier's own API model until one is known to have changed: the scheduler
+ * compares their {@link #fingerprint} with the one last recorded, see {@link AwardFingerprints},
+ * and only builds the entities of the days that differ.
+ *
+ * @param <D> the carrier's API model of one departure day
+ */
+public interface CarrierResponseMapper<D> {
+
+    /**
+     * @param responseBody a body returned by the {@link CarrierFetchClient}
+     * @return the departure days of the response
+     * @throws IOException if the body cannot be parsed
+     */
+    List<D> days(String responseBody) throws IOException;
+
+    /**
+     * @return the departure date of a day, null if it has none
+     */
+    LocalDate departure(D day);
+
+    /**
+     * @return a hash of the departure date and of the points and seats of every cabin of a day
+     */
+    long fingerprint(D day);
+
+    /**
+     * @return the day as an entity of the carrier, not yet saved
+     */
+    RewardFlightLatest toFlight(D day, String origin, String destination);
+}
@@ -0,0 +1,16 @@
+package travel.rewardo.rewardapi.scraper.carrier;
+
+import travel.rewardo.rewardapi.routes.model.RouteCatalog;
+
+/**
+ * Where a carrier's routes come from.
+ */
+@FunctionalInterface
+public interface CarrierRouteSource {
+
+    /**
+     * @return the routes the carrier currently serves, empty while none are known; must not go to
+     * the network, it is read at the start of every cycle
+     */
+    RouteCatalog catalog();
+}
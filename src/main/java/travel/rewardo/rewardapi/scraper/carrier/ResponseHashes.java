@@ -0,0 +1,77 @@
+package travel.rewardo.rewardapi.scraper.carrier;
+
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Remembers a hash of the last upstream response processed for every (route, year, month), so a
+ * month whose response is byte-for-byte the same as last cycle can be skipped before it is bound,
+ * diffed or compared against the database.
+ * <p>
+ * The hash is a 64-bit FNV-1a over the characters of the body, seeded with the month, so it is
+ * computed without copying the body. Per route the hashes are kept in a ring of
+ * {@link #MONTH_CAPACITY} slots indexed by month; as the month is part of the hash, a stale slot
+ * from a previous lap of the ring never matches.
+ * <p>
+ * Routes are told apart by their route key alone, so every carrier owns its own instance, see
+ * {@link CarrierProvider#responseHashes()}.
+ */
+public class ResponseHashes {
+
+    /**
+     * Number of months remembered per route. Must be a power of two and cover the scraped horizon.
+     */
+    public static final int MONTH_CAPACITY = 16;
+
+    private static final int MONTH_MASK = MONTH_CAPACITY - 1;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final ConcurrentHashMap<Long, AtomicLongArray> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Hashes a response body.
+     *
+     * @param year the scraped year
+     * @param month the scraped month, 1-12
+     * @param body the raw response body
+     * @return the hash
+     */
+    public static long of(int year, int month, String body) {
+        long hash = (FNV_OFFSET_BASIS ^ monthIndex(year, month)) * FNV_PRIME;
+        for (int i = 0, length = body.length(); i < length; i++) {
+            hash = (hash ^ body.charAt(i)) * FNV_PRIME;
+        }
+        return (hash ^ body.length()) * FNV_PRIME;
+    }
+
+    /**
+     * Returns the hash ring of a route, to be looked up once per route.
+     *
+     * @param routeKey the packed route key, see {@link RouteKey}
+     * @return the ring of the route
+     */
+    public AtomicLongArray forRoute(long routeKey) {
+        return routes.computeIfAbsent(routeKey, key -> new AtomicLongArray(MONTH_CAPACITY));
+    }
+
+    /**
+     * @return true if the month was last processed from a response with the same hash
+     */
+    public static boolean matches(AtomicLongArray ring, int year, int month, long hash) {
+        return ring.get(monthIndex(year, month) & MONTH_MASK) == hash;
+    }
+
+    /**
+     * Records the hash of a response once it has been fully processed.
+     */
+    public static void record(AtomicLongArray ring, int year, int month, long hash) {
+        ring.set(monthIndex(year, month) & MONTH_MASK, hash);
+    }
+
+    private static int monthIndex(int year, int month) {
+        return year * 12 + month - 1;
+    }
+}
@@ -0,0 +1,38 @@
+package travel.rewardo.rewardapi.scraper.carrier;
+
+
+import java.util.List;
+
+/**
+ * The work of one carrier in one scrape cycle: which route-months to fetch, and where their
+ * outcomes are recorded so they can be scheduled again.
+ */
+public interface ScrapeCycle {
+
+    /**
+     * @param now the current time in epoch milliseconds
+     * @return the next route-months to fetch, grouped by route pair; empty once the cycle is done
+     */
+    List<ScrapeTask> nextBatch(long now);
+
+    /**
+     * Records that a route-month is about to be fetched.
+     */
+    void markAttempt(ScrapeTask task, long now);
+
+    /**
+     * Records a route-month that was fetched and processed.
+     *
+     * @param processedDays the number of days compared, 0 when the response was unchanged as a whole
+     * @param changedDays the number of days whose price or seats changed
+     * @param responseHash the hash of the response, see {@link ResponseHashes}
+     */
+    void recordSuccess(ScrapeTask task, int processedDays, int changedDays, long responseHash, long now);
+
+    /**
+     * Records a route-month that could not be fetched.
+     *
+     * @param error what went wrong
+     */
+    void recordFailure(ScrapeTask task, String error, long now);
+}
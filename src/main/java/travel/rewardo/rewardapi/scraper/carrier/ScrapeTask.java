@@ -0,0 +1,29 @@
+package travel.rewardo.rewardapi.scraper.carrier;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+
+import java.time.YearMonth;
+
+/**
+ * One route-month a carrier chose to be scraped in the current cycle, see {@link ScrapeCycle}.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ScrapeTask {
+    /**
+     * The packed route key, see {@link RouteKey}.
+     */
+    private final long routeKey;
+    private final String origin;
+    private final String destination;
+    private final YearMonth month;
+    /**
+     * Months between the current month and {@link #month}, 0 for the current month.
+     */
+    private final int monthOffset;
+    private final double priority;
+}
@@ -0,0 +1,633 @@
+package travel.rewardo.rewardapi.scraper.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import travel.rewardo.rewardapi.diagnostics.DatabaseFlushEvent;
+import travel.rewardo.rewardapi.diagnostics.ScrapeDiffEvent;
+import travel.rewardo.rewardapi.diagnostics.ScrapeFetchEvent;
+import travel.rewardo.rewardapi.diagnostics.ScrapeParseEvent;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.carrier.AwardFingerprints;
+import travel.rewardo.rewardapi.scraper.carrier.CarrierBudget;
+import travel.rewardo.rewardapi.scraper.carrier.CarrierProvider;
+import travel.rewardo.rewardapi.scraper.carrier.CarrierResponseMapper;
+import travel.rewardo.rewardapi.scraper.carrier.ResponseHashes;
+import travel.rewardo.rewardapi.scraper.carrier.ScrapeCycle;
+import travel.rewardo.rewardapi.scraper.carrier.ScrapeTask;
+import travel.rewardo.rewardapi.scraper.vs.model.data.CabinAward;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatestHistoric;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestHistoricRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.stream.model.Award;
+import travel.rewardo.rewardapi.stream.service.PriceChangeEventService;
+import travel.rewardo.rewardapi.upstream.UpstreamException;
+import travel.rewardo.rewardapi.upstream.UpstreamGuards;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The one scrape scheduler shared by every {@link CarrierProvider}.
+ * Runs a scheduled task to fetch reward seats for all routes of every carrier.
+ * <p>
+ * Each tick runs the cycles of all carriers at the same time, each on its own threads and within
+ * its own {@link CarrierBudget}: up to {@code concurrency} route pairs are scraped at once, each
+ * worker pausing after every route-month and route pair. Throughput therefore grows with the
+ * number of carriers, and a carrier whose circuit opens ends only its own cycle.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RewardSeatScraperService {
+
+    private final List<CarrierProvider<?>> carrierProviders;
+    private final RewardFlightLatestRepository rewardFlightLatestRepository;
+    private final RewardFlightLatestHistoricRepository rewardFlightLatestHistoricRepository;
+    private final PriceChangeEventService priceChangeEventService;
+    private final ScraperMetrics scraperMetrics;
+    private final UpstreamGuards upstreamGuards;
+
+    @Value("${scraper.refresh-rate:${scraper.vs.refresh-rate:3600000}}")
+    private long refreshRateMs = 3600000;
+
+    // Bits of the change mask returned by processDay
+    private static final int NO_CHANGES = 0;
+    private static final int PRICE_CHANGED = 1;
+    private static final int SEATS_CHANGED = 1 << 1;
+    
+    /**
+     * Scheduled task that runs a scrape cycle of every carrier.
+     * Starts with a 30-second delay and then runs at a fixed interval defined by the scraper.refresh-rate property.
+     * Which route-months a cycle fetches is up to the carrier, see {@link CarrierProvider#startCycle}.
+     */
+    @Scheduled(initialDelay = 30000, fixedDelayString = "${scraper.refresh-rate:${scraper.vs.refresh-rate:3600000}}")
+    public void fetchRewardSeats() {
+        long cycleStart = System.nanoTime();
+        scraperMetrics.cycleStarted(System.currentTimeMillis(), refreshRateMs);
+        try {
+            scrapeCycle();
+        } finally {
+            scraperMetrics.cycleCompleted(cycleStart);
+        }
+    }
+    
+    private void scrapeCycle() {
+        log.info("Starting scheduled task to fetch reward seats for {} carriers", carrierProviders.size());
+        if (carrierProviders.size() == 1) {
+            scrapeCarrier(carrierProviders.get(0));
+            return;
+        }
+        // Closing waits for every carrier's cycle to end
+        try (ExecutorService carriers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("scrape-carrier-", 0).factory())) {
+            for (CarrierProvider<?> provider : carrierProviders) {
+                carriers.execute(() -> scrapeCarrier(provider));
+            }
+        }
+    }
+    
+    /**
+     * Runs one cycle of a carrier, batch after batch, until the carrier has no more work for it or
+     * its cycle has to end early.
+     */
+    private void scrapeCarrier(CarrierProvider<?> provider) {
+        String carrier = provider.carrierCode();
+        try {
+            // Get all routes of the carrier, kept current by its route source
+            List<Route> routes = provider.routeSource().catalog().routes();
+            if (routes.isEmpty()) {
+                log.warn("No {} routes available. Skipping reward seat fetch.", carrier);
+                return;
+            }
+
+            LocalDate today = LocalDate.now();
+            ScrapeCycle cycle = provider.startCycle(routes, today, System.currentTimeMillis());
+            int fetched = 0;
+            for (List<ScrapeTask> batch = cycle.nextBatch(System.currentTimeMillis()); !batch.isEmpty();
+                 batch = cycle.nextBatch(System.currentTimeMillis())) {
+                if (!scrapeBatch(provider, cycle, batch, today)) {
+                    return;
+                }
+                fetched += batch.size();
+            }
+            log.info("Completed fetching {} reward seats for {} route-months", carrier, fetched);
+        } catch (RuntimeException e) {
+            log.error("{} scrape cycle failed", carrier, e);
+        }
+    }
+
+    /**
+     * Scrapes a batch of route-months, grouped by route pair, spreading the route pairs over the
+     * workers of the carrier's {@link CarrierBudget}.
+     *
+     * @return false if the thread was interrupted or the carrier's circuit opened, so the cycle should end
+     */
+    private boolean scrapeBatch(CarrierProvider<?> provider, ScrapeCycle cycle, List<ScrapeTask> batch, LocalDate today) {
+        List<List<ScrapeTask>> routePairs = new ArrayList<>();
+        for (int start = 0, end; start < batch.size(); start = end) {
+            long routeKey = batch.get(start).getRouteKey();
+            for (end = start + 1; end < batch.size() && batch.get(end).getRouteKey() == routeKey; end++) {
+                // Extend the run of the route pair
+            }
+            routePairs.add(batch.subList(start, end));
+        }
+
+        CarrierBudget budget = provider.budget();
+        int workers = Math.min(Math.max(budget.getConcurrency(), 1), routePairs.size());
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean ended = new AtomicBoolean();
+        Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < routePairs.size() && !ended.get(); i = next.getAndIncrement()) {
+                if (!scrapeRoutePair(provider, cycle, routePairs.get(i), today, budget)) {
+                    ended.set(true);
+                }
+            }
+        };
+        if (workers <= 1) {
+            worker.run();
+        } else {
+            try (ExecutorService pool = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("scrape-" + provider.carrierCode().toLowerCase() + "-", 0).factory())) {
+                for (int i = 0; i < workers; i++) {
+                    pool.execute(worker);
+                }
+            }
+        }
+        return !ended.get() && !Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Fetches and processes the route-months of one route pair, pacing requests within and after the route pair.
+     *
+     * @param tasks the route-months of the route pair
+     * @param today the current date
+     * @param budget the pacing of the carrier
+     * @return false if the thread was interrupted or the carrier's circuit opened, so the cycle should end
+     */
+    private <D> boolean scrapeRoutePair(CarrierProvider<D> provider, ScrapeCycle cycle, List<ScrapeTask> tasks, LocalDate today,
+                                        CarrierBudget budget) {
+        CarrierResponseMapper<D> mapper = provider.responseMapper();
+        ScraperMetrics.CarrierMeters meters = scraperMetrics.forCarrier(provider.carrierCode());
+        ScrapeTask first = tasks.get(0);
+        long routeStart = System.nanoTime();
+        long routeKey = first.getRouteKey();
+        String origin = first.getOrigin();
+        String destination = first.getDestination();
+        AtomicLongArray fingerprints = provider.fingerprints().forRoute(routeKey);
+        AtomicLongArray monthHashes = provider.responseHashes().forRoute(routeKey);
+        // Counters for route pair summary
+        int priceChangesCount = 0;
+        int seatChangesCount = 0;
+        int totalProcessedDays = 0;
+        
+        // Process each planned month of the route pair
+        for (ScrapeTask task : tasks) {
+            String month = task.getMonth().getMonth().toString();
+            int year = task.getMonth().getYear();
+            int monthValue = task.getMonth().getMonthValue();
+            
+            try {
+                // Fetch reward seats
+                log.info("Fetching {} reward seats for route: {} to {}, month: {}, year: {}", 
+                        provider.carrierCode(), origin, destination, month, year);
+                cycle.markAttempt(task, System.currentTimeMillis());
+                String responseBody = fetch(provider, task, today);
+                
+                // Skip binding and diffing when the response is identical to the last one processed
+                long responseHash = ResponseHashes.of(year, monthValue, responseBody);
+                if (ResponseHashes.matches(monthHashes, year, monthValue, responseHash)) {
+                    log.info("Response for {} to {}, month: {}, year: {} unchanged since it was last processed", 
+                            origin, destination, month, year);
+                    meters.monthUnchanged();
+                    cycle.recordSuccess(task, 0, 0, responseHash, System.currentTimeMillis());
+                } else {
+                    long decodeStart = System.nanoTime();
+                    ScrapeParseEvent parseEvent = new ScrapeParseEvent();
+                    parseEvent.begin();
+                    List<D> days = mapper.days(responseBody);
+                    parseEvent.end();
+                    meters.decoded(decodeStart);
+                    if (parseEvent.shouldCommit()) {
+                        parseEvent.route = RouteKey.toString(routeKey);
+                        parseEvent.month = task.getMonth().toString();
+                        parseEvent.responseBytes = responseBody.length();
+                        parseEvent.days = days.size();
+                        parseEvent.commit();
+                    }
+                    int monthProcessedDays = 0;
+                    int monthChangedDays = 0;
+                    int monthPriceChanges = 0;
+                    int monthSeatChanges = 0;
+                    ScrapeDiffEvent diffEvent = new ScrapeDiffEvent();
+                    diffEvent.begin();
+                    
+                    // Process results
+                    log.info("Processing results for {} to {}:", origin, destination);
+                    for (D day : days) {
+                        int changes = processDay(provider, mapper, meters, day, routeKey, fingerprints, origin, destination);
+                        
+                        // Update counters
+                        monthProcessedDays++;
+                        if (changes != NO_CHANGES) {
+                            monthChangedDays++;
+                        }
+                        if ((changes & PRICE_CHANGED) != 0) {
+                            monthPriceChanges++;
+                            meters.priceChanged();
+                        }
+                        if ((changes & SEATS_CHANGED) != 0) {
+                            monthSeatChanges++;
+                            meters.seatsChanged();
+                        }
+                    }
+                    priceChangesCount += monthPriceChanges;
+                    seatChangesCount += monthSeatChanges;
+                    diffEvent.end();
+                    if (diffEvent.shouldCommit()) {
+                        diffEvent.route = RouteKey.toString(routeKey);
+                        diffEvent.month = task.getMonth().toString();
+                        diffEvent.processedDays = monthProcessedDays;
+                        diffEvent.changedDays = monthChangedDays;
+                        diffEvent.priceChanges = monthPriceChanges;
+                        diffEvent.seatChanges = monthSeatChanges;
+                        diffEvent.commit();
+                    }
+                    totalProcessedDays += monthProcessedDays;
+                    meters.daysProcessed(monthProcessedDays);
+                    
+                    ResponseHashes.record(monthHashes, year, monthValue, responseHash);
+                    meters.monthProcessed();
+                    cycle.recordSuccess(task, monthProcessedDays, monthChangedDays, responseHash, System.currentTimeMillis());
+                }
+                
+                // Pace the requests of this worker
+                Thread.sleep(budget.getRequestDelayMs());
+                
+            } catch (UpstreamException e) {
+                log.error("Error fetching {} reward seats for route: {} to {}, month: {}, year: {}: {}", 
+                        provider.carrierCode(), origin, destination, month, year, e.getMessage());
+                cycle.recordFailure(task, e.getMessage(), System.currentTimeMillis());
+                if (e.isCircuitOpen()) {
+                    // Leave the remaining route-months due rather than burning through them against a failing host
+                    log.warn("{} upstream unavailable, ending its cycle early", provider.carrierCode());
+                    return false;
+                }
+            } catch (IOException e) {
+                log.error("Error fetching {} reward seats for route: {} to {}, month: {}, year: {}", 
+                        provider.carrierCode(), origin, destination, month, year, e);
+                cycle.recordFailure(task, e.toString(), System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                // A month the mapper or the database chokes on costs only that month, not the worker or the cycle
+                log.error("Error processing {} reward seats for route: {} to {}, month: {}, year: {}", 
+                        provider.carrierCode(), origin, destination, month, year, e);
+                cycle.recordFailure(task, e.toString(), System.currentTimeMillis());
+            } catch (InterruptedException e) {
+                log.error("Thread interrupted while waiting between API calls", e);
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        
+        // Log summary for the route pair
+        log.info("Route pair summary: {} to {} - Processing complete. Stats: {} days processed, {} price changes, {} seat changes", 
+                origin, destination, totalProcessedDays, priceChangesCount, seatChangesCount);
+        meters.routeCompleted(routeStart);
+        
+        // Add delay between route pairs
+        try {
+            log.info("Waiting {} seconds before processing next route pair", budget.getRoutePairDelayMs() / 1000);
+            Thread.sleep(budget.getRoutePairDelayMs());
+        } catch (InterruptedException e) {
+            log.error("Thread interrupted while waiting between route pairs", e);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Fetches a route-month with {@link #fetchWithRetry}, recording a {@link ScrapeFetchEvent}.
+     */
+    private String fetch(CarrierProvider<?> provider, ScrapeTask task, LocalDate today) throws IOException, InterruptedException {
+        ScrapeFetchEvent event = new ScrapeFetchEvent();
+        event.begin();
+        String responseBody = null;
+        try {
+            responseBody = fetchWithRetry(provider, task, today);
+            return responseBody;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.route = RouteKey.toString(task.getRouteKey());
+                event.month = task.getMonth().toString();
+                // The body is ASCII JSON, so its length is its size
+                event.responseBytes = responseBody != null ? responseBody.length() : 0L;
+                event.succeeded = responseBody != null;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * Fetches a route-month, trying retryable failures again after an exponential, jittered backoff.
+     * Permanent failures and an open circuit are not retried.
+     */
+    private String fetchWithRetry(CarrierProvider<?> provider, ScrapeTask task, LocalDate today) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return provider.fetchClient().fetch(task, today);
+            } catch (UpstreamException e) {
+                if (!e.isRetryable() || e.isCircuitOpen() || attempt >= upstreamGuards.maxAttempts()) {
+                    throw e;
+                }
+                long delayMs = upstreamGuards.backoffMs(attempt, e.getRetryAfterMs());
+                log.warn("Attempt {} failed: {}. Retrying in {} ms", attempt, e.getMessage(), delayMs);
+                Thread.sleep(delayMs);
+            }
+        }
+    }
+    
+    /**
+     * Compares the price and seat availability of two RewardFlightLatest objects.
+     * 
+     * @param existing the existing RewardFlightLatest object from the database
+     * @param newEntry the new RewardFlightLatest object created from the API response
+     * @return a mask of {@link #PRICE_CHANGED} and {@link #SEATS_CHANGED}, {@link #NO_CHANGES} if nothing changed
+     */
+    int detectChanges(RewardFlightLatest existing, RewardFlightLatest newEntry) {
+        // Check if points values have changed
+        boolean pointsChanged = points(existing.getAwardEconomy()) != points(newEntry.getAwardEconomy())
+                || points(existing.getAwardPremiumEconomy()) != points(newEntry.getAwardPremiumEconomy())
+                || points(existing.getAwardBusiness()) != points(newEntry.getAwardBusiness());
+        
+        // Check if seat counts have changed
+        boolean seatsChanged = seats(existing.getAwardEconomy()) != seats(newEntry.getAwardEconomy())
+                || seats(existing.getAwardPremiumEconomy()) != seats(newEntry.getAwardPremiumEconomy())
+                || seats(existing.getAwardBusiness()) != seats(newEntry.getAwardBusiness());
+        
+        return (pointsChanged ? PRICE_CHANGED : NO_CHANGES) | (seatsChanged ? SEATS_CHANGED : NO_CHANGES);
+    }
+    
+    /**
+     * @return the points of a cabin as a primitive, -1 when the cabin or its points are missing
+     */
+    private static long points(CabinAward award) {
+        return award != null && award.getCabinPointsValue() != null ? award.getCabinPointsValue() : -1L;
+    }
+    
+    /**
+     * @return the seat count of a cabin as a primitive, -1 when the cabin or its seat count are missing
+     */
+    private static long seats(CabinAward award) {
+        return award != null && award.getCabinClassSeatCount() != null ? award.getCabinClassSeatCount() : -1L;
+    }
+    
+    /**
+     * Processes a day of a carrier's response by creating RewardFlightLatest and RewardFlightLatestHistoric objects
+     * and saving them to the database if needed.
+     * <p>
+     * Days whose fingerprint matches the one last recorded for them are skipped before anything is
+     * looked up or built, see {@link AwardFingerprints}.
+     * 
+     * @param provider the carrier the day was fetched from
+     * @param mapper the carrier's response mapper
+     * @param day the day from the API response
+     * @param routeKey the packed route key, see {@link RouteKey}
+     * @param fingerprints the fingerprint ring of the route
+     * @param origin the origin airport code
+     * @param destination the destination airport code
+     * @return a mask of {@link #PRICE_CHANGED} and {@link #SEATS_CHANGED}, {@link #NO_CHANGES} if nothing changed
+     */
+    private <D> int processDay(CarrierProvider<D> provider, CarrierResponseMapper<D> mapper,
+                               ScraperMetrics.CarrierMeters meters, D day, long routeKey,
+                               AtomicLongArray fingerprints, String origin, String destination) {
+        LocalDate departure = mapper.departure(day);
+        long epochDay = departure != null ? departure.toEpochDay() : Long.MIN_VALUE;
+        long fingerprint = mapper.fingerprint(day);
+        if (AwardFingerprints.matches(fingerprints, epochDay, fingerprint)) {
+            return NO_CHANGES;
+        }
+        
+        log.debug("Processing {} day for {} to {} on {}", provider.carrierCode(), origin, destination, departure);
+        
+        // Create a new RewardFlightLatest object from the day
+        RewardFlightLatest newEntry = mapper.toFlight(day, origin, destination);
+        
+        // Check if an entry already exists in the database
+        long readStart = System.nanoTime();
+        Optional<RewardFlightLatest> existingOptional = rewardFlightLatestRepository
+                .findByOriginAndDestinationAndDepartureAndCarrierCode(
+                        origin, destination, departure, provider.carrierCode());
+        meters.databaseRead(readStart);
+        
+        if (existingOptional.isPresent()) {
+            // Entry exists, check if price or seats have changed
+            RewardFlightLatest existing = existingOptional.get();
+            
+            int changes = detectChanges(existing, newEntry);
+            if (changes != NO_CHANGES) {
+                log.info("Price or seat availability changed for {} to {} on {}", 
+                        origin, destination, departure);
+                
+                // Create a historic record of the existing entry before updating it
+                long writeStart = System.nanoTime();
+                DatabaseFlushEvent flushEvent = new DatabaseFlushEvent();
+                flushEvent.begin();
+                RewardFlightLatestHistoric historic = createRewardFlightLatestHistoric(existing);
+                rewardFlightLatestHistoricRepository.save(historic);
+                
+                // Update the ID of the new entry to match the existing one
+                newEntry.setId(existing.getId());
+                
+                // Save the updated entry
+                rewardFlightLatestRepository.save(newEntry);
+                meters.databaseWritten(writeStart);
+                commit(flushEvent, routeKey, departure, 2);
+                provider.flightSaved(newEntry, routeKey);
+                log.debug("Updated RewardFlightLatest and created historic record");
+                
+                // Send the old and new price to the PriceChangeEventService
+                priceChangeEventService.emitPriceChange(
+                    Optional.of(convertToStreamModel(existing, routeKey)), 
+                    Optional.of(convertToStreamModel(newEntry, routeKey)));
+                
+                // Return the change information to the caller
+                AwardFingerprints.record(fingerprints, epochDay, fingerprint);
+                return changes;
+            } else {
+                log.debug("No change in price or seat availability, skipping update");
+            }
+        } else {
+            // Entry doesn't exist, save the new entry
+            long writeStart = System.nanoTime();
+            DatabaseFlushEvent flushEvent = new DatabaseFlushEvent();
+            flushEvent.begin();
+            rewardFlightLatestRepository.save(newEntry);
+            meters.databaseWritten(writeStart);
+            commit(flushEvent, routeKey, departure, 1);
+            provider.flightSaved(newEntry, routeKey);
+            log.debug("Created new RewardFlightLatest entry");
+        }
+        AwardFingerprints.record(fingerprints, epochDay, fingerprint);
+        return NO_CHANGES;
+    }
+    
+    private static void commit(DatabaseFlushEvent event, long routeKey, LocalDate departure, int rows) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.route = RouteKey.toString(routeKey);
+            event.departure = String.valueOf(departure);
+            event.rows = rows;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Creates a RewardFlightLatestHistoric object from a RewardFlightLatest object.
+     * 
+     * @param rewardFlightLatest the RewardFlightLatest object
+     * @return a new RewardFlightLatestHistoric object
+     */
+    private RewardFlightLatestHistoric createRewardFlightLatestHistoric(RewardFlightLatest rewardFlightLatest) {
+        // Create default empty award objects
+        travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy awardEconomy = 
+            travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy.builder().build();
+        
+        travel.rewardo.rewardapi.scraper.vs.model.data.AwardPremiumEconomy awardPremiumEconomy = 
+            travel.rewardo.rewardapi.scraper.vs.model.data.AwardPremiumEconomy.builder().build();
+        
+        travel.rewardo.rewardapi.scraper.vs.model.data.AwardBusiness awardBusiness = 
+            travel.rewardo.rewardapi.scraper.vs.model.data.AwardBusiness.builder().build();
+            
+        // Only populate if award data is available
+        if (rewardFlightLatest.getAwardEconomy() != null) {
+            awardEconomy = travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy.builder()
+                .cabinPointsValue(rewardFlightLatest.getAwardEconomy().getCabinPointsValue())
+                .isSaverAward(rewardFlightLatest.getAwardEconomy().getIsSaverAward())
+                .cabinClassSeatCount(rewardFlightLatest.getAwardEconomy().getCabinClassSeatCount())
+                .cabinClassSeatCountString(rewardFlightLatest.getAwardEconomy().getCabinClassSeatCountString())
+                .build();
+        }
+        
+        if (rewardFlightLatest.getAwardPremiumEconomy() != null) {
+            // Create award premium economy
+            awardPremiumEconomy = travel.rewardo.rewardapi.scraper.vs.model.data.AwardPremiumEconomy.builder()
+                .cabinPointsValue(rewardFlightLatest.getAwardPremiumEconomy().getCabinPointsValue())
+                .isSaverAward(rewardFlightLatest.getAwardPremiumEconomy().getIsSaverAward())
+                .cabinClassSeatCount(rewardFlightLatest.getAwardPremiumEconomy().getCabinClassSeatCount())
+                .cabinClassSeatCountString(rewardFlightLatest.getAwardPremiumEconomy().getCabinClassSeatCountString())
+                .build();
+        }
+        
+        if (rewardFlightLatest.getAwardBusiness() != null) {
+            // Create award business
+            awardBusiness = travel.rewardo.rewardapi.scraper.vs.model.data.AwardBusiness.builder()
+                .cabinPointsValue(rewardFlightLatest.getAwardBusiness().getCabinPointsValue())
+                .isSaverAward(rewardFlightLatest.getAwardBusiness().getIsSaverAward())
+                .cabinClassSeatCount(rewardFlightLatest.getAwardBusiness().getCabinClassSeatCount())
+                .cabinClassSeatCountString(rewardFlightLatest.getAwardBusiness().getCabinClassSeatCountString())
+                .build();
+        }
+        
+        // Create award first (null if it's not in the original)
+        travel.rewardo.rewardapi.scraper.vs.model.data.AwardFirst awardFirst = null;
+        if (rewardFlightLatest.getAwardFirst() != null) {
+            awardFirst = travel.rewardo.rewardapi.scraper.vs.model.data.AwardFirst.builder()
+                .cabinPointsValue(rewardFlightLatest.getAwardFirst().getCabinPointsValue())
+                .isSaverAward(rewardFlightLatest.getAwardFirst().getIsSaverAward())
+                .cabinClassSeatCount(rewardFlightLatest.getAwardFirst().getCabinClassSeatCount())
+                .cabinClassSeatCountString(rewardFlightLatest.getAwardFirst().getCabinClassSeatCountString())
+                .build();
+        }
+        
+        // Create and return the RewardFlightLatestHistoric object
+        return RewardFlightLatestHistoric.builder()
+                .origin(rewardFlightLatest.getOrigin())
+                .destination(rewardFlightLatest.getDestination())
+                .departure(rewardFlightLatest.getDeparture())
+                .carrierCode(rewardFlightLatest.getCarrierCode())
+                .scrapedAt(rewardFlightLatest.getScrapedAt())
+                .awardEconomy(awardEconomy)
+                .awardPremiumEconomy(awardPremiumEconomy)
+                .awardBusiness(awardBusiness)
+                .awardFirst(awardFirst)
+                .build();
+    }
+    
+    /**
+     * Converts a RewardFlightLatest from the scraper model to the stream model.
+     * 
+     * @param scraperModel the RewardFlightLatest from the scraper model
+     * @param routeKey the packed route key of the flight
+     * @return a RewardFlightLatest from the stream model
+     */
+    travel.rewardo.rewardapi.stream.model.RewardFlightLatest convertToStreamModel(RewardFlightLatest scraperModel, long routeKey) {
+        // Create award objects for each cabin class
+        Award awardEconomy = null;
+        if (scraperModel.getAwardEconomy() != null) {
+            awardEconomy = Award.builder()
+                .cabinPointsValue(scraperModel.getAwardEconomy().getCabinPointsValue())
+                .isSaverAward(scraperModel.getAwardEconomy().getIsSaverAward())
+                .cabinClassSeatCount(scraperModel.getAwardEconomy().getCabinClassSeatCount())
+                .cabinClassSeatCountString(scraperModel.getAwardEconomy().getCabinClassSeatCountString())
+                .build();
+        }
+        
+        Award awardPremiumEconomy = null;
+        if (scraperModel.getAwardPremiumEconomy() != null) {
+            awardPremiumEconomy = Award.builder()
+                .cabinPointsValue(scraperModel.getAwardPremiumEconomy().getCabinPointsValue())
+                .isSaverAward(scraperModel.getAwardPremiumEconomy().getIsSaverAward())
+                .cabinClassSeatCount(scraperModel.getAwardPremiumEconomy().getCabinClassSeatCount())
+                .cabinClassSeatCountString(scraperModel.getAwardPremiumEconomy().getCabinClassSeatCountString())
+                .build();
+        }
+        
+        Award awardBusiness = null;
+        if (scraperModel.getAwardBusiness() != null) {
+            awardBusiness = Award.builder()
+                .cabinPointsValue(scraperModel.getAwardBusiness().getCabinPointsValue())
+                .isSaverAward(scraperModel.getAwardBusiness().getIsSaverAward())
+                .cabinClassSeatCount(scraperModel.getAwardBusiness().getCabinClassSeatCount())
+                .cabinClassSeatCountString(scraperModel.getAwardBusiness().getCabinClassSeatCountString())
+                .build();
+        }
+        
+        Award awardFirst = null;
+        if (scraperModel.getAwardFirst() != null) {
+            awardFirst = Award.builder()
+                .cabinPointsValue(scraperModel.getAwardFirst().getCabinPointsValue())
+                .isSaverAward(scraperModel.getAwardFirst().getIsSaverAward())
+                .cabinClassSeatCount(scraperModel.getAwardFirst().getCabinClassSeatCount())
+                .cabinClassSeatCountString(scraperModel.getAwardFirst().getCabinClassSeatCountString())
+                .build();
+        }
+        
+        // Create and return the stream model
+        return travel.rewardo.rewardapi.stream.model.RewardFlightLatest.builder()
+            .id(scraperModel.getId())
+            .routeKey(routeKey)
+            .origin(scraperModel.getOrigin())
+            .destination(scraperModel.getDestination())
+            .departure(scraperModel.getDeparture())
+            .carrierCode(scraperModel.getCarrierCode())
+            .scrapedAt(scraperModel.getScrapedAt())
+            .awardEconomy(awardEconomy)
+            .awardPremiumEconomy(awardPremiumEconomy)
+            .awardBusiness(awardBusiness)
+            .awardFirst(awardFirst)
+            .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package travel.rewardo.rewardapi.scraper.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters describing how much work each scrape cycle actually does and where its time goes.
+ * <p>
+ * The work of a cycle is metered per carrier, tagged with its code, see {@link #forCarrier}. The
+ * cycle itself spans every carrier and is not tagged with one.
+ * <p>
+ * Upstream latency per step is measured on the HTTP client itself, as {@code upstream.requests}
+ * tagged with the step, see {@link travel.rewardo.rewardapi.config.ApiClientConfig}.
+ */
+@Component
+public class ScraperMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CarrierMeters> carriers = new ConcurrentHashMap<>();
+    private final Timer cycleDuration;
+    private final AtomicLong cycleLagMs = new AtomicLong();
+    private final AtomicLong lastCycleStartMs = new AtomicLong();
+
+    public ScraperMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.cycleDuration = Timer.builder("scraper.cycle.duration")
+                .description("Time of one scheduled scrape cycle, across every carrier")
+                .register(meterRegistry);
+        Gauge.builder("scraper.cycle.lag", cycleLagMs, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .description("How much later than the refresh rate the last cycle started after the one before it")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the meters of a carrier, registering them on first use. Callers look them up once per
+     * route pair rather than once per day.
+     *
+     * @param carrierCode the code of the carrier, e.g. "VS"
+     * @return the meters tagged with the carrier
+     */
+    public CarrierMeters forCarrier(String carrierCode) {
+        return carriers.computeIfAbsent(carrierCode, carrier -> new CarrierMeters(meterRegistry, carrier));
+    }
+
+    /**
+     * Records the start of a cycle. The scheduler waits {@code refreshRateMs} after the end of the
+     * previous cycle, so the lag is the time the previous cycle itself took, or more if the scheduler
+     * was held up.
+     */
+    public void cycleStarted(long nowMs, long refreshRateMs) {
+        long previous = lastCycleStartMs.getAndSet(nowMs);
+        if (previous > 0) {
+            cycleLagMs.set(Math.max(0L, nowMs - previous - refreshRateMs));
+        }
+    }
+
+    public void cycleCompleted(long startNanos) {
+        cycleDuration.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The meters of one carrier's work.
+     */
+    public static final class CarrierMeters {
+
+        private final Counter monthsProcessed;
+        private final Counter monthsUnchanged;
+        private final Counter daysProcessed;
+        private final Counter priceChanges;
+        private final Counter seatChanges;
+        private final Timer decode;
+        private final Timer databaseRead;
+        private final Timer databaseWrite;
+        private final Timer routeDuration;
+
+        private CarrierMeters(MeterRegistry meterRegistry, String carrier) {
+            this.monthsProcessed = Counter.builder("scraper.months")
+                    .tag("carrier", carrier)
+                    .tag("result", "processed")
+                    .description("Route-months whose response was bound and compared against the database")
+                    .register(meterRegistry);
+            this.monthsUnchanged = Counter.builder("scraper.months")
+                    .tag("carrier", carrier)
+                    .tag("result", "unchanged")
+                    .description("Route-months skipped because the response was identical to the last one processed")
+                    .register(meterRegistry);
+            this.daysProcessed = Counter.builder("scraper.days")
+                    .tag("carrier", carrier)
+                    .description("Days of bound responses that were processed")
+                    .register(meterRegistry);
+            this.priceChanges = Counter.builder("scraper.changes")
+                    .tag("carrier", carrier)
+                    .tag("kind", "price")
+                    .description("Days whose points changed since they were last stored")
+                    .register(meterRegistry);
+            this.seatChanges = Counter.builder("scraper.changes")
+                    .tag("carrier", carrier)
+                    .tag("kind", "seats")
+                    .description("Days whose seat counts changed since they were last stored")
+                    .register(meterRegistry);
+            this.decode = Timer.builder("scraper.decode")
+                    .tag("carrier", carrier)
+                    .description("Time to bind one route-month response")
+                    .register(meterRegistry);
+            this.databaseRead = Timer.builder("scraper.db")
+                    .tag("carrier", carrier)
+                    .tag("operation", "read")
+                    .description("Time to look up the stored flight of one day")
+                    .register(meterRegistry);
+            this.databaseWrite = Timer.builder("scraper.db")
+                    .tag("carrier", carrier)
+                    .tag("operation", "write")
+                    .description("Time to store the flight, and its history when it changed, of one day")
+                    .register(meterRegistry);
+            this.routeDuration = Timer.builder("scraper.route.duration")
+                    .tag("carrier", carrier)
+                    .description("Time to scrape the planned route-months of one route pair, pauses included")
+                    .register(meterRegistry);
+        }
+
+        public void monthProcessed() {
+            monthsProcessed.increment();
+        }
+
+        public void monthUnchanged() {
+            monthsUnchanged.increment();
+        }
+
+        public void daysProcessed(int days) {
+            daysProcessed.increment(days);
+        }
+
+        public void priceChanged() {
+            priceChanges.increment();
+        }
+
+        public void seatsChanged() {
+            seatChanges.increment();
+        }
+
+        public void decoded(long startNanos) {
+            decode.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void databaseRead(long startNanos) {
+            databaseRead.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void databaseWritten(long startNanos) {
+            databaseWrite.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void routeCompleted(long startNanos) {
+            routeDuration.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -4,19 +4,27 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import travel.rewardo.rewardapi.scraper.vs.model.api.AwardCalendar;
 import travel.rewardo.rewardapi.scraper.vs.model.api.FlightRequest;
+import travel.rewardo.rewardapi.upstream.UpstreamException;
+import travel.rewardo.rewardapi.upstream.UpstreamGuard;
+import travel.rewardo.rewardapi.upstream.UpstreamGuards;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * API client for Virgin Atlantic reward seat checker API.
  * Makes two sequential requests:
  * 1. POST request to the initial URL
  * 2. GET request to the Location header URL from the first response, using cookies from the first response
+ * <p>
+ * Every exchange goes through the {@link UpstreamGuard} of the host, and failures are reported as
+ * {@link UpstreamException}s that tell retryable from permanent ones.
  */
 @Service
 @RequiredArgsConstructor
@@ -26,6 +34,10 @@ public class VirginAtlanticApiClient {
     private static final String INITIAL_URL = "https://www.virginatlantic.com/travelplus/reward-seat-checker-api/";
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final UpstreamGuards upstreamGuards;
+
+    @Value("${scraper.vs.api-url:" + INITIAL_URL + "}")
+    private String initialUrl = INITIAL_URL;
 
     /**
      * Fetches reward seat information by making two sequential requests.
@@ -35,9 +47,42 @@ public class VirginAtlanticApiClient {
      * @throws IOException if an error occurs during the HTTP requests or response parsing
      */
     public List<AwardCalendar> fetchRewardSeatInfo(String requestBody) throws IOException {
+        return parseRewardSeatInfo(fetchRewardSeatResponse(requestBody));
+    }
+
+    /**
+     * Makes the two sequential requests and returns the raw body of the second response, unparsed,
+     * so callers can recognise a response they have already processed before paying for binding it.
+     *
+     * @param requestBody The JSON string request body for the initial POST request
+     * @return the JSON body of the second response
+     * @throws UpstreamException if the requests fail or the circuit of the host is open
+     * @throws IOException if the thread is interrupted while waiting for a permit
+     */
+    public String fetchRewardSeatResponse(String requestBody) throws IOException {
+        UpstreamGuard guard = upstreamGuards.forUrl(initialUrl);
+        guard.acquire();
+        long start = System.nanoTime();
+        try {
+            String responseBody = exchange(requestBody);
+            guard.onSuccess(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return responseBody;
+        } catch (UpstreamException e) {
+            guard.onFailure(e.isRetryable());
+            throw e;
+        } catch (IOException e) {
+            guard.onFailure(true);
+            throw UpstreamException.network(guard.host(), e);
+        } catch (RuntimeException e) {
+            guard.onFailure(false);
+            throw e;
+        }
+    }
+
+    private String exchange(String requestBody) throws IOException {
         // First request - POST to initial URL
         Request initialRequest = new Request.Builder()
-                .url(INITIAL_URL)
+                .url(initialUrl)
                 .post(RequestBody.create(requestBody, MediaType.parse("application/json")))
                 .header("Content-Type", "application/json")
                 .header("User-Agent", "PostmanRuntime/7.44.1")
@@ -45,18 +90,20 @@ public class VirginAtlanticApiClient {
                 .header("Host", "www.virginatlantic.com")
                 .header("Accept-Encoding", "gzip, deflate, br")
                 .header("Connection", "keep-alive")
+                .tag(String.class, "initial")
                 .build();
 
         try (Response initialResponse = httpClient.newCall(initialRequest).execute()) {
             // Check if response is successful (2xx) or a redirect (3xx)
             if (!initialResponse.isSuccessful() && (initialResponse.code() < 300 || initialResponse.code() >= 400)) {
-                throw new IOException("Unexpected response code: " + initialResponse.code());
+                throw UpstreamException.forStatus("Unexpected response code: " + initialResponse.code(),
+                        initialResponse.code(), initialResponse.header("Retry-After"));
             }
 
             // Extract Location header
             String locationUrl = initialResponse.header("Location");
             if (locationUrl == null) {
-                throw new IOException("Location header not found in the response");
+                throw UpstreamException.incomplete("Location header not found in the response");
             }
 
             // Extract cookies
@@ -83,20 +130,31 @@ public class VirginAtlanticApiClient {
                     .header("Accept", "*/*")
                     .header("Cookie", cookieHeader.toString())
                     .get()
+                    .tag(String.class, "redirect")
                     .build();
 
             try (Response secondResponse = httpClient.newCall(secondRequest).execute()) {
                 if (!secondResponse.isSuccessful()) {
-                    throw new IOException("Unexpected response code from second request: " + secondResponse.code());
+                    throw UpstreamException.forStatus("Unexpected response code from second request: " + secondResponse.code(),
+                            secondResponse.code(), secondResponse.header("Retry-After"));
                 }
 
-                // Parse response body to POJO
-                String responseBody = Objects.requireNonNull(secondResponse.body()).string();
-                return objectMapper.readValue(responseBody, objectMapper.getTypeFactory().constructCollectionType(List.class, AwardCalendar.class));
+                return Objects.requireNonNull(secondResponse.body()).string();
             }
         }
     }
 
+    /**
+     * Parses a response body returned by {@link #fetchRewardSeatResponse}.
+     *
+     * @param responseBody the JSON body of the second response
+     * @return List of AwardCalendar objects containing the parsed response
+     * @throws IOException if the body cannot be parsed
+     */
+    public List<AwardCalendar> parseRewardSeatInfo(String responseBody) throws IOException {
+        return objectMapper.readValue(responseBody, objectMapper.getTypeFactory().constructCollectionType(List.class, AwardCalendar.class));
+    }
+
     /**
      * Fetches reward seat information by making two sequential requests.
      *
@@ -108,4 +166,15 @@ public class VirginAtlanticApiClient {
         // Convert FlightRequest to JSON string and delegate to the String-based method
         return fetchRewardSeatInfo(objectMapper.writeValueAsString(flightRequest));
     }
+
+    /**
+     * Fetches the raw reward seat response, see {@link #fetchRewardSeatResponse(String)}.
+     *
+     * @param flightRequest The request body for the initial POST request
+     * @return the JSON body of the second response
+     * @throws IOException if an error occurs during the HTTP requests
+     */
+    public String fetchRewardSeatResponse(FlightRequest flightRequest) throws IOException {
+        return fetchRewardSeatResponse(objectMapper.writeValueAsString(flightRequest));
+    }
 }
\ No newline at end of file
@@ -12,7 +12,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Entity(name = "REWARD_FLIGHT_LATEST_AWARD_BUSINESS")
 @Table(name = "REWARD_FLIGHT_LATEST_AWARD_BUSINESS")
-public class AwardBusiness {
+public class AwardBusiness implements CabinAward {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
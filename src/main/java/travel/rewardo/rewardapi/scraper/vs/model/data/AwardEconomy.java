@@ -12,7 +12,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Entity(name = "REWARD_FLIGHT_LATEST_AWARD_ECONOMY")
 @Table(name = "REWARD_FLIGHT_LATEST_AWARD_ECONOMY")
-public class AwardEconomy {
+public class AwardEconomy implements CabinAward {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
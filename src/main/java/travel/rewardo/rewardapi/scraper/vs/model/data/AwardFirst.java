@@ -12,7 +12,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Entity(name = "REWARD_FLIGHT_LATEST_AWARD_FIRST")
 @Table(name = "REWARD_FLIGHT_LATEST_AWARD_FIRST")
-public class AwardFirst {
+public class AwardFirst implements CabinAward {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
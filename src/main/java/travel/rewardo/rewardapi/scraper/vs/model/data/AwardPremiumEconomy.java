@@ -12,7 +12,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Entity(name = "REWARD_FLIGHT_LATEST_AWARD_PREMIUM_ECONOMY")
 @Table(name = "REWARD_FLIGHT_LATEST_AWARD_PREMIUM_ECONOMY")
-public class AwardPremiumEconomy {
+public class AwardPremiumEconomy implements CabinAward {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
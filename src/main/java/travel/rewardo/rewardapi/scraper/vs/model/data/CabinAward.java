@@ -0,0 +1,15 @@
+package travel.rewardo.rewardapi.scraper.vs.model.data;
+
+/**
+ * The award values shared by every cabin entity, so cabins can be compared without knowing their type.
+ */
+public interface CabinAward {
+
+    Integer getCabinPointsValue();
+
+    Boolean getIsSaverAward();
+
+    Integer getCabinClassSeatCount();
+
+    String getCabinClassSeatCountString();
+}
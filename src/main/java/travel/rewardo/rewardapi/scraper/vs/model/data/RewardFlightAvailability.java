@@ -0,0 +1,30 @@
+package travel.rewardo.rewardapi.scraper.vs.model.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Flat, read-only projection of a RewardFlightLatest row holding only the values needed
+ * to draw availability: one departure day with points, seats and saver flag per cabin.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RewardFlightAvailability {
+    private LocalDate departure;
+    private Integer economyPoints;
+    private Integer economySeats;
+    private Boolean economySaver;
+    private Integer premiumEconomyPoints;
+    private Integer premiumEconomySeats;
+    private Boolean premiumEconomySaver;
+    private Integer businessPoints;
+    private Integer businessSeats;
+    private Boolean businessSaver;
+    private Integer firstPoints;
+    private Integer firstSeats;
+    private Boolean firstSaver;
+}
@@ -0,0 +1,19 @@
+package travel.rewardo.rewardapi.scraper.vs.model.data;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of historic records (one per observed change) of a route for one departure month.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouteMonthChanges {
+    private String origin;
+    private String destination;
+    private Integer year;
+    private Integer month;
+    private Long changes;
+}
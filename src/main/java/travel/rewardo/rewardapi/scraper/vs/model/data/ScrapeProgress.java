@@ -0,0 +1,57 @@
+package travel.rewardo.rewardapi.scraper.vs.model.data;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Scrape progress and planner state of one route-month, persisted so that a restarted instance
+ * resumes where the previous one stopped instead of starting the cycle over.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table
+public class ScrapeProgress {
+
+    /**
+     * Natural key, e.g. "VS-LHR-JFK-2025-10", so progress is upserted without a lookup by columns.
+     */
+    @Id
+    private String id;
+
+    private String carrierCode;
+    private String origin;
+    private String destination;
+    /**
+     * The first day of the scraped departure month.
+     */
+    private LocalDate departureMonth;
+
+    private LocalDateTime lastAttemptAt;
+    private LocalDateTime lastSuccessAt;
+    /**
+     * Hash of the last response fully processed, see ResponseHashes.
+     */
+    private Long responseHash;
+
+    private Double changeRate;
+    private Long intervalMs;
+    private LocalDateTime nextDueAt;
+
+    /**
+     * The instance currently scraping this route-month in leased mode, null when nobody is.
+     */
+    private String leaseOwner;
+    /**
+     * When the lease lapses and another instance may claim the route-month, e.g. because its owner died.
+     */
+    private LocalDateTime leaseExpiresAt;
+}
@@ -0,0 +1,152 @@
+package travel.rewardo.rewardapi.scraper.vs.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardBusiness;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardFirst;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardPremiumEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatestHistoric;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking reads of the latest and historic reward flights through R2DBC, for the reactive
+ * endpoints. Rows come from the tables JPA maintains and are mapped onto the same entity classes,
+ * detached, so responses are identical to the blocking endpoints. Each query joins the four cabins
+ * in one statement, as {@link RewardFlightLatestRepository#findAvailability} does.
+ */
+@Repository
+@ConditionalOnProperty(name = "search.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveRewardFlightRepository {
+
+    private static final String CABIN_COLUMNS = """
+            e.id AS e_id, e.cabin_points_value AS e_points, e.is_saver_award AS e_saver,
+            e.cabin_class_seat_count AS e_seats, e.cabin_class_seat_count_string AS e_seats_string,
+            p.id AS p_id, p.cabin_points_value AS p_points, p.is_saver_award AS p_saver,
+            p.cabin_class_seat_count AS p_seats, p.cabin_class_seat_count_string AS p_seats_string,
+            b.id AS b_id, b.cabin_points_value AS b_points, b.is_saver_award AS b_saver,
+            b.cabin_class_seat_count AS b_seats, b.cabin_class_seat_count_string AS b_seats_string,
+            f.id AS f_id, f.cabin_points_value AS f_points, f.is_saver_award AS f_saver,
+            f.cabin_class_seat_count AS f_seats, f.cabin_class_seat_count_string AS f_seats_string""";
+
+    private static final String CABIN_JOINS = """
+            LEFT JOIN reward_flight_latest_award_economy e ON e.id = r.award_economy_id
+            LEFT JOIN reward_flight_latest_award_premium_economy p ON p.id = r.award_premium_economy_id
+            LEFT JOIN reward_flight_latest_award_business b ON b.id = r.award_business_id
+            LEFT JOIN reward_flight_latest_award_first f ON f.id = r.award_first_id""";
+
+    private static final String LATEST_BETWEEN = """
+            SELECT r.id, r.origin, r.destination, r.departure, r.carrier_code, r.scraped_at,
+            %s
+            FROM reward_flight_latest r
+            %s
+            WHERE r.origin = :origin AND r.destination = :destination AND r.carrier_code = :carrierCode
+            AND r.departure BETWEEN :startDate AND :endDate
+            ORDER BY r.departure ASC
+            LIMIT :limit OFFSET :offset""".formatted(CABIN_COLUMNS, CABIN_JOINS);
+
+    private static final String HISTORIC_ON = """
+            SELECT r.id, r.origin, r.destination, r.departure, r.carrier_code, r.scraped_at,
+            %s
+            FROM reward_flight_latest_historic r
+            %s
+            WHERE r.origin = :origin AND r.destination = :destination AND r.carrier_code = :carrierCode
+            AND r.departure = :departure
+            ORDER BY r.scraped_at ASC
+            LIMIT :limit OFFSET :offset""".formatted(CABIN_COLUMNS, CABIN_JOINS);
+
+    private final DatabaseClient reactiveDatabaseClient;
+
+    /**
+     * @param offset the number of rows to skip, in departure order
+     * @param limit the maximum number of rows to emit
+     * @return the latest reward flights of a route departing between the two dates, by departure date
+     */
+    public Flux<RewardFlightLatest> findLatest(String origin, String destination, String carrierCode,
+                                               LocalDate startDate, LocalDate endDate, long offset, int limit) {
+        return reactiveDatabaseClient.sql(LATEST_BETWEEN)
+                .bind("origin", origin)
+                .bind("destination", destination)
+                .bind("carrierCode", carrierCode)
+                .bind("startDate", startDate)
+                .bind("endDate", endDate)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveRewardFlightRepository::latest)
+                .all();
+    }
+
+    /**
+     * @param offset the number of rows to skip, in scrape order
+     * @param limit the maximum number of rows to emit
+     * @return the superseded versions of one departure of a route, oldest scrape first
+     */
+    public Flux<RewardFlightLatestHistoric> findHistoric(String origin, String destination, String carrierCode,
+                                                         LocalDate departure, long offset, int limit) {
+        return reactiveDatabaseClient.sql(HISTORIC_ON)
+                .bind("origin", origin)
+                .bind("destination", destination)
+                .bind("carrierCode", carrierCode)
+                .bind("departure", departure)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveRewardFlightRepository::historic)
+                .all();
+    }
+
+    private static RewardFlightLatest latest(Readable row) {
+        return new RewardFlightLatest(
+                row.get("id", String.class),
+                row.get("origin", String.class),
+                row.get("destination", String.class),
+                row.get("departure", LocalDate.class),
+                row.get("carrier_code", String.class),
+                row.get("scraped_at", LocalDateTime.class),
+                cabin(row, "e", AwardEconomy::new),
+                cabin(row, "b", AwardBusiness::new),
+                cabin(row, "p", AwardPremiumEconomy::new),
+                cabin(row, "f", AwardFirst::new));
+    }
+
+    private static RewardFlightLatestHistoric historic(Readable row) {
+        return new RewardFlightLatestHistoric(
+                row.get("id", String.class),
+                row.get("origin", String.class),
+                row.get("destination", String.class),
+                row.get("departure", LocalDate.class),
+                row.get("carrier_code", String.class),
+                row.get("scraped_at", LocalDateTime.class),
+                cabin(row, "e", AwardEconomy::new),
+                cabin(row, "b", AwardBusiness::new),
+                cabin(row, "p", AwardPremiumEconomy::new),
+                cabin(row, "f", AwardFirst::new));
+    }
+
+    /**
+     * @return the cabin joined under the given alias, or null when the flight has none
+     */
+    private static <T> T cabin(Readable row, String alias, CabinConstructor<T> constructor) {
+        String id = row.get(alias + "_id", String.class);
+        if (id == null) {
+            return null;
+        }
+        return constructor.create(id,
+                row.get(alias + "_points", Integer.class),
+                row.get(alias + "_saver", Boolean.class),
+                row.get(alias + "_seats", Integer.class),
+                row.get(alias + "_seats_string", String.class));
+    }
+
+    @FunctionalInterface
+    private interface CabinConstructor<T> {
+        T create(String id, Integer cabinPointsValue, Boolean isSaverAward, Integer cabinClassSeatCount, String cabinClassSeatCountString);
+    }
+}
@@ -3,22 +3,67 @@ package travel.rewardo.rewardapi.scraper.vs.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatestHistoric;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RouteMonthChanges;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RewardFlightLatestHistoricRepository extends JpaRepository<RewardFlightLatestHistoric, String> {
 
     Optional<Page<RewardFlightLatestHistoric>> findByOriginAndDestinationAndCarrierCodeAndDepartureOrderByScrapedAtAsc(String origin, String destination, String carrierCode, LocalDate startDate, Pageable pageable);
 
+    /**
+     * Streams every historic record scraped at or after the given time through a server-side cursor.
+     * Must be consumed inside a read-only transaction, and the caller should detach rows once written.
+     *
+     * @param since the earliest scrape time to include
+     * @return a stream of historic records with their awards fetched in the same query
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT r FROM RewardFlightLatestHistoric r
+        LEFT JOIN FETCH r.awardEconomy
+        LEFT JOIN FETCH r.awardPremiumEconomy
+        LEFT JOIN FETCH r.awardBusiness
+        LEFT JOIN FETCH r.awardFirst
+        WHERE r.scrapedAt >= :since""")
+    Stream<RewardFlightLatestHistoric> streamScrapedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Counts the changes recorded per route and departure month since the given time.
+     * Each historic record is the superseded version of a changed day, so the count is the number of changes.
+     *
+     * @param carrierCode the airline carrier code
+     * @param since the earliest scrape time to include
+     * @param from the earliest departure date to include
+     * @return one row per route and departure month with at least one change
+     */
+    @Query("""
+        SELECT new travel.rewardo.rewardapi.scraper.vs.model.data.RouteMonthChanges(
+            r.origin, r.destination, YEAR(r.departure), MONTH(r.departure), COUNT(r))
+        FROM RewardFlightLatestHistoric r
+        WHERE r.carrierCode = :carrierCode AND r.scrapedAt >= :since AND r.departure >= :from
+        GROUP BY r.origin, r.destination, YEAR(r.departure), MONTH(r.departure)""")
+    List<RouteMonthChanges> countChangesByRouteMonth(
+            @Param("carrierCode") String carrierCode,
+            @Param("since") LocalDateTime since,
+            @Param("from") LocalDate from);
+
     @Query("SELECT COUNT(r) FROM RewardFlightLatestHistoric r WHERE r.carrierCode = :carrierCode")
     long countByCarrierCode(@Param("carrierCode") String carrierCode);
     
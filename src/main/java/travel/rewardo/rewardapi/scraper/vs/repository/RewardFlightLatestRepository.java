@@ -3,13 +3,20 @@ package travel.rewardo.rewardapi.scraper.vs.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightAvailability;
 import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RewardFlightLatestRepository extends JpaRepository<RewardFlightLatest, String> {
@@ -26,8 +33,62 @@ public interface RewardFlightLatestRepository extends JpaRepository<RewardFlight
     Optional<RewardFlightLatest> findByOriginAndDestinationAndDepartureAndCarrierCode(
             String origin, String destination, LocalDate departure, String carrierCode);
 
+    /**
+     * Streams every reward flight scraped at or after the given time through a server-side cursor.
+     * Must be consumed inside a read-only transaction, and the caller should detach rows once written
+     * so that memory stays constant regardless of table size.
+     *
+     * @param since the earliest scrape time to include
+     * @return a stream of reward flights with their awards fetched in the same query
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT r FROM RewardFlightLatest r
+        LEFT JOIN FETCH r.awardEconomy
+        LEFT JOIN FETCH r.awardPremiumEconomy
+        LEFT JOIN FETCH r.awardBusiness
+        LEFT JOIN FETCH r.awardFirst
+        WHERE r.scrapedAt >= :since""")
+    Stream<RewardFlightLatest> streamScrapedSince(@Param("since") LocalDateTime since);
+
     Optional<Page<RewardFlightLatest>> findByOriginAndDestinationAndCarrierCodeAndDepartureBetween(String origin, String destination, String carrierCode, LocalDate startDate, LocalDate endDate, Pageable pageable);
 
+    /**
+     * Loads the per-cabin availability of a route for a date range in a single query,
+     * projecting only the scalar values instead of materialising the entity graph.
+     *
+     * @param origin the origin airport code
+     * @param destination the destination airport code
+     * @param carrierCode the carrier code
+     * @param startDate the first departure date (inclusive)
+     * @param endDate the last departure date (inclusive)
+     * @return the availability rows ordered by departure date
+     */
+    @Query("""
+        SELECT new travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightAvailability(
+            r.departure,
+            e.cabinPointsValue, e.cabinClassSeatCount, e.isSaverAward,
+            p.cabinPointsValue, p.cabinClassSeatCount, p.isSaverAward,
+            b.cabinPointsValue, b.cabinClassSeatCount, b.isSaverAward,
+            f.cabinPointsValue, f.cabinClassSeatCount, f.isSaverAward)
+        FROM RewardFlightLatest r
+        LEFT JOIN r.awardEconomy e
+        LEFT JOIN r.awardPremiumEconomy p
+        LEFT JOIN r.awardBusiness b
+        LEFT JOIN r.awardFirst f
+        WHERE r.origin = :origin AND r.destination = :destination AND r.carrierCode = :carrierCode
+        AND r.departure BETWEEN :startDate AND :endDate
+        ORDER BY r.departure ASC""")
+    List<RewardFlightAvailability> findAvailability(
+            @Param("origin") String origin,
+            @Param("destination") String destination,
+            @Param("carrierCode") String carrierCode,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
     @Query("""
         SELECT r FROM RewardFlightLatest r WHERE 
         CASE :cabinType 
@@ -0,0 +1,63 @@
+package travel.rewardo.rewardapi.scraper.vs.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import travel.rewardo.rewardapi.scraper.vs.model.data.ScrapeProgress;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScrapeProgressRepository extends JpaRepository<ScrapeProgress, String> {
+
+    /**
+     * Finds the progress of every route-month of a carrier from the given month on.
+     *
+     * @param carrierCode the carrier code
+     * @param departureMonth the first day of the earliest month to include
+     * @return the progress rows
+     */
+    List<ScrapeProgress> findByCarrierCodeAndDepartureMonthGreaterThanEqual(String carrierCode, LocalDate departureMonth);
+
+    /**
+     * Locks the most overdue route-months that are due and not leased by a live instance, skipping rows
+     * another transaction has already locked, so concurrent instances never claim the same route-month.
+     * Must be called inside a transaction, which holds the row locks until it ends.
+     *
+     * @param carrierCode the carrier code
+     * @param now the current time
+     * @param limit the maximum number of route-months to lock
+     * @return the locked rows, most overdue first
+     */
+    @Query(value = """
+        SELECT * FROM scrape_progress
+        WHERE carrier_code = :carrierCode AND next_due_at <= :now
+        AND (lease_expires_at IS NULL OR lease_expires_at < :now)
+        ORDER BY next_due_at
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED""", nativeQuery = true)
+    List<ScrapeProgress> lockClaimable(
+            @Param("carrierCode") String carrierCode,
+            @Param("now") LocalDateTime now,
+            @Param("limit") int limit);
+
+    /**
+     * Deletes every route-month of a route pair. Must be called inside a transaction.
+     *
+     * @return the number of route-months deleted
+     */
+    int deleteByCarrierCodeAndOriginAndDestination(String carrierCode, String origin, String destination);
+
+    /**
+     * Finds a route-month and locks its row until the end of the current transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM ScrapeProgress p WHERE p.id = :id")
+    Optional<ScrapeProgress> lockById(@Param("id") String id);
+}
@@ -0,0 +1,41 @@
+package travel.rewardo.rewardapi.scraper.vs.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the scraper as {@link #DEGRADED} when the 95th percentile of how far the tracked
+ * route-months are past their planned scrape exceeds {@code scraper.vs.freshness.max-p95-overdue-ms}.
+ * Staleness itself is reported but not judged: stable months are planned up to
+ * {@code scraper.vs.planner.max-backoff-ms} apart, so old data alone is by design. The service still
+ * answers requests, only with older data, so the status maps to 200 and does not fail liveness probes.
+ */
+@Component("scraperFreshness")
+@RequiredArgsConstructor
+public class FreshnessHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Scraped data is older than the staleness threshold");
+
+    private final FreshnessTracker freshnessTracker;
+
+    @Value("${scraper.vs.freshness.max-p95-overdue-ms:10800000}")
+    private long maxP95OverdueMs = 10_800_000L;
+
+    @Override
+    public Health health() {
+        FreshnessTracker.Stats stats = freshnessTracker.stats(System.currentTimeMillis());
+        Health.Builder builder = stats.p95OverdueSeconds() * 1000 > maxP95OverdueMs ? Health.status(DEGRADED) : Health.up();
+        return builder
+                .withDetail("routeMonths", stats.routeMonths())
+                .withDetail("p50StalenessSeconds", stats.p50Seconds())
+                .withDetail("p95StalenessSeconds", stats.p95Seconds())
+                .withDetail("maxStalenessSeconds", stats.maxSeconds())
+                .withDetail("p95OverdueSeconds", stats.p95OverdueSeconds())
+                .withDetail("maxP95OverdueSeconds", maxP95OverdueMs / 1000)
+                .build();
+    }
+}
@@ -0,0 +1,334 @@
+package travel.rewardo.rewardapi.scraper.vs.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import travel.rewardo.rewardapi.routes.model.Airport;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.carrier.ScrapeTask;
+import travel.rewardo.rewardapi.scraper.vs.model.data.ScrapeProgress;
+import travel.rewardo.rewardapi.scraper.vs.repository.ScrapeProgressRepository;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Keeps, per route-month, when it was last scraped successfully, when a scrape last found a change
+ * and the last error, so the age of the data of any route-month can be answered without reading
+ * {@code scrapedAt} row by row.
+ * <p>
+ * Every route-month of the served routes is tracked from the moment the scraper first sees it, so
+ * route-months the scraper has not reached yet count as stale rather than being missing. Last
+ * successes are restored from the persisted {@link ScrapeProgress} on the first cycle after a
+ * restart, and in leased mode {@link #refresh} reads back the ones other instances recorded.
+ * <p>
+ * Stable months are planned days apart, so staleness alone does not tell a healthy scraper from a
+ * stuck one. Each route-month also remembers when the planner wanted it scraped again after its last
+ * success, and how far it is past that time is its overdue-ness.
+ * <p>
+ * The staleness distribution is published as gauges, the 50th and 95th percentiles and the maximum,
+ * plus the number of route-months within each age bucket, and the 95th percentile overdue-ness. It is
+ * computed from a sorted snapshot at most every {@link #STATS_TTL_MS} so that scrapes and health
+ * checks stay cheap.
+ */
+@Component
+@Slf4j
+public class FreshnessTracker {
+
+    static final long STATS_TTL_MS = 5_000L;
+
+    private static final String VS_CARRIER = "VS";
+    private static final long[] BUCKETS_SECONDS = {3_600L, 21_600L, 86_400L, 259_200L};
+    private static final String[] BUCKET_NAMES = {"1h", "6h", "24h", "72h"};
+
+    private final ScrapeProgressRepository scrapeProgressRepository;
+    private final Map<RouteMonth, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean restored;
+    private volatile Stats stats = Stats.EMPTY;
+    private volatile long statsComputedAt;
+
+    public FreshnessTracker(ScrapeProgressRepository scrapeProgressRepository, MeterRegistry meterRegistry) {
+        this.scrapeProgressRepository = scrapeProgressRepository;
+        registerStaleness(meterRegistry, "0.5", Stats::p50Seconds);
+        registerStaleness(meterRegistry, "0.95", Stats::p95Seconds);
+        registerStaleness(meterRegistry, "1.0", Stats::maxSeconds);
+        for (int i = 0; i < BUCKETS_SECONDS.length; i++) {
+            int bucket = i;
+            registerRouteMonths(meterRegistry, BUCKET_NAMES[i], s -> s.withinBuckets()[bucket]);
+        }
+        registerRouteMonths(meterRegistry, "any", Stats::routeMonths);
+        Gauge.builder("scraper.freshness.overdue", this, tracker -> tracker.stats(System.currentTimeMillis()).p95OverdueSeconds())
+                .tag("carrier", VS_CARRIER)
+                .tag("quantile", "0.95")
+                .baseUnit("seconds")
+                .description("Time route-months are past the time they were planned to be scraped again")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts tracking the route-months of the served routes that are not tracked yet and forgets the
+     * ones of months that have passed and routes that are no longer served.
+     *
+     * @param routes the routes currently served
+     * @param today the current date
+     * @param now the current time in epoch milliseconds
+     */
+    public void track(List<Route> routes, LocalDate today, long now) {
+        if (!restored) {
+            restore(today);
+            restored = true;
+        }
+        YearMonth currentMonth = YearMonth.from(today);
+        Set<RouteMonth> wanted = new HashSet<>();
+        for (Route route : routes) {
+            String origin = route.getOrigin().getAirportCode();
+            for (Airport destination : route.getDestinations()) {
+                long routeKey = RouteKey.of(origin, destination.getAirportCode());
+                for (int offset = 0; offset < ScrapePlanner.MONTHS_AHEAD; offset++) {
+                    RouteMonth key = new RouteMonth(routeKey, currentMonth.plusMonths(offset));
+                    wanted.add(key);
+                    entries.computeIfAbsent(key, k -> new Entry(now));
+                }
+            }
+        }
+        entries.keySet().retainAll(wanted);
+    }
+
+    /**
+     * Forgets the route-months of route pairs that are no longer served, rather than counting them
+     * as stale until the next {@link #track}.
+     *
+     * @param routePairs the route pairs, sorted
+     */
+    public void forget(long[] routePairs) {
+        if (entries.keySet().removeIf(key -> Arrays.binarySearch(routePairs, key.routeKey()) >= 0)) {
+            statsComputedAt = 0;
+        }
+    }
+
+    /**
+     * Records a successful scrape of a route-month.
+     *
+     * @param task the route-month
+     * @param changedDays the number of days whose price or seats changed
+     * @param nextDueAt when the route-month is planned to be scraped again in epoch milliseconds, 0 if unknown
+     * @param now the current time in epoch milliseconds
+     */
+    public void recordSuccess(ScrapeTask task, int changedDays, long nextDueAt, long now) {
+        Entry entry = entry(task, now);
+        entry.lastSuccessAt = now;
+        entry.nextDueAt = nextDueAt;
+        if (changedDays > 0) {
+            entry.lastChangeAt = now;
+        }
+    }
+
+    /**
+     * Reads back the last successes other instances recorded for the tracked route-months, in leased
+     * mode where this instance only scrapes the ones it claims.
+     *
+     * @param today the current date
+     */
+    public void refresh(LocalDate today) {
+        try {
+            load(today, false);
+            statsComputedAt = 0;
+        } catch (DataAccessException e) {
+            log.warn("Could not read back the last successful scrapes of the other instances", e);
+        }
+    }
+
+    /**
+     * Records a failed scrape of a route-month; its last success, and so its staleness, is unchanged.
+     * So is the time it was planned for, a retry does not make it any less overdue.
+     *
+     * @param task the route-month
+     * @param error what went wrong
+     * @param now the current time in epoch milliseconds
+     */
+    public void recordFailure(ScrapeTask task, String error, long now) {
+        Entry entry = entry(task, now);
+        entry.lastErrorAt = now;
+        entry.lastError = error;
+    }
+
+    /**
+     * @param origin the origin airport code, null for every origin
+     * @param destination the destination airport code, null for every destination
+     * @param now the current time in epoch milliseconds
+     * @return the freshness of the matching route-months, stalest first
+     */
+    public List<RouteMonthFreshness> freshness(String origin, String destination, long now) {
+        int originCode = origin != null ? RouteKey.packIata(origin) : RouteKey.NONE;
+        int destinationCode = destination != null ? RouteKey.packIata(destination) : RouteKey.NONE;
+        List<RouteMonthFreshness> result = new ArrayList<>();
+        entries.forEach((key, entry) -> {
+            if ((origin == null || RouteKey.origin(key.routeKey()) == originCode)
+                    && (destination == null || RouteKey.destination(key.routeKey()) == destinationCode)) {
+                result.add(new RouteMonthFreshness(
+                        RouteKey.unpackIata(RouteKey.origin(key.routeKey())),
+                        RouteKey.unpackIata(RouteKey.destination(key.routeKey())),
+                        key.month().toString(),
+                        ScrapePlanner.toDateTime(entry.lastSuccessAt),
+                        ScrapePlanner.toDateTime(entry.nextDueAt),
+                        ScrapePlanner.toDateTime(entry.lastChangeAt),
+                        ScrapePlanner.toDateTime(entry.lastErrorAt),
+                        entry.lastError,
+                        entry.stalenessMs(now) / 1000,
+                        entry.overdueMs(now) / 1000));
+            }
+        });
+        result.sort(Comparator.comparingLong(RouteMonthFreshness::getStalenessSeconds).reversed());
+        return result;
+    }
+
+    /**
+     * @param now the current time in epoch milliseconds
+     * @return the staleness distribution over every tracked route-month, at most {@link #STATS_TTL_MS} old
+     */
+    public Stats stats(long now) {
+        if (now - statsComputedAt >= STATS_TTL_MS) {
+            long[] staleness = entries.values().stream()
+                    .mapToLong(entry -> entry.stalenessMs(now) / 1000)
+                    .sorted()
+                    .toArray();
+            long[] overdue = entries.values().stream()
+                    .mapToLong(entry -> entry.overdueMs(now) / 1000)
+                    .sorted()
+                    .toArray();
+            stats = Stats.of(staleness, overdue);
+            statsComputedAt = now;
+        }
+        return stats;
+    }
+
+    private Entry entry(ScrapeTask task, long now) {
+        return entries.computeIfAbsent(new RouteMonth(task.getRouteKey(), task.getMonth()), k -> new Entry(now));
+    }
+
+    private void restore(LocalDate today) {
+        try {
+            load(today, true);
+        } catch (DataAccessException e) {
+            log.warn("Could not restore the last successful scrapes, every route-month starts stale", e);
+        }
+    }
+
+    /**
+     * Takes the last successes from the persisted progress where they are newer than the tracked ones,
+     * along with the time the route-month was planned for at that success. A persisted next due time
+     * without a newer success may be a retry after a failure and is not taken.
+     *
+     * @param addMissing whether to start tracking route-months that are not tracked yet
+     */
+    private void load(LocalDate today, boolean addMissing) {
+        List<ScrapeProgress> rows = scrapeProgressRepository.findByCarrierCodeAndDepartureMonthGreaterThanEqual(
+                VS_CARRIER, today.withDayOfMonth(1));
+        for (ScrapeProgress progress : rows) {
+            long routeKey = RouteKey.of(progress.getOrigin(), progress.getDestination());
+            if (routeKey == RouteKey.NONE || progress.getLastSuccessAt() == null) {
+                continue;
+            }
+            long lastSuccessAt = ScrapePlanner.toMillis(progress.getLastSuccessAt());
+            RouteMonth key = new RouteMonth(routeKey, YearMonth.from(progress.getDepartureMonth()));
+            Entry entry = addMissing ? entries.computeIfAbsent(key, k -> new Entry(lastSuccessAt)) : entries.get(key);
+            if (entry != null && lastSuccessAt > entry.lastSuccessAt) {
+                entry.lastSuccessAt = lastSuccessAt;
+                entry.nextDueAt = progress.getNextDueAt() != null ? ScrapePlanner.toMillis(progress.getNextDueAt()) : 0L;
+            }
+        }
+    }
+
+    private void registerStaleness(MeterRegistry meterRegistry, String quantile, ToDoubleFunction<Stats> value) {
+        Gauge.builder("scraper.freshness.staleness", this, tracker -> value.applyAsDouble(tracker.stats(System.currentTimeMillis())))
+                .tag("carrier", VS_CARRIER)
+                .tag("quantile", quantile)
+                .baseUnit("seconds")
+                .description("Time since route-months were last scraped successfully")
+                .register(meterRegistry);
+    }
+
+    private void registerRouteMonths(MeterRegistry meterRegistry, String staleness, ToDoubleFunction<Stats> value) {
+        Gauge.builder("scraper.freshness.route.months", this, tracker -> value.applyAsDouble(tracker.stats(System.currentTimeMillis())))
+                .tag("carrier", VS_CARRIER)
+                .tag("staleness", staleness)
+                .description("Tracked route-months last scraped successfully within the given time")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The staleness distribution of the tracked route-months, in seconds.
+     *
+     * @param withinBuckets the number of route-months within 1h, 6h, 24h and 72h
+     * @param p95OverdueSeconds the 95th percentile of how far route-months are past their planned time
+     */
+    public record Stats(int routeMonths, long p50Seconds, long p95Seconds, long maxSeconds, int[] withinBuckets,
+                        long p95OverdueSeconds) {
+
+        static final Stats EMPTY = new Stats(0, 0L, 0L, 0L, new int[BUCKETS_SECONDS.length], 0L);
+
+        static Stats of(long[] sortedSeconds, long[] sortedOverdueSeconds) {
+            int n = sortedSeconds.length;
+            if (n == 0) {
+                return EMPTY;
+            }
+            int[] within = new int[BUCKETS_SECONDS.length];
+            int index = 0;
+            for (int i = 0; i < BUCKETS_SECONDS.length; i++) {
+                while (index < n && sortedSeconds[index] <= BUCKETS_SECONDS[i]) {
+                    index++;
+                }
+                within[i] = index;
+            }
+            return new Stats(n, percentile(sortedSeconds, 0.5), percentile(sortedSeconds, 0.95), sortedSeconds[n - 1], within,
+                    percentile(sortedOverdueSeconds, 0.95));
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            return sorted[Math.max(0, (int) Math.ceil(quantile * sorted.length) - 1)];
+        }
+    }
+
+    private record RouteMonth(long routeKey, YearMonth month) {
+    }
+
+    private static final class Entry {
+        private final long trackedSince;
+        private volatile long lastSuccessAt;
+        private volatile long nextDueAt;
+        private volatile long lastChangeAt;
+        private volatile long lastErrorAt;
+        private volatile String lastError;
+
+        private Entry(long trackedSince) {
+            this.trackedSince = trackedSince;
+        }
+
+        private long stalenessMs(long now) {
+            return Math.max(0L, now - stalenessFrom());
+        }
+
+        /**
+         * A route-month never scraped, or scraped without a plan, has been due since it was tracked.
+         */
+        private long overdueMs(long now) {
+            return Math.max(0L, now - (lastSuccessAt != 0 && nextDueAt != 0 ? nextDueAt : stalenessFrom()));
+        }
+
+        private long stalenessFrom() {
+            return lastSuccessAt != 0 ? lastSuccessAt : trackedSince;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package travel.rewardo.rewardapi.scraper.vs.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import travel.rewardo.rewardapi.availability.service.AvailabilityMatrix;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Brings the node-local read state up to date with the rows other instances saved, in leased mode.
+ * <p>
+ * The {@link RouteVersionTracker} and the {@link AvailabilityMatrix} are updated by the scraper as it
+ * saves, which only covers the route-months this instance claimed. Every
+ * {@code scraper.vs.lease.catch-up-interval-ms} the rows scraped since the last poll are read back,
+ * put into the matrix and their routes bumped, so ETags and calendars follow the writes of the peers.
+ * Rows this instance saved itself are read back too, which is harmless. The {@link FreshnessTracker}
+ * takes the last successes of the peers from the scrape progress at the same time.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PeerWriteCatchUp {
+
+    /**
+     * Rows are saved some time after their scrape time is taken, on a clock that may run behind
+     * this one, so each poll reaches back this far.
+     */
+    private static final Duration OVERLAP = Duration.ofMinutes(2);
+
+    private final ScrapeLeaseQueue scrapeLeaseQueue;
+    private final RewardFlightLatestRepository rewardFlightLatestRepository;
+    private final RouteVersionTracker routeVersionTracker;
+    private final AvailabilityMatrix availabilityMatrix;
+    private final FreshnessTracker freshnessTracker;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${availability.matrix.enabled:true}")
+    private boolean matrixEnabled = true;
+
+    /**
+     * Rows scraped before startup are loaded by the {@code AvailabilityMatrixLoader}.
+     */
+    private volatile long lastPollStartedAt = System.currentTimeMillis();
+
+    @Scheduled(fixedDelayString = "${scraper.vs.lease.catch-up-interval-ms:30000}",
+            initialDelayString = "${scraper.vs.lease.catch-up-interval-ms:30000}")
+    public void catchUp() {
+        if (!scrapeLeaseQueue.isEnabled()) {
+            return;
+        }
+        long pollStarted = System.currentTimeMillis();
+        try {
+            int routes = catchUpSince(LocalDateTime.ofInstant(Instant.ofEpochMilli(lastPollStartedAt).minus(OVERLAP), ZoneId.systemDefault()));
+            lastPollStartedAt = pollStarted;
+            freshnessTracker.refresh(LocalDate.now());
+            log.debug("Caught up with the writes of {} routes in {} ms", routes, System.currentTimeMillis() - pollStarted);
+        } catch (RuntimeException e) {
+            log.warn("Failed to catch up with the writes of other instances, retrying from the same point", e);
+        }
+    }
+
+    /**
+     * @param since the earliest scrape time to read back
+     * @return the number of routes bumped
+     */
+    int catchUpSince(LocalDateTime since) {
+        // Rows that departed before the window the matrix holds are of no use to it
+        LocalDate earliest = LocalDate.now().minusDays(AvailabilityMatrix.DAYS_BEHIND);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        Set<Long> routeKeys = new HashSet<>();
+        transaction.executeWithoutResult(status -> {
+            try (Stream<RewardFlightLatest> rows = rewardFlightLatestRepository.streamScrapedSince(since)) {
+                for (RewardFlightLatest row : (Iterable<RewardFlightLatest>) rows::iterator) {
+                    if (matrixEnabled && row.getDeparture() != null && !row.getDeparture().isBefore(earliest)) {
+                        availabilityMatrix.put(row);
+                    }
+                    routeKeys.add(RouteKey.of(row.getOrigin(), row.getDestination()));
+                    entityManager.detach(row);
+                }
+            }
+        });
+        routeKeys.forEach(routeVersionTracker::bump);
+        return routeKeys.size();
+    }
+}
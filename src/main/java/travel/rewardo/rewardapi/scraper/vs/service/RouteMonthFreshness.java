@@ -0,0 +1,41 @@
+package travel.rewardo.rewardapi.scraper.vs.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * How fresh the data of one route-month is, as tracked by the {@link FreshnessTracker}.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RouteMonthFreshness {
+    private final String origin;
+    private final String destination;
+    /**
+     * The departure month, e.g. "2025-10".
+     */
+    private final String month;
+    private final LocalDateTime lastSuccessAt;
+    /**
+     * When the planner wanted the route-month scraped again after its last success, null if unknown.
+     */
+    private final LocalDateTime nextDueAt;
+    /**
+     * When a scrape last found a day whose price or seats changed, null if none has since startup.
+     */
+    private final LocalDateTime lastChangeAt;
+    private final LocalDateTime lastErrorAt;
+    private final String lastError;
+    /**
+     * Seconds since the last successful scrape, or since the route-month was first tracked if it never succeeded.
+     */
+    private final long stalenessSeconds;
+    /**
+     * Seconds past the next due time, or the staleness if there is none.
+     */
+    private final long overdueSeconds;
+}
@@ -0,0 +1,214 @@
+package travel.rewardo.rewardapi.scraper.vs.service;
+
+import org.springframework.stereotype.Component;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a cheap, in-memory version counter per route that is bumped whenever the scraper
+ * writes a change for that route. Used to serve strong ETags on the read endpoints so that
+ * polling clients can be answered with 304 without touching the database.
+ * <p>
+ * Routes are addressed by their packed {@link RouteKey} through a primitive open-addressing index,
+ * so bumps and ETag lookups of known routes neither box the key nor allocate.
+ * <p>
+ * The representation a tag stands for is identified by a 128-bit digest of the qualifier values, so
+ * two responses of the same route and version never share a tag short of a SHA-256 collision.
+ */
+@Component
+public class RouteVersionTracker {
+
+    private static final int DIGEST_BYTES = 16;
+
+    /**
+     * Identifies this process so that ETags issued before a restart (when every counter
+     * starts again from zero) never match the ones issued after it.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final ReentrantLock registrationLock = new ReentrantLock();
+    /**
+     * Copy-on-write, replaced as a whole when a route is registered so readers never see it half-built.
+     * The counters are carried over, so a bump through an index that was just replaced is not lost.
+     */
+    private volatile VersionIndex versionIndex = new VersionIndex(16);
+    private final AtomicLong globalVersion = new AtomicLong();
+
+    /**
+     * Records a change for the given route.
+     *
+     * @param routeKey the packed route key, see {@link RouteKey}
+     */
+    public void bump(long routeKey) {
+        if (routeKey != RouteKey.NONE) {
+            counter(routeKey).incrementAndGet();
+        }
+        globalVersion.incrementAndGet();
+    }
+
+    /**
+     * @return the current version of the given route, 0 if it has never changed since startup
+     */
+    public long routeVersion(long routeKey) {
+        AtomicLong version = versionIndex.get(routeKey);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * @return the current version of the given route, 0 if it has never changed since startup
+     */
+    public long routeVersion(String origin, String destination) {
+        return routeVersion(RouteKey.of(origin, destination));
+    }
+
+    /**
+     * @return the number of changes recorded across all routes since startup
+     */
+    public long globalVersion() {
+        return globalVersion.get();
+    }
+
+    /**
+     * Builds a strong ETag for a route-scoped response.
+     *
+     * @param origin the origin airport code
+     * @param destination the destination airport code
+     * @param qualifier distinguishes different representations of the same route (endpoint, query parameters)
+     * @return a quoted ETag value
+     */
+    public String routeETag(String origin, String destination, Object qualifier) {
+        return "\"" + epoch + "-" + routeVersion(origin, destination) + "-" + digest(qualifier) + "\"";
+    }
+
+    /**
+     * Builds a strong ETag for a response that depends on data from every route.
+     *
+     * @param qualifier distinguishes different representations (endpoint, query parameters)
+     * @return a quoted ETag value
+     */
+    public String globalETag(Object qualifier) {
+        return "\"" + epoch + "-g" + globalVersion() + "-" + digest(qualifier) + "\"";
+    }
+
+    /**
+     * Digests the qualifier, element by element if it is a collection. Every value is written with its
+     * length, so {@code ["a,b"]} and {@code ["a", "b"]} do not digest alike the way their strings would.
+     *
+     * @return the first {@link #DIGEST_BYTES} bytes of the SHA-256 digest, in hex
+     */
+    static String digest(Object qualifier) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every Java platform", e);
+        }
+        if (qualifier instanceof Collection<?> values) {
+            for (Object value : values) {
+                update(sha256, value);
+            }
+        } else {
+            update(sha256, qualifier);
+        }
+        return HexFormat.of().formatHex(sha256.digest(), 0, DIGEST_BYTES);
+    }
+
+    private static void update(MessageDigest digest, Object value) {
+        if (value == null) {
+            digest.update(new byte[]{-1, -1, -1, -1});
+            return;
+        }
+        byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+        digest.update(new byte[]{(byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16), (byte) (bytes.length >>> 8), (byte) bytes.length});
+        digest.update(bytes);
+    }
+
+    private AtomicLong counter(long routeKey) {
+        AtomicLong counter = versionIndex.get(routeKey);
+        if (counter != null) {
+            return counter;
+        }
+        registrationLock.lock();
+        try {
+            counter = versionIndex.get(routeKey);
+            if (counter == null) {
+                counter = new AtomicLong();
+                versionIndex = versionIndex.with(routeKey, counter);
+            }
+            return counter;
+        } finally {
+            registrationLock.unlock();
+        }
+    }
+
+    /**
+     * Immutable open-addressing hash table from packed route key to version counter, with linear probing.
+     * Lookups hash a primitive and allocate nothing.
+     */
+    private static final class VersionIndex {
+        private final long[] keys;
+        private final AtomicLong[] counters;
+        private final int mask;
+        private final int size;
+
+        VersionIndex(int capacity) {
+            this(new long[capacity], new AtomicLong[capacity], 0);
+        }
+
+        private VersionIndex(long[] keys, AtomicLong[] counters, int size) {
+            this.keys = keys;
+            this.counters = counters;
+            this.mask = keys.length - 1;
+            this.size = size;
+        }
+
+        AtomicLong get(long routeKey) {
+            if (routeKey == RouteKey.NONE) {
+                return null;
+            }
+            for (int i = hash(routeKey) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == routeKey) {
+                    return counters[i];
+                }
+                if (keys[i] == RouteKey.NONE) {
+                    return null;
+                }
+            }
+        }
+
+        /**
+         * @return a copy of this index with the route added, grown to keep the load factor under one half
+         */
+        VersionIndex with(long routeKey, AtomicLong counter) {
+            int capacity = (size + 1) * 2 > keys.length ? keys.length * 2 : keys.length;
+            VersionIndex copy = new VersionIndex(new long[capacity], new AtomicLong[capacity], size + 1);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != RouteKey.NONE) {
+                    copy.insert(keys[i], counters[i]);
+                }
+            }
+            copy.insert(routeKey, counter);
+            return copy;
+        }
+
+        private void insert(long routeKey, AtomicLong counter) {
+            int i = hash(routeKey) & mask;
+            while (keys[i] != RouteKey.NONE) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = routeKey;
+            counters[i] = counter;
+        }
+
+        private static int hash(long routeKey) {
+            long h = routeKey * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
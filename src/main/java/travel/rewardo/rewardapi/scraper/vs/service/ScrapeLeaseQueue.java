@@ -0,0 +1,294 @@
+package travel.rewardo.rewardapi.scraper.vs.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import travel.rewardo.rewardapi.routes.model.Airport;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.carrier.AwardFingerprints;
+import travel.rewardo.rewardapi.scraper.carrier.ResponseHashes;
+import travel.rewardo.rewardapi.scraper.carrier.ScrapeTask;
+import travel.rewardo.rewardapi.scraper.vs.model.data.ScrapeProgress;
+import travel.rewardo.rewardapi.scraper.vs.repository.ScrapeProgressRepository;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Shares the scraping between several instances through the {@link ScrapeProgress} table.
+ * <p>
+ * Each route-month row doubles as a job. An instance claims a batch of due jobs by locking the most
+ * overdue unleased rows with {@code SELECT ... FOR UPDATE SKIP LOCKED} and writing its lease on
+ * them in the same transaction, so no two instances ever hold the same route-month. When a job is
+ * done the instance schedules it again with the {@link ScrapePlanner} rules and releases the lease,
+ * but only if it still owns it. The lease expires on its own, so the jobs of an instance that died
+ * are picked up by the others.
+ * <p>
+ * Active when {@code scraper.vs.mode} is {@code leased}; otherwise every instance plans on its own.
+ * The rows the other instances save reach this one through the {@link PeerWriteCatchUp}.
+ */
+@Component
+@Slf4j
+public class ScrapeLeaseQueue implements ScrapeWorkSource {
+
+    private static final String VS_CARRIER = "VS";
+    private static final String LEASED_MODE = "leased";
+
+    /**
+     * How many times the batch limit of jobs of unserved route pairs a claim reads past.
+     */
+    private static final int MAX_SKIPPED_FACTOR = 4;
+
+    private final ScrapeProgressRepository scrapeProgressRepository;
+    private final ScrapePlanner scrapePlanner;
+    private final TransactionTemplate transaction;
+    private final String owner;
+
+    @Value("${scraper.vs.mode:local}")
+    private String mode = "local";
+
+    /**
+     * How long a claimed batch stays reserved; must comfortably exceed the time it takes to scrape it.
+     */
+    @Value("${scraper.vs.lease.duration-ms:1800000}")
+    private long leaseDurationMs = 1_800_000L;
+
+    @Value("${scraper.vs.lease.batch-size:24}")
+    private int batchSize = 24;
+
+    /**
+     * Route-months of the routes served in the current cycle, see {@link #enqueue}.
+     */
+    private volatile Set<String> servedIds = Set.of();
+
+    public ScrapeLeaseQueue(ScrapeProgressRepository scrapeProgressRepository,
+                            ScrapePlanner scrapePlanner,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${scraper.vs.lease.owner:}") String owner) {
+        this.scrapeProgressRepository = scrapeProgressRepository;
+        this.scrapePlanner = scrapePlanner;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // pid@host plus a random suffix, so two instances on one host, or two queues in one JVM, never share leases
+        this.owner = owner.isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8)
+                : owner;
+    }
+
+    public boolean isEnabled() {
+        return LEASED_MODE.equalsIgnoreCase(mode);
+    }
+
+    public int batchSize() {
+        return batchSize;
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * Makes sure every route-month of the served routes has a job, creating missing ones as due now.
+     * Safe to run on every instance at once: a job another instance created first is left alone.
+     *
+     * @param routes the routes currently served
+     * @param today the current date
+     * @param now the current time in epoch milliseconds
+     * @return the number of jobs created
+     */
+    public int enqueue(List<Route> routes, LocalDate today, long now) {
+        YearMonth currentMonth = YearMonth.from(today);
+        Map<String, ScrapeProgress> wanted = new LinkedHashMap<>();
+        for (Route route : routes) {
+            String origin = route.getOrigin().getAirportCode();
+            for (Airport destination : route.getDestinations()) {
+                for (int offset = 0; offset < ScrapePlanner.MONTHS_AHEAD; offset++) {
+                    YearMonth month = currentMonth.plusMonths(offset);
+                    String id = ScrapePlanner.progressId(origin, destination.getAirportCode(), month);
+                    wanted.put(id, ScrapeProgress.builder()
+                            .id(id)
+                            .carrierCode(VS_CARRIER)
+                            .origin(origin)
+                            .destination(destination.getAirportCode())
+                            .departureMonth(month.atDay(1))
+                            .changeRate(0.0)
+                            .intervalMs(scrapePlanner.baseIntervalMs())
+                            .nextDueAt(ScrapePlanner.toDateTime(now))
+                            .build());
+                }
+            }
+        }
+        servedIds = Set.copyOf(wanted.keySet());
+
+        Set<String> existing = new HashSet<>();
+        scrapeProgressRepository.findAllById(wanted.keySet()).forEach(progress -> existing.add(progress.getId()));
+        int created = 0;
+        for (ScrapeProgress progress : wanted.values()) {
+            if (existing.contains(progress.getId())) {
+                continue;
+            }
+            try {
+                scrapeProgressRepository.save(progress);
+                created++;
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Job {} was created by another instance", progress.getId());
+            }
+        }
+        log.info("Enqueued {} new route-month jobs, {} served in total", created, wanted.size());
+        return created;
+    }
+
+    /**
+     * Claims a batch of the most overdue jobs for this instance.
+     * <p>
+     * Jobs of months that have passed are deleted. Jobs of route pairs this instance does not serve
+     * are left unclaimed for the instances that do: while a routes change rolls out, an instance with
+     * an older route list must not take, or drop, the jobs its peers just enqueued. Such jobs stay at
+     * the top of the overdue ranking, so the batch is read past them, up to {@link #MAX_SKIPPED_FACTOR}
+     * times the limit.
+     *
+     * @param limit the maximum number of jobs to claim
+     * @param today the current date, month offset 0
+     * @param now the current time in epoch milliseconds
+     * @return the claimed route-months grouped by route pair, empty when nothing is due
+     */
+    public List<ScrapeTask> claim(int limit, LocalDate today, long now) {
+        YearMonth currentMonth = YearMonth.from(today);
+        Set<String> served = servedIds;
+        List<ScrapeTask> tasks = transaction.execute(status -> {
+            List<ScrapeTask> claimed = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            int skipped = 0;
+            LocalDateTime leaseExpiresAt = ScrapePlanner.toDateTime(now + leaseDurationMs);
+            while (claimed.size() < limit && skipped <= limit * MAX_SKIPPED_FACTOR) {
+                // Rows claimed or deleted above may be read again until they are flushed, hence the seen set
+                int wanted = limit + seen.size() - claimed.size();
+                List<ScrapeProgress> rows = scrapeProgressRepository.lockClaimable(VS_CARRIER, ScrapePlanner.toDateTime(now), wanted);
+                int seenBefore = seen.size();
+                for (ScrapeProgress progress : rows) {
+                    if (claimed.size() >= limit || !seen.add(progress.getId())) {
+                        continue;
+                    }
+                    YearMonth month = YearMonth.from(progress.getDepartureMonth());
+                    if (month.isBefore(currentMonth)) {
+                        scrapeProgressRepository.delete(progress);
+                        continue;
+                    }
+                    if (!served.isEmpty() && !served.contains(progress.getId())) {
+                        // Served by another instance, or no longer served; see forget
+                        skipped++;
+                        continue;
+                    }
+                    progress.setLeaseOwner(owner);
+                    progress.setLeaseExpiresAt(leaseExpiresAt);
+                    progress.setLastAttemptAt(ScrapePlanner.toDateTime(now));
+                    long routeKey = RouteKey.of(progress.getOrigin(), progress.getDestination());
+                    syncLocalCaches(routeKey, month, progress.getResponseHash());
+                    claimed.add(new ScrapeTask(routeKey, progress.getOrigin(), progress.getDestination(), month,
+                            (int) ChronoUnit.MONTHS.between(currentMonth, month), 0.0));
+                }
+                if (rows.size() < wanted || seen.size() == seenBefore) {
+                    // Nothing more is due
+                    break;
+                }
+            }
+            if (skipped > 0) {
+                log.debug("Left {} due route-month jobs of route pairs not served here unclaimed", skipped);
+            }
+            return claimed;
+        });
+        if (tasks == null || tasks.isEmpty()) {
+            return List.of();
+        }
+        log.info("Claimed {} route-month jobs as {}", tasks.size(), owner);
+        return ScrapePlanner.groupByRoute(tasks);
+    }
+
+    /**
+     * Deletes the jobs of route pairs the routes refresh dropped, which {@link #claim} leaves alone.
+     *
+     * @param routePairs the route pairs, sorted
+     * @return the number of jobs deleted
+     */
+    public int forget(long[] routePairs) {
+        Integer deleted = transaction.execute(status -> {
+            int count = 0;
+            for (long routePair : routePairs) {
+                count += scrapeProgressRepository.deleteByCarrierCodeAndOriginAndDestination(VS_CARRIER,
+                        RouteKey.unpackIata(RouteKey.origin(routePair)), RouteKey.unpackIata(RouteKey.destination(routePair)));
+            }
+            return count;
+        });
+        log.info("Deleted {} route-month jobs of {} route pairs no longer served", deleted, routePairs.length);
+        return deleted != null ? deleted : 0;
+    }
+
+    /**
+     * The lease covers the attempt, so there is nothing more to record.
+     */
+    @Override
+    public void markAttempt(ScrapeTask task, long now) {
+    }
+
+    @Override
+    public long record(ScrapeTask task, int processedDays, int changedDays, long responseHash, long now) {
+        long[] nextDueAt = {0L};
+        complete(task, progress -> {
+            scrapePlanner.learn(progress, task, processedDays, changedDays, now);
+            progress.setLastSuccessAt(ScrapePlanner.toDateTime(now));
+            progress.setResponseHash(responseHash);
+            nextDueAt[0] = ScrapePlanner.toMillis(progress.getNextDueAt());
+        });
+        return nextDueAt[0];
+    }
+
+    @Override
+    public void recordFailure(ScrapeTask task, long now) {
+        complete(task, progress -> progress.setNextDueAt(ScrapePlanner.toDateTime(scrapePlanner.retryAt(now))));
+    }
+
+    private void complete(ScrapeTask task, Consumer<ScrapeProgress> update) {
+        String id = ScrapePlanner.progressId(task.getOrigin(), task.getDestination(), task.getMonth());
+        transaction.executeWithoutResult(status -> scrapeProgressRepository.lockById(id).ifPresent(progress -> {
+            if (!owner.equals(progress.getLeaseOwner())) {
+                log.warn("Lease on {} expired before it was completed, leaving it to {}", id, progress.getLeaseOwner());
+                return;
+            }
+            update.accept(progress);
+            progress.setLeaseOwner(null);
+            progress.setLeaseExpiresAt(null);
+        }));
+    }
+
+    /**
+     * Another instance may have processed the month since this one last did, in which case what this
+     * instance remembers about it no longer matches the database and must not be used to skip work.
+     */
+    private void syncLocalCaches(long routeKey, YearMonth month, Long persistedHash) {
+        AtomicLongArray monthHashes = scrapePlanner.responseHashes().forRoute(routeKey);
+        long hash = persistedHash != null ? persistedHash : 0L;
+        if (ResponseHashes.matches(monthHashes, month.getYear(), month.getMonthValue(), hash)) {
+            return;
+        }
+        ResponseHashes.record(monthHashes, month.getYear(), month.getMonthValue(), hash);
+        AtomicLongArray fingerprints = scrapePlanner.fingerprints().forRoute(routeKey);
+        for (LocalDate day = month.atDay(1); !day.isAfter(month.atEndOfMonth()); day = day.plusDays(1)) {
+            AwardFingerprints.forget(fingerprints, day.toEpochDay());
+        }
+    }
+}
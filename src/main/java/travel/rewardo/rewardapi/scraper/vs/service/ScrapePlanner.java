@@ -0,0 +1,399 @@
+package travel.rewardo.rewardapi.scraper.vs.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import travel.rewardo.rewardapi.routes.model.Airport;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.carrier.AwardFingerprints;
+import travel.rewardo.rewardapi.scraper.carrier.ResponseHashes;
+import travel.rewardo.rewardapi.scraper.carrier.ScrapeTask;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RouteMonthChanges;
+import travel.rewardo.rewardapi.scraper.vs.model.data.ScrapeProgress;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestHistoricRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.ScrapeProgressRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides which route-months the scraper fetches in each cycle.
+ * <p>
+ * Every route-month keeps an exponentially weighted change rate, learnt from the diff results of
+ * each scrape and seeded from the historic records, and the time it is next due. A month that
+ * changed is due again after the base refresh interval; a month that did not change backs off
+ * exponentially, up to a lower cap for near-term months than for far-out ones. Each cycle the due
+ * months are ranked by change rate, nearness and how overdue they are, and only the top of the
+ * ranking, up to the per-cycle request budget, is scraped.
+ * <p>
+ * The state of every route-month, along with its last attempt, last success and response hash, is
+ * persisted as {@link ScrapeProgress} whenever it changes and restored on the first plan after a
+ * restart. A restarted instance therefore neither re-scrapes the months the previous one already
+ * finished nor forgets the ones it had not reached: those are still due, and the most overdue come first.
+ * <p>
+ * All state is guarded by the planner's monitor; it is taken once per cycle and once per scraped
+ * month, so contention is negligible.
+ * <p>
+ * This is the work source of a single instance. When several instances share the scraping, the
+ * {@link ScrapeLeaseQueue} hands out the work instead and uses the planner only for its scheduling rules.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScrapePlanner implements ScrapeWorkSource {
+
+    /**
+     * Number of months scraped ahead of the current one, including it.
+     */
+    public static final int MONTHS_AHEAD = 12;
+
+    private static final String VS_CARRIER = "VS";
+    private static final double SMOOTHING = 0.3;
+    private static final double MIN_URGENCY = 0.05;
+    private static final int NEAR_TERM_MONTHS = 2;
+    private static final double NEAR_TERM_WEIGHT = 3.0;
+
+    private final RewardFlightLatestHistoricRepository rewardFlightLatestHistoricRepository;
+    private final ScrapeProgressRepository scrapeProgressRepository;
+
+    /**
+     * The response hashes and day fingerprints of Virgin Atlantic, kept here as every other part of
+     * the carrier reaches the planner.
+     */
+    private final ResponseHashes responseHashes = new ResponseHashes();
+    private final AwardFingerprints awardFingerprints = new AwardFingerprints();
+
+    @Value("${scraper.refresh-rate:${scraper.vs.refresh-rate:3600000}}")
+    private long baseIntervalMs = 3_600_000L;
+
+    @Value("${scraper.vs.planner.max-backoff-ms:172800000}")
+    private long maxBackoffMs = 172_800_000L;
+
+    @Value("${scraper.vs.planner.near-term-max-backoff-ms:14400000}")
+    private long nearTermMaxBackoffMs = 14_400_000L;
+
+    /**
+     * Upper bound on the upstream requests made in one cycle, 0 for no bound.
+     */
+    @Value("${scraper.vs.planner.max-requests-per-cycle:500}")
+    private int maxRequestsPerCycle = 500;
+
+    @Value("${scraper.vs.planner.history-days:30}")
+    private int historyDays = 30;
+
+    private final Map<RouteMonth, MonthState> states = new HashMap<>();
+    private Map<RouteMonth, Double> seededRates;
+
+    /**
+     * Chooses the route-months to scrape in this cycle.
+     *
+     * @param routes the routes currently served
+     * @param today the current date, month offset 0
+     * @param now the current time in epoch milliseconds
+     * @return the chosen route-months, grouped by route, routes in order of their most urgent month
+     */
+    public synchronized List<ScrapeTask> plan(List<Route> routes, LocalDate today, long now) {
+        if (seededRates == null) {
+            seededRates = seed(today);
+            restore(today);
+        }
+
+        YearMonth currentMonth = YearMonth.from(today);
+        Set<RouteMonth> wanted = new HashSet<>();
+        List<ScrapeTask> due = new ArrayList<>();
+        for (Route route : routes) {
+            String origin = route.getOrigin().getAirportCode();
+            for (Airport destination : route.getDestinations()) {
+                long routeKey = RouteKey.of(origin, destination.getAirportCode());
+                for (int offset = 0; offset < MONTHS_AHEAD; offset++) {
+                    RouteMonth key = new RouteMonth(routeKey, currentMonth.plusMonths(offset));
+                    wanted.add(key);
+                    MonthState state = states.computeIfAbsent(key, k -> new MonthState(seededRates.getOrDefault(k, 0.0), baseIntervalMs, now));
+                    if (state.nextDueAt <= now) {
+                        due.add(new ScrapeTask(routeKey, origin, destination.getAirportCode(), key.month(), offset,
+                                priority(state, offset, now)));
+                    }
+                }
+            }
+        }
+        // Forget months that have passed and routes that are no longer served
+        states.keySet().retainAll(wanted);
+
+        due.sort(Comparator.comparingDouble(ScrapeTask::getPriority).reversed());
+        List<ScrapeTask> chosen = maxRequestsPerCycle > 0 && due.size() > maxRequestsPerCycle
+                ? due.subList(0, maxRequestsPerCycle)
+                : due;
+        log.info("Planned {} of {} due route-months ({} tracked)", chosen.size(), due.size(), states.size());
+        return groupByRoute(chosen);
+    }
+
+    /**
+     * Forgets the route-months of route pairs that are no longer served, as the next {@link #plan}
+     * would. A pair that is served again starts due, like a new one.
+     *
+     * @param routePairs the route pairs, sorted
+     */
+    public synchronized void forget(long[] routePairs) {
+        states.keySet().removeIf(key -> Arrays.binarySearch(routePairs, key.routeKey()) >= 0);
+    }
+
+    @Override
+    public void markAttempt(ScrapeTask task, long now) {
+        ScrapeProgress progress;
+        synchronized (this) {
+            RouteMonth key = new RouteMonth(task.getRouteKey(), task.getMonth());
+            MonthState state = states.get(key);
+            if (state == null) {
+                return;
+            }
+            state.lastAttemptAt = now;
+            progress = toProgress(key, state);
+        }
+        save(progress);
+    }
+
+    @Override
+    public long record(ScrapeTask task, int processedDays, int changedDays, long responseHash, long now) {
+        ScrapeProgress progress;
+        long nextDueAt;
+        synchronized (this) {
+            RouteMonth key = new RouteMonth(task.getRouteKey(), task.getMonth());
+            MonthState state = states.get(key);
+            if (state == null) {
+                return 0L;
+            }
+            learn(state, task, processedDays, changedDays, now);
+            state.lastSuccessAt = now;
+            state.responseHash = responseHash;
+            nextDueAt = state.nextDueAt;
+            progress = toProgress(key, state);
+        }
+        save(progress);
+        return nextDueAt;
+    }
+
+    @Override
+    public void recordFailure(ScrapeTask task, long now) {
+        ScrapeProgress progress;
+        synchronized (this) {
+            RouteMonth key = new RouteMonth(task.getRouteKey(), task.getMonth());
+            MonthState state = states.get(key);
+            if (state == null) {
+                return;
+            }
+            state.nextDueAt = retryAt(now);
+            progress = toProgress(key, state);
+        }
+        save(progress);
+    }
+
+    /**
+     * Applies the scheduling rules to a persisted route-month, as {@link #record} does to the planner's own state.
+     */
+    void learn(ScrapeProgress progress, ScrapeTask task, int processedDays, int changedDays, long now) {
+        MonthState state = new MonthState(
+                progress.getChangeRate() != null ? progress.getChangeRate() : 0.0,
+                progress.getIntervalMs() != null ? progress.getIntervalMs() : baseIntervalMs,
+                toMillis(progress.getNextDueAt()));
+        learn(state, task, processedDays, changedDays, now);
+        progress.setChangeRate(state.changeRate);
+        progress.setIntervalMs(state.intervalMs);
+        progress.setNextDueAt(toDateTime(state.nextDueAt));
+    }
+
+    /**
+     * @return when a route-month that could not be scraped is due again
+     */
+    long retryAt(long now) {
+        return now + baseIntervalMs;
+    }
+
+    /**
+     * @return the upper bound on the upstream requests made in one cycle, 0 for no bound
+     */
+    public int maxRequestsPerCycle() {
+        return maxRequestsPerCycle;
+    }
+
+    /**
+     * @return the hashes of the responses last processed, see {@link ResponseHashes}
+     */
+    public ResponseHashes responseHashes() {
+        return responseHashes;
+    }
+
+    /**
+     * @return the fingerprints of the days last seen, see {@link AwardFingerprints}
+     */
+    public AwardFingerprints fingerprints() {
+        return awardFingerprints;
+    }
+
+    long baseIntervalMs() {
+        return baseIntervalMs;
+    }
+
+    /**
+     * @return the id of the {@link ScrapeProgress} of a route-month
+     */
+    public static String progressId(String origin, String destination, YearMonth month) {
+        return VS_CARRIER + "-" + origin + "-" + destination + "-" + month;
+    }
+
+    private void learn(MonthState state, ScrapeTask task, int processedDays, int changedDays, long now) {
+        double observed = processedDays > 0 ? (double) changedDays / processedDays : 0.0;
+        state.changeRate = SMOOTHING * observed + (1 - SMOOTHING) * state.changeRate;
+        if (changedDays > 0) {
+            state.intervalMs = baseIntervalMs;
+        } else {
+            long cap = task.getMonthOffset() < NEAR_TERM_MONTHS ? nearTermMaxBackoffMs : maxBackoffMs;
+            state.intervalMs = Math.min(state.intervalMs * 2, Math.max(cap, baseIntervalMs));
+        }
+        state.nextDueAt = now + state.intervalMs;
+    }
+
+    private double priority(MonthState state, int monthOffset, long now) {
+        double urgency = (state.changeRate + MIN_URGENCY) * (monthOffset < NEAR_TERM_MONTHS ? NEAR_TERM_WEIGHT : 1.0);
+        double overdue = 1.0 + (double) (now - state.nextDueAt) / baseIntervalMs;
+        return urgency * overdue;
+    }
+
+    /**
+     * Estimates the change rate of each route-month, as the share of its days changing per cycle,
+     * from the changes recorded in the last {@link #historyDays} days.
+     */
+    private Map<RouteMonth, Double> seed(LocalDate today) {
+        Map<RouteMonth, Double> rates = new HashMap<>();
+        try {
+            double cycles = Math.max(1.0, historyDays * 86_400_000.0 / baseIntervalMs);
+            List<RouteMonthChanges> changes = rewardFlightLatestHistoricRepository.countChangesByRouteMonth(
+                    VS_CARRIER, LocalDateTime.now().minusDays(historyDays), today.withDayOfMonth(1));
+            for (RouteMonthChanges row : changes) {
+                YearMonth month = YearMonth.of(row.getYear(), row.getMonth());
+                double rate = row.getChanges() / (month.lengthOfMonth() * cycles);
+                rates.put(new RouteMonth(RouteKey.of(row.getOrigin(), row.getDestination()), month), Math.min(1.0, rate));
+            }
+            log.info("Seeded change rates of {} route-months from the last {} days", rates.size(), historyDays);
+        } catch (DataAccessException e) {
+            log.warn("Could not seed change rates from historic records, starting from scratch", e);
+        }
+        return rates;
+    }
+
+    /**
+     * Restores the state persisted by a previous run, overriding the seeded change rates.
+     */
+    private void restore(LocalDate today) {
+        try {
+            List<ScrapeProgress> rows = scrapeProgressRepository.findByCarrierCodeAndDepartureMonthGreaterThanEqual(
+                    VS_CARRIER, today.withDayOfMonth(1));
+            for (ScrapeProgress progress : rows) {
+                long routeKey = RouteKey.of(progress.getOrigin(), progress.getDestination());
+                if (routeKey == RouteKey.NONE) {
+                    continue;
+                }
+                RouteMonth key = new RouteMonth(routeKey, YearMonth.from(progress.getDepartureMonth()));
+                MonthState state = new MonthState(
+                        progress.getChangeRate() != null ? progress.getChangeRate() : 0.0,
+                        progress.getIntervalMs() != null ? progress.getIntervalMs() : baseIntervalMs,
+                        toMillis(progress.getNextDueAt()));
+                state.lastAttemptAt = toMillis(progress.getLastAttemptAt());
+                state.lastSuccessAt = toMillis(progress.getLastSuccessAt());
+                if (progress.getResponseHash() != null) {
+                    state.responseHash = progress.getResponseHash();
+                    ResponseHashes.record(responseHashes.forRoute(routeKey), key.month().getYear(), key.month().getMonthValue(),
+                            progress.getResponseHash());
+                }
+                states.put(key, state);
+            }
+            log.info("Restored scrape progress of {} route-months", rows.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not restore scrape progress, every route-month starts due", e);
+        }
+    }
+
+    private static ScrapeProgress toProgress(RouteMonth key, MonthState state) {
+        String origin = RouteKey.unpackIata(RouteKey.origin(key.routeKey()));
+        String destination = RouteKey.unpackIata(RouteKey.destination(key.routeKey()));
+        return ScrapeProgress.builder()
+                .id(progressId(origin, destination, key.month()))
+                .carrierCode(VS_CARRIER)
+                .origin(origin)
+                .destination(destination)
+                .departureMonth(key.month().atDay(1))
+                .lastAttemptAt(toDateTime(state.lastAttemptAt))
+                .lastSuccessAt(toDateTime(state.lastSuccessAt))
+                .responseHash(state.lastSuccessAt != 0 ? state.responseHash : null)
+                .changeRate(state.changeRate)
+                .intervalMs(state.intervalMs)
+                .nextDueAt(toDateTime(state.nextDueAt))
+                .build();
+    }
+
+    private void save(ScrapeProgress progress) {
+        try {
+            scrapeProgressRepository.save(progress);
+        } catch (DataAccessException e) {
+            log.warn("Could not persist scrape progress of {}", progress.getId(), e);
+        }
+    }
+
+    static LocalDateTime toDateTime(long millis) {
+        return millis != 0 ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()) : null;
+    }
+
+    static long toMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+    }
+
+    /**
+     * Orders tasks so that the months of a route pair are consecutive, in calendar order, and route
+     * pairs come in the order of their first task, so the scraper can pace requests per route pair.
+     */
+    static List<ScrapeTask> groupByRoute(List<ScrapeTask> tasks) {
+        Map<Long, List<ScrapeTask>> byRoute = new LinkedHashMap<>();
+        for (ScrapeTask task : tasks) {
+            byRoute.computeIfAbsent(task.getRouteKey(), key -> new ArrayList<>()).add(task);
+        }
+        List<ScrapeTask> grouped = new ArrayList<>(tasks.size());
+        for (List<ScrapeTask> routeTasks : byRoute.values()) {
+            routeTasks.sort(Comparator.comparingInt(ScrapeTask::getMonthOffset));
+            grouped.addAll(routeTasks);
+        }
+        return grouped;
+    }
+
+    private record RouteMonth(long routeKey, YearMonth month) {
+    }
+
+    private static final class MonthState {
+        private double changeRate;
+        private long intervalMs;
+        private long nextDueAt;
+        // Epoch milliseconds, 0 for never
+        private long lastAttemptAt;
+        private long lastSuccessAt;
+        private long responseHash;
+
+        private MonthState(double changeRate, long intervalMs, long nextDueAt) {
+            this.changeRate = changeRate;
+            this.intervalMs = intervalMs;
+            this.nextDueAt = nextDueAt;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package travel.rewardo.rewardapi.scraper.vs.service;
+
+import travel.rewardo.rewardapi.scraper.carrier.ResponseHashes;
+import travel.rewardo.rewardapi.scraper.carrier.ScrapeTask;
+
+/**
+ * Receives the outcome of every route-month the scraper fetches, so the source of the work can schedule it again.
+ */
+public interface ScrapeWorkSource {
+
+    /**
+     * Records that a route-month is about to be fetched.
+     *
+     * @param task the route-month
+     * @param now the current time in epoch milliseconds
+     */
+    void markAttempt(ScrapeTask task, long now);
+
+    /**
+     * Learns from the result of scraping a route-month and schedules it again.
+     *
+     * @param task the scraped route-month
+     * @param processedDays the number of days compared, 0 when the response was unchanged as a whole
+     * @param changedDays the number of days whose price or seats changed
+     * @param responseHash the hash of the response, see {@link ResponseHashes}
+     * @param now the current time in epoch milliseconds
+     * @return when the route-month is due again in epoch milliseconds, 0 if this source no longer schedules it
+     */
+    long record(ScrapeTask task, int processedDays, int changedDays, long responseHash, long now);
+
+    /**
+     * Schedules a route-month that could not be scraped to be retried later, without learning from it.
+     *
+     * @param task the route-month
+     * @param now the current time in epoch milliseconds
+     */
+    void recordFailure(ScrapeTask task, long now);
+}
@@ -0,0 +1,371 @@
+package travel.rewardo.rewardapi.scraper.vs.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import travel.rewardo.rewardapi.availability.service.AvailabilityMatrix;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.service.RoutesChangedEvent;
+import travel.rewardo.rewardapi.routes.service.RoutesService;
+import travel.rewardo.rewardapi.scraper.carrier.AwardFingerprints;
+import travel.rewardo.rewardapi.scraper.carrier.CarrierBudget;
+import travel.rewardo.rewardapi.scraper.carrier.CarrierFetchClient;
+import travel.rewardo.rewardapi.scraper.carrier.CarrierProvider;
+import travel.rewardo.rewardapi.scraper.carrier.CarrierResponseMapper;
+import travel.rewardo.rewardapi.scraper.carrier.CarrierRouteSource;
+import travel.rewardo.rewardapi.scraper.carrier.ResponseHashes;
+import travel.rewardo.rewardapi.scraper.carrier.ScrapeCycle;
+import travel.rewardo.rewardapi.scraper.carrier.ScrapeTask;
+import travel.rewardo.rewardapi.scraper.vs.client.VirginAtlanticApiClient;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardCalendar;
+import travel.rewardo.rewardapi.scraper.vs.model.api.FlightRequest;
+import travel.rewardo.rewardapi.scraper.vs.model.api.PointsDay;
+import travel.rewardo.rewardapi.scraper.vs.model.api.Seats;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardBusiness;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardPremiumEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Virgin Atlantic Flying Club, the carrier served under {@code /api/v1/airline/vs}.
+ * <p>
+ * Its routes come from the {@link RoutesService} catalog and its route-months are fetched from the
+ * reward seat checker. They are planned by the {@link ScrapePlanner}, or claimed from the
+ * {@link ScrapeLeaseQueue} in leased mode, and tracked by the {@link FreshnessTracker}. Saved days
+ * feed the {@link AvailabilityMatrix} behind the search endpoints.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VirginAtlanticCarrier implements CarrierProvider<PointsDay>, CarrierResponseMapper<PointsDay> {
+
+    private static final String ADULT_PASSENGER = "ADULT";
+    private static final String VS_CARRIER = "VS";
+    private static final DateTimeFormatter DEPARTURE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final RoutesService routesService;
+    private final VirginAtlanticApiClient virginAtlanticApiClient;
+    private final ScrapePlanner scrapePlanner;
+    private final ScrapeLeaseQueue scrapeLeaseQueue;
+    private final FreshnessTracker freshnessTracker;
+    private final AvailabilityMatrix availabilityMatrix;
+    private final RouteVersionTracker routeVersionTracker;
+
+    @Value("${scraper.vs.request-delay-ms:5000}")
+    private long requestDelayMs = 5000;
+
+    @Value("${scraper.vs.route-pair-delay-ms:20000}")
+    private long routePairDelayMs = 20000;
+
+    @Value("${scraper.vs.concurrency:1}")
+    private int concurrency = 1;
+
+    @Override
+    public String carrierCode() {
+        return VS_CARRIER;
+    }
+
+    @Override
+    public CarrierRouteSource routeSource() {
+        return routesService::catalog;
+    }
+
+    @Override
+    public CarrierFetchClient fetchClient() {
+        return this::fetch;
+    }
+
+    @Override
+    public CarrierResponseMapper<PointsDay> responseMapper() {
+        return this;
+    }
+
+    @Override
+    public CarrierBudget budget() {
+        return CarrierBudget.builder()
+                .concurrency(concurrency)
+                .requestDelayMs(requestDelayMs)
+                .routePairDelayMs(routePairDelayMs)
+                .build();
+    }
+
+    @Override
+    public AwardFingerprints fingerprints() {
+        return scrapePlanner.fingerprints();
+    }
+
+    @Override
+    public ResponseHashes responseHashes() {
+        return scrapePlanner.responseHashes();
+    }
+
+    /**
+     * Considers 12 months from the current day, but volatile and near-term months are fetched more
+     * often than stable and far-out ones. In leased mode the route-months are claimed in batches from
+     * the {@link ScrapeLeaseQueue} shared with the other instances instead.
+     */
+    @Override
+    public ScrapeCycle startCycle(List<Route> routes, LocalDate today, long now) {
+        freshnessTracker.track(routes, today, now);
+        if (scrapeLeaseQueue.isEnabled()) {
+            // Publish the route-months that are due and work through them in leased batches,
+            // sharing them with every other instance that does the same
+            scrapeLeaseQueue.enqueue(routes, today, now);
+            return new LeasedCycle(today);
+        }
+        // Choose the route-months worth fetching this cycle, already grouped by route pair
+        List<ScrapeTask> tasks = scrapePlanner.plan(routes, today, now);
+        log.info("Fetching reward seats for {} route-months across {} routes", tasks.size(), routes.size());
+        return new PlannedCycle(tasks);
+    }
+
+    @Override
+    public void flightSaved(RewardFlightLatest flight, long routeKey) {
+        availabilityMatrix.put(flight);
+        routeVersionTracker.bump(routeKey);
+    }
+
+    /**
+     * Stops planning and tracking the route pairs the routes refresh dropped, and deletes their
+     * shared jobs in leased mode. Added pairs are due on the next cycle, which reads the new routes.
+     */
+    @EventListener
+    public void onRoutesChanged(RoutesChangedEvent event) {
+        if (event.getRemovedPairs().length > 0) {
+            scrapePlanner.forget(event.getRemovedPairs());
+            freshnessTracker.forget(event.getRemovedPairs());
+            if (scrapeLeaseQueue.isEnabled()) {
+                scrapeLeaseQueue.forget(event.getRemovedPairs());
+            }
+        }
+    }
+
+    private String fetch(ScrapeTask task, LocalDate today) throws IOException {
+        return virginAtlanticApiClient.fetchRewardSeatResponse(createFlightRequest(task, today));
+    }
+
+    /**
+     * Creates a FlightRequest for a single month and year.
+     */
+    FlightRequest createFlightRequest(ScrapeTask task, LocalDate today) {
+        return FlightRequest.builder()
+                .slice(FlightRequest.Slice.builder()
+                        .origin(task.getOrigin())
+                        .destination(task.getDestination())
+                        .departure(today.format(DEPARTURE_FORMAT))
+                        .build())
+                .passengers(Collections.singletonList(ADULT_PASSENGER))
+                .permittedCarriers(Collections.singletonList(VS_CARRIER))
+                .years(Collections.singletonList(task.getMonth().getYear()))
+                .months(Collections.singletonList(task.getMonth().getMonth().toString()))
+                .build();
+    }
+
+    @Override
+    public List<PointsDay> days(String responseBody) throws IOException {
+        List<PointsDay> days = new ArrayList<>();
+        for (AwardCalendar awardCalendar : virginAtlanticApiClient.parseRewardSeatInfo(responseBody)) {
+            if (awardCalendar.getPointsDays() != null) {
+                days.addAll(awardCalendar.getPointsDays());
+            }
+        }
+        return days;
+    }
+
+    @Override
+    public LocalDate departure(PointsDay day) {
+        return day.getDateFound();
+    }
+
+    @Override
+    public long fingerprint(PointsDay day) {
+        return fingerprintOf(day);
+    }
+
+    /**
+     * Computes the fingerprint of one day of the API response, over the economy, premium economy
+     * and business cabins in that order.
+     *
+     * @param pointsDay the day as returned by the API
+     * @return the fingerprint
+     */
+    public static long fingerprintOf(PointsDay pointsDay) {
+        long hash = AwardFingerprints.day(pointsDay.getDateFound());
+        Seats seats = pointsDay.getSeats();
+        if (seats == null) {
+            return AwardFingerprints.noSeats(hash);
+        }
+        if (seats.getAwardEconomy() != null) {
+            hash = AwardFingerprints.cabin(hash, seats.getAwardEconomy().getCabinPointsValue(),
+                    seats.getAwardEconomy().getCabinClassSeatCount());
+        } else {
+            hash = AwardFingerprints.cabin(hash, null, null);
+        }
+        if (seats.getAwardComfortPlusPremiumEconomy() != null) {
+            hash = AwardFingerprints.cabin(hash, seats.getAwardComfortPlusPremiumEconomy().getCabinPointsValue(),
+                    seats.getAwardComfortPlusPremiumEconomy().getCabinClassSeatCount());
+        } else {
+            hash = AwardFingerprints.cabin(hash, null, null);
+        }
+        if (seats.getAwardBusiness() != null) {
+            hash = AwardFingerprints.cabin(hash, seats.getAwardBusiness().getCabinPointsValue(),
+                    seats.getAwardBusiness().getCabinClassSeatCount());
+        } else {
+            hash = AwardFingerprints.cabin(hash, null, null);
+        }
+        return hash;
+    }
+
+    /**
+     * Creates a RewardFlightLatest object from a PointsDay object.
+     *
+     * @param pointsDay the PointsDay object from the API response
+     * @param origin the origin airport code
+     * @param destination the destination airport code
+     * @return a new RewardFlightLatest object
+     */
+    @Override
+    public RewardFlightLatest toFlight(PointsDay pointsDay, String origin, String destination) {
+        // Create default empty award objects
+        AwardEconomy awardEconomy = AwardEconomy.builder().build();
+        AwardPremiumEconomy awardPremiumEconomy = AwardPremiumEconomy.builder().build();
+        AwardBusiness awardBusiness = AwardBusiness.builder().build();
+
+        // Only populate if seats data is available
+        if (pointsDay.getSeats() != null) {
+            // Create award economy if available
+            if (pointsDay.getSeats().getAwardEconomy() != null) {
+                awardEconomy = AwardEconomy.builder()
+                    .cabinPointsValue(pointsDay.getSeats().getAwardEconomy().getCabinPointsValue())
+                    .isSaverAward(pointsDay.getSeats().getAwardEconomy().getIsSaverAward())
+                    .cabinClassSeatCount(pointsDay.getSeats().getAwardEconomy().getCabinClassSeatCount())
+                    .cabinClassSeatCountString(pointsDay.getSeats().getAwardEconomy().getCabinClassSeatCountString())
+                    .build();
+            }
+
+            // Create award premium economy if available
+            if (pointsDay.getSeats().getAwardComfortPlusPremiumEconomy() != null) {
+                awardPremiumEconomy = AwardPremiumEconomy.builder()
+                    .cabinPointsValue(pointsDay.getSeats().getAwardComfortPlusPremiumEconomy().getCabinPointsValue())
+                    .isSaverAward(pointsDay.getSeats().getAwardComfortPlusPremiumEconomy().getIsSaverAward())
+                    .cabinClassSeatCount(pointsDay.getSeats().getAwardComfortPlusPremiumEconomy().getCabinClassSeatCount())
+                    .cabinClassSeatCountString(pointsDay.getSeats().getAwardComfortPlusPremiumEconomy().getCabinClassSeatCountString())
+                    .build();
+            }
+
+            // Create award business if available
+            if (pointsDay.getSeats().getAwardBusiness() != null) {
+                awardBusiness = AwardBusiness.builder()
+                    .cabinPointsValue(pointsDay.getSeats().getAwardBusiness().getCabinPointsValue())
+                    .isSaverAward(pointsDay.getSeats().getAwardBusiness().getIsSaverAward())
+                    .cabinClassSeatCount(pointsDay.getSeats().getAwardBusiness().getCabinClassSeatCount())
+                    .cabinClassSeatCountString(pointsDay.getSeats().getAwardBusiness().getCabinClassSeatCountString())
+                    .build();
+            }
+        }
+
+        // Award first stays null as it's not in the API response
+        return RewardFlightLatest.builder()
+                .origin(origin)
+                .destination(destination)
+                .departure(pointsDay.getDateFound())
+                .carrierCode(VS_CARRIER)
+                .scrapedAt(LocalDateTime.now())
+                .awardEconomy(awardEconomy)
+                .awardPremiumEconomy(awardPremiumEconomy)
+                .awardBusiness(awardBusiness)
+                .awardFirst(null)
+                .build();
+    }
+
+    /**
+     * Reports the outcome of every route-month to a {@link ScrapeWorkSource} and to the freshness tracker.
+     */
+    private abstract class TrackedCycle implements ScrapeCycle {
+
+        abstract ScrapeWorkSource workSource();
+
+        @Override
+        public void markAttempt(ScrapeTask task, long now) {
+            workSource().markAttempt(task, now);
+        }
+
+        @Override
+        public void recordSuccess(ScrapeTask task, int processedDays, int changedDays, long responseHash, long now) {
+            long nextDueAt = workSource().record(task, processedDays, changedDays, responseHash, now);
+            freshnessTracker.recordSuccess(task, changedDays, nextDueAt, now);
+        }
+
+        @Override
+        public void recordFailure(ScrapeTask task, String error, long now) {
+            workSource().recordFailure(task, now);
+            freshnessTracker.recordFailure(task, error, now);
+        }
+    }
+
+    /**
+     * The route-months chosen by the {@link ScrapePlanner}, handed out as one batch.
+     */
+    private final class PlannedCycle extends TrackedCycle {
+
+        private List<ScrapeTask> tasks;
+
+        private PlannedCycle(List<ScrapeTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        ScrapeWorkSource workSource() {
+            return scrapePlanner;
+        }
+
+        @Override
+        public List<ScrapeTask> nextBatch(long now) {
+            List<ScrapeTask> batch = tasks;
+            tasks = List.of();
+            return batch;
+        }
+    }
+
+    /**
+     * Route-months claimed from the {@link ScrapeLeaseQueue} a batch at a time, up to the planner's
+     * bound on requests per cycle.
+     */
+    private final class LeasedCycle extends TrackedCycle {
+
+        private final LocalDate today;
+        private final int budget = scrapePlanner.maxRequestsPerCycle();
+        private int claimed;
+
+        private LeasedCycle(LocalDate today) {
+            this.today = today;
+        }
+
+        @Override
+        ScrapeWorkSource workSource() {
+            return scrapeLeaseQueue;
+        }
+
+        @Override
+        public List<ScrapeTask> nextBatch(long now) {
+            if (budget > 0 && claimed >= budget) {
+                log.info("Claimed {} route-months, the bound for this cycle", claimed);
+                return List.of();
+            }
+            int limit = budget <= 0 ? scrapeLeaseQueue.batchSize() : Math.min(scrapeLeaseQueue.batchSize(), budget - claimed);
+            List<ScrapeTask> batch = scrapeLeaseQueue.claim(limit, today, now);
+            claimed += batch.size();
+            return batch;
+        }
+    }
+}
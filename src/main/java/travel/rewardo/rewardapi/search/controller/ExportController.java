@@ -0,0 +1,63 @@
+package travel.rewardo.rewardapi.search.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import travel.rewardo.rewardapi.search.model.ExportFormat;
+import travel.rewardo.rewardapi.search.service.RewardFlightExportService;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bulk export of reward flights for analytics.
+ * Rows are streamed from a database cursor into the response body instead of being paged with OFFSET queries.
+ */
+@RestController
+@RequestMapping("/api/v1/airline/vs/reward-flights/export")
+@RequiredArgsConstructor
+@Slf4j
+public class ExportController {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final RewardFlightExportService rewardFlightExportService;
+
+    @GetMapping("/latest")
+    public ResponseEntity<StreamingResponseBody> exportLatest(@RequestParam(value = "format", defaultValue = "NDJSON") final ExportFormat format,
+                                                              @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime since) {
+        StreamingResponseBody body = out -> {
+            long rows = rewardFlightExportService.exportLatest(since != null ? since : EPOCH, format, out);
+            log.info("Exported {} latest reward flights as {} since {}", rows, format, since);
+        };
+        return streamed("reward-flights-latest", format, body);
+    }
+
+    @GetMapping("/historic")
+    public ResponseEntity<StreamingResponseBody> exportHistoric(@RequestParam(value = "format", defaultValue = "NDJSON") final ExportFormat format,
+                                                                @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime since) {
+        StreamingResponseBody body = out -> {
+            long rows = rewardFlightExportService.exportHistoric(since != null ? since : EPOCH, format, out);
+            log.info("Exported {} historic reward flights as {} since {}", rows, format, since);
+        };
+        return streamed("reward-flights-historic", format, body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamed(String fileName, ExportFormat format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName + "." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,72 @@
+package travel.rewardo.rewardapi.search.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatestHistoric;
+import travel.rewardo.rewardapi.scraper.vs.repository.ReactiveRewardFlightRepository;
+import travel.rewardo.rewardapi.scraper.vs.service.RouteVersionTracker;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reactive counterparts of the latest and historic reward flight endpoints, enabled with
+ * {@code search.reactive.enabled}. Rows are read through R2DBC and written as they arrive, so no
+ * thread waits on the database. Clients get a JSON array, or one flight per line when they accept
+ * {@code application/x-ndjson}. Pages are plain lists rather than {@code Page} objects, which would
+ * need a count query before the first row.
+ */
+@RestController
+@RequestMapping("/api/v1/airline/vs/reactive/reward-flights")
+@ConditionalOnProperty(name = "search.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveRewardFlightController {
+
+    private final ReactiveRewardFlightRepository reactiveRewardFlightRepository;
+    private final RouteVersionTracker routeVersionTracker;
+
+    @Value("${search.reactive.max-rows:1000}")
+    private int maxRows = 1000;
+
+    @GetMapping("/origin/{origin}/destination/{destination}/from/{from}/to/{to}")
+    public ResponseEntity<Flux<RewardFlightLatest>> latestRewardFlights(@PathVariable("origin") final String origin, @PathVariable final String destination, @PathVariable final String from, @PathVariable final String to,
+                                                                        @RequestParam(value = "page-number", defaultValue = "0") final int pageNumber, @RequestParam(value = "page-size", defaultValue = "50") final int pageSize,
+                                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        validatePage(pageNumber, pageSize);
+        String etag = routeVersionTracker.routeETag(origin, destination, List.of("reactive-latest", from, to, pageNumber, pageSize));
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
+        return ConditionalRequests.ok(etag, reactiveRewardFlightRepository.findLatest(origin, destination, "VS",
+                LocalDate.parse(from), LocalDate.parse(to), (long) pageNumber * pageSize, pageSize));
+    }
+
+    @GetMapping("/origin/{origin}/destination/{destination}/on/{on}/historic")
+    public ResponseEntity<Flux<RewardFlightLatestHistoric>> historicRewardFlight(@PathVariable("origin") final String origin, @PathVariable final String destination, @PathVariable final String on,
+                                                                                 @RequestParam(value = "page-number", defaultValue = "0") final int pageNumber, @RequestParam(value = "page-size", defaultValue = "50") final int pageSize,
+                                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        validatePage(pageNumber, pageSize);
+        String etag = routeVersionTracker.routeETag(origin, destination, List.of("reactive-historic", on, pageNumber, pageSize));
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
+        return ConditionalRequests.ok(etag, reactiveRewardFlightRepository.findHistoric(origin, destination, "VS",
+                LocalDate.parse(on), (long) pageNumber * pageSize, pageSize));
+    }
+
+    private void validatePage(int pageNumber, int pageSize) {
+        if (pageNumber < 0 || pageSize < 1 || pageSize > maxRows) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page-number must be at least 0 and page-size between 1 and " + maxRows);
+        }
+    }
+}
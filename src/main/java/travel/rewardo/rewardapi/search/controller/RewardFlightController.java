@@ -5,15 +5,31 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
 import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatestHistoric;
 import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
 import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestHistoricRepository;
 import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.scraper.vs.service.RouteVersionTracker;
+import travel.rewardo.rewardapi.search.model.FlexibleSearchResult;
+import travel.rewardo.rewardapi.search.model.RewardCalendar;
+import travel.rewardo.rewardapi.search.model.RoundTripSearchResult;
+import travel.rewardo.rewardapi.search.service.FlexibleSearchService;
+import travel.rewardo.rewardapi.search.service.RewardCalendarService;
+import travel.rewardo.rewardapi.search.service.RoundTripSearchService;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @RestController
 @RequestMapping("/api/v1/airline/vs/reward-flights")
@@ -22,30 +38,140 @@ public class RewardFlightController {
 
     private final RewardFlightLatestRepository rewardFlightLatestRepository;
     private final RewardFlightLatestHistoricRepository rewardFlightLatestHistoricRepository;
+    private final RouteVersionTracker routeVersionTracker;
+    private final RewardCalendarService rewardCalendarService;
+    private final FlexibleSearchService flexibleSearchService;
+    private final RoundTripSearchService roundTripSearchService;
+
+    private static final int MAX_CALENDAR_DAYS = 400;
+    private static final int MAX_FLEX_DAYS = 30;
+    private static final int MAX_LIMIT = 500;
 
     @GetMapping("/origin/{origin}/destination/{destination}/from/{from}/to/{to}")
     public ResponseEntity<Page<RewardFlightLatest>> latestRewardFlights(@PathVariable("origin") final String origin, @PathVariable final String destination, @PathVariable final String from, @PathVariable final String to,
-                                                                        @RequestParam("page-number") final int pageNumber, @RequestParam("page-size") final int pageSize) {
+                                                                        @RequestParam("page-number") final int pageNumber, @RequestParam("page-size") final int pageSize,
+                                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        String etag = routeVersionTracker.routeETag(origin, destination, List.of("latest", from, to, pageNumber, pageSize));
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
         Sort sort = Sort.by(Sort.Direction.fromString("ASC"), "departure");
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
 
-        return ResponseEntity.ok(rewardFlightLatestRepository.findByOriginAndDestinationAndCarrierCodeAndDepartureBetween(origin, destination, "VS", LocalDate.parse(from), LocalDate.parse(to), pageable).orElseThrow());
+        return ConditionalRequests.ok(etag, rewardFlightLatestRepository.findByOriginAndDestinationAndCarrierCodeAndDepartureBetween(origin, destination, "VS", LocalDate.parse(from), LocalDate.parse(to), pageable).orElseThrow());
     }
 
     @GetMapping("/origin/{origin}/destination/{destination}/cabin/{cabinType}/cheapest")
-    public ResponseEntity<Page<RewardFlightLatest>> cheapest(@PathVariable("origin") final String origin, @PathVariable final String destination, @PathVariable("cabinType") final CabinType cabinType, @RequestParam(defaultValue = "0", value = "page-number") final int pageNumber, @RequestParam(value = "page-size", defaultValue = "50") final int pageSize) {
+    public ResponseEntity<Page<RewardFlightLatest>> cheapest(@PathVariable("origin") final String origin, @PathVariable final String destination, @PathVariable("cabinType") final CabinType cabinType, @RequestParam(defaultValue = "0", value = "page-number") final int pageNumber, @RequestParam(value = "page-size", defaultValue = "50") final int pageSize,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        String etag = routeVersionTracker.routeETag(origin, destination, List.of("cheapest", cabinType, pageNumber, pageSize));
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
         Sort sort = Sort.by(Sort.Direction.fromString("ASC"), "departure");
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
 
-        return ResponseEntity.ok(rewardFlightLatestRepository.findAllOrderedByLowestCabinPointsAndOriginAndDestination(origin, destination, cabinType.name(), pageable).orElseThrow());
+        return ConditionalRequests.ok(etag, rewardFlightLatestRepository.findAllOrderedByLowestCabinPointsAndOriginAndDestination(origin, destination, cabinType.name(), pageable).orElseThrow());
     }
 
     @GetMapping("/origin/{origin}/destination/{destination}/on/{on}/historic")
     public ResponseEntity<Page<RewardFlightLatestHistoric>> historicRewardFlight(@PathVariable("origin") final String origin, @PathVariable final String destination, @PathVariable final String on,
-                                                                                 @RequestParam("page-number") final int pageNumber, @RequestParam("page-size") final int pageSize) {
+                                                                                 @RequestParam("page-number") final int pageNumber, @RequestParam("page-size") final int pageSize,
+                                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        String etag = routeVersionTracker.routeETag(origin, destination, List.of("historic", on, pageNumber, pageSize));
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
         Sort sort = Sort.by(Sort.Direction.fromString("ASC"), "departure");
         Pageable pageable = PageRequest.of(pageNumber, pageSize, sort);
 
-        return ResponseEntity.ok(rewardFlightLatestHistoricRepository.findByOriginAndDestinationAndCarrierCodeAndDepartureOrderByScrapedAtAsc(origin, destination, "VS", LocalDate.parse(on), pageable).orElseThrow());
+        return ConditionalRequests.ok(etag, rewardFlightLatestHistoricRepository.findByOriginAndDestinationAndCarrierCodeAndDepartureOrderByScrapedAtAsc(origin, destination, "VS", LocalDate.parse(on), pageable).orElseThrow());
+    }
+
+    @GetMapping("/origin/{origin}/destination/{destination}/from/{from}/to/{to}/calendar")
+    public ResponseEntity<RewardCalendar> calendar(@PathVariable("origin") final String origin, @PathVariable final String destination, @PathVariable final String from, @PathVariable final String to,
+                                                   @RequestParam(value = "cabins", required = false) final Set<CabinType> cabins,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        LocalDate fromDate = LocalDate.parse(from);
+        LocalDate toDate = LocalDate.parse(to);
+        if (toDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_CALENDAR_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Date range must be between 1 and " + MAX_CALENDAR_DAYS + " days");
+        }
+        Set<CabinType> requestedCabins = cabins == null || cabins.isEmpty() ? EnumSet.allOf(CabinType.class) : EnumSet.copyOf(cabins);
+
+        String etag = routeVersionTracker.routeETag(origin, destination, List.of("calendar", from, to, requestedCabins));
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
+        return ConditionalRequests.ok(etag, rewardCalendarService.calendar(origin, destination, fromDate, toDate, requestedCabins));
+    }
+
+    @GetMapping("/origin/{origin}/cabin/{cabinType}/flexible")
+    public ResponseEntity<FlexibleSearchResult> flexibleSearch(@PathVariable("origin") final String origin, @PathVariable("cabinType") final CabinType cabinType,
+                                                               @RequestParam("date") final String date, @RequestParam(value = "flex-days", defaultValue = "3") final int flexDays,
+                                                               @RequestParam(value = "destinations", required = false) final Set<String> destinations,
+                                                               @RequestParam(value = "country", required = false) final String country,
+                                                               @RequestParam(value = "min-seats", defaultValue = "1") final int minSeats,
+                                                               @RequestParam(value = "limit", defaultValue = "50") final int limit,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        if (flexDays < 0 || flexDays > MAX_FLEX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "flex-days must be between 0 and " + MAX_FLEX_DAYS);
+        }
+        checkLimit(limit);
+        LocalDate centre = LocalDate.parse(date);
+        String originCode = origin.trim().toUpperCase();
+        Set<String> destinationCodes = new TreeSet<>();
+        if (destinations != null) {
+            destinations.forEach(code -> destinationCodes.add(code.trim().toUpperCase()));
+        }
+
+        String etag = routeVersionTracker.globalETag(Arrays.asList("flexible", originCode, cabinType, date, flexDays, destinationCodes, country, minSeats, limit));
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
+        return ConditionalRequests.ok(etag, flexibleSearchService.search(originCode, destinationCodes, country,
+                centre.minusDays(flexDays), centre.plusDays(flexDays), cabinType, minSeats, limit));
+    }
+
+    @GetMapping("/origin/{origin}/destination/{destination}/round-trip")
+    public ResponseEntity<RoundTripSearchResult> roundTrip(@PathVariable("origin") final String origin, @PathVariable final String destination,
+                                                           @RequestParam("depart-from") final String departFrom, @RequestParam("depart-to") final String departTo,
+                                                           @RequestParam(value = "min-nights", defaultValue = "1") final int minNights,
+                                                           @RequestParam(value = "max-nights", defaultValue = "14") final int maxNights,
+                                                           @RequestParam(value = "cabins", required = false) final Set<CabinType> cabins,
+                                                           @RequestParam(value = "min-seats", defaultValue = "1") final int minSeats,
+                                                           @RequestParam(value = "limit", defaultValue = "50") final int limit,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
+        LocalDate fromDate = LocalDate.parse(departFrom);
+        LocalDate toDate = LocalDate.parse(departTo);
+        if (toDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_CALENDAR_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Departure window must be between 1 and " + MAX_CALENDAR_DAYS + " days");
+        }
+        if (minNights < 0 || maxNights < minNights || maxNights >= MAX_CALENDAR_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Trip length must satisfy 0 <= min-nights <= max-nights < " + MAX_CALENDAR_DAYS);
+        }
+        checkLimit(limit);
+        Set<CabinType> requestedCabins = cabins == null || cabins.isEmpty() ? EnumSet.allOf(CabinType.class) : EnumSet.copyOf(cabins);
+
+        // Both directions feed the result, so the return route's version is part of the tag
+        String etag = routeVersionTracker.routeETag(origin, destination, List.of("round-trip", routeVersionTracker.routeVersion(destination, origin),
+                departFrom, departTo, minNights, maxNights, requestedCabins, minSeats, limit));
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
+        return ConditionalRequests.ok(etag, roundTripSearchService.search(origin, destination, requestedCabins, fromDate, toDate,
+                minNights, maxNights, minSeats, limit));
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
     }
 }
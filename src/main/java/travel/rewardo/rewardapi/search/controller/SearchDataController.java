@@ -3,18 +3,25 @@ package travel.rewardo.rewardapi.search.controller;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import travel.rewardo.rewardapi.routes.service.RoutesService;
 import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestHistoricRepository;
 import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.scraper.vs.service.FreshnessTracker;
+import travel.rewardo.rewardapi.scraper.vs.service.RouteMonthFreshness;
+import travel.rewardo.rewardapi.scraper.vs.service.RouteVersionTracker;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,13 +35,20 @@ public class SearchDataController {
     private final RoutesService routeService;
     private final RewardFlightLatestHistoricRepository rewardFlightLatestHistoricRepository;
     private final RewardFlightLatestRepository rewardFlightLatestRepository;
+    private final RouteVersionTracker routeVersionTracker;
+    private final FreshnessTracker freshnessTracker;
 
     @GetMapping("/summary")
-    public ResponseEntity<Map<String, Object>> getSummary() {
-        Map<String, Object> summary = new HashMap<>();
-
+    public ResponseEntity<Map<String, Object>> getSummary(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         // Count total routes
-        long totalRoutes = routeService.getRoutes().size();
+        long totalRoutes = routeService.catalog().routes().size();
+
+        String etag = routeVersionTracker.globalETag(List.of("summary", totalRoutes));
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
+        Map<String, Object> summary = new HashMap<>();
         summary.put("totalRoutes", totalRoutes);
 
         // Count total scrapes
@@ -57,21 +71,31 @@ public class SearchDataController {
 
         summary.put("airlines", Map.of("VS", airlineInfo));
 
-        return ResponseEntity.ok(summary);
+        return ConditionalRequests.ok(etag, summary);
     }
 
     @GetMapping("/routes/count")
-    public ResponseEntity<Map<String, Object>> getRouteCount() {
-        Map<String, Object> routeStats = new HashMap<>();
+    public ResponseEntity<Map<String, Object>> getRouteCount(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        long totalRoutes = routeService.catalog().routes().size();
 
-        long totalRoutes = routeService.getRoutes().size();
+        String etag = routeVersionTracker.globalETag(List.of("routes-count", totalRoutes));
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
+        Map<String, Object> routeStats = new HashMap<>();
         routeStats.put("totalRoutes", totalRoutes);
 
-        return ResponseEntity.ok(routeStats);
+        return ConditionalRequests.ok(etag, routeStats);
     }
 
     @GetMapping("/historic-flights/count")
-    public ResponseEntity<Map<String, Object>> getHistoricFlightsCount() {
+    public ResponseEntity<Map<String, Object>> getHistoricFlightsCount(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = routeVersionTracker.globalETag("historic-flights-count");
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
         Map<String, Object> flightStats = new HashMap<>();
 
         // Count total historic flights
@@ -82,7 +106,7 @@ public class SearchDataController {
         long currentFlights = rewardFlightLatestRepository.count();
         flightStats.put("currentFlights", currentFlights);
 
-        return ResponseEntity.ok(flightStats);
+        return ConditionalRequests.ok(etag, flightStats);
     }
     
     /**
@@ -98,8 +122,15 @@ public class SearchDataController {
     public ResponseEntity<Map<String, Object>> getMostCommonOriginDestinationPairs(
             @RequestParam(required = false) String carrierCode,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
+        // The 30-day window moves daily, so the date is part of the version
+        String etag = routeVersionTracker.globalETag(Arrays.asList("most-changes", LocalDate.now(), carrierCode, page, size));
+        if (ConditionalRequests.matches(ifNoneMatch, etag)) {
+            return ConditionalRequests.notModified(etag);
+        }
+
         Map<String, Object> response = new HashMap<>();
         
         // Get the most common origin-destination pairs for the past 30 days
@@ -149,6 +180,50 @@ public class SearchDataController {
         response.put("totalItems", pairs.size());
         response.put("totalPages", (int) Math.ceil((double) pairs.size() / size));
         
+        return ConditionalRequests.ok(etag, response);
+    }
+
+    /**
+     * Returns how old the scraped data of each route-month is, stalest first, along with the
+     * staleness distribution over every tracked route-month. Not cached, as staleness grows by the second.
+     *
+     * @param origin Optional origin airport code
+     * @param destination Optional destination airport code
+     * @param page Page number (0-based)
+     * @param size Number of items per page
+     * @return the freshness of the matching route-months
+     */
+    @GetMapping("/freshness")
+    public ResponseEntity<Map<String, Object>> getFreshness(
+            @RequestParam(required = false) String origin,
+            @RequestParam(required = false) String destination,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        long now = System.currentTimeMillis();
+        List<RouteMonthFreshness> routeMonths = freshnessTracker.freshness(
+                origin != null ? origin.toUpperCase() : null,
+                destination != null ? destination.toUpperCase() : null,
+                now);
+
+        Pageable pageable = PageRequest.of(page, size);
+        int start = (int) Math.min(pageable.getOffset(), routeMonths.size());
+        int end = Math.min(start + pageable.getPageSize(), routeMonths.size());
+
+        FreshnessTracker.Stats stats = freshnessTracker.stats(now);
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("routeMonths", stats.routeMonths());
+        summary.put("p50StalenessSeconds", stats.p50Seconds());
+        summary.put("p95StalenessSeconds", stats.p95Seconds());
+        summary.put("maxStalenessSeconds", stats.maxSeconds());
+        summary.put("p95OverdueSeconds", stats.p95OverdueSeconds());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("summary", summary);
+        response.put("routeMonths", routeMonths.subList(start, end));
+        response.put("currentPage", page);
+        response.put("totalItems", routeMonths.size());
+        response.put("totalPages", (int) Math.ceil((double) routeMonths.size() / size));
+
         return ResponseEntity.ok(response);
     }
 }
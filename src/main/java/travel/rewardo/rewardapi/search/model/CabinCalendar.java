@@ -0,0 +1,21 @@
+package travel.rewardo.rewardapi.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Availability of a single cabin as parallel arrays: entry {@code i} of every array
+ * describes the departure on {@code from + dayOffsets[i]}. Only days with a points value are present.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CabinCalendar {
+    private int[] dayOffsets;
+    private int[] points;
+    private int[] seats;
+    private boolean[] saver;
+}
@@ -0,0 +1,19 @@
+package travel.rewardo.rewardapi.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Output formats supported by the bulk export endpoints.
+ */
+@AllArgsConstructor
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    @Getter
+    private final String contentType;
+
+    @Getter
+    private final String fileExtension;
+}
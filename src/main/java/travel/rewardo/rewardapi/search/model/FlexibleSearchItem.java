@@ -0,0 +1,25 @@
+package travel.rewardo.rewardapi.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * A single bookable award found by a flexible-date search.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlexibleSearchItem {
+    private String destination;
+    private String destinationCity;
+    private String destinationCountry;
+    private LocalDate departure;
+    private int points;
+    private int seats;
+    private boolean saver;
+}
@@ -0,0 +1,27 @@
+package travel.rewardo.rewardapi.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Merged result of a flexible-date search from one origin to several destinations,
+ * ranked by points ascending.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlexibleSearchResult {
+    private String origin;
+    private CabinType cabin;
+    private LocalDate from;
+    private LocalDate to;
+    private int destinationsSearched;
+    private List<FlexibleSearchItem> results;
+}
@@ -0,0 +1,30 @@
+package travel.rewardo.rewardapi.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Compact availability calendar for a route and date range.
+ * Each cabin is returned as parallel primitive arrays instead of one object per day.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RewardCalendar {
+    private String origin;
+    private String destination;
+    private String carrierCode;
+    /**
+     * The date that day offset 0 refers to.
+     */
+    private LocalDate from;
+    private LocalDate to;
+    private Map<CabinType, CabinCalendar> cabins;
+}
@@ -0,0 +1,20 @@
+package travel.rewardo.rewardapi.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An outbound award paired with the cheapest return award that fits the requested trip length.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoundTripItinerary {
+    private RoundTripLeg outbound;
+    private RoundTripLeg inbound;
+    private int nights;
+    private int totalPoints;
+}
@@ -0,0 +1,24 @@
+package travel.rewardo.rewardapi.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+
+import java.time.LocalDate;
+
+/**
+ * One direction of a round-trip itinerary.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoundTripLeg {
+    private LocalDate departure;
+    private CabinType cabin;
+    private int points;
+    private int seats;
+    private boolean saver;
+}
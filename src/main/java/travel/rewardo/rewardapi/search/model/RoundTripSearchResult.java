@@ -0,0 +1,29 @@
+package travel.rewardo.rewardapi.search.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Round-trip itineraries for a route, ranked by total points ascending.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoundTripSearchResult {
+    private String origin;
+    private String destination;
+    private Set<CabinType> cabins;
+    private LocalDate departFrom;
+    private LocalDate departTo;
+    private int minNights;
+    private int maxNights;
+    private List<RoundTripItinerary> itineraries;
+}
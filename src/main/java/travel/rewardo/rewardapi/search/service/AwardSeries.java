@@ -0,0 +1,123 @@
+package travel.rewardo.rewardapi.search.service;
+
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+import travel.rewardo.rewardapi.search.model.CabinCalendar;
+import travel.rewardo.rewardapi.search.model.RewardCalendar;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Date-sorted availability of one direction of a route, reduced to the cheapest bookable cabin per day.
+ * Stored as parallel primitive arrays so that pairing can run over it without allocating per day.
+ */
+public final class AwardSeries {
+
+    private static final CabinType[] CABINS = CabinType.values();
+
+    private final int size;
+    private final long[] epochDays;
+    private final int[] points;
+    private final int[] seats;
+    private final boolean[] saver;
+    private final byte[] cabins;
+
+    public AwardSeries(long[] epochDays, int[] points, int[] seats, boolean[] saver, byte[] cabins) {
+        this.size = epochDays.length;
+        this.epochDays = epochDays;
+        this.points = points;
+        this.seats = seats;
+        this.saver = saver;
+        this.cabins = cabins;
+    }
+
+    /**
+     * Reduces a calendar to the cheapest of the given cabins on each day that has at least {@code minSeats} seats.
+     *
+     * @param calendar the calendar to reduce
+     * @param cabins the cabins that may be booked
+     * @param minSeats the minimum number of seats required
+     * @return the series, sorted by date
+     */
+    public static AwardSeries cheapestPerDay(RewardCalendar calendar, Set<CabinType> cabins, int minSeats) {
+        int days = (int) (calendar.getTo().toEpochDay() - calendar.getFrom().toEpochDay()) + 1;
+        int[] bestPoints = new int[days];
+        int[] bestSeats = new int[days];
+        boolean[] bestSaver = new boolean[days];
+        byte[] bestCabin = new byte[days];
+        Arrays.fill(bestPoints, Integer.MAX_VALUE);
+
+        int found = 0;
+        for (CabinType cabin : cabins) {
+            CabinCalendar cabinCalendar = calendar.getCabins().get(cabin);
+            if (cabinCalendar == null) {
+                continue;
+            }
+            int[] offsets = cabinCalendar.getDayOffsets();
+            for (int i = 0; i < offsets.length; i++) {
+                int day = offsets[i];
+                if (day < 0 || day >= days || cabinCalendar.getSeats()[i] < minSeats) {
+                    continue;
+                }
+                if (bestPoints[day] == Integer.MAX_VALUE) {
+                    found++;
+                }
+                if (cabinCalendar.getPoints()[i] < bestPoints[day]) {
+                    bestPoints[day] = cabinCalendar.getPoints()[i];
+                    bestSeats[day] = cabinCalendar.getSeats()[i];
+                    bestSaver[day] = cabinCalendar.getSaver()[i];
+                    bestCabin[day] = (byte) cabin.ordinal();
+                }
+            }
+        }
+
+        long firstDay = calendar.getFrom().toEpochDay();
+        long[] epochDays = new long[found];
+        int[] points = new int[found];
+        int[] seats = new int[found];
+        boolean[] saver = new boolean[found];
+        byte[] cabinOrdinals = new byte[found];
+        int n = 0;
+        for (int day = 0; day < days; day++) {
+            if (bestPoints[day] == Integer.MAX_VALUE) {
+                continue;
+            }
+            epochDays[n] = firstDay + day;
+            points[n] = bestPoints[day];
+            seats[n] = bestSeats[day];
+            saver[n] = bestSaver[day];
+            cabinOrdinals[n] = bestCabin[day];
+            n++;
+        }
+        return new AwardSeries(epochDays, points, seats, saver, cabinOrdinals);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long epochDay(int index) {
+        return epochDays[index];
+    }
+
+    public LocalDate date(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    public int points(int index) {
+        return points[index];
+    }
+
+    public int seats(int index) {
+        return seats[index];
+    }
+
+    public boolean saver(int index) {
+        return saver[index];
+    }
+
+    public CabinType cabin(int index) {
+        return CABINS[cabins[index]];
+    }
+}
@@ -0,0 +1,149 @@
+package travel.rewardo.rewardapi.search.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import travel.rewardo.rewardapi.routes.model.Airport;
+import travel.rewardo.rewardapi.routes.model.RouteCatalog;
+import travel.rewardo.rewardapi.routes.service.RoutesService;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+import travel.rewardo.rewardapi.search.model.CabinCalendar;
+import travel.rewardo.rewardapi.search.model.FlexibleSearchItem;
+import travel.rewardo.rewardapi.search.model.FlexibleSearchResult;
+import travel.rewardo.rewardapi.search.model.RewardCalendar;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Searches one origin against several destinations over a date window.
+ * The per-destination lookups run in parallel on virtual threads and are merged into a single ranked list.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlexibleSearchService {
+
+    private static final Comparator<FlexibleSearchItem> CHEAPEST_FIRST = Comparator
+            .comparingInt(FlexibleSearchItem::getPoints)
+            .thenComparing(FlexibleSearchItem::getDeparture)
+            .thenComparing(FlexibleSearchItem::getDestination);
+
+    private final RoutesService routesService;
+    private final RewardCalendarService rewardCalendarService;
+
+    /**
+     * Caps how many lookups hit the database at once, so a wide fan-out cannot drain the connection pool.
+     */
+    @Value("${search.fan-out.max-concurrency:8}")
+    private int maxConcurrency = 8;
+
+    /**
+     * Searches for the cheapest awards from an origin to a set of destinations.
+     *
+     * @param origin the origin airport code
+     * @param destinations the destination airport codes; when empty every destination served from the origin is searched
+     * @param country optional country name that destinations must be in
+     * @param from the first departure date (inclusive)
+     * @param to the last departure date (inclusive)
+     * @param cabin the cabin to search
+     * @param minSeats the minimum number of seats an award must have
+     * @param limit the maximum number of results to return
+     * @return the merged results ranked by points ascending
+     */
+    public FlexibleSearchResult search(String origin, Set<String> destinations, String country, LocalDate from, LocalDate to,
+                                       CabinType cabin, int minSeats, int limit) {
+        List<Airport> targets = resolveDestinations(origin, destinations, country);
+
+        List<FlexibleSearchItem> merged = new ArrayList<>();
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrency));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<List<FlexibleSearchItem>>> futures = new ArrayList<>(targets.size());
+            for (Airport destination : targets) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return searchDestination(origin, destination, from, to, cabin, minSeats, limit);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (Future<List<FlexibleSearchItem>> future : futures) {
+                merged.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching destinations from " + origin, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to search destinations from " + origin, e.getCause());
+        }
+
+        merged.sort(CHEAPEST_FIRST);
+        log.debug("Flexible search from {} in {} searched {} destinations and found {} awards",
+                origin, cabin, targets.size(), merged.size());
+
+        return FlexibleSearchResult.builder()
+                .origin(origin)
+                .cabin(cabin)
+                .from(from)
+                .to(to)
+                .destinationsSearched(targets.size())
+                .results(merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged)
+                .build();
+    }
+
+    /**
+     * Resolves the destinations to search from the route catalog: the airports of the country served
+     * from the origin when a country is given, otherwise every destination of the origin.
+     */
+    private List<Airport> resolveDestinations(String origin, Set<String> destinations, String country) {
+        RouteCatalog catalog = routesService.catalog();
+        boolean byCountry = country != null && !country.isBlank();
+        List<Airport> candidates = byCountry ? catalog.airportsIn(country) : catalog.destinations(origin);
+        List<Airport> targets = new ArrayList<>();
+        for (Airport destination : candidates) {
+            String code = destination.getAirportCode().toUpperCase();
+            if ((destinations.isEmpty() || destinations.contains(code)) && (!byCountry || catalog.serves(origin, code))) {
+                targets.add(destination);
+            }
+        }
+        return targets;
+    }
+
+    private List<FlexibleSearchItem> searchDestination(String origin, Airport destination, LocalDate from, LocalDate to,
+                                                       CabinType cabin, int minSeats, int limit) {
+        RewardCalendar calendar = rewardCalendarService.calendar(origin, destination.getAirportCode(), from, to, EnumSet.of(cabin));
+        CabinCalendar cabinCalendar = calendar.getCabins().get(cabin);
+
+        List<FlexibleSearchItem> items = new ArrayList<>();
+        for (int i = 0; i < cabinCalendar.getDayOffsets().length; i++) {
+            if (cabinCalendar.getSeats()[i] < minSeats) {
+                continue;
+            }
+            items.add(FlexibleSearchItem.builder()
+                    .destination(destination.getAirportCode())
+                    .destinationCity(destination.getCity())
+                    .destinationCountry(destination.getCountry())
+                    .departure(from.plusDays(cabinCalendar.getDayOffsets()[i]))
+                    .points(cabinCalendar.getPoints()[i])
+                    .seats(cabinCalendar.getSeats()[i])
+                    .saver(cabinCalendar.getSaver()[i])
+                    .build());
+        }
+
+        // Only the cheapest few of each destination can make it into the merged result
+        items.sort(CHEAPEST_FIRST);
+        return items.size() > limit ? items.subList(0, limit) : items;
+    }
+}
@@ -0,0 +1,122 @@
+package travel.rewardo.rewardapi.search.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import travel.rewardo.rewardapi.availability.service.AvailabilityMatrix;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightAvailability;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.search.model.CabinCalendar;
+import travel.rewardo.rewardapi.search.model.RewardCalendar;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds compact, columnar availability calendars for a route.
+ * Served from the in-memory {@link AvailabilityMatrix} once it is hydrated, otherwise from a single range query.
+ */
+@Service
+@RequiredArgsConstructor
+public class RewardCalendarService {
+
+    private static final String VS_CARRIER = "VS";
+
+    private final RewardFlightLatestRepository rewardFlightLatestRepository;
+    private final AvailabilityMatrix availabilityMatrix;
+
+    /**
+     * Builds the availability calendar of a route.
+     *
+     * @param origin the origin airport code
+     * @param destination the destination airport code
+     * @param from the first departure date (inclusive), day offset 0
+     * @param to the last departure date (inclusive)
+     * @param cabins the cabins to include
+     * @return the calendar with one set of parallel arrays per requested cabin
+     */
+    public RewardCalendar calendar(String origin, String destination, LocalDate from, LocalDate to, Set<CabinType> cabins) {
+        Map<CabinType, CabinCalendar> calendars = new EnumMap<>(CabinType.class);
+        if (availabilityMatrix.isReady() && availabilityMatrix.covers(from, to)) {
+            long routeKey = RouteKey.of(origin, destination);
+            for (CabinType cabin : cabins) {
+                calendars.put(cabin, availabilityMatrix.read(routeKey, from, to, cabin));
+            }
+        } else {
+            List<RewardFlightAvailability> rows = rewardFlightLatestRepository.findAvailability(origin, destination, VS_CARRIER, from, to);
+            for (CabinType cabin : cabins) {
+                calendars.put(cabin, toCabinCalendar(rows, from, cabin));
+            }
+        }
+
+        return RewardCalendar.builder()
+                .origin(origin)
+                .destination(destination)
+                .carrierCode(VS_CARRIER)
+                .from(from)
+                .to(to)
+                .cabins(calendars)
+                .build();
+    }
+
+    private static CabinCalendar toCabinCalendar(List<RewardFlightAvailability> rows, LocalDate from, CabinType cabin) {
+        int[] dayOffsets = new int[rows.size()];
+        int[] points = new int[rows.size()];
+        int[] seats = new int[rows.size()];
+        boolean[] saver = new boolean[rows.size()];
+        int size = 0;
+
+        for (RewardFlightAvailability row : rows) {
+            Integer cabinPoints = points(row, cabin);
+            if (cabinPoints == null) {
+                continue;
+            }
+            Integer cabinSeats = seats(row, cabin);
+            dayOffsets[size] = (int) ChronoUnit.DAYS.between(from, row.getDeparture());
+            points[size] = cabinPoints;
+            seats[size] = cabinSeats != null ? cabinSeats : 0;
+            saver[size] = Boolean.TRUE.equals(saver(row, cabin));
+            size++;
+        }
+
+        return CabinCalendar.builder()
+                .dayOffsets(Arrays.copyOf(dayOffsets, size))
+                .points(Arrays.copyOf(points, size))
+                .seats(Arrays.copyOf(seats, size))
+                .saver(Arrays.copyOf(saver, size))
+                .build();
+    }
+
+    private static Integer points(RewardFlightAvailability row, CabinType cabin) {
+        return switch (cabin) {
+            case ECONOMY -> row.getEconomyPoints();
+            case PREMIUM_ECONOMY -> row.getPremiumEconomyPoints();
+            case BUSINESS -> row.getBusinessPoints();
+            case FIRST -> row.getFirstPoints();
+        };
+    }
+
+    private static Integer seats(RewardFlightAvailability row, CabinType cabin) {
+        return switch (cabin) {
+            case ECONOMY -> row.getEconomySeats();
+            case PREMIUM_ECONOMY -> row.getPremiumEconomySeats();
+            case BUSINESS -> row.getBusinessSeats();
+            case FIRST -> row.getFirstSeats();
+        };
+    }
+
+    private static Boolean saver(RewardFlightAvailability row, CabinType cabin) {
+        return switch (cabin) {
+            case ECONOMY -> row.getEconomySaver();
+            case PREMIUM_ECONOMY -> row.getPremiumEconomySaver();
+            case BUSINESS -> row.getBusinessSaver();
+            case FIRST -> row.getFirstSaver();
+        };
+    }
+}
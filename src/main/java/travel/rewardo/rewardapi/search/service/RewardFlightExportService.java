@@ -0,0 +1,215 @@
+package travel.rewardo.rewardapi.search.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import travel.rewardo.rewardapi.scraper.vs.model.data.CabinAward;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatestHistoric;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestHistoricRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.search.model.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams reward flights straight from a database cursor into an output stream as NDJSON or CSV.
+ * Rows are detached from the persistence context as soon as they are written, so memory use
+ * does not grow with the size of the table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RewardFlightExportService {
+
+    private static final String CSV_HEADER = "id,origin,destination,departure,carrier_code,scraped_at,"
+            + "economy_points,economy_seats,economy_saver,"
+            + "premium_economy_points,premium_economy_seats,premium_economy_saver,"
+            + "business_points,business_seats,business_saver,"
+            + "first_points,first_seats,first_saver\n";
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final RewardFlightLatestRepository rewardFlightLatestRepository;
+    private final RewardFlightLatestHistoricRepository rewardFlightLatestHistoricRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Exports the latest reward flights.
+     *
+     * @param since the earliest scrape time to include
+     * @param format the output format
+     * @param out the stream to write to; it is flushed but not closed
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportLatest(LocalDateTime since, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<RewardFlightLatest> rows = rewardFlightLatestRepository.streamScrapedSince(since)) {
+            return switch (format) {
+                case NDJSON -> writeNdjson(rows.iterator(), out);
+                case CSV -> writeCsv(rows.iterator(), out, this::latestCsvRow);
+            };
+        }
+    }
+
+    /**
+     * Exports the historic reward flights.
+     *
+     * @param since the earliest scrape time to include
+     * @param format the output format
+     * @param out the stream to write to; it is flushed but not closed
+     * @return the number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportHistoric(LocalDateTime since, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<RewardFlightLatestHistoric> rows = rewardFlightLatestHistoricRepository.streamScrapedSince(since)) {
+            return switch (format) {
+                case NDJSON -> writeNdjson(rows.iterator(), out);
+                case CSV -> writeCsv(rows.iterator(), out, this::historicCsvRow);
+            };
+        }
+    }
+
+    private <T> long writeNdjson(Iterator<T> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.CLOSE_CLOSEABLE)
+                .withRootValueSeparator("\n")
+                .writeValues(new NonClosingOutputStream(out))) {
+            while (rows.hasNext()) {
+                T row = rows.next();
+                writer.write(row);
+                entityManager.detach(row);
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private <T> long writeCsv(Iterator<T> rows, OutputStream out, CsvRowWriter<T> rowWriter) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        long count = 0;
+        StringBuilder line = new StringBuilder(256);
+        while (rows.hasNext()) {
+            T row = rows.next();
+            line.setLength(0);
+            rowWriter.append(row, line);
+            line.append('\n');
+            writer.append(line);
+            entityManager.detach(row);
+            if (++count % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void latestCsvRow(RewardFlightLatest row, StringBuilder line) {
+        appendRow(line, row.getId(), row.getOrigin(), row.getDestination(), row.getDeparture(), row.getCarrierCode(), row.getScrapedAt(),
+                row.getAwardEconomy(), row.getAwardPremiumEconomy(), row.getAwardBusiness(), row.getAwardFirst());
+    }
+
+    private void historicCsvRow(RewardFlightLatestHistoric row, StringBuilder line) {
+        appendRow(line, row.getId(), row.getOrigin(), row.getDestination(), row.getDeparture(), row.getCarrierCode(), row.getScrapedAt(),
+                row.getAwardEconomy(), row.getAwardPremiumEconomy(), row.getAwardBusiness(), row.getAwardFirst());
+    }
+
+    /**
+     * Writes the columns of {@link #CSV_HEADER}, shared by the latest and historic rows, which have the same columns
+     * but no common type.
+     */
+    private static void appendRow(StringBuilder line, String id, String origin, String destination, Object departure,
+                                  String carrierCode, Object scrapedAt, CabinAward economy, CabinAward premiumEconomy,
+                                  CabinAward business, CabinAward first) {
+        appendCsv(line, id).append(',');
+        appendCsv(line, origin).append(',');
+        appendCsv(line, destination).append(',');
+        appendCsv(line, departure).append(',');
+        appendCsv(line, carrierCode).append(',');
+        appendCsv(line, scrapedAt);
+        appendAward(line, economy);
+        appendAward(line, premiumEconomy);
+        appendAward(line, business);
+        appendAward(line, first);
+    }
+
+    private static void appendAward(StringBuilder line, CabinAward award) {
+        line.append(',');
+        if (award == null) {
+            line.append(",,");
+            return;
+        }
+        appendCsv(line, award.getCabinPointsValue()).append(',');
+        appendCsv(line, award.getCabinClassSeatCount()).append(',');
+        appendCsv(line, award.getIsSaverAward());
+    }
+
+    private static StringBuilder appendCsv(StringBuilder line, Object value) {
+        if (value == null) {
+            return line;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0) {
+            return line.append(text);
+        }
+        return line.append('"').append(text.replace("\"", "\"\"")).append('"');
+    }
+
+    @FunctionalInterface
+    private interface CsvRowWriter<T> {
+        void append(T row, StringBuilder line);
+    }
+
+    /**
+     * Keeps Jackson from closing the servlet output stream when the sequence is finished.
+     */
+    private static final class NonClosingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+
+        private NonClosingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.flush();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package travel.rewardo.rewardapi.search.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+import travel.rewardo.rewardapi.search.model.RewardCalendar;
+import travel.rewardo.rewardapi.search.model.RoundTripItinerary;
+import travel.rewardo.rewardapi.search.model.RoundTripLeg;
+import travel.rewardo.rewardapi.search.model.RoundTripSearchResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pairs outbound and inbound awards of a route into round-trip itineraries.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoundTripSearchService {
+
+    private static final Comparator<RoundTripItinerary> CHEAPEST_FIRST = Comparator
+            .comparingInt(RoundTripItinerary::getTotalPoints)
+            .thenComparing(itinerary -> itinerary.getOutbound().getDeparture())
+            .thenComparingInt(RoundTripItinerary::getNights);
+
+    private final RewardCalendarService rewardCalendarService;
+
+    /**
+     * Searches for the cheapest round trips on a route.
+     *
+     * @param origin the origin airport code
+     * @param destination the destination airport code
+     * @param cabins the cabins that may be booked in either direction
+     * @param departFrom the earliest outbound departure (inclusive)
+     * @param departTo the latest outbound departure (inclusive)
+     * @param minNights the shortest trip length in nights
+     * @param maxNights the longest trip length in nights
+     * @param minSeats the minimum number of seats required in each direction
+     * @param limit the maximum number of itineraries to return
+     * @return the itineraries ranked by total points ascending
+     */
+    public RoundTripSearchResult search(String origin, String destination, Set<CabinType> cabins, LocalDate departFrom, LocalDate departTo,
+                                        int minNights, int maxNights, int minSeats, int limit) {
+        RewardCalendar outboundCalendar = rewardCalendarService.calendar(origin, destination, departFrom, departTo, cabins);
+        RewardCalendar inboundCalendar = rewardCalendarService.calendar(destination, origin,
+                departFrom.plusDays(minNights), departTo.plusDays(maxNights), cabins);
+
+        AwardSeries outbound = AwardSeries.cheapestPerDay(outboundCalendar, cabins, minSeats);
+        AwardSeries inbound = AwardSeries.cheapestPerDay(inboundCalendar, cabins, minSeats);
+        int[] returns = cheapestReturns(outbound, inbound, minNights, maxNights);
+
+        List<RoundTripItinerary> itineraries = new ArrayList<>();
+        for (int i = 0; i < returns.length; i++) {
+            int j = returns[i];
+            if (j < 0) {
+                continue;
+            }
+            itineraries.add(RoundTripItinerary.builder()
+                    .outbound(leg(outbound, i))
+                    .inbound(leg(inbound, j))
+                    .nights((int) (inbound.epochDay(j) - outbound.epochDay(i)))
+                    .totalPoints(outbound.points(i) + inbound.points(j))
+                    .build());
+        }
+        itineraries.sort(CHEAPEST_FIRST);
+
+        return RoundTripSearchResult.builder()
+                .origin(origin)
+                .destination(destination)
+                .cabins(cabins)
+                .departFrom(departFrom)
+                .departTo(departTo)
+                .minNights(minNights)
+                .maxNights(maxNights)
+                .itineraries(itineraries.size() > limit ? new ArrayList<>(itineraries.subList(0, limit)) : itineraries)
+                .build();
+    }
+
+    /**
+     * Finds, for every outbound day, the cheapest inbound day between {@code minNights} and {@code maxNights} later.
+     * Both series are date-sorted, so this is a single pass with a sliding window whose minimum is kept
+     * in a monotonic deque: O(N + M) instead of comparing every outbound with every inbound.
+     * Ties are resolved in favour of the earliest return.
+     *
+     * @param outbound the outbound series
+     * @param inbound the inbound series
+     * @param minNights the shortest trip length in nights
+     * @param maxNights the longest trip length in nights
+     * @return for each outbound index the matching inbound index, or -1 when no return fits
+     */
+    public static int[] cheapestReturns(AwardSeries outbound, AwardSeries inbound, int minNights, int maxNights) {
+        int[] returns = new int[outbound.size()];
+        // Deque of inbound indexes with non-decreasing points; the head is the window minimum
+        int[] deque = new int[inbound.size()];
+        int head = 0;
+        int tail = 0;
+        int next = 0;
+
+        for (int i = 0; i < outbound.size(); i++) {
+            long earliest = outbound.epochDay(i) + minNights;
+            long latest = outbound.epochDay(i) + maxNights;
+
+            // Grow the window on the right with every inbound day up to the latest return date
+            while (next < inbound.size() && inbound.epochDay(next) <= latest) {
+                if (inbound.epochDay(next) >= earliest) {
+                    while (tail > head && inbound.points(deque[tail - 1]) > inbound.points(next)) {
+                        tail--;
+                    }
+                    deque[tail++] = next;
+                }
+                next++;
+            }
+            // Shrink it on the left by dropping returns that are now too early
+            while (tail > head && inbound.epochDay(deque[head]) < earliest) {
+                head++;
+            }
+
+            returns[i] = tail > head ? deque[head] : -1;
+        }
+        return returns;
+    }
+
+    private static RoundTripLeg leg(AwardSeries series, int index) {
+        return RoundTripLeg.builder()
+                .departure(series.date(index))
+                .cabin(series.cabin(index))
+                .points(series.points(index))
+                .seats(series.seats(index))
+                .saver(series.saver(index))
+                .build();
+    }
+}
@@ -0,0 +1,222 @@
+package travel.rewardo.rewardapi.snapshot;
+
+import travel.rewardo.rewardapi.availability.service.AvailabilityMatrix;
+import travel.rewardo.rewardapi.routes.model.Airport;
+import travel.rewardo.rewardapi.routes.model.Route;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A binary snapshot of the route list and the raw slots of the {@link AvailabilityMatrix}, read
+ * through a memory-mapped file so the slots are copied straight from the page cache into the matrix.
+ * <p>
+ * Layout, big-endian:
+ * <pre>
+ * int magic, int version, long createdAt (epoch millis), int slotsPerRoute
+ * int routeCount, then per route: airport origin, int destinationCount, airport destinations...
+ * int matrixRouteCount, then per route: long routeKey, long slots[slotsPerRoute]
+ * long crc32 of everything before it
+ * </pre>
+ * An airport is its city, code and country, each a short byte length (-1 for null) and UTF-8 bytes.
+ */
+public final class WarmStartSnapshot {
+
+    private static final int MAGIC = 0x52575353;
+    private static final int VERSION = 1;
+    private static final int TRAILER_BYTES = Long.BYTES;
+    private static final int ROUTE_BYTES = Long.BYTES + AvailabilityMatrix.SLOTS_PER_ROUTE * Long.BYTES;
+
+    private final long createdAt;
+    private final List<Route> routes;
+    private final ByteBuffer matrixSection;
+    private final int matrixRouteCount;
+
+    private WarmStartSnapshot(long createdAt, List<Route> routes, ByteBuffer matrixSection, int matrixRouteCount) {
+        this.createdAt = createdAt;
+        this.routes = routes;
+        this.matrixSection = matrixSection;
+        this.matrixRouteCount = matrixRouteCount;
+    }
+
+    /**
+     * Writes a snapshot next to the target and moves it into place, so a crash never leaves a torn file.
+     *
+     * @param file the snapshot file
+     * @param createdAt the time the snapshot is taken, in epoch millis
+     * @param routes the route list
+     * @param matrix the matrix to copy, or null to write none
+     * @return the size of the file in bytes
+     */
+    public static long write(Path file, long createdAt, List<Route> routes, AvailabilityMatrix matrix) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (OutputStream fileOut = Files.newOutputStream(temporary);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(fileOut, crc), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(createdAt);
+                out.writeInt(AvailabilityMatrix.SLOTS_PER_ROUTE);
+
+                out.writeInt(routes.size());
+                for (Route route : routes) {
+                    writeAirport(out, route.getOrigin());
+                    List<Airport> destinations = route.getDestinations() != null ? route.getDestinations() : List.of();
+                    out.writeInt(destinations.size());
+                    for (Airport destination : destinations) {
+                        writeAirport(out, destination);
+                    }
+                }
+
+                // The matrix never drops a route, so every key listed here can be copied
+                long[] routeKeys = matrix != null ? matrix.routeKeys() : new long[0];
+                long[] slots = new long[AvailabilityMatrix.SLOTS_PER_ROUTE];
+                ByteBuffer buffer = ByteBuffer.allocate(ROUTE_BYTES);
+                out.writeInt(routeKeys.length);
+                for (long routeKey : routeKeys) {
+                    matrix.copySlots(routeKey, slots);
+                    buffer.clear();
+                    buffer.putLong(routeKey).asLongBuffer().put(slots);
+                    out.write(buffer.array());
+                }
+                out.flush();
+                // The checksum covers what was written so far; the trailer itself is outside it
+                fileOut.write(ByteBuffer.allocate(TRAILER_BYTES).putLong(crc.getValue()).array());
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(file);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Maps a snapshot and checks its header and checksum. The slots stay in the mapping until
+     * {@link #restoreInto} copies them.
+     *
+     * @throws IOException if the file cannot be read, or is not a complete snapshot of this version and layout
+     */
+    public static WarmStartSnapshot read(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int size = buffer.limit();
+        if (size < 5 * Integer.BYTES + Long.BYTES + TRAILER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a warm-start snapshot: " + file);
+        }
+        if (buffer.getInt(4) != VERSION || buffer.getInt(16) != AvailabilityMatrix.SLOTS_PER_ROUTE) {
+            throw new IOException("Snapshot " + file + " was written by another version or matrix layout");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, size - TRAILER_BYTES));
+        if (crc.getValue() != buffer.getLong(size - TRAILER_BYTES)) {
+            throw new IOException("Snapshot " + file + " is corrupted");
+        }
+
+        try {
+            buffer.position(8);
+            long createdAt = buffer.getLong();
+            buffer.getInt();
+            int routeCount = buffer.getInt();
+            List<Route> routes = new ArrayList<>(routeCount);
+            for (int i = 0; i < routeCount; i++) {
+                Airport origin = readAirport(buffer);
+                int destinationCount = buffer.getInt();
+                List<Airport> destinations = new ArrayList<>(destinationCount);
+                for (int j = 0; j < destinationCount; j++) {
+                    destinations.add(readAirport(buffer));
+                }
+                routes.add(Route.builder().origin(origin).destinations(destinations).build());
+            }
+            int matrixRouteCount = buffer.getInt();
+            if ((long) matrixRouteCount * ROUTE_BYTES != size - TRAILER_BYTES - buffer.position()) {
+                throw new IOException("Snapshot " + file + " has an inconsistent matrix section");
+            }
+            return new WarmStartSnapshot(createdAt, routes,
+                    buffer.slice(buffer.position(), matrixRouteCount * ROUTE_BYTES), matrixRouteCount);
+        } catch (RuntimeException e) {
+            throw new IOException("Snapshot " + file + " could not be parsed", e);
+        }
+    }
+
+    /**
+     * @return the time the snapshot was taken, in epoch millis
+     */
+    public long createdAt() {
+        return createdAt;
+    }
+
+    public List<Route> routes() {
+        return routes;
+    }
+
+    /**
+     * @return the number of matrix routes held
+     */
+    public int matrixRouteCount() {
+        return matrixRouteCount;
+    }
+
+    /**
+     * Copies the slots into the matrix, see {@link AvailabilityMatrix#restoreSlots}.
+     */
+    public void restoreInto(AvailabilityMatrix matrix) {
+        for (int i = 0; i < matrixRouteCount; i++) {
+            int offset = i * ROUTE_BYTES;
+            matrix.restoreSlots(matrixSection.getLong(offset),
+                    matrixSection.slice(offset + Long.BYTES, ROUTE_BYTES - Long.BYTES).asLongBuffer());
+        }
+    }
+
+    private static void writeAirport(DataOutputStream out, Airport airport) throws IOException {
+        writeString(out, airport != null ? airport.getCity() : null);
+        writeString(out, airport != null ? airport.getAirportCode() : null);
+        writeString(out, airport != null ? airport.getCountry() : null);
+    }
+
+    private static Airport readAirport(ByteBuffer buffer) {
+        return Airport.builder()
+                .city(readString(buffer))
+                .airportCode(readString(buffer))
+                .country(readString(buffer))
+                .build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(Math.min(bytes.length, Short.MAX_VALUE));
+        out.write(bytes, 0, Math.min(bytes.length, Short.MAX_VALUE));
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
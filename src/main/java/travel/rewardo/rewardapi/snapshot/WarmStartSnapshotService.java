@@ -0,0 +1,110 @@
+package travel.rewardo.rewardapi.snapshot;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import travel.rewardo.rewardapi.availability.service.AvailabilityMatrix;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.service.RoutesService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Keeps a {@link WarmStartSnapshot} of the routes and the availability matrix on local disk, so
+ * that after a deploy the first requests are served hot:
+ * <ul>
+ *   <li>while the context starts, before the server accepts requests, the routes and the matrix are
+ *   restored from the snapshot and the matrix is marked ready</li>
+ *   <li>the scheduled routes refresh and the {@code AvailabilityMatrixLoader} then reconcile both
+ *   with the routes API and the database in the background</li>
+ *   <li>every {@code snapshot.write-interval-ms}, and on shutdown, a new snapshot is written</li>
+ * </ul>
+ * Snapshots older than {@code snapshot.max-age-ms} are ignored, as reconciling them would cost
+ * as much as a full load.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WarmStartSnapshotService {
+
+    private final RoutesService routesService;
+    private final AvailabilityMatrix availabilityMatrix;
+
+    @Value("${snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${snapshot.path:snapshot/warm-start.bin}")
+    private Path path = Path.of("snapshot/warm-start.bin");
+
+    @Value("${snapshot.max-age-ms:604800000}")
+    private long maxAgeMs = 604_800_000L;
+
+    @Value("${availability.matrix.enabled:true}")
+    private boolean matrixEnabled = true;
+
+    private volatile long matrixRestoredFrom = -1;
+
+    @PostConstruct
+    public void restore() {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            WarmStartSnapshot snapshot = WarmStartSnapshot.read(path);
+            long age = System.currentTimeMillis() - snapshot.createdAt();
+            if (age > maxAgeMs) {
+                log.info("Ignoring warm-start snapshot {} taken {} s ago", path, age / 1000);
+                return;
+            }
+            routesService.restore(snapshot.routes());
+            if (matrixEnabled && snapshot.matrixRouteCount() > 0) {
+                snapshot.restoreInto(availabilityMatrix);
+                availabilityMatrix.markReady();
+                matrixRestoredFrom = snapshot.createdAt();
+            }
+            log.info("Restored {} origins and {} matrix routes from warm-start snapshot taken {} s ago in {} ms",
+                    snapshot.routes().size(), snapshot.matrixRouteCount(), age / 1000, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not restore warm-start snapshot {}, starting cold", path, e);
+        }
+    }
+
+    /**
+     * @return the time, in epoch millis, of the snapshot the matrix was restored from, if it was
+     */
+    public OptionalLong matrixRestoredFrom() {
+        long restoredFrom = matrixRestoredFrom;
+        return restoredFrom < 0 ? OptionalLong.empty() : OptionalLong.of(restoredFrom);
+    }
+
+    @Scheduled(fixedDelayString = "${snapshot.write-interval-ms:300000}", initialDelayString = "${snapshot.write-interval-ms:300000}")
+    public void write() {
+        List<Route> routes = routesService.catalog().routes();
+        // A matrix still hydrating would be restored as complete, so it is only written once ready
+        AvailabilityMatrix matrix = matrixEnabled && availabilityMatrix.isReady() ? availabilityMatrix : null;
+        if (!enabled || (routes.isEmpty() && matrix == null)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            long bytes = WarmStartSnapshot.write(path, System.currentTimeMillis(), routes, matrix);
+            log.debug("Wrote warm-start snapshot {} of {} bytes in {} ms", path, bytes, (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write warm-start snapshot {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    public void writeOnShutdown() {
+        write();
+    }
+}
@@ -3,33 +3,85 @@ package travel.rewardo.rewardapi.stream.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.util.Pair;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
+import travel.rewardo.rewardapi.diagnostics.PriceChangeDeliveryEvent;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
 import travel.rewardo.rewardapi.stream.model.RewardFlightLatest;
 import travel.rewardo.rewardapi.stream.service.PriceChangeEventService;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
 @RestController
 @RequiredArgsConstructor
 @Slf4j
 public class StreamingController {
     private final PriceChangeEventService priceChangeEventService;
+    private final AtomicLong subscriptions = new AtomicLong();
 
     @GetMapping(value = "/price-changes/airlines", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<ServerSentEvent<Pair<RewardFlightLatest, RewardFlightLatest>>> streamEvents() {
+    public Flux<ServerSentEvent<Pair<RewardFlightLatest, RewardFlightLatest>>> streamEvents(
+            @RequestParam(value = "origin", required = false) String origin,
+            @RequestParam(value = "destination", required = false) String destination) {
         log.info("SSE connection established for price-changes stream");
+        // Packed once per subscription, so each event is matched with two int comparisons
+        int originFilter = packFilter("origin", origin);
+        int destinationFilter = packFilter("destination", destination);
+        long subscriber = subscriptions.incrementAndGet();
         return priceChangeEventService.getPriceChangeEvents()
+                .filter(event -> matches(event.getSecond().getRouteKey(), originFilter, destinationFilter))
                 .doOnNext(event -> log.info("Emitting price change event: {} -> {}, {} -> {}, {}",
                         event.getFirst().getOrigin() + "-" + event.getFirst().getDestination(),
                         event.getFirst().getAwardEconomy() != null ? event.getFirst().getAwardEconomy().getCabinPointsValue() : "N/A",
                         event.getSecond().getOrigin() + "-" + event.getSecond().getDestination(),
                         event.getSecond().getAwardEconomy() != null ? event.getSecond().getAwardEconomy().getCabinPointsValue() : "N/A", event))
+                .doOnNext(event -> recordDelivery(event.getSecond(), subscriber))
                 .doOnCancel(() -> log.info("SSE connection cancelled for price-changes stream"))
                 .doOnError(error -> log.error("Error in price-changes stream", error))
                 .map(event -> ServerSentEvent.builder(event)
                         .event("price-change")
                         .build());
     }
+
+    /**
+     * Packs an airport code to filter on. A code that does not pack would come out as
+     * {@link RouteKey#NONE}, which means no filter, so it is rejected rather than subscribing to every route.
+     *
+     * @return the packed code, {@link RouteKey#NONE} when the parameter is absent
+     */
+    private static int packFilter(String name, String code) {
+        if (code == null) {
+            return RouteKey.NONE;
+        }
+        int packed = RouteKey.packIata(code.toUpperCase());
+        if (packed == RouteKey.NONE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, name + " must be a three-character airport code");
+        }
+        return packed;
+    }
+
+    private static void recordDelivery(RewardFlightLatest updated, long subscriber) {
+        PriceChangeDeliveryEvent event = new PriceChangeDeliveryEvent();
+        if (event.shouldCommit()) {
+            event.route = RouteKey.toString(updated.getRouteKey());
+            event.subscriber = subscriber;
+            event.ageMillis = updated.getScrapedAt() != null
+                    ? Duration.between(updated.getScrapedAt(), LocalDateTime.now()).toMillis()
+                    : 0L;
+            event.commit();
+        }
+    }
+
+    private static boolean matches(long routeKey, int origin, int destination) {
+        return (origin == RouteKey.NONE || RouteKey.origin(routeKey) == origin)
+                && (destination == RouteKey.NONE || RouteKey.destination(routeKey) == destination);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package travel.rewardo.rewardapi.stream.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -16,6 +17,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class RewardFlightLatest {
     private String id;
+
+    /**
+     * Packed origin and destination, used to filter events without comparing strings.
+     */
+    @JsonIgnore
+    private long routeKey;
+
     private String origin;
     private String destination;
     
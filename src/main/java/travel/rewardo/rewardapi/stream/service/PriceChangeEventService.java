@@ -5,6 +5,8 @@ import org.springframework.data.util.Pair;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
+import travel.rewardo.rewardapi.diagnostics.PriceChangeEmitEvent;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
 import travel.rewardo.rewardapi.stream.model.RewardFlightLatest;
 
 import java.util.Optional;
@@ -31,7 +33,16 @@ public class PriceChangeEventService {
                     updated.getAwardEconomy().getCabinClassSeatCount());
             }
 
+            PriceChangeEmitEvent event = new PriceChangeEmitEvent();
+            event.begin();
             Sinks.EmitResult result = priceModelChange.tryEmitNext(Pair.of(old, updated));
+            event.end();
+            if (event.shouldCommit()) {
+                event.route = RouteKey.toString(updated.getRouteKey());
+                event.departure = String.valueOf(updated.getDeparture());
+                event.result = result.name();
+                event.commit();
+            }
             if (result.isFailure()) {
                 log.warn("Failed to emit price change event: {}", result);
             }
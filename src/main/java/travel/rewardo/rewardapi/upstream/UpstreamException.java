@@ -0,0 +1,101 @@
+package travel.rewardo.rewardapi.upstream;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * A failed call to an upstream host, classified by whether trying again later can succeed.
+ * <p>
+ * Rate limiting, server errors, timeouts and incomplete responses are retryable; any other client
+ * error means the request itself is wrong and is permanent. Only retryable failures count against
+ * the health of the host, see {@link UpstreamGuard}.
+ */
+@Getter
+public class UpstreamException extends IOException {
+
+    /**
+     * HTTP status of the failed response, 0 if there was no response.
+     */
+    private final int statusCode;
+
+    private final boolean retryable;
+
+    /**
+     * True if the call was refused without contacting the host because its circuit is open.
+     */
+    private final boolean circuitOpen;
+
+    /**
+     * How long the host asked to be left alone, 0 if it did not say.
+     */
+    private final long retryAfterMs;
+
+    public UpstreamException(String message, int statusCode, boolean retryable, boolean circuitOpen, long retryAfterMs, Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+        this.retryable = retryable;
+        this.circuitOpen = circuitOpen;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    /**
+     * A response with an unexpected status code.
+     *
+     * @param message the error message
+     * @param statusCode the HTTP status code
+     * @param retryAfter the value of the Retry-After header, may be null
+     */
+    public static UpstreamException forStatus(String message, int statusCode, String retryAfter) {
+        return new UpstreamException(message, statusCode, isRetryable(statusCode), false, parseRetryAfter(retryAfter), null);
+    }
+
+    /**
+     * A response that succeeded but is missing what the client needs to carry on.
+     */
+    public static UpstreamException incomplete(String message) {
+        return new UpstreamException(message, 0, true, false, 0L, null);
+    }
+
+    /**
+     * A call that failed before a response was received.
+     */
+    public static UpstreamException network(String host, IOException cause) {
+        return new UpstreamException("Request to " + host + " failed: " + cause.getMessage(), 0, true, false, 0L, cause);
+    }
+
+    /**
+     * A call that was not made because the host is considered unavailable.
+     */
+    public static UpstreamException circuitOpen(String host, long retryAfterMs) {
+        return new UpstreamException("Circuit for " + host + " is open", 0, true, true, retryAfterMs, null);
+    }
+
+    /**
+     * A call that was not made because too many calls to the host were already in flight.
+     */
+    public static UpstreamException saturated(String host) {
+        return new UpstreamException("Concurrency limit for " + host + " reached", 0, true, false, 0L, null);
+    }
+
+    /**
+     * @return true for rate limiting, request timeouts and server errors
+     */
+    public static boolean isRetryable(int statusCode) {
+        return statusCode == 408 || statusCode == 425 || statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * Parses a Retry-After header given in seconds; the HTTP-date form is ignored.
+     */
+    private static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(retryAfter.trim()) * 1000L);
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
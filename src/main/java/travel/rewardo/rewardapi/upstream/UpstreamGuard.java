@@ -0,0 +1,194 @@
+package travel.rewardo.rewardapi.upstream;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Protects one upstream host with a circuit breaker and an adaptive concurrency limit.
+ * <p>
+ * The breaker opens after a run of consecutive retryable failures and then refuses every call
+ * until its open period has passed. The open period doubles each time the breaker opens again
+ * without an intervening success, up to a cap, and is jittered so that several instances do not
+ * come back in lockstep. Once it has passed, a single probe call is let through: its success
+ * closes the breaker, its failure opens it again.
+ * <p>
+ * The concurrency limit follows the AIMD scheme of TCP congestion control: every fast success
+ * raises it by {@code 1/limit}, so roughly by one per limit's worth of calls, while every
+ * retryable failure or slow success halves it. Calls over the limit wait for a permit.
+ * <p>
+ * Every {@link #acquire()} must be followed by exactly one {@link #onSuccess} or {@link #onFailure}.
+ */
+@Slf4j
+public class UpstreamGuard {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final double MIN_LIMIT = 1.0;
+
+    private final String host;
+    private final UpstreamGuards settings;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int consecutiveOpens;
+    private long openUntilMs;
+    private boolean probeInFlight;
+    private double limit;
+    private int inFlight;
+
+    UpstreamGuard(String host, UpstreamGuards settings) {
+        this.host = host;
+        this.settings = settings;
+        this.limit = Math.max(MIN_LIMIT, Math.min(settings.initialLimit(), settings.maxLimit()));
+    }
+
+    /**
+     * Takes a permit for one call, waiting while the concurrency limit is reached.
+     *
+     * @throws UpstreamException if the circuit is open or no permit became free in time
+     * @throws InterruptedIOException if the thread was interrupted while waiting
+     */
+    public void acquire() throws UpstreamException, InterruptedIOException {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                long remainingMs = openUntilMs - System.currentTimeMillis();
+                if (remainingMs > 0) {
+                    throw UpstreamException.circuitOpen(host, remainingMs);
+                }
+                state = State.HALF_OPEN;
+                log.info("Circuit for {} is half-open, probing", host);
+            }
+            if (state == State.HALF_OPEN) {
+                if (probeInFlight) {
+                    throw UpstreamException.circuitOpen(host, 0L);
+                }
+                probeInFlight = true;
+                inFlight++;
+                return;
+            }
+
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(settings.acquireTimeoutMs());
+            while (inFlight >= (int) limit) {
+                if (remainingNanos <= 0) {
+                    throw UpstreamException.saturated(host);
+                }
+                remainingNanos = permitReleased.awaitNanos(remainingNanos);
+                if (state != State.CLOSED) {
+                    throw UpstreamException.circuitOpen(host, Math.max(0L, openUntilMs - System.currentTimeMillis()));
+                }
+            }
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a permit for " + host);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the permit of a call that succeeded.
+     *
+     * @param latencyMs how long the call took
+     */
+    public void onSuccess(long latencyMs) {
+        lock.lock();
+        try {
+            inFlight--;
+            close();
+            if (latencyMs > settings.latencyThresholdMs()) {
+                decrease();
+            } else {
+                limit = Math.min(settings.maxLimit(), limit + 1.0 / limit);
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the permit of a call that failed.
+     *
+     * @param retryable whether the failure says something about the health of the host; a permanent
+     *                  failure means the host answered and leaves the breaker and the limit alone
+     */
+    public void onFailure(boolean retryable) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (!retryable) {
+                close();
+            } else {
+                decrease();
+                // Calls that were already in flight when the breaker opened do not count again
+                if (state == State.HALF_OPEN
+                        || (state == State.CLOSED && ++consecutiveFailures >= settings.failureThreshold())) {
+                    open();
+                }
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public String host() {
+        return host;
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of calls currently allowed in flight
+     */
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void close() {
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            probeInFlight = false;
+            consecutiveOpens = 0;
+            log.info("Circuit for {} is closed again", host);
+        }
+    }
+
+    private void open() {
+        consecutiveOpens++;
+        long openMs = UpstreamGuards.jitter(UpstreamGuards.exponential(
+                settings.openBaseMs(), consecutiveOpens, settings.openMaxMs()));
+        state = State.OPEN;
+        probeInFlight = false;
+        consecutiveFailures = 0;
+        openUntilMs = System.currentTimeMillis() + openMs;
+        log.warn("Circuit for {} is open for {} ms after repeated failures", host, openMs);
+    }
+
+    private void decrease() {
+        limit = Math.max(MIN_LIMIT, limit / 2);
+    }
+}
@@ -0,0 +1,133 @@
+package travel.rewardo.rewardapi.upstream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hands out one {@link UpstreamGuard} per upstream host and holds the retry policy for calls to them.
+ * <p>
+ * Retries wait an exponentially growing, jittered delay: attempt {@code n} waits between half and
+ * all of {@code backoff-base-ms * 2^(n-1)}, capped at {@code backoff-max-ms}, but never less than
+ * the host asked for with Retry-After.
+ */
+@Component
+public class UpstreamGuards {
+
+    @Value("${upstream.max-attempts:3}")
+    private int maxAttempts = 3;
+
+    @Value("${upstream.backoff-base-ms:2000}")
+    private long backoffBaseMs = 2_000L;
+
+    @Value("${upstream.backoff-max-ms:60000}")
+    private long backoffMaxMs = 60_000L;
+
+    @Value("${upstream.breaker.failure-threshold:5}")
+    private int failureThreshold = 5;
+
+    @Value("${upstream.breaker.open-base-ms:30000}")
+    private long openBaseMs = 30_000L;
+
+    @Value("${upstream.breaker.open-max-ms:600000}")
+    private long openMaxMs = 600_000L;
+
+    @Value("${upstream.limit.initial:4}")
+    private int initialLimit = 4;
+
+    @Value("${upstream.limit.max:16}")
+    private int maxLimit = 16;
+
+    /**
+     * Successes slower than this count as a sign of an overloaded host and shrink the limit.
+     */
+    @Value("${upstream.limit.latency-threshold-ms:10000}")
+    private long latencyThresholdMs = 10_000L;
+
+    @Value("${upstream.limit.acquire-timeout-ms:120000}")
+    private long acquireTimeoutMs = 120_000L;
+
+    private final ConcurrentHashMap<String, UpstreamGuard> guards = new ConcurrentHashMap<>();
+
+    /**
+     * @param host the host name, e.g. "www.virginatlantic.com"
+     * @return the guard of the host
+     */
+    public UpstreamGuard forHost(String host) {
+        return guards.computeIfAbsent(host, key -> new UpstreamGuard(key, this));
+    }
+
+    /**
+     * @param url an absolute URL
+     * @return the guard of the host of the URL
+     */
+    public UpstreamGuard forUrl(String url) {
+        return forHost(URI.create(url).getHost());
+    }
+
+    /**
+     * @return how many times a retryable call is attempted in total
+     */
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Computes how long to wait before trying a failed call again.
+     *
+     * @param attempt the attempt that just failed, starting at 1
+     * @param retryAfterMs what the host asked for, 0 if nothing
+     * @return the delay in milliseconds
+     */
+    public long backoffMs(int attempt, long retryAfterMs) {
+        long delay = jitter(exponential(backoffBaseMs, attempt, backoffMaxMs));
+        return Math.max(delay, Math.min(retryAfterMs, backoffMaxMs));
+    }
+
+    int failureThreshold() {
+        return failureThreshold;
+    }
+
+    long openBaseMs() {
+        return openBaseMs;
+    }
+
+    long openMaxMs() {
+        return openMaxMs;
+    }
+
+    int initialLimit() {
+        return initialLimit;
+    }
+
+    int maxLimit() {
+        return maxLimit;
+    }
+
+    long latencyThresholdMs() {
+        return latencyThresholdMs;
+    }
+
+    long acquireTimeoutMs() {
+        return acquireTimeoutMs;
+    }
+
+    /**
+     * @return {@code baseMs * 2^(step-1)}, capped at {@code maxMs}
+     */
+    static long exponential(long baseMs, int step, long maxMs) {
+        int shift = Math.min(Math.max(step - 1, 0), 30);
+        return Math.min(maxMs, baseMs << shift);
+    }
+
+    /**
+     * @return a random value between half of {@code ms} and {@code ms}
+     */
+    static long jitter(long ms) {
+        long half = ms / 2;
+        return half + ThreadLocalRandom.current().nextLong(ms - half + 1);
+    }
+}
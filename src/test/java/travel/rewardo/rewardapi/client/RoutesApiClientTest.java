@@ -10,9 +10,11 @@ import okhttp3.ResponseBody;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import travel.rewardo.rewardapi.routes.client.RoutesApiClient;
+import travel.rewardo.rewardapi.routes.client.RoutesFetch;
 import travel.rewardo.rewardapi.routes.model.Route;
 
 import java.io.IOException;
@@ -22,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -98,4 +101,31 @@ class RoutesApiClientTest {
         assertNotNull(routes);
         assertTrue(routes.isEmpty());
     }
+
+    @Test
+    void fetchRoutesIfChanged_shouldSendValidatorsAndReturnNotModified() throws IOException {
+        // Given
+        Response response = new Response.Builder()
+                .request(new Request.Builder().url("https://api.rewardo.travel/routes-api/v1/api/airlines/vs/routes").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(304)
+                .message("Not Modified")
+                .body(ResponseBody.create("", null))
+                .build();
+
+        when(httpClient.newCall(any())).thenReturn(call);
+        when(call.execute()).thenReturn(response);
+        ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+
+        // When
+        RoutesFetch fetch = routesApiClient.fetchRoutesIfChanged("\"v1\"", "Mon, 19 Oct 2026 10:00:00 GMT");
+
+        // Then
+        verify(httpClient).newCall(request.capture());
+        assertEquals("\"v1\"", request.getValue().header("If-None-Match"));
+        assertEquals("Mon, 19 Oct 2026 10:00:00 GMT", request.getValue().header("If-Modified-Since"));
+        assertTrue(fetch.isNotModified());
+        assertTrue(fetch.getRoutes().isEmpty());
+        assertEquals("\"v1\"", fetch.getEtag());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package travel.rewardo.rewardapi.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import travel.rewardo.rewardapi.upstream.UpstreamException;
+import travel.rewardo.rewardapi.upstream.UpstreamGuard;
+import travel.rewardo.rewardapi.upstream.UpstreamGuards;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamGuardsTest {
+
+    private UpstreamGuards upstreamGuards;
+
+    @BeforeEach
+    void setUp() {
+        upstreamGuards = new UpstreamGuards();
+        ReflectionTestUtils.setField(upstreamGuards, "backoffBaseMs", 1_000L);
+        ReflectionTestUtils.setField(upstreamGuards, "backoffMaxMs", 8_000L);
+        ReflectionTestUtils.setField(upstreamGuards, "initialLimit", 2);
+        ReflectionTestUtils.setField(upstreamGuards, "maxLimit", 4);
+        ReflectionTestUtils.setField(upstreamGuards, "acquireTimeoutMs", 50L);
+    }
+
+    @Test
+    void backoffMs_shouldGrowExponentiallyWithJitterUpToTheCap() {
+        for (int i = 0; i < 100; i++) {
+            assertBetween(500L, 1_000L, upstreamGuards.backoffMs(1, 0L));
+            assertBetween(1_000L, 2_000L, upstreamGuards.backoffMs(2, 0L));
+            assertBetween(2_000L, 4_000L, upstreamGuards.backoffMs(3, 0L));
+            assertBetween(4_000L, 8_000L, upstreamGuards.backoffMs(10, 0L));
+        }
+    }
+
+    @Test
+    void backoffMs_shouldHonourRetryAfterWithinTheCap() {
+        assertEquals(5_000L, upstreamGuards.backoffMs(1, 5_000L));
+        assertEquals(8_000L, upstreamGuards.backoffMs(1, 3_600_000L));
+    }
+
+    @Test
+    void forUrl_shouldShareOneGuardPerHost() {
+        assertSame(upstreamGuards.forHost("www.example.com"), upstreamGuards.forUrl("https://www.example.com/a?b=c"));
+    }
+
+    @Test
+    void acquire_shouldRefuseCallsOverTheLimit() throws Exception {
+        // Given
+        UpstreamGuard guard = upstreamGuards.forHost("www.example.com");
+        guard.acquire();
+        guard.acquire();
+
+        // When
+        UpstreamException exception = assertThrows(UpstreamException.class, guard::acquire);
+
+        // Then
+        assertTrue(exception.isRetryable());
+        assertFalse(exception.isCircuitOpen());
+        guard.onSuccess(10L);
+        guard.acquire();
+    }
+
+    @Test
+    void onSuccess_shouldRaiseTheLimitAdditivelyAndFailuresHalveIt() throws Exception {
+        // Given
+        UpstreamGuard guard = upstreamGuards.forHost("www.example.com");
+
+        // When fast successes add up to about one permit per limit's worth of calls
+        for (int i = 0; i < 6; i++) {
+            guard.acquire();
+            guard.onSuccess(10L);
+        }
+
+        // Then
+        assertEquals(4, guard.limit());
+
+        // When
+        guard.acquire();
+        guard.onFailure(true);
+
+        // Then
+        assertEquals(2, guard.limit());
+
+        // When a permanent failure says nothing about the host
+        guard.acquire();
+        guard.onFailure(false);
+
+        // Then
+        assertEquals(2, guard.limit());
+    }
+
+    @Test
+    void onSuccess_shouldHalveTheLimitWhenTheHostIsSlow() throws Exception {
+        // Given
+        UpstreamGuard guard = upstreamGuards.forHost("www.example.com");
+
+        // When
+        guard.acquire();
+        guard.onSuccess(60_000L);
+
+        // Then
+        assertEquals(1, guard.limit());
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual >= min && actual <= max, actual + " not in [" + min + ", " + max + "]");
+    }
+}
@@ -0,0 +1,166 @@
+package travel.rewardo.rewardapi.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import travel.rewardo.rewardapi.scraper.vs.client.VirginAtlanticApiClient;
+import travel.rewardo.rewardapi.upstream.UpstreamException;
+import travel.rewardo.rewardapi.upstream.UpstreamGuard;
+import travel.rewardo.rewardapi.upstream.UpstreamGuards;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exercises the client against a local stub of the upstream.
+ */
+class VirginAtlanticApiClientResilienceTest {
+
+    private static final String REQUEST = "{}";
+
+    private MockWebServer server;
+    private UpstreamGuards upstreamGuards;
+    private VirginAtlanticApiClient apiClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        upstreamGuards = new UpstreamGuards();
+        ReflectionTestUtils.setField(upstreamGuards, "failureThreshold", 3);
+        ReflectionTestUtils.setField(upstreamGuards, "openBaseMs", 200L);
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .followRedirects(false)
+                .readTimeout(2, TimeUnit.SECONDS)
+                .build();
+        apiClient = new VirginAtlanticApiClient(httpClient, new ObjectMapper(), upstreamGuards);
+        ReflectionTestUtils.setField(apiClient, "initialUrl", server.url("/reward-seat-checker-api/").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void fetchRewardSeatResponse_shouldFollowTheLocationWithTheCookies() throws Exception {
+        // Given
+        enqueueSuccess("[]");
+
+        // When
+        String body = apiClient.fetchRewardSeatResponse(REQUEST);
+
+        // Then
+        assertEquals("[]", body);
+        assertEquals("POST", server.takeRequest().getMethod());
+        assertEquals("session=abc", server.takeRequest().getHeader("Cookie"));
+    }
+
+    @Test
+    void fetchRewardSeatResponse_shouldClassifyRateLimitingAsRetryable() {
+        // Given
+        server.enqueue(new MockResponse().setResponseCode(429).setHeader("Retry-After", "2"));
+
+        // When
+        UpstreamException exception = assertThrows(UpstreamException.class, () -> apiClient.fetchRewardSeatResponse(REQUEST));
+
+        // Then
+        assertTrue(exception.isRetryable());
+        assertEquals(429, exception.getStatusCode());
+        assertEquals(2000L, exception.getRetryAfterMs());
+    }
+
+    @Test
+    void fetchRewardSeatResponse_shouldClassifyBadRequestsAsPermanentAndKeepTheCircuitClosed() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            server.enqueue(new MockResponse().setResponseCode(400));
+        }
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            UpstreamException exception = assertThrows(UpstreamException.class, () -> apiClient.fetchRewardSeatResponse(REQUEST));
+            assertFalse(exception.isRetryable());
+        }
+
+        // Then
+        assertEquals(UpstreamGuard.State.CLOSED, guard().state());
+        assertEquals(5, server.getRequestCount());
+    }
+
+    @Test
+    void fetchRewardSeatResponse_shouldOpenTheCircuitAndRecoverThroughAProbe() throws Exception {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        for (int i = 0; i < 3; i++) {
+            assertThrows(UpstreamException.class, () -> apiClient.fetchRewardSeatResponse(REQUEST));
+        }
+
+        // When
+        UpstreamException refused = assertThrows(UpstreamException.class, () -> apiClient.fetchRewardSeatResponse(REQUEST));
+
+        // Then
+        assertTrue(refused.isCircuitOpen());
+        assertEquals(3, server.getRequestCount());
+        assertEquals(UpstreamGuard.State.OPEN, guard().state());
+
+        // When the open period has passed
+        Thread.sleep(250L);
+        enqueueSuccess("[]");
+        String body = apiClient.fetchRewardSeatResponse(REQUEST);
+
+        // Then
+        assertEquals("[]", body);
+        assertEquals(UpstreamGuard.State.CLOSED, guard().state());
+    }
+
+    @Test
+    void fetchRewardSeatResponse_shouldTreatAMissingLocationAsRetryable() {
+        // Given
+        server.enqueue(new MockResponse().setResponseCode(302));
+
+        // When
+        UpstreamException exception = assertThrows(UpstreamException.class, () -> apiClient.fetchRewardSeatResponse(REQUEST));
+
+        // Then
+        assertTrue(exception.isRetryable());
+        assertEquals("Location header not found in the response", exception.getMessage());
+    }
+
+    @Test
+    void fetchRewardSeatResponse_shouldShrinkTheConcurrencyLimitOnFailures() {
+        // Given
+        int initialLimit = guard().limit();
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        // When
+        assertThrows(UpstreamException.class, () -> apiClient.fetchRewardSeatResponse(REQUEST));
+
+        // Then
+        assertEquals(initialLimit / 2, guard().limit());
+    }
+
+    private void enqueueSuccess(String body) {
+        server.enqueue(new MockResponse()
+                .setResponseCode(302)
+                .setHeader("Location", server.url("/results").toString())
+                .addHeader("Set-Cookie", "session=abc; Path=/; HttpOnly"));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(body));
+    }
+
+    private UpstreamGuard guard() {
+        return upstreamGuards.forHost(server.getHostName());
+    }
+}
@@ -10,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import travel.rewardo.rewardapi.scraper.vs.client.VirginAtlanticApiClient;
 import travel.rewardo.rewardapi.scraper.vs.model.api.AwardCalendar;
 import travel.rewardo.rewardapi.scraper.vs.model.api.PointsDay;
+import travel.rewardo.rewardapi.upstream.UpstreamGuards;
 
 import java.io.IOException;
 import java.time.LocalDate;
@@ -46,7 +47,7 @@ class VirginAtlanticApiClientTest {
         objectMapper = new ObjectMapper();
         // Register JSR310 module for Java 8 date/time types
         objectMapper.findAndRegisterModules();
-        apiClient = new VirginAtlanticApiClient(httpClient, objectMapper);
+        apiClient = new VirginAtlanticApiClient(httpClient, objectMapper, new UpstreamGuards());
     }
 
     @Test
@@ -0,0 +1,187 @@
+package travel.rewardo.rewardapi.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardBusiness;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatestHistoric;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestHistoricRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.search.controller.ExportController;
+import travel.rewardo.rewardapi.search.service.RewardFlightExportService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Streams rows saved through JPA out of the export endpoints, through the transactional service.
+ */
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = ExportControllerTest.JpaConfig.class)
+class ExportControllerTest {
+
+    private static final LocalDateTime SCRAPED_AT = LocalDateTime.of(2025, 6, 1, 12, 0);
+    private static final String CSV_HEADER = "id,origin,destination,departure,carrier_code,scraped_at,"
+            + "economy_points,economy_seats,economy_saver,"
+            + "premium_economy_points,premium_economy_seats,premium_economy_saver,"
+            + "business_points,business_seats,business_saver,"
+            + "first_points,first_seats,first_saver";
+
+    @SpringBootApplication(scanBasePackages = "none")
+    @EntityScan("travel.rewardo.rewardapi.scraper.vs.model.data")
+    @EnableJpaRepositories("travel.rewardo.rewardapi.scraper.vs.repository")
+    @ImportAutoConfiguration(JacksonAutoConfiguration.class)
+    @Import({RewardFlightExportService.class, ExportController.class})
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private RewardFlightLatestRepository rewardFlightLatestRepository;
+
+    @Autowired
+    private RewardFlightLatestHistoricRepository rewardFlightLatestHistoricRepository;
+
+    @Autowired
+    private ExportController exportController;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        deleteAll();
+        mockMvc = MockMvcBuilders.standaloneSetup(exportController).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll();
+    }
+
+    @Test
+    void exportLatest_shouldStreamOneJsonObjectPerLine() throws Exception {
+        // Given
+        saveLatest("JFK", "VS");
+        saveLatest("BOS", "VS");
+        saveLatest("LAX", "VS");
+
+        // When
+        String body = export("/api/v1/airline/vs/reward-flights/export/latest?format=NDJSON", "application/x-ndjson",
+                "reward-flights-latest.ndjson");
+
+        // Then
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        for (String line : lines) {
+            JsonNode flight = objectMapper.readTree(line);
+            assertEquals("LHR", flight.get("origin").asText());
+            assertEquals(10_000, flight.get("awardEconomy").get("cabinPointsValue").asInt());
+        }
+    }
+
+    @Test
+    void exportLatest_shouldStreamCsvWithAHeaderAndQuotedValues() throws Exception {
+        // Given
+        saveLatest("JFK", "VS");
+        saveLatest("BOS", "VS, \"Atlantic\"\nAirways");
+
+        // When
+        String body = export("/api/v1/airline/vs/reward-flights/export/latest?format=CSV", "text/csv",
+                "reward-flights-latest.csv");
+
+        // Then: two rows, one of them spanning two lines inside its quotes
+        assertTrue(body.startsWith(CSV_HEADER + "\n"));
+        String rows = body.substring(CSV_HEADER.length() + 1);
+        assertEquals(3, rows.split("\n").length);
+        assertTrue(rows.contains(",LHR,BOS,2025-10-01,\"VS, \"\"Atlantic\"\"\nAirways\",2025-06-01T12:00,10000,2,true,,,,50000,1,false,,,\n"));
+        assertTrue(rows.contains(",LHR,JFK,2025-10-01,VS,2025-06-01T12:00,10000,2,true,,,,50000,1,false,,,\n"));
+    }
+
+    @Test
+    void exportHistoric_shouldOnlyStreamTheRowsScrapedSince() throws Exception {
+        // Given
+        rewardFlightLatestHistoricRepository.save(historic(SCRAPED_AT.minusDays(1)));
+        rewardFlightLatestHistoricRepository.save(historic(SCRAPED_AT));
+        rewardFlightLatestHistoricRepository.save(historic(SCRAPED_AT.plusDays(1)));
+
+        // When
+        String body = export("/api/v1/airline/vs/reward-flights/export/historic?format=CSV&since=2025-06-01T12:00:00", "text/csv",
+                "reward-flights-historic.csv");
+
+        // Then
+        String[] lines = body.split("\n");
+        assertEquals(CSV_HEADER, lines[0]);
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].endsWith(",LHR,JFK,2025-10-01,VS,2025-06-01T12:00,12000,,,,,,,,,,,"));
+    }
+
+    private String export(String uri, String contentType, String fileName) throws Exception {
+        MvcResult started = mockMvc.perform(get(uri))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, contentType))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private void saveLatest(String destination, String carrierCode) {
+        rewardFlightLatestRepository.save(RewardFlightLatest.builder()
+                .origin("LHR")
+                .destination(destination)
+                .departure(LocalDate.of(2025, 10, 1))
+                .carrierCode(carrierCode)
+                .scrapedAt(SCRAPED_AT)
+                .awardEconomy(AwardEconomy.builder().cabinPointsValue(10_000).cabinClassSeatCount(2).isSaverAward(true).build())
+                .awardBusiness(AwardBusiness.builder().cabinPointsValue(50_000).cabinClassSeatCount(1).isSaverAward(false).build())
+                .build());
+    }
+
+    private static RewardFlightLatestHistoric historic(LocalDateTime scrapedAt) {
+        return RewardFlightLatestHistoric.builder()
+                .origin("LHR")
+                .destination("JFK")
+                .departure(LocalDate.of(2025, 10, 1))
+                .carrierCode("VS")
+                .scrapedAt(scrapedAt)
+                .awardEconomy(AwardEconomy.builder().cabinPointsValue(12_000).build())
+                .build();
+    }
+
+    private void deleteAll() {
+        rewardFlightLatestRepository.deleteAll();
+        rewardFlightLatestHistoricRepository.deleteAll();
+    }
+}
@@ -0,0 +1,135 @@
+package travel.rewardo.rewardapi.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestHistoricRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.scraper.vs.service.RouteVersionTracker;
+import travel.rewardo.rewardapi.search.controller.RewardFlightController;
+import travel.rewardo.rewardapi.search.model.FlexibleSearchResult;
+import travel.rewardo.rewardapi.search.model.RewardCalendar;
+import travel.rewardo.rewardapi.search.service.FlexibleSearchService;
+import travel.rewardo.rewardapi.search.service.RewardCalendarService;
+import travel.rewardo.rewardapi.search.service.RoundTripSearchService;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.not;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class RewardFlightControllerTest {
+
+    @Mock
+    private RewardFlightLatestRepository rewardFlightLatestRepository;
+
+    @Mock
+    private RewardFlightLatestHistoricRepository rewardFlightLatestHistoricRepository;
+
+    @Mock
+    private RewardCalendarService rewardCalendarService;
+
+    @Mock
+    private FlexibleSearchService flexibleSearchService;
+
+    @Mock
+    private RoundTripSearchService roundTripSearchService;
+
+    private static final String CALENDAR = "/api/v1/airline/vs/reward-flights/origin/LHR/destination/JFK/from/2025-10-01/to/2025-10-31/calendar";
+
+    private RouteVersionTracker routeVersionTracker;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        routeVersionTracker = new RouteVersionTracker();
+        mockMvc = MockMvcBuilders.standaloneSetup(new RewardFlightController(rewardFlightLatestRepository,
+                rewardFlightLatestHistoricRepository, routeVersionTracker, rewardCalendarService,
+                flexibleSearchService, roundTripSearchService)).build();
+    }
+
+    @Test
+    void calendar_shouldAnswerNotModifiedToTheCurrentTagUntilTheRouteChanges() throws Exception {
+        // Given
+        when(rewardCalendarService.calendar(eq("LHR"), eq("JFK"), any(), any(), any()))
+                .thenReturn(RewardCalendar.builder().origin("LHR").destination("JFK").build());
+        String etag = mockMvc.perform(get(CALENDAR))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When / Then: the tag held, strong or weak, is answered without a body
+        mockMvc.perform(get(CALENDAR).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get(CALENDAR).header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag))
+                .andExpect(status().isNotModified());
+
+        // When / Then: another representation of the route has its own tag
+        mockMvc.perform(get(CALENDAR).param("cabins", "ECONOMY").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+
+        // When / Then: a change to the route invalidates the tag
+        routeVersionTracker.bump(RouteKey.of("LHR", "JFK"));
+        mockMvc.perform(get(CALENDAR).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+        verify(rewardCalendarService, times(3)).calendar(eq("LHR"), eq("JFK"), any(), any(), any());
+    }
+
+    @Test
+    void flexibleSearch_shouldRejectALimitOutsideItsBounds() throws Exception {
+        mockMvc.perform(get("/api/v1/airline/vs/reward-flights/origin/LHR/cabin/ECONOMY/flexible")
+                        .param("date", "2025-10-01").param("limit", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/airline/vs/reward-flights/origin/LHR/cabin/ECONOMY/flexible")
+                        .param("date", "2025-10-01").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/airline/vs/reward-flights/origin/LHR/cabin/ECONOMY/flexible")
+                        .param("date", "2025-10-01").param("limit", "501"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(flexibleSearchService);
+    }
+
+    @Test
+    void flexibleSearch_shouldUpperCaseTheOrigin() throws Exception {
+        // Given
+        when(flexibleSearchService.search(eq("LHR"), eq(Set.of("JFK")), any(), any(), any(), eq(CabinType.ECONOMY), anyInt(), eq(10)))
+                .thenReturn(FlexibleSearchResult.builder().origin("LHR").build());
+
+        // When / Then
+        mockMvc.perform(get("/api/v1/airline/vs/reward-flights/origin/lhr/cabin/ECONOMY/flexible")
+                        .param("date", "2025-10-01").param("destinations", "jfk").param("limit", "10"))
+                .andExpect(status().isOk());
+        verify(flexibleSearchService).search("LHR", Set.of("JFK"), null, LocalDate.of(2025, 9, 28), LocalDate.of(2025, 10, 4),
+                CabinType.ECONOMY, 1, 10);
+    }
+
+    @Test
+    void roundTrip_shouldRejectALimitOutsideItsBounds() throws Exception {
+        mockMvc.perform(get("/api/v1/airline/vs/reward-flights/origin/LHR/destination/JFK/round-trip")
+                        .param("depart-from", "2025-10-01").param("depart-to", "2025-10-10").param("limit", "-1"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(roundTripSearchService);
+    }
+}
@@ -0,0 +1,64 @@
+package travel.rewardo.rewardapi.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.test.StepVerifier;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.stream.controller.StreamingController;
+import travel.rewardo.rewardapi.stream.model.RewardFlightLatest;
+import travel.rewardo.rewardapi.stream.service.PriceChangeEventService;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamingControllerTest {
+
+    private PriceChangeEventService priceChangeEventService;
+    private StreamingController controller;
+
+    @BeforeEach
+    void setUp() {
+        priceChangeEventService = new PriceChangeEventService();
+        controller = new StreamingController(priceChangeEventService);
+    }
+
+    @Test
+    void streamEvents_shouldRejectAMalformedFilterInsteadOfStreamingEveryRoute() {
+        // When
+        ResponseStatusException origin = assertThrows(ResponseStatusException.class,
+                () -> controller.streamEvents("LH", null));
+        ResponseStatusException destination = assertThrows(ResponseStatusException.class,
+                () -> controller.streamEvents(null, "J-K"));
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, origin.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, destination.getStatusCode());
+    }
+
+    @Test
+    void streamEvents_shouldOnlyEmitTheChangesOfTheFilteredRoute() {
+        // Given
+        emit("LHR", "BOS");
+        emit("LHR", "JFK");
+
+        // When / Then: lower case filters match too
+        StepVerifier.create(controller.streamEvents("lhr", "jfk").take(1))
+                .assertNext(event -> assertEquals("JFK", event.data().getSecond().getDestination()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private void emit(String origin, String destination) {
+        RewardFlightLatest flight = RewardFlightLatest.builder()
+                .routeKey(RouteKey.of(origin, destination))
+                .origin(origin)
+                .destination(destination)
+                .build();
+        priceChangeEventService.emitPriceChange(Optional.of(flight), Optional.of(flight));
+    }
+}
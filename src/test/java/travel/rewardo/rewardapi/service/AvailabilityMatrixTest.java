@@ -0,0 +1,149 @@
+package travel.rewardo.rewardapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import travel.rewardo.rewardapi.availability.service.AvailabilityMatrix;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardBusiness;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+import travel.rewardo.rewardapi.search.model.CabinCalendar;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityMatrixTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(10);
+    private static final long LHR_JFK = RouteKey.of("LHR", "JFK");
+
+    private AvailabilityMatrix matrix;
+
+    @BeforeEach
+    void setUp() {
+        matrix = new AvailabilityMatrix();
+    }
+
+    @Test
+    void encode_shouldRoundTripValues() {
+        long slot = AvailabilityMatrix.encode(DAY.toEpochDay(), 170000, 9, true);
+
+        assertTrue(AvailabilityMatrix.isPresent(slot));
+        assertEquals(170000, AvailabilityMatrix.points(slot));
+        assertEquals(9, AvailabilityMatrix.seats(slot));
+        assertTrue(AvailabilityMatrix.saver(slot));
+        assertEquals(0L, AvailabilityMatrix.encode(DAY.toEpochDay(), null, 9, true));
+    }
+
+    @Test
+    void read_shouldReturnColumnsForRequestedCabin() {
+        // Given
+        matrix.put(flight(DAY, 20000, 4, 90000, 1));
+        matrix.put(flight(DAY.plusDays(2), 25000, 0, null, null));
+
+        // When
+        CabinCalendar economy = matrix.read(LHR_JFK, DAY, DAY.plusDays(5), CabinType.ECONOMY);
+        CabinCalendar business = matrix.read(LHR_JFK, DAY, DAY.plusDays(5), CabinType.BUSINESS);
+
+        // Then
+        assertArrayEquals(new int[]{0, 2}, economy.getDayOffsets());
+        assertArrayEquals(new int[]{20000, 25000}, economy.getPoints());
+        assertArrayEquals(new int[]{4, 0}, economy.getSeats());
+        assertArrayEquals(new int[]{0}, business.getDayOffsets());
+        assertArrayEquals(new int[]{90000}, business.getPoints());
+        assertEquals(0, matrix.read(RouteKey.of("LHR", "BOS"), DAY, DAY.plusDays(5), CabinType.ECONOMY).getDayOffsets().length);
+    }
+
+    @Test
+    void read_shouldIgnoreSlotFromPreviousLapOfTheRing() {
+        // Given
+        matrix.put(flight(DAY, 20000, 4, null, null));
+
+        // When
+        LocalDate sameSlotNextLap = DAY.plusDays(AvailabilityMatrix.DAY_CAPACITY);
+        CabinCalendar calendar = matrix.read(LHR_JFK, sameSlotNextLap, sameSlotNextLap, CabinType.ECONOMY);
+
+        // Then
+        assertEquals(0, calendar.getDayOffsets().length);
+    }
+
+    @Test
+    void putIfAbsent_shouldNotOverwriteNewerValue() {
+        // Given
+        matrix.put(flight(DAY, 30000, 2, null, null));
+
+        // When
+        matrix.putIfAbsent(flight(DAY, 20000, 4, null, null));
+
+        // Then
+        assertArrayEquals(new int[]{30000}, matrix.read(LHR_JFK, DAY, DAY, CabinType.ECONOMY).getPoints());
+    }
+
+    @Test
+    void putIfAbsent_shouldNotOverwriteANewerDayWithoutEconomy() {
+        // Given a fresher scrape with business availability only
+        matrix.put(flight(DAY, null, null, 60000, 1));
+
+        // When the cold load brings an older row of the same day
+        matrix.putIfAbsent(flight(DAY, 20000, 4, 50000, 2));
+
+        // Then
+        assertArrayEquals(new int[]{60000}, matrix.read(LHR_JFK, DAY, DAY, CabinType.BUSINESS).getPoints());
+        assertEquals(0, matrix.read(LHR_JFK, DAY, DAY, CabinType.ECONOMY).getPoints().length);
+    }
+
+    @Test
+    void putIfAbsent_shouldFillADayLeftFromAnEarlierLapOfTheRing() {
+        // Given
+        matrix.put(flight(DAY.minusDays(AvailabilityMatrix.DAY_CAPACITY), null, null, 60000, 1));
+
+        // When
+        matrix.putIfAbsent(flight(DAY, 20000, 4, null, null));
+
+        // Then
+        assertArrayEquals(new int[]{20000}, matrix.read(LHR_JFK, DAY, DAY, CabinType.ECONOMY).getPoints());
+        assertEquals(0, matrix.read(LHR_JFK, DAY, DAY, CabinType.BUSINESS).getPoints().length);
+    }
+
+    @Test
+    void put_shouldKeepRoutesApartAsTheIndexGrows() {
+        // Given
+        for (int i = 0; i < 100; i++) {
+            RewardFlightLatest flight = flight(DAY, 10000 + i, 1, null, null);
+            flight.setDestination(String.format("D%02d", i));
+            matrix.put(flight);
+        }
+
+        // Then
+        assertEquals(100, matrix.routeCount());
+        for (int i = 0; i < 100; i++) {
+            long routeKey = RouteKey.of("LHR", String.format("D%02d", i));
+            assertArrayEquals(new int[]{10000 + i}, matrix.read(routeKey, DAY, DAY, CabinType.ECONOMY).getPoints());
+        }
+    }
+
+    @Test
+    void covers_shouldOnlyAcceptRangesInsideTheRing() {
+        LocalDate today = LocalDate.now();
+
+        assertTrue(matrix.covers(today, today.plusDays(365)));
+        assertFalse(matrix.covers(today.minusDays(AvailabilityMatrix.DAYS_BEHIND + 1), today));
+        assertFalse(matrix.covers(today, today.plusDays(AvailabilityMatrix.DAY_CAPACITY)));
+    }
+
+    private RewardFlightLatest flight(LocalDate departure, Integer economyPoints, Integer economySeats, Integer businessPoints, Integer businessSeats) {
+        return RewardFlightLatest.builder()
+                .origin("LHR")
+                .destination("JFK")
+                .carrierCode("VS")
+                .departure(departure)
+                .awardEconomy(AwardEconomy.builder().cabinPointsValue(economyPoints).cabinClassSeatCount(economySeats).build())
+                .awardBusiness(AwardBusiness.builder().cabinPointsValue(businessPoints).cabinClassSeatCount(businessSeats).build())
+                .build();
+    }
+}
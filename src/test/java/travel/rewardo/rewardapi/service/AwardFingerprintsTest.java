@@ -0,0 +1,86 @@
+package travel.rewardo.rewardapi.service;
+
+import org.junit.jupiter.api.Test;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.carrier.AwardFingerprints;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardBusiness;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.api.PointsDay;
+import travel.rewardo.rewardapi.scraper.vs.model.api.Seats;
+import travel.rewardo.rewardapi.scraper.vs.service.VirginAtlanticCarrier;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AwardFingerprintsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 1);
+
+    @Test
+    void fingerprintOf_shouldBeStableForEqualDays() {
+        assertEquals(VirginAtlanticCarrier.fingerprintOf(day(DAY, 20000, 4, 90000)), VirginAtlanticCarrier.fingerprintOf(day(DAY, 20000, 4, 90000)));
+    }
+
+    @Test
+    void fingerprintOf_shouldChangeWithPointsSeatsAndDay() {
+        long fingerprint = VirginAtlanticCarrier.fingerprintOf(day(DAY, 20000, 4, 90000));
+
+        assertNotEquals(fingerprint, VirginAtlanticCarrier.fingerprintOf(day(DAY, 21000, 4, 90000)));
+        assertNotEquals(fingerprint, VirginAtlanticCarrier.fingerprintOf(day(DAY, 20000, 3, 90000)));
+        assertNotEquals(fingerprint, VirginAtlanticCarrier.fingerprintOf(day(DAY, 20000, 4, null)));
+        assertNotEquals(fingerprint, VirginAtlanticCarrier.fingerprintOf(day(DAY.plusDays(1), 20000, 4, 90000)));
+    }
+
+    @Test
+    void fingerprintOf_shouldNotConfuseCabins() {
+        // The same values in a different cabin are a different day
+        PointsDay economyOnly = day(DAY, 20000, 4, null);
+        PointsDay businessOnly = PointsDay.builder()
+                .dateFound(DAY)
+                .seats(Seats.builder()
+                        .awardBusiness(AwardBusiness.builder().cabinPointsValue(20000).cabinClassSeatCount(4).build())
+                        .build())
+                .build();
+
+        assertNotEquals(VirginAtlanticCarrier.fingerprintOf(economyOnly), VirginAtlanticCarrier.fingerprintOf(businessOnly));
+    }
+
+    @Test
+    void matches_shouldOnlyMatchRecordedFingerprintOfTheSameDay() {
+        // Given
+        AtomicLongArray ring = new AwardFingerprints().forRoute(RouteKey.of("LHR", "JFK"));
+        long fingerprint = VirginAtlanticCarrier.fingerprintOf(day(DAY, 20000, 4, 90000));
+        long nextLap = DAY.toEpochDay() + AwardFingerprints.DAY_CAPACITY;
+
+        // When
+        AwardFingerprints.record(ring, DAY.toEpochDay(), fingerprint);
+
+        // Then
+        assertTrue(AwardFingerprints.matches(ring, DAY.toEpochDay(), fingerprint));
+        assertFalse(AwardFingerprints.matches(ring, DAY.toEpochDay(), VirginAtlanticCarrier.fingerprintOf(day(DAY, 20000, 5, 90000))));
+        assertFalse(AwardFingerprints.matches(ring, nextLap, VirginAtlanticCarrier.fingerprintOf(day(LocalDate.ofEpochDay(nextLap), 20000, 4, 90000))));
+    }
+
+    @Test
+    void forRoute_shouldReturnTheSameRingForTheSameRoute() {
+        AwardFingerprints fingerprints = new AwardFingerprints();
+
+        assertSame(fingerprints.forRoute(RouteKey.of("LHR", "JFK")), fingerprints.forRoute(RouteKey.of("LHR", "JFK")));
+    }
+
+    private PointsDay day(LocalDate date, Integer economyPoints, Integer economySeats, Integer businessPoints) {
+        return PointsDay.builder()
+                .dateFound(date)
+                .seats(Seats.builder()
+                        .awardEconomy(AwardEconomy.builder().cabinPointsValue(economyPoints).cabinClassSeatCount(economySeats).build())
+                        .awardBusiness(businessPoints != null ? AwardBusiness.builder().cabinPointsValue(businessPoints).build() : null)
+                        .build())
+                .build();
+    }
+}
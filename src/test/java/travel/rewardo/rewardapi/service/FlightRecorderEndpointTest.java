@@ -0,0 +1,111 @@
+package travel.rewardo.rewardapi.service;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import travel.rewardo.rewardapi.diagnostics.FlightRecorderEndpoint;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.stream.model.RewardFlightLatest;
+import travel.rewardo.rewardapi.stream.service.PriceChangeEventService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecorderEndpointTest {
+
+    private FlightRecorderEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new FlightRecorderEndpoint();
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.close();
+    }
+
+    @Test
+    void dump_shouldContainTheEventsRecordedSinceStart() throws Exception {
+        // Given
+        assertEquals(false, endpoint.status().get("running"));
+        endpoint.start("default", 60L);
+        assertEquals(true, endpoint.status().get("running"));
+
+        // When
+        new PriceChangeEventService().emitPriceChange(Optional.of(flight(10_000)), Optional.of(flight(12_500)));
+        Map<String, Object> dump = endpoint.dump();
+
+        // Then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of((String) dump.get("path")));
+        RecordedEvent emit = events.stream()
+                .filter(event -> event.getEventType().getName().equals("rewardo.stream.Emit"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("LHR-JFK", emit.getString("route"));
+        assertEquals("2025-10-01", emit.getString("departure"));
+        assertEquals("OK", emit.getString("result"));
+        assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().equals("jdk.InitialEnvironmentVariable")
+                || event.getEventType().getName().equals("jdk.InitialSystemProperty")));
+    }
+
+    @Test
+    void dump_shouldWriteEveryDumpToItsOwnFile() {
+        // Given
+        endpoint.start("default", 60L);
+
+        // When
+        Path first = Path.of((String) endpoint.dump().get("path"));
+        Path second = Path.of((String) endpoint.dump().get("path"));
+
+        // Then
+        assertNotEquals(first, second);
+        assertTrue(Files.exists(first));
+        assertTrue(Files.exists(second));
+
+        // And stopping deletes them
+        endpoint.stop();
+        assertFalse(Files.exists(first));
+        assertFalse(Files.exists(second));
+    }
+
+    @Test
+    void dump_shouldBeNotFoundWithoutARunningRecording() {
+        // When
+        Map<String, Object> dump = endpoint.dump();
+
+        // Then
+        assertNull(dump);
+
+        // And once stopped
+        endpoint.start(null, null);
+        assertTrue((Boolean) endpoint.status().get("running"));
+        assertFalse((Boolean) endpoint.stop().get("running"));
+        assertNull(endpoint.dump());
+    }
+
+    private static RewardFlightLatest flight(int points) {
+        return RewardFlightLatest.builder()
+                .routeKey(RouteKey.of("LHR", "JFK"))
+                .origin("LHR")
+                .destination("JFK")
+                .departure(LocalDate.of(2025, 10, 1))
+                .carrierCode("VS")
+                .scrapedAt(LocalDateTime.now())
+                .awardEconomy(travel.rewardo.rewardapi.stream.model.Award.builder().cabinPointsValue(points).build())
+                .build();
+    }
+}
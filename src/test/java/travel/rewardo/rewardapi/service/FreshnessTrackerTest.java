@@ -0,0 +1,245 @@
+package travel.rewardo.rewardapi.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.test.util.ReflectionTestUtils;
+import travel.rewardo.rewardapi.routes.model.Airport;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.carrier.ScrapeTask;
+import travel.rewardo.rewardapi.scraper.vs.model.data.ScrapeProgress;
+import travel.rewardo.rewardapi.scraper.vs.repository.ScrapeProgressRepository;
+import travel.rewardo.rewardapi.scraper.vs.service.FreshnessHealthIndicator;
+import travel.rewardo.rewardapi.scraper.vs.service.FreshnessTracker;
+import travel.rewardo.rewardapi.scraper.vs.service.RouteMonthFreshness;
+import travel.rewardo.rewardapi.scraper.vs.service.ScrapePlanner;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FreshnessTrackerTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 10);
+    private static final long NOW = 1_750_000_000_000L;
+
+    @Mock
+    private ScrapeProgressRepository scrapeProgressRepository;
+
+    private MeterRegistry meterRegistry;
+    private FreshnessTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new FreshnessTracker(scrapeProgressRepository, meterRegistry);
+    }
+
+    @Test
+    void freshness_shouldTrackSuccessesChangesAndErrorsPerRouteMonth() {
+        // Given
+        when(scrapeProgressRepository.findByCarrierCodeAndDepartureMonthGreaterThanEqual(eq("VS"), any()))
+                .thenReturn(Collections.emptyList());
+        tracker.track(routes("LHR", "JFK", "BOS"), TODAY, NOW);
+
+        // When
+        tracker.recordSuccess(task("LHR", "JFK", YearMonth.of(2025, 6)), 3, NOW + 2 * HOUR, NOW + HOUR);
+        tracker.recordSuccess(task("LHR", "JFK", YearMonth.of(2025, 7)), 0, NOW + 5 * HOUR, NOW + HOUR);
+        tracker.recordFailure(task("LHR", "JFK", YearMonth.of(2025, 7)), "Unexpected response code: 503", NOW + 2 * HOUR);
+
+        // Then
+        List<RouteMonthFreshness> freshness = tracker.freshness("LHR", "JFK", NOW + 3 * HOUR);
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, freshness.size());
+        // Never scraped months are as old as the tracking and come first
+        assertEquals(3 * 3600L, freshness.get(0).getStalenessSeconds());
+        RouteMonthFreshness june = find(freshness, "2025-06");
+        assertEquals(2 * 3600L, june.getStalenessSeconds());
+        assertEquals(3600L, june.getOverdueSeconds());
+        assertNotNull(june.getLastChangeAt());
+        assertNull(june.getLastError());
+        RouteMonthFreshness july = find(freshness, "2025-07");
+        assertEquals(2 * 3600L, july.getStalenessSeconds());
+        assertEquals(0L, july.getOverdueSeconds());
+        assertNull(july.getLastChangeAt());
+        assertEquals("Unexpected response code: 503", july.getLastError());
+        assertEquals(2 * ScrapePlanner.MONTHS_AHEAD, tracker.freshness(null, null, NOW).size());
+    }
+
+    @Test
+    void stats_shouldPublishTheStalenessDistribution() {
+        // Given one route-month restored from a scrape five hours ago, the rest tracked from now
+        when(scrapeProgressRepository.findByCarrierCodeAndDepartureMonthGreaterThanEqual(eq("VS"), any()))
+                .thenReturn(List.of(progress("LHR", "JFK", YearMonth.of(2025, 6), NOW - 5 * HOUR)));
+        tracker.track(routes("LHR", "JFK"), TODAY, NOW);
+        for (int offset = 1; offset < ScrapePlanner.MONTHS_AHEAD; offset++) {
+            tracker.recordSuccess(task("LHR", "JFK", YearMonth.of(2025, 6).plusMonths(offset)), 0, NOW + 48 * HOUR, NOW);
+        }
+
+        // When
+        FreshnessTracker.Stats stats = tracker.stats(NOW + HOUR);
+
+        // Then
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, stats.routeMonths());
+        assertEquals(3600L, stats.p50Seconds());
+        assertEquals(6 * 3600L, stats.p95Seconds());
+        assertEquals(6 * 3600L, stats.maxSeconds());
+        // The restored month carries no plan, so it is overdue by its staleness
+        assertEquals(6 * 3600L, stats.p95OverdueSeconds());
+        assertEquals(ScrapePlanner.MONTHS_AHEAD - 1, stats.withinBuckets()[0]);
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, stats.withinBuckets()[1]);
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, meterRegistry.get("scraper.freshness.route.months")
+                .tag("staleness", "any").gauge().value());
+    }
+
+    @Test
+    void health_shouldDegradeWhenTheP95OverdueExceedsTheThreshold() {
+        // Given
+        when(scrapeProgressRepository.findByCarrierCodeAndDepartureMonthGreaterThanEqual(eq("VS"), any()))
+                .thenReturn(Collections.emptyList());
+        FreshnessHealthIndicator indicator = new FreshnessHealthIndicator(tracker);
+        ReflectionTestUtils.setField(indicator, "maxP95OverdueMs", 0L);
+        tracker.track(routes("LHR", "JFK"), TODAY, NOW - 2 * HOUR);
+
+        // When
+        Health degraded = indicator.health();
+        ReflectionTestUtils.setField(indicator, "maxP95OverdueMs", 1_000_000_000_000L);
+        ReflectionTestUtils.setField(tracker, "statsComputedAt", 0L);
+        Health healthy = indicator.health();
+
+        // Then
+        assertEquals(FreshnessHealthIndicator.DEGRADED, degraded.getStatus());
+        assertEquals(Status.UP, healthy.getStatus());
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, healthy.getDetails().get("routeMonths"));
+    }
+
+    @Test
+    void health_shouldStayUpWhileStableMonthsWaitForTheirPlannedScrape() {
+        // Given every month scraped 30 hours ago and planned 48 hours out, far older than the threshold
+        when(scrapeProgressRepository.findByCarrierCodeAndDepartureMonthGreaterThanEqual(eq("VS"), any()))
+                .thenReturn(Collections.emptyList());
+        long now = System.currentTimeMillis();
+        FreshnessHealthIndicator indicator = new FreshnessHealthIndicator(tracker);
+        tracker.track(routes("LHR", "JFK"), TODAY, now - 30 * HOUR);
+        for (int offset = 0; offset < ScrapePlanner.MONTHS_AHEAD; offset++) {
+            tracker.recordSuccess(task("LHR", "JFK", YearMonth.of(2025, 6).plusMonths(offset)), 0, now + 18 * HOUR, now - 30 * HOUR);
+        }
+
+        // When
+        Health health = indicator.health();
+
+        // Then
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(30 * 3600L, health.getDetails().get("p95StalenessSeconds"));
+        assertEquals(0L, health.getDetails().get("p95OverdueSeconds"));
+    }
+
+    @Test
+    void health_shouldDegradeWhenAFailingMonthIsPastItsPlannedScrape() {
+        // Given every month planned an hour ago and still failing, which retries do not hide
+        when(scrapeProgressRepository.findByCarrierCodeAndDepartureMonthGreaterThanEqual(eq("VS"), any()))
+                .thenReturn(Collections.emptyList());
+        long now = System.currentTimeMillis();
+        FreshnessHealthIndicator indicator = new FreshnessHealthIndicator(tracker);
+        ReflectionTestUtils.setField(indicator, "maxP95OverdueMs", HOUR / 2);
+        tracker.track(routes("LHR", "JFK"), TODAY, now - 30 * HOUR);
+        for (int offset = 0; offset < ScrapePlanner.MONTHS_AHEAD; offset++) {
+            ScrapeTask task = task("LHR", "JFK", YearMonth.of(2025, 6).plusMonths(offset));
+            tracker.recordSuccess(task, 0, now - HOUR, now - 30 * HOUR);
+            tracker.recordFailure(task, "Unexpected response code: 503", now);
+        }
+
+        // When
+        Health health = indicator.health();
+
+        // Then
+        assertEquals(FreshnessHealthIndicator.DEGRADED, health.getStatus());
+        assertEquals(3600L, health.getDetails().get("p95OverdueSeconds"));
+    }
+
+    @Test
+    void refresh_shouldTakeTheLastSuccessesOtherInstancesRecorded() {
+        // Given
+        when(scrapeProgressRepository.findByCarrierCodeAndDepartureMonthGreaterThanEqual(eq("VS"), any()))
+                .thenReturn(Collections.emptyList());
+        tracker.track(routes("LHR", "JFK"), TODAY, NOW - 10 * HOUR);
+        ScrapeProgress peer = progress("LHR", "JFK", YearMonth.of(2025, 6), NOW - HOUR);
+        peer.setNextDueAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(NOW + 3 * HOUR), ZoneId.systemDefault()));
+        ScrapeProgress untracked = progress("LHR", "BOS", YearMonth.of(2025, 6), NOW - HOUR);
+        when(scrapeProgressRepository.findByCarrierCodeAndDepartureMonthGreaterThanEqual(eq("VS"), any()))
+                .thenReturn(List.of(peer, untracked));
+
+        // When
+        tracker.refresh(TODAY);
+
+        // Then
+        RouteMonthFreshness june = find(tracker.freshness("LHR", "JFK", NOW), "2025-06");
+        assertEquals(3600L, june.getStalenessSeconds());
+        assertEquals(0L, june.getOverdueSeconds());
+        assertNotNull(june.getNextDueAt());
+        assertEquals(0, tracker.freshness("LHR", "BOS", NOW).size());
+        assertEquals(10 * 3600L, tracker.stats(NOW).p95OverdueSeconds());
+    }
+
+    @Test
+    void track_shouldForgetRoutesNoLongerServed() {
+        // Given
+        when(scrapeProgressRepository.findByCarrierCodeAndDepartureMonthGreaterThanEqual(eq("VS"), any()))
+                .thenReturn(Collections.emptyList());
+        tracker.track(routes("LHR", "JFK", "BOS"), TODAY, NOW);
+
+        // When
+        tracker.track(routes("LHR", "JFK"), TODAY, NOW + HOUR);
+
+        // Then
+        assertEquals(0, tracker.freshness("LHR", "BOS", NOW + HOUR).size());
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, tracker.freshness(null, null, NOW + HOUR).size());
+    }
+
+    private static RouteMonthFreshness find(List<RouteMonthFreshness> freshness, String month) {
+        return freshness.stream().filter(f -> f.getMonth().equals(month)).findFirst().orElseThrow();
+    }
+
+    private static ScrapeTask task(String origin, String destination, YearMonth month) {
+        return new ScrapeTask(RouteKey.of(origin, destination), origin, destination, month,
+                (int) (month.getYear() * 12L + month.getMonthValue() - (TODAY.getYear() * 12L + TODAY.getMonthValue())), 1.0);
+    }
+
+    private static ScrapeProgress progress(String origin, String destination, YearMonth month, long lastSuccessAt) {
+        return ScrapeProgress.builder()
+                .id(ScrapePlanner.progressId(origin, destination, month))
+                .carrierCode("VS")
+                .origin(origin)
+                .destination(destination)
+                .departureMonth(month.atDay(1))
+                .lastSuccessAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(lastSuccessAt), ZoneId.systemDefault()))
+                .build();
+    }
+
+    private List<Route> routes(String origin, String... destinations) {
+        return List.of(Route.builder()
+                .origin(Airport.builder().airportCode(origin).build())
+                .destinations(Arrays.stream(destinations).map(code -> Airport.builder().airportCode(code).build()).toList())
+                .build());
+    }
+}
@@ -0,0 +1,127 @@
+package travel.rewardo.rewardapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import travel.rewardo.rewardapi.availability.service.AvailabilityMatrix;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.ScrapeProgressRepository;
+import travel.rewardo.rewardapi.scraper.vs.service.FreshnessTracker;
+import travel.rewardo.rewardapi.scraper.vs.service.PeerWriteCatchUp;
+import travel.rewardo.rewardapi.scraper.vs.service.RouteVersionTracker;
+import travel.rewardo.rewardapi.scraper.vs.service.ScrapeLeaseQueue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Saves rows as another instance would and checks they reach this instance's route versions and matrix.
+ */
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = PeerWriteCatchUpTest.JpaConfig.class)
+class PeerWriteCatchUpTest {
+
+    private static final LocalDate DEPARTURE = LocalDate.now().plusDays(10);
+
+    @SpringBootApplication(scanBasePackages = "none")
+    @EntityScan("travel.rewardo.rewardapi.scraper.vs.model.data")
+    @EnableJpaRepositories("travel.rewardo.rewardapi.scraper.vs.repository")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private RewardFlightLatestRepository rewardFlightLatestRepository;
+
+    @Autowired
+    private ScrapeProgressRepository scrapeProgressRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private RouteVersionTracker routeVersionTracker;
+    private AvailabilityMatrix matrix;
+    private ScrapeLeaseQueue leaseQueue;
+    private FreshnessTracker freshnessTracker;
+
+    @BeforeEach
+    void setUp() {
+        rewardFlightLatestRepository.deleteAll();
+        routeVersionTracker = new RouteVersionTracker();
+        matrix = new AvailabilityMatrix();
+        freshnessTracker = new FreshnessTracker(scrapeProgressRepository, new SimpleMeterRegistry());
+        leaseQueue = new ScrapeLeaseQueue(scrapeProgressRepository, null, transactionManager, "node-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        rewardFlightLatestRepository.deleteAll();
+    }
+
+    @Test
+    void catchUp_shouldBumpAndLoadTheRoutesAnotherInstanceScrapedInLeasedMode() {
+        // Given
+        ReflectionTestUtils.setField(leaseQueue, "mode", "leased");
+        PeerWriteCatchUp catchUp = new PeerWriteCatchUp(leaseQueue, rewardFlightLatestRepository, routeVersionTracker,
+                matrix, freshnessTracker, entityManager, transactionManager);
+        String etag = routeVersionTracker.routeETag("LHR", "JFK", "calendar");
+        rewardFlightLatestRepository.save(flight(12_000));
+
+        // When
+        catchUp.catchUp();
+
+        // Then
+        assertEquals(1L, routeVersionTracker.routeVersion("LHR", "JFK"));
+        assertNotEquals(etag, routeVersionTracker.routeETag("LHR", "JFK", "calendar"));
+        assertArrayEquals(new int[]{12_000},
+                matrix.read(RouteKey.of("LHR", "JFK"), DEPARTURE, DEPARTURE, CabinType.ECONOMY).getPoints());
+    }
+
+    @Test
+    void catchUp_shouldDoNothingOutsideLeasedMode() {
+        // Given
+        PeerWriteCatchUp catchUp = new PeerWriteCatchUp(leaseQueue, rewardFlightLatestRepository, routeVersionTracker,
+                matrix, freshnessTracker, entityManager, transactionManager);
+        rewardFlightLatestRepository.save(flight(12_000));
+
+        // When
+        catchUp.catchUp();
+
+        // Then
+        assertEquals(0L, routeVersionTracker.routeVersion("LHR", "JFK"));
+    }
+
+    private static RewardFlightLatest flight(int economyPoints) {
+        return RewardFlightLatest.builder()
+                .origin("LHR")
+                .destination("JFK")
+                .departure(DEPARTURE)
+                .carrierCode("VS")
+                .scrapedAt(LocalDateTime.now())
+                .awardEconomy(AwardEconomy.builder().cabinPointsValue(economyPoints).cabinClassSeatCount(2).isSaverAward(true).build())
+                .build();
+    }
+}
@@ -0,0 +1,167 @@
+package travel.rewardo.rewardapi.service;
+
+import io.r2dbc.pool.ConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import travel.rewardo.rewardapi.config.ReactiveReadConfig;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardBusiness;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatestHistoric;
+import travel.rewardo.rewardapi.scraper.vs.repository.ReactiveRewardFlightRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestHistoricRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes through JPA and reads back through H2 R2DBC from the same in-memory database, so the
+ * queries run against the schema Hibernate generates.
+ */
+@DataJpaTest(showSql = false, properties = "spring.datasource.url=jdbc:h2:mem:reactive-read;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = ReactiveRewardFlightRepositoryTest.JpaConfig.class)
+class ReactiveRewardFlightRepositoryTest {
+
+    private static final LocalDate DEPARTURE = LocalDate.of(2025, 10, 1);
+
+    @SpringBootApplication(scanBasePackages = "none")
+    @EntityScan("travel.rewardo.rewardapi.scraper.vs.model.data")
+    @EnableJpaRepositories("travel.rewardo.rewardapi.scraper.vs.repository")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private RewardFlightLatestRepository rewardFlightLatestRepository;
+
+    @Autowired
+    private RewardFlightLatestHistoricRepository historicRepository;
+
+    private ReactiveReadConfig config;
+
+    private ReactiveRewardFlightRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        deleteAll();
+        config = new ReactiveReadConfig();
+        ReflectionTestUtils.setField(config, "url", "r2dbc:h2:mem:///reactive-read;DB_CLOSE_DELAY=-1");
+        repository = new ReactiveRewardFlightRepository(config.reactiveDatabaseClient());
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll();
+        config.close();
+    }
+
+    @Test
+    void findLatest_shouldEmitTheRouteWindowInDepartureOrderWithCabins() {
+        // Given
+        for (int day = 4; day >= 0; day--) {
+            rewardFlightLatestRepository.save(RewardFlightLatest.builder()
+                    .origin("LHR")
+                    .destination("JFK")
+                    .departure(DEPARTURE.plusDays(day))
+                    .carrierCode("VS")
+                    .scrapedAt(LocalDateTime.now())
+                    .awardEconomy(AwardEconomy.builder().cabinPointsValue(10_000 + day).isSaverAward(true).cabinClassSeatCount(2).cabinClassSeatCountString("2").build())
+                    .awardBusiness(day % 2 == 0 ? AwardBusiness.builder().cabinPointsValue(50_000).isSaverAward(false).cabinClassSeatCount(1).build() : null)
+                    .build());
+        }
+        rewardFlightLatestRepository.save(RewardFlightLatest.builder()
+                .origin("LHR").destination("BOS").departure(DEPARTURE).carrierCode("VS").build());
+
+        // When / Then: the second page of two days within the first four
+        StepVerifier.create(repository.findLatest("LHR", "JFK", "VS", DEPARTURE, DEPARTURE.plusDays(3), 2, 2))
+                .assertNext(flight -> {
+                    assertEquals(DEPARTURE.plusDays(2), flight.getDeparture());
+                    assertEquals(10_002, flight.getAwardEconomy().getCabinPointsValue());
+                    assertEquals(true, flight.getAwardEconomy().getIsSaverAward());
+                    assertEquals("2", flight.getAwardEconomy().getCabinClassSeatCountString());
+                    assertEquals(50_000, flight.getAwardBusiness().getCabinPointsValue());
+                    assertNull(flight.getAwardPremiumEconomy());
+                    assertNull(flight.getAwardFirst());
+                })
+                .assertNext(flight -> {
+                    assertEquals(DEPARTURE.plusDays(3), flight.getDeparture());
+                    assertNull(flight.getAwardBusiness());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findHistoric_shouldEmitTheVersionsOfADepartureOldestFirst() {
+        // Given
+        LocalDateTime scrapedAt = LocalDateTime.of(2025, 6, 1, 12, 0);
+        for (int version = 2; version >= 0; version--) {
+            historicRepository.save(RewardFlightLatestHistoric.builder()
+                    .origin("LHR")
+                    .destination("JFK")
+                    .departure(DEPARTURE)
+                    .carrierCode("VS")
+                    .scrapedAt(scrapedAt.plusHours(version))
+                    .awardEconomy(AwardEconomy.builder().cabinPointsValue(10_000 * (version + 1)).build())
+                    .build());
+        }
+
+        // When / Then
+        StepVerifier.create(repository.findHistoric("LHR", "JFK", "VS", DEPARTURE, 0, 50)
+                        .map(flight -> flight.getAwardEconomy().getCabinPointsValue()))
+                .expectNext(10_000, 20_000, 30_000)
+                .verifyComplete();
+    }
+
+    @Test
+    void reactiveDatabaseClient_shouldServeConcurrentReadsFromTheBoundedPool() {
+        // Given
+        ReactiveReadConfig pooled = new ReactiveReadConfig();
+        ReflectionTestUtils.setField(pooled, "url", "r2dbc:h2:mem:///reactive-read;DB_CLOSE_DELAY=-1");
+        ReflectionTestUtils.setField(pooled, "maxSize", 1);
+        try {
+            DatabaseClient client = pooled.reactiveDatabaseClient();
+            ReactiveRewardFlightRepository pooledRepository = new ReactiveRewardFlightRepository(client);
+            rewardFlightLatestRepository.save(RewardFlightLatest.builder()
+                    .origin("LHR").destination("JFK").departure(DEPARTURE).carrierCode("VS").build());
+
+            // When / Then: the reads wait for the one connection instead of opening more
+            StepVerifier.create(Flux.merge(
+                            pooledRepository.findLatest("LHR", "JFK", "VS", DEPARTURE, DEPARTURE, 0, 10),
+                            pooledRepository.findLatest("LHR", "JFK", "VS", DEPARTURE, DEPARTURE, 0, 10),
+                            pooledRepository.findLatest("LHR", "JFK", "VS", DEPARTURE, DEPARTURE, 0, 10)))
+                    .expectNextCount(3)
+                    .verifyComplete();
+            ConnectionPool pool = assertInstanceOf(ConnectionPool.class, client.getConnectionFactory());
+            assertEquals(1, pool.getMetrics().orElseThrow().getMaxAllocatedSize());
+            assertTrue(pool.getMetrics().orElseThrow().allocatedSize() <= 1);
+        } finally {
+            pooled.close();
+        }
+    }
+
+    private void deleteAll() {
+        rewardFlightLatestRepository.deleteAll();
+        historicRepository.deleteAll();
+    }
+}
@@ -0,0 +1,43 @@
+package travel.rewardo.rewardapi.service;
+
+import org.junit.jupiter.api.Test;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.carrier.ResponseHashes;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseHashesTest {
+
+    private static final String BODY = "[{\"date\":\"2025-10-01\",\"pointsDays\":[{\"date\":\"2025-10-01\",\"minAwardPointsTotal\":20000}]}]";
+
+    @Test
+    void of_shouldDependOnBodyAndMonth() {
+        long hash = ResponseHashes.of(2025, 10, BODY);
+
+        assertEquals(hash, ResponseHashes.of(2025, 10, new String(BODY.toCharArray())));
+        assertNotEquals(hash, ResponseHashes.of(2025, 10, BODY.replace("20000", "20500")));
+        assertNotEquals(hash, ResponseHashes.of(2025, 11, BODY));
+        assertNotEquals(hash, ResponseHashes.of(2026, 10, BODY));
+    }
+
+    @Test
+    void matches_shouldOnlyMatchAfterRecord() {
+        // Given
+        AtomicLongArray ring = new ResponseHashes().forRoute(RouteKey.of("LHR", "JFK"));
+        long hash = ResponseHashes.of(2025, 10, BODY);
+        assertFalse(ResponseHashes.matches(ring, 2025, 10, hash));
+
+        // When
+        ResponseHashes.record(ring, 2025, 10, hash);
+
+        // Then
+        assertTrue(ResponseHashes.matches(ring, 2025, 10, hash));
+        assertFalse(ResponseHashes.matches(ring, 2025, 10, ResponseHashes.of(2025, 10, BODY + " ")));
+        assertFalse(ResponseHashes.matches(ring, 2026, 10, ResponseHashes.of(2026, 10, BODY)));
+    }
+}
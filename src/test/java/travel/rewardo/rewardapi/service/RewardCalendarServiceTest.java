@@ -0,0 +1,166 @@
+package travel.rewardo.rewardapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import travel.rewardo.rewardapi.availability.service.AvailabilityMatrix;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardBusiness;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardPremiumEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.search.model.CabinCalendar;
+import travel.rewardo.rewardapi.search.model.RewardCalendar;
+import travel.rewardo.rewardapi.search.service.RewardCalendarService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Builds calendars from rows saved through JPA, once from the range query and once from the
+ * availability matrix hydrated with the same rows.
+ */
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = RewardCalendarServiceTest.JpaConfig.class)
+class RewardCalendarServiceTest {
+
+    // Inside the days the matrix covers, so both paths can serve the same range
+    private static final LocalDate FROM = LocalDate.now().plusDays(10);
+    private static final LocalDate TO = FROM.plusDays(3);
+    private static final Set<CabinType> ALL_CABINS = EnumSet.allOf(CabinType.class);
+
+    @SpringBootApplication(scanBasePackages = "none")
+    @EntityScan("travel.rewardo.rewardapi.scraper.vs.model.data")
+    @EnableJpaRepositories("travel.rewardo.rewardapi.scraper.vs.repository")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private RewardFlightLatestRepository rewardFlightLatestRepository;
+
+    private AvailabilityMatrix matrix;
+    private RewardCalendarService service;
+
+    @BeforeEach
+    void setUp() {
+        rewardFlightLatestRepository.deleteAll();
+        matrix = new AvailabilityMatrix();
+        service = new RewardCalendarService(rewardFlightLatestRepository, matrix);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rewardFlightLatestRepository.deleteAll();
+    }
+
+    @Test
+    void calendar_shouldProjectTheRangeIntoColumnsPerCabin() {
+        // Given
+        saveRoute();
+
+        // When
+        RewardCalendar calendar = service.calendar("LHR", "JFK", FROM, TO, ALL_CABINS);
+
+        // Then: days without a points value are left out, missing seats and saver flags read as 0 and false
+        assertEquals(FROM, calendar.getFrom());
+        assertEquals(ALL_CABINS, calendar.getCabins().keySet());
+        CabinCalendar economy = calendar.getCabins().get(CabinType.ECONOMY);
+        assertArrayEquals(new int[]{0, 1, 3}, economy.getDayOffsets());
+        assertArrayEquals(new int[]{10_000, 12_000, 15_000}, economy.getPoints());
+        assertArrayEquals(new int[]{2, 0, 0}, economy.getSeats());
+        assertArrayEquals(new boolean[]{true, false, false}, economy.getSaver());
+        CabinCalendar business = calendar.getCabins().get(CabinType.BUSINESS);
+        assertArrayEquals(new int[]{0}, business.getDayOffsets());
+        assertArrayEquals(new int[]{50_000}, business.getPoints());
+        assertArrayEquals(new int[]{1}, business.getSeats());
+        assertArrayEquals(new boolean[]{false}, business.getSaver());
+        assertEquals(0, calendar.getCabins().get(CabinType.PREMIUM_ECONOMY).getDayOffsets().length);
+        assertEquals(0, calendar.getCabins().get(CabinType.FIRST).getDayOffsets().length);
+    }
+
+    @Test
+    void calendar_shouldOnlyIncludeTheRequestedCabins() {
+        // Given
+        saveRoute();
+
+        // When
+        RewardCalendar calendar = service.calendar("LHR", "JFK", FROM, TO, EnumSet.of(CabinType.BUSINESS));
+
+        // Then
+        assertEquals(Set.of(CabinType.BUSINESS), calendar.getCabins().keySet());
+    }
+
+    @Test
+    void calendar_shouldServeTheSameCalendarFromTheMatrixAsFromTheDatabase() {
+        // Given
+        saveRoute();
+        RewardCalendar fromDatabase = service.calendar("LHR", "JFK", FROM, TO, ALL_CABINS);
+        rewardFlightLatestRepository.findAll().forEach(matrix::put);
+        matrix.markReady();
+        // Served from the matrix alone from here on
+        rewardFlightLatestRepository.deleteAll();
+
+        // When
+        RewardCalendar fromMatrix = service.calendar("LHR", "JFK", FROM, TO, ALL_CABINS);
+
+        // Then
+        for (CabinType cabin : ALL_CABINS) {
+            CabinCalendar expected = fromDatabase.getCabins().get(cabin);
+            CabinCalendar actual = fromMatrix.getCabins().get(cabin);
+            assertArrayEquals(expected.getDayOffsets(), actual.getDayOffsets(), cabin.name());
+            assertArrayEquals(expected.getPoints(), actual.getPoints(), cabin.name());
+            assertArrayEquals(expected.getSeats(), actual.getSeats(), cabin.name());
+            assertArrayEquals(expected.getSaver(), actual.getSaver(), cabin.name());
+        }
+        assertEquals(3, fromMatrix.getCabins().get(CabinType.ECONOMY).getDayOffsets().length);
+    }
+
+    /**
+     * Four days of LHR-JFK inside the range, the days either side of it and another route on the first day.
+     */
+    private void saveRoute() {
+        rewardFlightLatestRepository.saveAll(List.of(
+                flight("JFK", FROM.minusDays(1), economy(9_000, 9, true), null),
+                flight("JFK", FROM, economy(10_000, 2, true), AwardBusiness.builder().cabinPointsValue(50_000).cabinClassSeatCount(1).isSaverAward(false).build()),
+                // Sold out: still priced, with no seats
+                flight("JFK", FROM.plusDays(1), economy(12_000, 0, false), null),
+                // Scraped, but no cabin has an award, as the scraper saves days without seats
+                flight("JFK", FROM.plusDays(2), AwardEconomy.builder().build(), null),
+                flight("JFK", FROM.plusDays(3), economy(15_000, null, null), null),
+                flight("JFK", TO.plusDays(1), economy(16_000, 4, true), null),
+                flight("BOS", FROM, economy(20_000, 5, true), null)));
+    }
+
+    private static AwardEconomy economy(Integer points, Integer seats, Boolean saver) {
+        return AwardEconomy.builder().cabinPointsValue(points).cabinClassSeatCount(seats).isSaverAward(saver).build();
+    }
+
+    private static RewardFlightLatest flight(String destination, LocalDate departure, AwardEconomy economy, AwardBusiness business) {
+        return RewardFlightLatest.builder()
+                .origin("LHR")
+                .destination(destination)
+                .departure(departure)
+                .carrierCode("VS")
+                .scrapedAt(LocalDateTime.now())
+                .awardEconomy(economy)
+                .awardPremiumEconomy(AwardPremiumEconomy.builder().build())
+                .awardBusiness(business)
+                .build();
+    }
+}
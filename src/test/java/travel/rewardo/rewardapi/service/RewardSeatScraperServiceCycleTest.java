@@ -0,0 +1,349 @@
+package travel.rewardo.rewardapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import travel.rewardo.rewardapi.availability.service.AvailabilityMatrix;
+import travel.rewardo.rewardapi.routes.client.RoutesApiClient;
+import travel.rewardo.rewardapi.routes.service.RoutesService;
+import travel.rewardo.rewardapi.scraper.service.RewardSeatScraperService;
+import travel.rewardo.rewardapi.scraper.service.ScraperMetrics;
+import travel.rewardo.rewardapi.scraper.vs.client.VirginAtlanticApiClient;
+import travel.rewardo.rewardapi.scraper.vs.model.api.PointsDay;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestHistoricRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.ScrapeProgressRepository;
+import travel.rewardo.rewardapi.scraper.vs.service.FreshnessTracker;
+import travel.rewardo.rewardapi.scraper.vs.service.RouteMonthFreshness;
+import travel.rewardo.rewardapi.scraper.vs.service.RouteVersionTracker;
+import travel.rewardo.rewardapi.scraper.vs.service.ScrapeLeaseQueue;
+import travel.rewardo.rewardapi.scraper.vs.service.ScrapePlanner;
+import travel.rewardo.rewardapi.scraper.vs.service.VirginAtlanticCarrier;
+import travel.rewardo.rewardapi.simulator.UpstreamSimulator;
+import travel.rewardo.rewardapi.stream.service.PriceChangeEventService;
+import travel.rewardo.rewardapi.upstream.UpstreamGuards;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs whole scrape cycles against the {@link UpstreamSimulator}, with the real clients and an
+ * in-memory database, and logs the throughput of each cycle.
+ */
+@Slf4j
+@DataJpaTest(showSql = false)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = RewardSeatScraperServiceCycleTest.JpaConfig.class)
+class RewardSeatScraperServiceCycleTest {
+
+    private static final int ORIGINS = 2;
+    private static final int DESTINATIONS_PER_ORIGIN = 2;
+    private static final int ROUTE_MONTHS = ORIGINS * DESTINATIONS_PER_ORIGIN * ScrapePlanner.MONTHS_AHEAD;
+
+    @SpringBootApplication(scanBasePackages = "none")
+    @EntityScan("travel.rewardo.rewardapi.scraper.vs.model.data")
+    @EnableJpaRepositories("travel.rewardo.rewardapi.scraper.vs.repository")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private RewardFlightLatestRepository rewardFlightLatestRepository;
+
+    @Autowired
+    private RewardFlightLatestHistoricRepository historicRepository;
+
+    @Autowired
+    private ScrapeProgressRepository scrapeProgressRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private UpstreamGuards upstreamGuards;
+    private ScrapePlanner planner;
+    private FreshnessTracker freshnessTracker;
+
+    @BeforeEach
+    void setUp() {
+        deleteAll();
+        meterRegistry = new SimpleMeterRegistry();
+        upstreamGuards = new UpstreamGuards();
+        ReflectionTestUtils.setField(upstreamGuards, "backoffBaseMs", 1L);
+        ReflectionTestUtils.setField(upstreamGuards, "backoffMaxMs", 5L);
+        planner = planner();
+        freshnessTracker = new FreshnessTracker(scrapeProgressRepository, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        deleteAll();
+    }
+
+    @Test
+    void fetchRewardSeats_shouldScrapeEveryRouteMonthAndSkipUnchangedResponses() throws Exception {
+        try (UpstreamSimulator simulator = simulator(0.0, 0.0)) {
+            // Given
+            RewardSeatScraperService scraper = scraper(simulator);
+
+            // When
+            runCycle(scraper, simulator);
+
+            // Then
+            assertEquals(ROUTE_MONTHS, simulator.calendarsServed());
+            assertEquals(ROUTE_MONTHS, months("processed"));
+            assertTrue(rewardFlightLatestRepository.count() > 0);
+            assertEquals(ROUTE_MONTHS, meterRegistry.get("scraper.decode").timer().count());
+            assertEquals(rewardFlightLatestRepository.count(), (long) meterRegistry.get("scraper.days").counter().count());
+            assertEquals(rewardFlightLatestRepository.count(), meterRegistry.get("scraper.db").tag("operation", "write").timer().count());
+            assertEquals(ROUTE_MONTHS, freshnessTracker.freshness(null, null, System.currentTimeMillis()).stream()
+                    .filter(freshness -> freshness.getLastSuccessAt() != null)
+                    .count());
+
+            // When nothing changed upstream
+            Thread.sleep(10L);
+            runCycle(scraper, simulator);
+
+            // Then
+            assertEquals(2L * ROUTE_MONTHS, simulator.calendarsServed());
+            assertEquals(ROUTE_MONTHS, months("unchanged"));
+            assertEquals(0L, historicRepository.count());
+            assertEquals(2L, meterRegistry.get("scraper.cycle.duration").timer().count());
+            assertEquals(2L * ORIGINS * DESTINATIONS_PER_ORIGIN, meterRegistry.get("scraper.route.duration").timer().count());
+        }
+    }
+
+    @Test
+    void fetchRewardSeats_shouldRecordChangesServedUpstream() throws Exception {
+        try (UpstreamSimulator simulator = simulator(0.2, 0.0)) {
+            // Given
+            RewardSeatScraperService scraper = scraper(simulator);
+            runCycle(scraper, simulator);
+
+            // When
+            Thread.sleep(10L);
+            runCycle(scraper, simulator);
+
+            // Then
+            assertEquals(2L * ROUTE_MONTHS, months("processed") + months("unchanged"));
+            assertTrue(months("processed") > ROUTE_MONTHS);
+            assertTrue(historicRepository.count() > 0);
+        }
+    }
+
+    @Test
+    void fetchRewardSeats_shouldRetryThroughUpstreamErrors() throws Exception {
+        try (UpstreamSimulator simulator = simulator(0.0, 0.2)) {
+            // Given
+            ReflectionTestUtils.setField(upstreamGuards, "maxAttempts", 10);
+            ReflectionTestUtils.setField(upstreamGuards, "failureThreshold", 1_000);
+            RewardSeatScraperService scraper = scraper(simulator);
+
+            // When
+            runCycle(scraper, simulator);
+
+            // Then
+            assertTrue(simulator.errorsServed() > 0);
+            assertEquals(ROUTE_MONTHS, months("processed"));
+        }
+    }
+
+    @Test
+    void fetchRewardSeats_shouldScrapeRoutePairsConcurrentlyWithinTheCarrierBudget() throws Exception {
+        try (UpstreamSimulator simulator = simulator(0.0, 0.0)) {
+            // Given
+            RewardSeatScraperService scraper = scraper(simulator, 3);
+
+            // When
+            runCycle(scraper, simulator);
+
+            // Then
+            assertEquals(ROUTE_MONTHS, simulator.calendarsServed());
+            assertEquals(ROUTE_MONTHS, months("processed"));
+            assertEquals(ORIGINS * DESTINATIONS_PER_ORIGIN, meterRegistry.get("scraper.route.duration").timer().count());
+            assertEquals(rewardFlightLatestRepository.count(), meterRegistry.get("scraper.db").tag("operation", "write").timer().count());
+        }
+    }
+
+    @Test
+    void fetchRewardSeats_shouldRecordAFailureAndGoOnWhenAMonthThrows() throws Exception {
+        assertFailedMonthsRecorded(1);
+    }
+
+    @Test
+    void fetchRewardSeats_shouldRecordAFailureAndKeepTheWorkerWhenAMonthThrows() throws Exception {
+        assertFailedMonthsRecorded(3);
+    }
+
+    @Test
+    void fetchRewardSeats_shouldKeepTheResponseHashesOfEveryCarrierApart() throws Exception {
+        try (UpstreamSimulator simulator = simulator(0.0, 0.0)) {
+            // Given a second carrier serving the same route pairs, with the same responses
+            ScrapePlanner otherPlanner = planner();
+            VirginAtlanticCarrier other = new VirginAtlanticCarrier(routesService(simulator), apiClient(simulator), otherPlanner,
+                    new ScrapeLeaseQueue(scrapeProgressRepository, otherPlanner, transactionManager, "test"),
+                    freshnessTracker, new AvailabilityMatrix(), new RouteVersionTracker()) {
+                @Override
+                public String carrierCode() {
+                    return "XX";
+                }
+            };
+            ReflectionTestUtils.setField(other, "requestDelayMs", 0L);
+            ReflectionTestUtils.setField(other, "routePairDelayMs", 0L);
+            RewardSeatScraperService scraper = new RewardSeatScraperService(List.of(carrier(simulator, 1), other),
+                    rewardFlightLatestRepository, historicRepository, new PriceChangeEventService(),
+                    new ScraperMetrics(meterRegistry), upstreamGuards);
+
+            // When
+            runCycle(scraper, simulator);
+
+            // Then neither carrier skips a month on the strength of the other's response
+            assertEquals(2L * ROUTE_MONTHS, simulator.calendarsServed());
+            assertEquals(ROUTE_MONTHS, months("VS", "processed"));
+            assertEquals(ROUTE_MONTHS, months("XX", "processed"));
+            assertEquals(0L, months("XX", "unchanged"));
+            assertNotSame(planner.responseHashes(), other.responseHashes());
+        }
+    }
+
+    private void assertFailedMonthsRecorded(int concurrency) throws Exception {
+        try (UpstreamSimulator simulator = simulator(0.0, 0.0)) {
+            // Given every fourth response fails to map
+            AtomicInteger responses = new AtomicInteger();
+            VirginAtlanticCarrier carrier = new VirginAtlanticCarrier(routesService(simulator), apiClient(simulator), planner,
+                    new ScrapeLeaseQueue(scrapeProgressRepository, planner, transactionManager, "test"),
+                    freshnessTracker, new AvailabilityMatrix(), new RouteVersionTracker()) {
+                @Override
+                public List<PointsDay> days(String responseBody) throws IOException {
+                    if (responses.incrementAndGet() % 4 == 0) {
+                        throw new IllegalStateException("Unexpected response");
+                    }
+                    return super.days(responseBody);
+                }
+            };
+            ReflectionTestUtils.setField(carrier, "requestDelayMs", 0L);
+            ReflectionTestUtils.setField(carrier, "routePairDelayMs", 0L);
+            ReflectionTestUtils.setField(carrier, "concurrency", concurrency);
+            RewardSeatScraperService scraper = new RewardSeatScraperService(List.of(carrier),
+                    rewardFlightLatestRepository, historicRepository, new PriceChangeEventService(),
+                    new ScraperMetrics(meterRegistry), upstreamGuards);
+
+            // When
+            runCycle(scraper, simulator);
+
+            // Then every route-month is still fetched, and each failed one is recorded as such
+            int failed = ROUTE_MONTHS / 4;
+            assertEquals(ROUTE_MONTHS, simulator.calendarsServed());
+            assertEquals(ROUTE_MONTHS - failed, months("processed"));
+            List<RouteMonthFreshness> freshness = freshnessTracker.freshness(null, null, System.currentTimeMillis());
+            assertEquals(failed, freshness.stream()
+                    .filter(routeMonth -> routeMonth.getLastSuccessAt() == null)
+                    .filter(routeMonth -> "java.lang.IllegalStateException: Unexpected response".equals(routeMonth.getLastError()))
+                    .count());
+        }
+    }
+
+    private UpstreamSimulator simulator(double changeRate, double errorRate) throws Exception {
+        return new UpstreamSimulator(UpstreamSimulator.Settings.builder()
+                .origins(ORIGINS)
+                .destinationsPerOrigin(DESTINATIONS_PER_ORIGIN)
+                .changeRate(changeRate)
+                .errorRate(errorRate)
+                .build());
+    }
+
+    private RewardSeatScraperService scraper(UpstreamSimulator simulator) {
+        return scraper(simulator, 1);
+    }
+
+    private RewardSeatScraperService scraper(UpstreamSimulator simulator, int concurrency) {
+        return new RewardSeatScraperService(List.of(carrier(simulator, concurrency)),
+                rewardFlightLatestRepository, historicRepository, new PriceChangeEventService(),
+                new ScraperMetrics(meterRegistry), upstreamGuards);
+    }
+
+    private VirginAtlanticCarrier carrier(UpstreamSimulator simulator, int concurrency) {
+        VirginAtlanticCarrier carrier = new VirginAtlanticCarrier(routesService(simulator), apiClient(simulator), planner,
+                new ScrapeLeaseQueue(scrapeProgressRepository, planner, transactionManager, "test"),
+                freshnessTracker, new AvailabilityMatrix(), new RouteVersionTracker());
+        ReflectionTestUtils.setField(carrier, "requestDelayMs", 0L);
+        ReflectionTestUtils.setField(carrier, "routePairDelayMs", 0L);
+        ReflectionTestUtils.setField(carrier, "concurrency", concurrency);
+        return carrier;
+    }
+
+    private ScrapePlanner planner() {
+        ScrapePlanner planner = new ScrapePlanner(historicRepository, scrapeProgressRepository);
+        // Everything is due again a few milliseconds after it was scraped
+        ReflectionTestUtils.setField(planner, "baseIntervalMs", 1L);
+        ReflectionTestUtils.setField(planner, "nearTermMaxBackoffMs", 1L);
+        ReflectionTestUtils.setField(planner, "maxBackoffMs", 1L);
+        return planner;
+    }
+
+    private RoutesService routesService(UpstreamSimulator simulator) {
+        RoutesApiClient routesApiClient = new RoutesApiClient(httpClient(), objectMapper());
+        ReflectionTestUtils.setField(routesApiClient, "routesApiUrl", simulator.routesUrl());
+        RoutesService routesService = new RoutesService(routesApiClient, event -> { });
+        routesService.refreshRoutes();
+        return routesService;
+    }
+
+    private VirginAtlanticApiClient apiClient(UpstreamSimulator simulator) {
+        VirginAtlanticApiClient apiClient = new VirginAtlanticApiClient(httpClient(), objectMapper(), upstreamGuards);
+        ReflectionTestUtils.setField(apiClient, "initialUrl", simulator.apiUrl());
+        return apiClient;
+    }
+
+    private static OkHttpClient httpClient() {
+        return new OkHttpClient.Builder().followRedirects(false).build();
+    }
+
+    private static ObjectMapper objectMapper() {
+        return new ObjectMapper().findAndRegisterModules();
+    }
+
+    private void runCycle(RewardSeatScraperService scraper, UpstreamSimulator simulator) {
+        long served = simulator.calendarsServed();
+        long start = System.nanoTime();
+        scraper.fetchRewardSeats();
+        long elapsedMs = Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        long months = simulator.calendarsServed() - served;
+        log.info("Scrape cycle over {} route pairs: {} route-months in {} ms, {} route-months/s",
+                simulator.routePairs(), months, elapsedMs, months * 1000 / elapsedMs);
+    }
+
+    private long months(String result) {
+        return months("VS", result);
+    }
+
+    private long months(String carrier, String result) {
+        return (long) meterRegistry.get("scraper.months").tag("carrier", carrier).tag("result", result).counter().count();
+    }
+
+    private void deleteAll() {
+        rewardFlightLatestRepository.deleteAll();
+        historicRepository.deleteAll();
+        scrapeProgressRepository.deleteAll();
+    }
+}
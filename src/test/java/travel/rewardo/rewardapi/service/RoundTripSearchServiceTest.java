@@ -0,0 +1,83 @@
+package travel.rewardo.rewardapi.service;
+
+import org.junit.jupiter.api.Test;
+import travel.rewardo.rewardapi.search.service.AwardSeries;
+import travel.rewardo.rewardapi.search.service.RoundTripSearchService;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RoundTripSearchServiceTest {
+
+    @Test
+    void cheapestReturns_shouldPickCheapestReturnWithinTripLength() {
+        // Given
+        AwardSeries outbound = series(new long[]{100, 101, 105}, new int[]{50000, 40000, 30000});
+        AwardSeries inbound = series(new long[]{102, 103, 104, 108, 120}, new int[]{60000, 20000, 25000, 20000, 10000});
+
+        // When
+        int[] returns = RoundTripSearchService.cheapestReturns(outbound, inbound, 2, 7);
+
+        // Then
+        assertEquals(1, returns[0]); // day 103 is the cheapest of 102..107, and earlier than day 108
+        assertEquals(1, returns[1]); // 103..108: 103 and 108 tie, the earliest wins
+        assertEquals(3, returns[2]); // 107..112: only day 108 fits
+    }
+
+    @Test
+    void cheapestReturns_shouldReturnMinusOneWhenNothingFits() {
+        // Given
+        AwardSeries outbound = series(new long[]{100}, new int[]{50000});
+        AwardSeries inbound = series(new long[]{101, 130}, new int[]{10000, 10000});
+
+        // When
+        int[] returns = RoundTripSearchService.cheapestReturns(outbound, inbound, 3, 10);
+
+        // Then
+        assertArrayEquals(new int[]{-1}, returns);
+    }
+
+    @Test
+    void cheapestReturns_shouldMatchBruteForce() {
+        Random random = new Random(42);
+        for (int run = 0; run < 200; run++) {
+            AwardSeries outbound = randomSeries(random, 60);
+            AwardSeries inbound = randomSeries(random, 80);
+            int minNights = random.nextInt(5);
+            int maxNights = minNights + random.nextInt(15);
+
+            int[] returns = RoundTripSearchService.cheapestReturns(outbound, inbound, minNights, maxNights);
+
+            for (int i = 0; i < outbound.size(); i++) {
+                int expected = -1;
+                for (int j = 0; j < inbound.size(); j++) {
+                    long nights = inbound.epochDay(j) - outbound.epochDay(i);
+                    if (nights >= minNights && nights <= maxNights
+                            && (expected < 0 || inbound.points(j) < inbound.points(expected))) {
+                        expected = j;
+                    }
+                }
+                assertEquals(expected, returns[i], "run " + run + ", outbound " + i);
+            }
+        }
+    }
+
+    private AwardSeries randomSeries(Random random, int days) {
+        long[] epochDays = new long[days];
+        int[] points = new int[days];
+        long day = 1000;
+        for (int i = 0; i < days; i++) {
+            day += 1 + random.nextInt(3);
+            epochDays[i] = day;
+            points[i] = 10000 * (1 + random.nextInt(8));
+        }
+        return series(epochDays, points);
+    }
+
+    private AwardSeries series(long[] epochDays, int[] points) {
+        int size = epochDays.length;
+        return new AwardSeries(epochDays, points, new int[size], new boolean[size], new byte[size]);
+    }
+}
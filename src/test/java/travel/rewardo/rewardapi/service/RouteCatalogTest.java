@@ -0,0 +1,72 @@
+package travel.rewardo.rewardapi.service;
+
+import org.junit.jupiter.api.Test;
+import travel.rewardo.rewardapi.routes.model.Airport;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.model.RouteCatalog;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteCatalogTest {
+
+    private static final Airport HEATHROW = new Airport("London Heathrow", "LHR", "United Kingdom");
+    private static final Airport MANCHESTER = new Airport("Manchester", "MAN", "United Kingdom");
+    private static final Airport NEW_YORK = new Airport("New York City", "JFK", "United States");
+    private static final Airport ORLANDO = new Airport("Orlando", "MCO", "United States");
+    private static final Airport BARBADOS = new Airport("Bridgetown", "BGI", "Barbados");
+
+    @Test
+    void of_shouldIndexRoutesByOriginDestinationAndCountry() {
+        // When
+        RouteCatalog catalog = RouteCatalog.of(List.of(
+                new Route(HEATHROW, List.of(NEW_YORK, ORLANDO, BARBADOS)),
+                new Route(MANCHESTER, List.of(ORLANDO))));
+
+        // Then
+        assertEquals(List.of(NEW_YORK, ORLANDO, BARBADOS), catalog.destinations("LHR"));
+        assertEquals(List.of(NEW_YORK, ORLANDO, BARBADOS), catalog.destinations("lhr"));
+        assertEquals(List.of(HEATHROW, MANCHESTER), catalog.origins("MCO"));
+        assertEquals(List.of(NEW_YORK, ORLANDO), catalog.airportsIn("united states"));
+        assertEquals(List.of(HEATHROW, MANCHESTER), catalog.airportsIn("United Kingdom"));
+        assertEquals(BARBADOS, catalog.airport("BGI"));
+        assertTrue(catalog.serves("MAN", "MCO"));
+        assertFalse(catalog.serves("MAN", "JFK"));
+        assertEquals(4, catalog.routePairCount());
+    }
+
+    @Test
+    void of_shouldSkipDuplicateAndMalformedDestinations() {
+        // When
+        RouteCatalog catalog = RouteCatalog.of(List.of(
+                new Route(HEATHROW, List.of(NEW_YORK, NEW_YORK, new Airport("Nowhere", null, "Nowhere"))),
+                new Route(HEATHROW, List.of(NEW_YORK, ORLANDO))));
+
+        // Then
+        assertEquals(List.of(NEW_YORK, ORLANDO), catalog.destinations("LHR"));
+        assertArrayEquals(new long[]{Math.min(RouteKey.of("LHR", "JFK"), RouteKey.of("LHR", "MCO")),
+                Math.max(RouteKey.of("LHR", "JFK"), RouteKey.of("LHR", "MCO"))}, catalog.routePairs());
+    }
+
+    @Test
+    void empty_shouldServeNothingAndStayUnmodifiable() {
+        // Given
+        RouteCatalog catalog = RouteCatalog.of(List.of(new Route(HEATHROW, List.of(NEW_YORK))));
+
+        // Then
+        assertTrue(RouteCatalog.EMPTY.isEmpty());
+        assertTrue(RouteCatalog.EMPTY.destinations("LHR").isEmpty());
+        assertNull(RouteCatalog.EMPTY.airport("LHR"));
+        assertFalse(RouteCatalog.EMPTY.serves(null, "JFK"));
+        assertThrows(UnsupportedOperationException.class, () -> catalog.destinations("LHR").add(ORLANDO));
+        catalog.routePairs()[0] = RouteKey.NONE;
+        assertTrue(catalog.serves("LHR", "JFK"));
+    }
+}
@@ -0,0 +1,48 @@
+package travel.rewardo.rewardapi.service;
+
+import org.junit.jupiter.api.Test;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RouteKeyTest {
+
+    @Test
+    void packIata_shouldRoundTripLettersAndDigits() {
+        assertEquals("LHR", RouteKey.unpackIata(RouteKey.packIata("LHR")));
+        assertEquals("ZZZ", RouteKey.unpackIata(RouteKey.packIata("ZZZ")));
+        assertEquals("A09", RouteKey.unpackIata(RouteKey.packIata("A09")));
+        assertNotEquals(RouteKey.packIata("LHR"), RouteKey.packIata("LGW"));
+    }
+
+    @Test
+    void packIata_shouldRejectMalformedCodes() {
+        assertEquals(RouteKey.NONE, RouteKey.packIata(null));
+        assertEquals(RouteKey.NONE, RouteKey.packIata("LH"));
+        assertEquals(RouteKey.NONE, RouteKey.packIata("LHRX"));
+        assertEquals(RouteKey.NONE, RouteKey.packIata("lhr"));
+        assertEquals(RouteKey.NONE, RouteKey.packIata("L-R"));
+        assertNull(RouteKey.unpackIata(RouteKey.NONE));
+    }
+
+    @Test
+    void of_shouldPackBothEndsOfTheRoute() {
+        // When
+        long routeKey = RouteKey.of("LHR", "JFK");
+
+        // Then
+        assertEquals("LHR", RouteKey.unpackIata(RouteKey.origin(routeKey)));
+        assertEquals("JFK", RouteKey.unpackIata(RouteKey.destination(routeKey)));
+        assertEquals("LHR-JFK", RouteKey.toString(routeKey));
+        assertEquals(RouteKey.of("JFK", "LHR"), RouteKey.reverse(routeKey));
+        assertNotEquals(routeKey, RouteKey.reverse(routeKey));
+    }
+
+    @Test
+    void of_shouldBeNoneWhenEitherEndIsMalformed() {
+        assertEquals(RouteKey.NONE, RouteKey.of("LHR", null));
+        assertEquals(RouteKey.NONE, RouteKey.of("??", "JFK"));
+    }
+}
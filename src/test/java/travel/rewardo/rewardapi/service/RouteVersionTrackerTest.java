@@ -0,0 +1,96 @@
+package travel.rewardo.rewardapi.service;
+
+import org.junit.jupiter.api.Test;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.vs.service.RouteVersionTracker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class RouteVersionTrackerTest {
+
+    @Test
+    void bump_shouldCountPerRouteAcrossGrowthOfTheIndex() {
+        // Given more routes than the initial capacity holds
+        RouteVersionTracker tracker = new RouteVersionTracker();
+        List<Long> routeKeys = new ArrayList<>();
+        for (char first = 'A'; first <= 'Z'; first++) {
+            for (char second = 'A'; second <= 'D'; second++) {
+                routeKeys.add(RouteKey.of("LHR", "" + first + second + "X"));
+            }
+        }
+
+        // When
+        for (int i = 0; i < routeKeys.size(); i++) {
+            for (int bumps = 0; bumps <= i % 3; bumps++) {
+                tracker.bump(routeKeys.get(i));
+            }
+        }
+        tracker.bump(RouteKey.NONE);
+
+        // Then
+        for (int i = 0; i < routeKeys.size(); i++) {
+            assertEquals(i % 3 + 1, tracker.routeVersion(routeKeys.get(i)));
+        }
+        assertEquals(0L, tracker.routeVersion("LHR", "SYD"));
+        assertEquals(0L, tracker.routeVersion(RouteKey.NONE));
+        assertEquals(routeKeys.stream().mapToLong(tracker::routeVersion).sum() + 1, tracker.globalVersion());
+    }
+
+    @Test
+    void routeETag_shouldTellApartQualifiersWhoseHashCodesOrStringsCollide() {
+        // Given
+        RouteVersionTracker tracker = new RouteVersionTracker();
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+
+        // When / Then
+        assertNotEquals(tracker.routeETag("LHR", "JFK", List.of("calendar", "Aa")),
+                tracker.routeETag("LHR", "JFK", List.of("calendar", "BB")));
+        assertNotEquals(tracker.globalETag(List.of("a, b")), tracker.globalETag(List.of("a", "b")));
+        assertNotEquals(tracker.globalETag(Arrays.asList("flexible", null)), tracker.globalETag(List.of("flexible", "null")));
+        assertEquals(tracker.routeETag("LHR", "JFK", List.of("calendar", "Aa")),
+                tracker.routeETag("LHR", "JFK", List.of("calendar", "Aa")));
+    }
+
+    @Test
+    void bump_shouldNotLoseConcurrentBumpsWhileRoutesAreRegistered() throws Exception {
+        // Given
+        RouteVersionTracker tracker = new RouteVersionTracker();
+        long hot = RouteKey.of("LHR", "JFK");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // When: one thread keeps registering new routes, growing the index, while the others bump one route
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                for (char first = 'A'; first <= 'Z'; first++) {
+                    for (char second = 'A'; second <= 'Z'; second++) {
+                        tracker.bump(RouteKey.of("LHR", "" + first + second + "X"));
+                    }
+                }
+            }));
+            for (int t = 0; t < 3; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        tracker.bump(hot);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertEquals(30_000L, tracker.routeVersion(hot));
+    }
+}
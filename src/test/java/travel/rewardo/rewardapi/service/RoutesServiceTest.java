@@ -3,11 +3,16 @@ package travel.rewardo.rewardapi.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import travel.rewardo.rewardapi.routes.client.RoutesApiClient;
+import travel.rewardo.rewardapi.routes.client.RoutesFetch;
 import travel.rewardo.rewardapi.routes.model.Airport;
 import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.routes.service.RoutesChangedEvent;
 import travel.rewardo.rewardapi.routes.service.RoutesService;
 
 import java.io.IOException;
@@ -15,9 +20,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,18 +34,21 @@ class RoutesServiceTest {
     @Mock
     private RoutesApiClient routesApiClient;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private RoutesService routesService;
 
     @BeforeEach
     void setUp() {
-        routesService = new RoutesService(routesApiClient);
+        routesService = new RoutesService(routesApiClient, eventPublisher);
     }
 
     @Test
     void getRoutes_shouldReturnCachedRoutes() throws IOException {
         // Given
         List<Route> mockRoutes = createMockRoutes();
-        when(routesApiClient.fetchRoutes()).thenReturn(mockRoutes);
+        when(routesApiClient.fetchRoutesIfChanged(any(), any())).thenReturn(RoutesFetch.modified(mockRoutes, null, null));
 
         // When
         List<Route> firstCall = routesService.getRoutes();
@@ -48,7 +59,7 @@ class RoutesServiceTest {
         assertEquals(1, firstCall.size());
         // We can't use assertSame here because the AtomicReference might return a different instance
         assertEquals(firstCall, secondCall); // Should return the same data
-        verify(routesApiClient, times(1)).fetchRoutes(); // Should only call the API once
+        verify(routesApiClient, times(1)).fetchRoutesIfChanged(any(), any()); // Should only call the API once
     }
 
     @Test
@@ -57,9 +68,9 @@ class RoutesServiceTest {
         List<Route> initialRoutes = createMockRoutes();
         List<Route> updatedRoutes = createUpdatedMockRoutes();
         
-        when(routesApiClient.fetchRoutes())
-            .thenReturn(initialRoutes)
-            .thenReturn(updatedRoutes);
+        when(routesApiClient.fetchRoutesIfChanged(any(), any()))
+            .thenReturn(RoutesFetch.modified(initialRoutes, null, null))
+            .thenReturn(RoutesFetch.modified(updatedRoutes, null, null));
 
         // When
         List<Route> firstCall = routesService.getRoutes();
@@ -75,15 +86,15 @@ class RoutesServiceTest {
         assertEquals("Manchester", afterRefresh.get(1).getOrigin().getCity());
         
         assertEquals(afterRefresh, secondCall); // Should return the updated cache
-        verify(routesApiClient, times(2)).fetchRoutes();
+        verify(routesApiClient, times(2)).fetchRoutesIfChanged(any(), any());
     }
 
     @Test
     void refreshRoutes_shouldHandleError() throws IOException {
         // Given
         List<Route> initialRoutes = createMockRoutes();
-        when(routesApiClient.fetchRoutes())
-            .thenReturn(initialRoutes)
+        when(routesApiClient.fetchRoutesIfChanged(any(), any()))
+            .thenReturn(RoutesFetch.modified(initialRoutes, null, null))
             .thenThrow(new IOException("API error"));
 
         // When
@@ -95,7 +106,54 @@ class RoutesServiceTest {
         assertEquals(1, firstCall.size());
         assertEquals(firstCall, afterError); // Should return the cached routes on error
         assertEquals(firstCall, secondCall); // Should still use the cached routes
-        verify(routesApiClient, times(2)).fetchRoutes();
+        verify(routesApiClient, times(2)).fetchRoutesIfChanged(any(), any());
+    }
+
+    @Test
+    void refreshRoutes_shouldKeepRoutesWhenNotModified() throws IOException {
+        // Given
+        List<Route> initialRoutes = createMockRoutes();
+        when(routesApiClient.fetchRoutesIfChanged(isNull(), isNull()))
+            .thenReturn(RoutesFetch.modified(initialRoutes, "\"v1\"", "Mon, 19 Oct 2026 10:00:00 GMT"));
+        when(routesApiClient.fetchRoutesIfChanged("\"v1\"", "Mon, 19 Oct 2026 10:00:00 GMT"))
+            .thenReturn(RoutesFetch.notModified("\"v1\"", "Mon, 19 Oct 2026 10:00:00 GMT"));
+
+        // When
+        List<Route> firstCall = routesService.refreshRoutes();
+        List<Route> afterRefresh = routesService.refreshRoutes();
+
+        // Then
+        assertSame(firstCall, afterRefresh);
+        verify(eventPublisher, times(1)).publishEvent(any(RoutesChangedEvent.class));
+    }
+
+    @Test
+    void refreshRoutes_shouldPublishAddedAndRemovedPairs() throws IOException {
+        // Given
+        Airport heathrow = new Airport("London Heathrow", "LHR", "United Kingdom");
+        Airport newYork = new Airport("New York City", "JFK", "United States");
+        Airport orlando = new Airport("Orlando", "MCO", "United States");
+        Airport barbados = new Airport("Bridgetown", "BGI", "Barbados");
+        when(routesApiClient.fetchRoutesIfChanged(any(), any()))
+            .thenReturn(RoutesFetch.modified(List.of(new Route(heathrow, List.of(newYork, orlando))), null, null))
+            .thenReturn(RoutesFetch.modified(List.of(new Route(heathrow, List.of(newYork, barbados))), null, null))
+            .thenReturn(RoutesFetch.modified(List.of(new Route(heathrow, List.of(newYork, barbados))), null, null));
+        ArgumentCaptor<RoutesChangedEvent> events = ArgumentCaptor.forClass(RoutesChangedEvent.class);
+
+        // When
+        routesService.refreshRoutes();
+        routesService.refreshRoutes();
+        routesService.refreshRoutes();
+
+        // Then
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        RoutesChangedEvent first = events.getAllValues().get(0);
+        assertEquals(2, first.getAddedPairs().length);
+        assertEquals(0, first.getRemovedPairs().length);
+        RoutesChangedEvent second = events.getAllValues().get(1);
+        assertArrayEquals(new long[]{RouteKey.of("LHR", "BGI")}, second.getAddedPairs());
+        assertArrayEquals(new long[]{RouteKey.of("LHR", "MCO")}, second.getRemovedPairs());
+        assertSame(second.getCatalog(), routesService.catalog());
     }
 
     private List<Route> createMockRoutes() {
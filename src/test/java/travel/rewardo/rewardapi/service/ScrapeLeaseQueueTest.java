@@ -0,0 +1,218 @@
+package travel.rewardo.rewardapi.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import travel.rewardo.rewardapi.routes.model.Airport;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.scraper.carrier.ScrapeTask;
+import travel.rewardo.rewardapi.scraper.vs.model.data.ScrapeProgress;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestHistoricRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.ScrapeProgressRepository;
+import travel.rewardo.rewardapi.scraper.vs.service.ScrapeLeaseQueue;
+import travel.rewardo.rewardapi.scraper.vs.service.ScrapePlanner;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs several lease queues against one database, as several instances would.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ContextConfiguration(classes = ScrapeLeaseQueueTest.JpaConfig.class)
+class ScrapeLeaseQueueTest {
+
+    private static final long LEASE_MS = 600_000L;
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 10);
+    private static final long NOW = TODAY.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+    @SpringBootApplication(scanBasePackages = "none")
+    @EntityScan("travel.rewardo.rewardapi.scraper.vs.model.data")
+    @EnableJpaRepositories("travel.rewardo.rewardapi.scraper.vs.repository")
+    static class JpaConfig {
+    }
+
+    @Autowired
+    private ScrapeProgressRepository scrapeProgressRepository;
+
+    @Autowired
+    private RewardFlightLatestHistoricRepository historicRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        scrapeProgressRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scrapeProgressRepository.deleteAll();
+    }
+
+    @Test
+    void claim_shouldHandEveryJobToExactlyOneWorker() throws Exception {
+        // Given
+        List<ScrapeLeaseQueue> queues = List.of(queue("node-1"), queue("node-2"), queue("node-3"));
+        List<Route> routes = routes("LHR", "JFK", "BOS", "LAX");
+        for (ScrapeLeaseQueue queue : queues) {
+            queue.enqueue(routes, TODAY, NOW);
+        }
+        assertEquals(3 * ScrapePlanner.MONTHS_AHEAD, scrapeProgressRepository.count());
+
+        // When
+        Map<String, AtomicInteger> claims = new ConcurrentHashMap<>();
+        ExecutorService workers = Executors.newFixedThreadPool(queues.size());
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (ScrapeLeaseQueue queue : queues) {
+                results.add(workers.submit(() -> {
+                    List<ScrapeTask> batch;
+                    while (!(batch = queue.claim(4, TODAY, NOW)).isEmpty()) {
+                        for (ScrapeTask task : batch) {
+                            claims.computeIfAbsent(id(task), key -> new AtomicInteger()).incrementAndGet();
+                            queue.record(task, 30, 0, 42L, NOW);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        // Then
+        assertEquals(3 * ScrapePlanner.MONTHS_AHEAD, claims.size());
+        claims.forEach((id, count) -> assertEquals(1, count.get(), id));
+        for (ScrapeProgress progress : scrapeProgressRepository.findAll()) {
+            assertNull(progress.getLeaseOwner());
+            assertEquals(42L, progress.getResponseHash());
+            assertTrue(progress.getNextDueAt().isAfter(TODAY.atTime(12, 0)));
+        }
+    }
+
+    @Test
+    void claim_shouldLetAnotherWorkerTakeOverAnExpiredLease() {
+        // Given
+        ScrapeLeaseQueue crashed = queue("node-1");
+        ScrapeLeaseQueue survivor = queue("node-2");
+        List<Route> routes = routes("LHR", "JFK");
+        crashed.enqueue(routes, TODAY, NOW);
+        survivor.enqueue(routes, TODAY, NOW);
+        List<ScrapeTask> abandoned = crashed.claim(ScrapePlanner.MONTHS_AHEAD, TODAY, NOW);
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, abandoned.size());
+
+        // When
+        List<ScrapeTask> whileLeased = survivor.claim(ScrapePlanner.MONTHS_AHEAD, TODAY, NOW + 1_000L);
+        List<ScrapeTask> afterExpiry = survivor.claim(ScrapePlanner.MONTHS_AHEAD, TODAY, NOW + LEASE_MS + 1_000L);
+        // The first worker comes back too late, its outcome must not overwrite the new lease
+        crashed.record(abandoned.get(0), 30, 30, 7L, NOW + LEASE_MS + 2_000L);
+
+        // Then
+        assertTrue(whileLeased.isEmpty());
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, afterExpiry.size());
+        ScrapeProgress progress = scrapeProgressRepository.findById(id(abandoned.get(0))).orElseThrow();
+        assertEquals("node-2", progress.getLeaseOwner());
+        assertNull(progress.getResponseHash());
+    }
+
+    @Test
+    void claim_shouldLeaveJobsOfRoutesNotServedHereToThePeersThatServeThem() {
+        // Given a peer that already serves BOS and an instance whose route list is older
+        ScrapeLeaseQueue updated = queue("node-1");
+        ScrapeLeaseQueue outdated = queue("node-2");
+        updated.enqueue(routes("LHR", "JFK", "BOS"), TODAY, NOW);
+        outdated.enqueue(routes("LHR", "JFK"), TODAY, NOW);
+
+        // When
+        List<ScrapeTask> claimedByOutdated = outdated.claim(ScrapePlanner.MONTHS_AHEAD, TODAY, NOW);
+        List<ScrapeTask> claimedByUpdated = updated.claim(ScrapePlanner.MONTHS_AHEAD, TODAY, NOW);
+
+        // Then
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, claimedByOutdated.size());
+        assertTrue(claimedByOutdated.stream().allMatch(task -> "JFK".equals(task.getDestination())));
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, claimedByUpdated.size());
+        assertTrue(claimedByUpdated.stream().allMatch(task -> "BOS".equals(task.getDestination())));
+        assertEquals(2 * ScrapePlanner.MONTHS_AHEAD, scrapeProgressRepository.count());
+    }
+
+    @Test
+    void claim_shouldDeleteJobsOfMonthsThatHavePassed() {
+        // Given
+        ScrapeLeaseQueue queue = queue("node-1");
+        queue.enqueue(routes("LHR", "JFK"), TODAY, NOW);
+
+        // When
+        List<ScrapeTask> claimed = queue.claim(100, TODAY.plusMonths(1), NOW);
+
+        // Then
+        assertEquals(ScrapePlanner.MONTHS_AHEAD - 1, claimed.size());
+        assertEquals(ScrapePlanner.MONTHS_AHEAD - 1, scrapeProgressRepository.count());
+        assertFalse(scrapeProgressRepository.findById(ScrapePlanner.progressId("LHR", "JFK", YearMonth.from(TODAY))).isPresent());
+    }
+
+    @Test
+    void forget_shouldDeleteTheJobsOfDroppedRoutePairs() {
+        // Given
+        ScrapeLeaseQueue queue = queue("node-1");
+        queue.enqueue(routes("LHR", "JFK", "BOS"), TODAY, NOW);
+
+        // When
+        int deleted = queue.forget(new long[]{RouteKey.of("LHR", "BOS")});
+
+        // Then
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, deleted);
+        assertTrue(scrapeProgressRepository.findAll().stream().allMatch(progress -> "JFK".equals(progress.getDestination())));
+    }
+
+    private ScrapeLeaseQueue queue(String owner) {
+        // Every node has its own planner, and with it its own response hashes and fingerprints
+        ScrapePlanner planner = new ScrapePlanner(historicRepository, scrapeProgressRepository);
+        ScrapeLeaseQueue queue = new ScrapeLeaseQueue(scrapeProgressRepository, planner, transactionManager, owner);
+        ReflectionTestUtils.setField(queue, "mode", "leased");
+        ReflectionTestUtils.setField(queue, "leaseDurationMs", LEASE_MS);
+        return queue;
+    }
+
+    private static String id(ScrapeTask task) {
+        return ScrapePlanner.progressId(task.getOrigin(), task.getDestination(), task.getMonth());
+    }
+
+    private static List<Route> routes(String origin, String... destinations) {
+        return List.of(Route.builder()
+                .origin(Airport.builder().airportCode(origin).build())
+                .destinations(Arrays.stream(destinations).map(code -> Airport.builder().airportCode(code).build()).toList())
+                .build());
+    }
+}
@@ -0,0 +1,195 @@
+package travel.rewardo.rewardapi.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import travel.rewardo.rewardapi.routes.model.Airport;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.scraper.carrier.ResponseHashes;
+import travel.rewardo.rewardapi.scraper.carrier.ScrapeTask;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RouteMonthChanges;
+import travel.rewardo.rewardapi.scraper.vs.model.data.ScrapeProgress;
+import travel.rewardo.rewardapi.scraper.vs.repository.RewardFlightLatestHistoricRepository;
+import travel.rewardo.rewardapi.scraper.vs.repository.ScrapeProgressRepository;
+import travel.rewardo.rewardapi.scraper.vs.service.ScrapePlanner;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScrapePlannerTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 10);
+    private static final long NOW = 1_750_000_000_000L;
+
+    @Mock
+    private RewardFlightLatestHistoricRepository historicRepository;
+
+    @Mock
+    private ScrapeProgressRepository scrapeProgressRepository;
+
+    private ResponseHashes responseHashes;
+
+    private ScrapePlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        planner = new ScrapePlanner(historicRepository, scrapeProgressRepository);
+        responseHashes = planner.responseHashes();
+        ReflectionTestUtils.setField(planner, "maxRequestsPerCycle", 0);
+    }
+
+    @Test
+    void plan_shouldScrapeEveryMonthOfEveryRouteAtFirst() {
+        // Given
+        when(historicRepository.countChangesByRouteMonth(eq("VS"), any(), any())).thenReturn(Collections.emptyList());
+
+        // When
+        List<ScrapeTask> tasks = planner.plan(routes("LHR", "JFK", "BOS"), TODAY, NOW);
+
+        // Then
+        assertEquals(2 * ScrapePlanner.MONTHS_AHEAD, tasks.size());
+        // Grouped by route pair, months in calendar order
+        assertEquals("JFK", tasks.get(0).getDestination());
+        assertEquals(YearMonth.of(2025, 6), tasks.get(0).getMonth());
+        assertEquals(YearMonth.of(2026, 5), tasks.get(ScrapePlanner.MONTHS_AHEAD - 1).getMonth());
+        assertEquals("BOS", tasks.get(ScrapePlanner.MONTHS_AHEAD).getDestination());
+    }
+
+    @Test
+    void plan_shouldSpendTheBudgetOnVolatileAndNearTermMonths() {
+        // Given
+        when(historicRepository.countChangesByRouteMonth(eq("VS"), any(), any())).thenReturn(List.of(
+                new RouteMonthChanges("LHR", "BOS", 2025, 12, 5000L)));
+        ReflectionTestUtils.setField(planner, "maxRequestsPerCycle", 5);
+
+        // When
+        List<ScrapeTask> tasks = planner.plan(routes("LHR", "JFK", "BOS"), TODAY, NOW);
+
+        // Then the volatile far-out month and the near-term months are chosen
+        assertEquals(5, tasks.size());
+        assertTrue(tasks.stream().anyMatch(task -> task.getDestination().equals("BOS") && task.getMonth().equals(YearMonth.of(2025, 12))));
+        assertTrue(tasks.stream().allMatch(task -> task.getMonthOffset() < 2 || task.getMonth().equals(YearMonth.of(2025, 12))));
+    }
+
+    @Test
+    void record_shouldBackOffUnchangedMonthsAndKeepChangingOnesDue() {
+        // Given
+        when(historicRepository.countChangesByRouteMonth(eq("VS"), any(), any())).thenReturn(Collections.emptyList());
+        List<ScrapeTask> tasks = planner.plan(routes("LHR", "JFK"), TODAY, NOW);
+        ScrapeTask changing = tasks.get(5);
+        for (ScrapeTask task : tasks) {
+            planner.record(task, 30, task == changing ? 3 : 0, 1L, NOW);
+        }
+
+        // When
+        List<ScrapeTask> afterOneInterval = planner.plan(routes("LHR", "JFK"), TODAY, NOW + HOUR);
+        List<ScrapeTask> afterTwoIntervals = planner.plan(routes("LHR", "JFK"), TODAY, NOW + 2 * HOUR);
+
+        // Then only the changing month is due again after one interval, the others after two
+        assertEquals(List.of(changing.getMonth()), afterOneInterval.stream().map(ScrapeTask::getMonth).toList());
+        assertEquals(ScrapePlanner.MONTHS_AHEAD, afterTwoIntervals.size());
+    }
+
+    @Test
+    void record_shouldCapBackoffLowerForNearTermMonths() {
+        // Given
+        when(historicRepository.countChangesByRouteMonth(eq("VS"), any(), any())).thenReturn(Collections.emptyList());
+        long now = NOW;
+        // Ten unchanged scrapes in a row, each one as soon as the months are due
+        for (int i = 0; i < 10; i++) {
+            now += 100 * HOUR;
+            for (ScrapeTask task : planner.plan(routes("LHR", "JFK"), TODAY, now)) {
+                planner.record(task, 30, 0, 1L, now);
+            }
+        }
+
+        // When
+        List<ScrapeTask> nearTermDue = planner.plan(routes("LHR", "JFK"), TODAY, now + 4 * HOUR);
+
+        // Then the near-term months are due within their four hour cap, the far-out ones are not
+        assertEquals(2, nearTermDue.size());
+        assertTrue(nearTermDue.stream().allMatch(task -> task.getMonthOffset() < 2));
+    }
+
+    @Test
+    void plan_shouldResumeFromPersistedProgressAfterRestart() {
+        // Given a previous run finished June and July but never reached the later months
+        when(historicRepository.countChangesByRouteMonth(eq("VS"), any(), any())).thenReturn(Collections.emptyList());
+        when(scrapeProgressRepository.findByCarrierCodeAndDepartureMonthGreaterThanEqual("VS", LocalDate.of(2025, 6, 1)))
+                .thenReturn(List.of(
+                        progress(YearMonth.of(2025, 6), NOW - HOUR / 2, NOW + HOUR / 2, 42L),
+                        progress(YearMonth.of(2025, 7), NOW - HOUR / 2, NOW + HOUR / 2, 43L)));
+
+        // When
+        List<ScrapeTask> tasks = planner.plan(routes("LHR", "JFK"), TODAY, NOW);
+
+        // Then the finished months are not scraped again and their response hashes are known
+        assertEquals(ScrapePlanner.MONTHS_AHEAD - 2, tasks.size());
+        assertTrue(tasks.stream().allMatch(task -> task.getMonthOffset() >= 2));
+        assertTrue(ResponseHashes.matches(responseHashes.forRoute(tasks.get(0).getRouteKey()), 2025, 6, 42L));
+    }
+
+    @Test
+    void record_shouldPersistProgress() {
+        // Given
+        when(historicRepository.countChangesByRouteMonth(eq("VS"), any(), any())).thenReturn(Collections.emptyList());
+        ScrapeTask task = planner.plan(routes("LHR", "JFK"), TODAY, NOW).get(0);
+
+        // When
+        planner.markAttempt(task, NOW);
+        planner.record(task, 30, 3, 42L, NOW);
+
+        // Then
+        verify(scrapeProgressRepository, atLeastOnce()).save(argThat(progress ->
+                progress.getId().equals("VS-LHR-JFK-2025-06")
+                        && Long.valueOf(42L).equals(progress.getResponseHash())
+                        && progress.getLastSuccessAt() != null
+                        && progress.getNextDueAt().equals(dateTime(NOW + HOUR))));
+    }
+
+    private ScrapeProgress progress(YearMonth month, long lastSuccessAt, long nextDueAt, long responseHash) {
+        return ScrapeProgress.builder()
+                .carrierCode("VS")
+                .origin("LHR")
+                .destination("JFK")
+                .departureMonth(month.atDay(1))
+                .lastAttemptAt(dateTime(lastSuccessAt))
+                .lastSuccessAt(dateTime(lastSuccessAt))
+                .responseHash(responseHash)
+                .changeRate(0.1)
+                .intervalMs(HOUR)
+                .nextDueAt(dateTime(nextDueAt))
+                .build();
+    }
+
+    private static LocalDateTime dateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private List<Route> routes(String origin, String... destinations) {
+        return List.of(Route.builder()
+                .origin(Airport.builder().airportCode(origin).build())
+                .destinations(Arrays.stream(destinations).map(code -> Airport.builder().airportCode(code).build()).toList())
+                .build());
+    }
+}
@@ -0,0 +1,165 @@
+package travel.rewardo.rewardapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import travel.rewardo.rewardapi.availability.service.AvailabilityMatrix;
+import travel.rewardo.rewardapi.routes.model.Airport;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.routes.model.RouteKey;
+import travel.rewardo.rewardapi.routes.service.RoutesService;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardBusiness;
+import travel.rewardo.rewardapi.scraper.vs.model.data.AwardEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.data.RewardFlightLatest;
+import travel.rewardo.rewardapi.scraper.vs.model.data.cabintype.CabinType;
+import travel.rewardo.rewardapi.search.model.CabinCalendar;
+import travel.rewardo.rewardapi.snapshot.WarmStartSnapshot;
+import travel.rewardo.rewardapi.snapshot.WarmStartSnapshotService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WarmStartSnapshotTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final List<Route> ROUTES = List.of(Route.builder()
+            .origin(Airport.builder().airportCode("LHR").city("London").country("United Kingdom").build())
+            .destinations(List.of(
+                    Airport.builder().airportCode("JFK").city("New York").country("United States").build(),
+                    Airport.builder().airportCode("BGI").city("Bridgetown").country(null).build()))
+            .build());
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void read_shouldReturnTheRoutesAndMatrixThatWereWritten() throws IOException {
+        // Given
+        AvailabilityMatrix matrix = new AvailabilityMatrix();
+        matrix.put(flight("LHR", "JFK", TODAY, 10_000, 75_000));
+        matrix.put(flight("LHR", "JFK", TODAY.plusDays(200), 12_000, null));
+        matrix.put(flight("LHR", "BGI", TODAY.plusDays(3), 20_000, null));
+        Path file = directory.resolve("warm-start.bin");
+
+        // When
+        WarmStartSnapshot.write(file, 1_750_000_000_000L, ROUTES, matrix);
+        WarmStartSnapshot snapshot = WarmStartSnapshot.read(file);
+        AvailabilityMatrix restored = new AvailabilityMatrix();
+        snapshot.restoreInto(restored);
+
+        // Then
+        assertEquals(1_750_000_000_000L, snapshot.createdAt());
+        assertEquals(ROUTES, snapshot.routes());
+        assertEquals(2, snapshot.matrixRouteCount());
+        for (CabinType cabin : CabinType.values()) {
+            assertCalendarEquals(matrix, restored, "LHR", "JFK", cabin);
+            assertCalendarEquals(matrix, restored, "LHR", "BGI", cabin);
+        }
+        assertEquals(2, read(restored, "LHR", "JFK", CabinType.ECONOMY).getPoints().length);
+    }
+
+    @Test
+    void restoreInto_shouldKeepDaysWrittenSinceStartup() throws IOException {
+        // Given
+        AvailabilityMatrix matrix = new AvailabilityMatrix();
+        matrix.put(flight("LHR", "JFK", TODAY, 10_000, null));
+        matrix.put(flight("LHR", "JFK", TODAY.plusDays(1), 11_000, null));
+        Path file = directory.resolve("warm-start.bin");
+        WarmStartSnapshot.write(file, System.currentTimeMillis(), ROUTES, matrix);
+        AvailabilityMatrix restored = new AvailabilityMatrix();
+        // Business only, so the day is held although its economy slot is empty
+        restored.put(flight("LHR", "JFK", TODAY, null, 80_000));
+
+        // When
+        WarmStartSnapshot.read(file).restoreInto(restored);
+
+        // Then
+        assertArrayEquals(new int[]{11_000}, read(restored, "LHR", "JFK", CabinType.ECONOMY).getPoints());
+        assertArrayEquals(new int[]{80_000}, read(restored, "LHR", "JFK", CabinType.BUSINESS).getPoints());
+    }
+
+    @Test
+    void read_shouldRejectACorruptedSnapshot() throws IOException {
+        // Given
+        AvailabilityMatrix matrix = new AvailabilityMatrix();
+        matrix.put(flight("LHR", "JFK", TODAY, 10_000, null));
+        Path file = directory.resolve("warm-start.bin");
+        WarmStartSnapshot.write(file, System.currentTimeMillis(), ROUTES, matrix);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+
+        // When / Then
+        IOException error = assertThrows(IOException.class, () -> WarmStartSnapshot.read(file));
+        assertTrue(error.getMessage().contains("corrupted"));
+    }
+
+    @Test
+    void restore_shouldServeTheSnapshotAndWriteItBack() {
+        // Given
+        Path file = directory.resolve("nested").resolve("warm-start.bin");
+        AvailabilityMatrix matrix = new AvailabilityMatrix();
+        matrix.put(flight("LHR", "JFK", TODAY, 10_000, null));
+        matrix.markReady();
+        RoutesService routesService = new RoutesService(null, null);
+        routesService.restore(ROUTES);
+        service(routesService, matrix, file).write();
+
+        // When
+        RoutesService restartedRoutes = new RoutesService(null, null);
+        AvailabilityMatrix restartedMatrix = new AvailabilityMatrix();
+        WarmStartSnapshotService restarted = service(restartedRoutes, restartedMatrix, file);
+        restarted.restore();
+
+        // Then
+        assertEquals(ROUTES, restartedRoutes.catalog().routes());
+        assertTrue(restartedMatrix.isReady());
+        assertTrue(restarted.matrixRestoredFrom().isPresent());
+        assertArrayEquals(new int[]{10_000}, read(restartedMatrix, "LHR", "JFK", CabinType.ECONOMY).getPoints());
+
+        // And without a snapshot the start is cold
+        WarmStartSnapshotService cold = service(new RoutesService(null, null), new AvailabilityMatrix(), directory.resolve("missing.bin"));
+        cold.restore();
+        assertFalse(cold.matrixRestoredFrom().isPresent());
+    }
+
+    private static WarmStartSnapshotService service(RoutesService routesService, AvailabilityMatrix matrix, Path file) {
+        WarmStartSnapshotService service = new WarmStartSnapshotService(routesService, matrix);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "path", file);
+        return service;
+    }
+
+    private static void assertCalendarEquals(AvailabilityMatrix expected, AvailabilityMatrix actual, String origin, String destination, CabinType cabin) {
+        CabinCalendar want = read(expected, origin, destination, cabin);
+        CabinCalendar got = read(actual, origin, destination, cabin);
+        assertArrayEquals(want.getDayOffsets(), got.getDayOffsets());
+        assertArrayEquals(want.getPoints(), got.getPoints());
+        assertArrayEquals(want.getSeats(), got.getSeats());
+        assertArrayEquals(want.getSaver(), got.getSaver());
+    }
+
+    private static CabinCalendar read(AvailabilityMatrix matrix, String origin, String destination, CabinType cabin) {
+        return matrix.read(RouteKey.of(origin, destination), TODAY, TODAY.plusDays(300), cabin);
+    }
+
+    private static RewardFlightLatest flight(String origin, String destination, LocalDate departure, Integer economy, Integer business) {
+        return RewardFlightLatest.builder()
+                .origin(origin)
+                .destination(destination)
+                .departure(departure)
+                .carrierCode("VS")
+                .awardEconomy(economy != null ? AwardEconomy.builder().cabinPointsValue(economy).cabinClassSeatCount(4).isSaverAward(true).build() : null)
+                .awardBusiness(business != null ? AwardBusiness.builder().cabinPointsValue(business).cabinClassSeatCount(1).isSaverAward(false).build() : null)
+                .build();
+    }
+}
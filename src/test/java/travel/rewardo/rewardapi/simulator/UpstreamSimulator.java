@@ -0,0 +1,288 @@
+package travel.rewardo.rewardapi.simulator;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Builder;
+import lombok.Getter;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import travel.rewardo.rewardapi.routes.model.Airport;
+import travel.rewardo.rewardapi.routes.model.Route;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardBusiness;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardCalendar;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardComfortPlusPremiumEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.api.AwardEconomy;
+import travel.rewardo.rewardapi.scraper.vs.model.api.FlightRequest;
+import travel.rewardo.rewardapi.scraper.vs.model.api.PointsDay;
+import travel.rewardo.rewardapi.scraper.vs.model.api.Seats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stand-in for the routes API and the Virgin Atlantic reward seat checker, for exercising
+ * the scrape pipeline at scale without touching either.
+ * <p>
+ * It speaks the same protocol as the real upstream: the POST of a {@link FlightRequest} is
+ * answered with a redirect and a session cookie, and the GET of the redirect, with the cookie,
+ * returns the award calendar of the requested route-month. Calendars are replayed from
+ * {@code ORIGIN-DESTINATION-yyyy-MM.json} files in the recordings directory when one exists, for
+ * instance bodies saved from {@code VirginAtlanticApiClient.fetchRewardSeatResponse}, and are
+ * synthesised otherwise.
+ * <p>
+ * Synthetic calendars are deterministic for a given seed. Every fetch of a route-month changes
+ * each of its days with probability {@code changeRate}, failures are served with probability
+ * {@code errorRate} and every response is delayed by {@code latencyMs}.
+ */
+public class UpstreamSimulator implements AutoCloseable {
+
+    public static final String ROUTES_PATH = "/routes";
+    public static final String API_PATH = "/reward-seat-checker-api/";
+    private static final String RESULTS_PATH = "/results";
+    private static final String COOKIE = "simulator-session";
+
+    @Getter
+    @Builder
+    public static class Settings {
+        @Builder.Default
+        private int origins = 10;
+        @Builder.Default
+        private int destinationsPerOrigin = 10;
+        @Builder.Default
+        private long latencyMs = 0L;
+        @Builder.Default
+        private double errorRate = 0.0;
+        @Builder.Default
+        private double changeRate = 0.0;
+        @Builder.Default
+        private long seed = 42L;
+        private Path recordings;
+    }
+
+    private final Settings settings;
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private final Random errors;
+    private final String routesJson;
+    private final Map<String, MonthState> months = new ConcurrentHashMap<>();
+    private final AtomicLong calendarsServed = new AtomicLong();
+    private final AtomicLong errorsServed = new AtomicLong();
+
+    public UpstreamSimulator(Settings settings) throws IOException {
+        this.settings = settings;
+        this.errors = new Random(settings.getSeed());
+        this.routesJson = objectMapper.writeValueAsString(routes());
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return delayed(handle(request));
+            }
+        });
+        server.start();
+    }
+
+    public String routesUrl() {
+        return server.url(ROUTES_PATH).toString();
+    }
+
+    public String apiUrl() {
+        return server.url(API_PATH).toString();
+    }
+
+    /**
+     * @return the number of route pairs served by the routes API
+     */
+    public int routePairs() {
+        return settings.getOrigins() * settings.getDestinationsPerOrigin();
+    }
+
+    public long calendarsServed() {
+        return calendarsServed.get();
+    }
+
+    public long errorsServed() {
+        return errorsServed.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse handle(RecordedRequest request) {
+        String path = request.getPath() != null ? request.getPath() : "";
+        try {
+            if ("GET".equals(request.getMethod()) && path.startsWith(ROUTES_PATH)) {
+                return json(routesJson);
+            }
+            if ("POST".equals(request.getMethod()) && path.startsWith(API_PATH)) {
+                if (failNow()) {
+                    errorsServed.incrementAndGet();
+                    return new MockResponse().setResponseCode(503);
+                }
+                FlightRequest flightRequest = objectMapper.readValue(request.getBody().readUtf8(), FlightRequest.class);
+                HttpUrl location = server.url(RESULTS_PATH).newBuilder()
+                        .addQueryParameter("origin", flightRequest.getSlice().getOrigin())
+                        .addQueryParameter("destination", flightRequest.getSlice().getDestination())
+                        .addQueryParameter("departure", flightRequest.getSlice().getDeparture())
+                        .addQueryParameter("year", String.valueOf(flightRequest.getYears().get(0)))
+                        .addQueryParameter("month", flightRequest.getMonths().get(0))
+                        .build();
+                return new MockResponse()
+                        .setResponseCode(302)
+                        .setHeader("Location", location.toString())
+                        .addHeader("Set-Cookie", "session=" + COOKIE + "; Path=/; HttpOnly");
+            }
+            if ("GET".equals(request.getMethod()) && path.startsWith(RESULTS_PATH)) {
+                String cookie = request.getHeader("Cookie");
+                if (cookie == null || !cookie.contains(COOKIE)) {
+                    return new MockResponse().setResponseCode(403);
+                }
+                HttpUrl url = request.getRequestUrl();
+                String origin = url.queryParameter("origin");
+                String destination = url.queryParameter("destination");
+                YearMonth month = YearMonth.of(Integer.parseInt(url.queryParameter("year")), Month.valueOf(url.queryParameter("month")));
+                LocalDate departure = LocalDate.parse(url.queryParameter("departure"));
+                calendarsServed.incrementAndGet();
+                return json(calendar(origin, destination, month, departure));
+            }
+            return new MockResponse().setResponseCode(404);
+        } catch (IOException | RuntimeException e) {
+            return new MockResponse().setResponseCode(400).setBody(String.valueOf(e.getMessage()));
+        }
+    }
+
+    private String calendar(String origin, String destination, YearMonth month, LocalDate departure) throws IOException {
+        if (settings.getRecordings() != null) {
+            Path recording = settings.getRecordings().resolve(origin + "-" + destination + "-" + month + ".json");
+            if (Files.exists(recording)) {
+                return Files.readString(recording);
+            }
+        }
+        return objectMapper.writeValueAsString(List.of(synthesise(origin, destination, month, departure)));
+    }
+
+    private AwardCalendar synthesise(String origin, String destination, YearMonth month, LocalDate departure) {
+        String key = origin + "-" + destination + "-" + month;
+        long monthSeed = settings.getSeed() ^ key.hashCode();
+        MonthState state = months.computeIfAbsent(key, k -> new MonthState(month.lengthOfMonth()));
+        List<PointsDay> pointsDays = new ArrayList<>();
+        synchronized (state) {
+            // The first fetch shows the initial calendar, every later one may move some days on
+            SplittableRandom random = new SplittableRandom(monthSeed + state.fetches);
+            for (int i = 0; i < state.generations.length; i++) {
+                if (state.fetches > 0 && random.nextDouble() < settings.getChangeRate()) {
+                    state.generations[i]++;
+                }
+                LocalDate day = month.atDay(i + 1);
+                if (!day.isBefore(departure)) {
+                    pointsDays.add(pointsDay(day, monthSeed + 31L * i, state.generations[i]));
+                }
+            }
+            state.fetches++;
+        }
+        return AwardCalendar.builder()
+                .dateFound(month.atDay(1))
+                .currency("GBP")
+                .monthFound(month.getMonth().toString())
+                .yearFound(String.valueOf(month.getYear()))
+                .pointsDays(pointsDays)
+                .build();
+    }
+
+    private static PointsDay pointsDay(LocalDate day, long daySeed, int generation) {
+        SplittableRandom random = new SplittableRandom(daySeed * 1_000_003L + generation);
+        int economy = 10_000 + 500 * random.nextInt(40);
+        return PointsDay.builder()
+                .dateFound(day)
+                .currency("GBP")
+                .minAwardPointsTotal(economy)
+                .seats(Seats.builder()
+                        .awardEconomy(AwardEconomy.builder()
+                                .cabinPointsValue(economy)
+                                .isSaverAward(random.nextBoolean())
+                                .cabinClassSeatCount(random.nextInt(10))
+                                .build())
+                        .awardComfortPlusPremiumEconomy(AwardComfortPlusPremiumEconomy.builder()
+                                .cabinPointsValue(economy * 2)
+                                .isSaverAward(false)
+                                .cabinClassSeatCount(random.nextInt(10))
+                                .build())
+                        .awardBusiness(AwardBusiness.builder()
+                                .cabinPointsValue(economy * 5)
+                                .isSaverAward(false)
+                                .cabinClassSeatCount(random.nextInt(10))
+                                .build())
+                        .build())
+                .build();
+    }
+
+    private List<Route> routes() {
+        List<Route> routes = new ArrayList<>();
+        for (int o = 0; o < settings.getOrigins(); o++) {
+            List<Airport> destinations = new ArrayList<>();
+            for (int d = 0; d < settings.getDestinationsPerOrigin(); d++) {
+                destinations.add(airport(settings.getOrigins() + o * settings.getDestinationsPerOrigin() + d));
+            }
+            routes.add(Route.builder().origin(airport(o)).destinations(destinations).build());
+        }
+        return routes;
+    }
+
+    /**
+     * @return an airport with a synthetic code, "AAA", "AAB" and so on
+     */
+    private static Airport airport(int index) {
+        char[] code = new char[3];
+        for (int i = 2; i >= 0; i--) {
+            code[i] = (char) ('A' + index % 26);
+            index /= 26;
+        }
+        return Airport.builder().airportCode(new String(code)).city("City " + new String(code)).country("XX").build();
+    }
+
+    private boolean failNow() {
+        synchronized (errors) {
+            return errors.nextDouble() < settings.getErrorRate();
+        }
+    }
+
+    private MockResponse delayed(MockResponse response) {
+        return settings.getLatencyMs() > 0 ? response.setHeadersDelay(settings.getLatencyMs(), TimeUnit.MILLISECONDS) : response;
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    /**
+     * How often a route-month has been fetched and how often each of its days has changed so far.
+     */
+    private static class MonthState {
+        private final int[] generations;
+        private int fetches;
+
+        private MonthState(int days) {
+            this.generations = new int[days];
+        }
+    }
+}